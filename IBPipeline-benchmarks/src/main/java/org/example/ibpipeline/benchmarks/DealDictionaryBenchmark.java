@@ -0,0 +1,120 @@
+package org.example.ibpipeline.benchmarks;
+
+import org.bson.Document;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.DocumentCodec;
+import org.example.ibpipeline.benchmarks.support.BenchmarkFixtures;
+import org.example.ibpipeline.benchmarks.support.InMemoryDictionaryRepository;
+import org.example.ibpipeline.config.MongoConfig;
+import org.example.ibpipeline.dto.DictionaryField;
+import org.example.ibpipeline.model.Deal;
+import org.example.ibpipeline.service.DealDictionary;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.boot.data.mongodb.autoconfigure.DataMongoProperties;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Deals with sector and dealType stored as strings (plain) or as dictionary codes (coded):
+ * decoding a page of 1000 BSON documents into Deals as MongoTemplate does, and writing the
+ * page as JSON. Setup also prints the average BSON document size and the heap retained by
+ * 100k decoded deals for each encoding.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class DealDictionaryBenchmark {
+
+    private static final int WORKING_SET = 100_000;
+
+    @Param({"plain", "coded"})
+    public String encoding;
+
+    @Param({"1000"})
+    public int pageSize;
+
+    private final DocumentCodec codec = new DocumentCodec();
+    private MappingMongoConverter converter;
+    private JsonMapper jsonMapper;
+    private List<RawBsonDocument> documents;
+    private List<Deal> page;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        DealDictionary dictionary = new DealDictionary(new InMemoryDictionaryRepository());
+        MongoCustomConversions conversions = "coded".equals(encoding)
+                ? new MongoConfig().mongoCustomConversions(
+                        new StaticListableBeanFactory().getBeanProvider(DataMongoProperties.class), dictionary)
+                : new MongoCustomConversions(List.of());
+        MongoMappingContext context = new MongoMappingContext();
+        context.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+        context.afterPropertiesSet();
+        converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, context);
+        converter.setCustomConversions(conversions);
+        converter.afterPropertiesSet();
+        jsonMapper = JsonMapper.builder().build();
+
+        List<String> sectors = DictionaryField.SECTOR.getDefaults();
+        List<String> dealTypes = DictionaryField.DEAL_TYPE.getDefaults();
+        SplittableRandom random = new SplittableRandom(42);
+        documents = new ArrayList<>(WORKING_SET);
+        long bytes = 0;
+        for (int i = 0; i < WORKING_SET; i++) {
+            Deal deal = BenchmarkFixtures.deal(0);
+            deal.setSector(sectors.get(random.nextInt(sectors.size())));
+            deal.setDealType(dealTypes.get(random.nextInt(dealTypes.size())));
+            Document document = new Document();
+            converter.write(deal, document);
+            RawBsonDocument raw = new RawBsonDocument(document, codec);
+            bytes += raw.getByteBuffer().remaining();
+            documents.add(raw);
+        }
+
+        long before = usedHeap();
+        List<Deal> workingSet = read(documents);
+        long retained = usedHeap() - before;
+        System.out.printf("%n%s: %d bytes per document, %d bytes of heap per decoded deal%n",
+                encoding, bytes / WORKING_SET, retained / workingSet.size());
+
+        documents = new ArrayList<>(documents.subList(0, pageSize));
+        page = read(documents);
+    }
+
+    @Benchmark
+    public List<Deal> readPage() {
+        return read(documents);
+    }
+
+    @Benchmark
+    public byte[] serializePage() {
+        return jsonMapper.writeValueAsBytes(page);
+    }
+
+    private List<Deal> read(List<RawBsonDocument> raw) {
+        List<Deal> deals = new ArrayList<>(raw.size());
+        for (RawBsonDocument document : raw) {
+            deals.add(converter.read(Deal.class, document.decode(codec)));
+        }
+        return deals;
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,33 @@
+package org.example.ibpipeline.benchmarks;
+
+import org.example.ibpipeline.benchmarks.support.BenchmarkFixtures;
+import org.example.ibpipeline.config.KafkaTopicConfig;
+import org.example.ibpipeline.event.DealEvent;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.util.concurrent.TimeUnit;
+
+/* DealEvent through the JsonSerializer KafkaConfig installs on the producer */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DealEventSerializationBenchmark {
+
+    private JsonSerializer<DealEvent> serializer;
+    private DealEvent event;
+
+    @Setup
+    public void setUp() {
+        serializer = BenchmarkFixtures.dealEventSerializer();
+        event = BenchmarkFixtures.dealEvent();
+    }
+
+    @Benchmark
+    public byte[] serialize() {
+        return serializer.serialize(KafkaTopicConfig.DEAL_EVENTS_TOPIC, event);
+    }
+}
@@ -0,0 +1,35 @@
+package org.example.ibpipeline.benchmarks;
+
+import org.example.ibpipeline.benchmarks.support.BenchmarkFixtures;
+import org.example.ibpipeline.model.Deal;
+import org.openjdk.jmh.annotations.*;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.concurrent.TimeUnit;
+
+/* Deal through the Jackson 3 mapper Spring MVC uses for responses, with growing note lists */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DealSerializationBenchmark {
+
+    @Param({"0", "100", "1000"})
+    public int noteCount;
+
+    private JsonMapper jsonMapper;
+    private Deal deal;
+
+    @Setup
+    public void setUp() {
+        jsonMapper = JsonMapper.builder().build();
+        deal = BenchmarkFixtures.deal(noteCount);
+    }
+
+    @Benchmark
+    public byte[] serialize() {
+        return jsonMapper.writeValueAsBytes(deal);
+    }
+}
@@ -0,0 +1,75 @@
+package org.example.ibpipeline.benchmarks;
+
+import org.example.ibpipeline.benchmarks.support.BenchmarkFixtures;
+import org.example.ibpipeline.benchmarks.support.InMemoryDealRepository;
+import org.example.ibpipeline.model.Deal;
+import org.example.ibpipeline.model.DealStage;
+import org.example.ibpipeline.service.DealService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * DealService against the in-memory repository, so the numbers cover the service's own
+ * work (cache, copies, event building and serialization) without Mongo or Kafka round trips.
+ * cacheSize=0 disables DealCache.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DealServiceBenchmark {
+
+    private static final int DEAL_COUNT = 10_000;
+    private static final DealStage[] STAGES = DealStage.values();
+
+    @Param({"0", "10000"})
+    public int cacheSize;
+
+    private DealService dealService;
+    private List<String> ids;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        InMemoryDealRepository repository = new InMemoryDealRepository();
+        ids = new ArrayList<>(DEAL_COUNT);
+        for (int i = 0; i < DEAL_COUNT; i++) {
+            Deal deal = BenchmarkFixtures.deal(5);
+            deal.setVersion(null);
+            ids.add(repository.save(deal).getId());
+        }
+        dealService = BenchmarkFixtures.dealService(repository, cacheSize);
+    }
+
+    @Benchmark
+    public Deal getDealById() {
+        return dealService.getDealById(randomId());
+    }
+
+    @Benchmark
+    public Deal createDeal() {
+        Deal deal = BenchmarkFixtures.deal(0);
+        deal.setId(null);
+        return dealService.createDeal(deal, "analyst1");
+    }
+
+    @Benchmark
+    public Deal updateStage() {
+        DealStage stage = STAGES[ThreadLocalRandom.current().nextInt(3)];
+        return dealService.updateStage(randomId(), stage);
+    }
+
+    @Benchmark
+    public Deal addNote() {
+        return dealService.addNote(randomId(), "analyst1", "Client asked for a revised model");
+    }
+
+    private String randomId() {
+        return ids.get(ThreadLocalRandom.current().nextInt(ids.size()));
+    }
+}
@@ -0,0 +1,93 @@
+package org.example.ibpipeline.benchmarks;
+
+import org.example.ibpipeline.dto.DealCard;
+import org.example.ibpipeline.dto.SuggestField;
+import org.example.ibpipeline.dto.Suggestion;
+import org.example.ibpipeline.model.DealStage;
+import org.example.ibpipeline.service.DealSuggestIndex;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Typeahead lookups and updates on DealSuggestIndex with 1M deals over 100k distinct client
+ * names (skewed, so some prefixes hold thousands of names), 12 sectors and 6 deal types.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class DealSuggestBenchmark {
+
+    private static final String[] SECTORS = {"Technology", "Healthcare", "Energy", "Financials", "Industrials",
+            "Consumer", "Utilities", "Materials", "Real Estate", "Telecom", "Media", "Transportation"};
+    private static final String[] DEAL_TYPES = {"M&A", "IPO", "Debt", "Follow-on", "LBO", "Restructuring"};
+    private static final String[] WORDS = {"Acme", "Apex", "Atlas", "Beacon", "Bridge", "Cedar", "Crest",
+            "Delta", "Eagle", "Summit", "Harbor", "Meridian", "Northstar", "Pinnacle", "Vertex", "Zenith"};
+    private static final String[] SUFFIXES = {"Holdings", "Partners", "Capital", "Group", "Industries", "Labs"};
+
+    @Param({"1000000"})
+    public int dealCount;
+
+    @Param({"100000"})
+    public int clientCount;
+
+    private DealSuggestIndex index;
+    private String[] clients;
+    private String[] prefixes;
+    private DealCard original;
+    private DealCard renamed;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        index = new DealSuggestIndex();
+        SplittableRandom random = new SplittableRandom(42);
+        clients = new String[clientCount];
+        for (int i = 0; i < clientCount; i++) {
+            clients[i] = WORDS[random.nextInt(WORDS.length)] + " " + SUFFIXES[random.nextInt(SUFFIXES.length)] + " " + i;
+        }
+        for (int i = 0; i < dealCount; i++) {
+            // squared draw: a few clients get most of the deals
+            double skew = random.nextDouble();
+            index.cardChanged(null, card(Integer.toString(i), clients[(int) (skew * skew * clientCount)],
+                    SECTORS[random.nextInt(SECTORS.length)], DEAL_TYPES[random.nextInt(DEAL_TYPES.length)]));
+        }
+
+        prefixes = new String[1024];
+        for (int i = 0; i < prefixes.length; i++) {
+            String client = clients[random.nextInt(clientCount)];
+            prefixes[i] = client.substring(0, 1 + random.nextInt(Math.min(client.length(), 12)));
+        }
+        original = card("bench", clients[0], "Technology", "M&A");
+        renamed = card("bench", clients[1], "Healthcare", "IPO");
+        index.cardChanged(null, original);
+    }
+
+    @Benchmark
+    public List<Suggestion> suggestClientName() {
+        return index.suggest(SuggestField.CLIENT_NAME, prefixes[next++ & (prefixes.length - 1)], 10);
+    }
+
+    @Benchmark
+    public List<Suggestion> suggestSector() {
+        return index.suggest(SuggestField.SECTOR, "te", 10);
+    }
+
+    /* One deal renamed back and forth: three decrements and three increments per call */
+    @Benchmark
+    public DealSuggestIndex updateDeal() {
+        index.cardChanged(original, renamed);
+        index.cardChanged(renamed, original);
+        return index;
+    }
+
+    private static DealCard card(String id, String clientName, String sector, String dealType) {
+        return new DealCard(id, 0L, clientName, sector, dealType, null, DealStage.Prospect, null, null, Instant.EPOCH);
+    }
+}
@@ -0,0 +1,92 @@
+package org.example.ibpipeline.benchmarks;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.ibpipeline.dto.DealCard;
+import org.example.ibpipeline.dto.DuplicateCandidate;
+import org.example.ibpipeline.model.DealStage;
+import org.example.ibpipeline.service.DuplicateDealIndex;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * DuplicateDealIndex with 1M deals over 100k client names in 12 sectors: the lookup done on
+ * every create (a misspelt existing client, and a new one), and one full duplicate scan.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class DuplicateDealBenchmark {
+
+    private static final String[] SECTORS = {"Technology", "Healthcare", "Energy", "Financials", "Industrials",
+            "Consumer", "Utilities", "Materials", "Real Estate", "Telecom", "Media", "Transportation"};
+    private static final String[] WORDS = {"Acme", "Apex", "Atlas", "Beacon", "Bridge", "Cedar", "Crest",
+            "Delta", "Eagle", "Summit", "Harbor", "Meridian", "Northstar", "Pinnacle", "Vertex", "Zenith"};
+    private static final String[] SUFFIXES = {"Holdings", "Partners", "Capital", "Group", "Industries", "Labs"};
+
+    @Param({"1000000"})
+    public int dealCount;
+
+    @Param({"100000"})
+    public int clientCount;
+
+    private DuplicateDealIndex index;
+    private String[] misspelt;
+    private String[] sectors;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        index = new DuplicateDealIndex(new SimpleMeterRegistry());
+        SplittableRandom random = new SplittableRandom(42);
+        String[] clients = new String[clientCount];
+        String[] clientSectors = new String[clientCount];
+        for (int i = 0; i < clientCount; i++) {
+            clients[i] = WORDS[random.nextInt(WORDS.length)] + " " + SUFFIXES[random.nextInt(SUFFIXES.length)]
+                    + " " + Integer.toString(i, 36);
+            clientSectors[i] = SECTORS[random.nextInt(SECTORS.length)];
+        }
+        for (int i = 0; i < dealCount; i++) {
+            int client = random.nextInt(clientCount);
+            index.cardChanged(null, new DealCard(Integer.toString(i), 0L, clients[client], clientSectors[client],
+                    "M&A", null, DealStage.Prospect, null, null, Instant.EPOCH));
+        }
+
+        misspelt = new String[1024];
+        sectors = new String[misspelt.length];
+        for (int i = 0; i < misspelt.length; i++) {
+            int client = random.nextInt(clientCount);
+            String name = clients[client];
+            int at = random.nextInt(name.length());
+            misspelt[i] = name.substring(0, at) + name.substring(at + 1) + " Inc.";
+            sectors[i] = clientSectors[client];
+        }
+    }
+
+    @Benchmark
+    public List<DuplicateCandidate> findSimilarToExisting() {
+        int i = next++ & (misspelt.length - 1);
+        return index.findSimilar(misspelt[i], sectors[i], null);
+    }
+
+    @Benchmark
+    public List<DuplicateCandidate> findSimilarToNewClient() {
+        int i = next++ & (misspelt.length - 1);
+        return index.findSimilar("Quartz Ventures " + i, sectors[i], null);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 1)
+    @Measurement(iterations = 3)
+    public Object scan() {
+        return index.scan();
+    }
+}
@@ -0,0 +1,103 @@
+package org.example.ibpipeline.benchmarks;
+
+import org.example.ibpipeline.benchmarks.support.InMemoryDealRepository;
+import org.example.ibpipeline.dto.PipelineAggregate;
+import org.example.ibpipeline.dto.PipelineDimension;
+import org.example.ibpipeline.dto.PipelineQuery;
+import org.example.ibpipeline.dto.PipelineSnapshotStats;
+import org.example.ibpipeline.model.Deal;
+import org.example.ibpipeline.model.DealStage;
+import org.example.ibpipeline.service.PipelineSnapshot;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Group-by queries over the columnar PipelineSnapshot at 1M deals (12 sectors, 6 deal types,
+ * creation dates spread over three years). Setup prints the snapshot's memory use.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class PipelineSnapshotBenchmark {
+
+    private static final String[] SECTORS = {"Technology", "Healthcare", "Energy", "Financials", "Industrials",
+            "Consumer", "Utilities", "Materials", "Real Estate", "Telecom", "Media", "Transportation"};
+    private static final String[] DEAL_TYPES = {"M&A", "IPO", "Debt", "Follow-on", "LBO", "Restructuring"};
+
+    @Param({"1000000"})
+    public int dealCount;
+
+    private PipelineSnapshot snapshot;
+    private PipelineQuery byStage;
+    private PipelineQuery bySectorAndStage;
+    private PipelineQuery closedPerWeek;
+    private PipelineQuery bySectorTypeWeek;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        snapshot = new PipelineSnapshot(new InMemoryDealRepository(), 0);
+        SplittableRandom random = new SplittableRandom(42);
+        Instant start = Instant.parse("2023-01-01T00:00:00Z");
+        for (int i = 0; i < dealCount; i++) {
+            Deal deal = new Deal();
+            deal.setId(Integer.toHexString(0x1000000 + i));
+            deal.setVersion(0L);
+            deal.setCurrentStage(DealStage.values()[random.nextInt(5)]);
+            deal.setSector(SECTORS[random.nextInt(SECTORS.length)]);
+            deal.setDealType(DEAL_TYPES[random.nextInt(DEAL_TYPES.length)]);
+            deal.setDealValue(random.nextLong(1_000_000, 2_000_000_000));
+            deal.setCreatedAt(start.plus(random.nextInt(3 * 365), ChronoUnit.DAYS));
+            deal.setUpdatedAt(deal.getCreatedAt());
+            snapshot.dealCreated(deal);
+        }
+
+        byStage = query(List.of(PipelineDimension.STAGE), null, null);
+        bySectorAndStage = query(List.of(PipelineDimension.SECTOR, PipelineDimension.STAGE), null, null);
+        closedPerWeek = query(List.of(PipelineDimension.CREATED_WEEK), EnumSet.of(DealStage.Closed), "Technology");
+        bySectorTypeWeek = query(
+                List.of(PipelineDimension.SECTOR, PipelineDimension.DEAL_TYPE, PipelineDimension.CREATED_WEEK), null, null);
+
+        PipelineSnapshotStats stats = snapshot.stats();
+        System.out.printf("%nPipelineSnapshot: %d deals, capacity %d, columns %.1f MB, id index ~%.1f MB, %d processors%n",
+                stats.getLiveDeals(), stats.getCapacity(), stats.getColumnBytes() / 1048576.0,
+                stats.getIdIndexBytes() / 1048576.0, Runtime.getRuntime().availableProcessors());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        snapshot.shutdown();
+    }
+
+    @Benchmark
+    public PipelineAggregate groupByStage() {
+        return snapshot.aggregate(byStage);
+    }
+
+    @Benchmark
+    public PipelineAggregate groupBySectorAndStage() {
+        return snapshot.aggregate(bySectorAndStage);
+    }
+
+    @Benchmark
+    public PipelineAggregate closedTechnologyDealsPerWeek() {
+        return snapshot.aggregate(closedPerWeek);
+    }
+
+    @Benchmark
+    public PipelineAggregate groupBySectorTypeAndWeek() {
+        return snapshot.aggregate(bySectorTypeWeek);
+    }
+
+    private static PipelineQuery query(List<PipelineDimension> groupBy, EnumSet<DealStage> stages, String sector) {
+        return new PipelineQuery(groupBy, stages, sector, null, null, null);
+    }
+}
@@ -0,0 +1,106 @@
+package org.example.ibpipeline.benchmarks.loadtest;
+
+import org.apache.kafka.clients.producer.Producer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.example.ibpipeline.benchmarks.support.BenchmarkFixtures;
+import org.example.ibpipeline.benchmarks.support.InMemoryDealEventTransport;
+import org.example.ibpipeline.benchmarks.support.InMemoryDealRepository;
+import org.example.ibpipeline.benchmarks.support.InMemoryDictionaryRepository;
+import org.example.ibpipeline.benchmarks.support.InMemoryJobWatermarkRepository;
+import org.example.ibpipeline.benchmarks.support.InMemoryNotificationRepository;
+import org.example.ibpipeline.benchmarks.support.InMemoryPipelineRollupRepository;
+import org.example.ibpipeline.benchmarks.support.InMemoryStageHistoryRepository;
+import org.example.ibpipeline.benchmarks.support.InMemoryUserRepository;
+import org.example.ibpipeline.event.DealEvent;
+import org.example.ibpipeline.service.KafkaConsumerService;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Bean;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.ProducerFactory;
+
+import java.util.Map;
+
+/*
+ * Replaces the Mongo repositories and the Kafka broker with in-memory stand-ins.
+ * Deliberately not a @Configuration: IbPipelineApplication's component scan covers this
+ * package, and the overrides must be registered after KafkaConfig and DatabaseInitializer,
+ * which is the case when the class is passed to SpringApplication as a second source.
+ */
+public class InMemoryBackendConfiguration {
+
+    @Bean
+    public InMemoryDealRepository dealRepository() {
+        return new InMemoryDealRepository();
+    }
+
+    @Bean
+    public InMemoryUserRepository userRepository() {
+        return new InMemoryUserRepository();
+    }
+
+    /* Overrides MongoPipelineRollupRepository */
+    @Bean
+    public InMemoryPipelineRollupRepository mongoPipelineRollupRepository() {
+        return new InMemoryPipelineRollupRepository();
+    }
+
+    /* Overrides MongoStageHistoryRepository */
+    @Bean
+    public InMemoryStageHistoryRepository mongoStageHistoryRepository() {
+        return new InMemoryStageHistoryRepository();
+    }
+
+    /* Overrides MongoJobWatermarkRepository */
+    @Bean
+    public InMemoryJobWatermarkRepository mongoJobWatermarkRepository() {
+        return new InMemoryJobWatermarkRepository();
+    }
+
+    /* Overrides MongoNotificationRepository */
+    @Bean
+    public InMemoryNotificationRepository mongoNotificationRepository() {
+        return new InMemoryNotificationRepository();
+    }
+
+    /* Overrides MongoDictionaryRepository */
+    @Bean
+    public InMemoryDictionaryRepository mongoDictionaryRepository() {
+        return new InMemoryDictionaryRepository();
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    public InMemoryDealEventTransport dealEventTransport(KafkaConsumerService kafkaConsumerService) {
+        return new InMemoryDealEventTransport(kafkaConsumerService);
+    }
+
+    /* Overrides KafkaConfig#producerFactory */
+    @Bean
+    public ProducerFactory<String, DealEvent> producerFactory(InMemoryDealEventTransport transport) {
+        return new DefaultKafkaProducerFactory<>(Map.of(), new StringSerializer(), BenchmarkFixtures.dealEventSerializer()) {
+            @Override
+            protected Producer<String, DealEvent> createRawProducer(Map<String, Object> rawConfigs) {
+                return transport.createProducer(BenchmarkFixtures.dealEventSerializer());
+            }
+        };
+    }
+
+    /* Overrides KafkaConfig#kafkaListenerContainerFactory; the transport calls the listener directly */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, DealEvent> kafkaListenerContainerFactory(
+            ConsumerFactory<String, DealEvent> consumerFactory) {
+        ConcurrentKafkaListenerContainerFactory<String, DealEvent> factory =
+                new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(consumerFactory);
+        factory.setAutoStartup(false);
+        return factory;
+    }
+
+    /* Overrides DatabaseInitializer#initDealVersions, which needs a MongoTemplate */
+    @Bean
+    public CommandLineRunner initDealVersions() {
+        return args -> {
+        };
+    }
+}
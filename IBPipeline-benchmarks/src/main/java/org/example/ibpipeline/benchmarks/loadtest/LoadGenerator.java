@@ -0,0 +1,223 @@
+package org.example.ibpipeline.benchmarks.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.example.ibpipeline.model.DealStage;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+ * Closed-loop load: each of the concurrency workers sends the next request as soon as the
+ * previous one completes, picking the operation from the weighted mix in Operation and a
+ * random virtual user. Latency is recorded per operation in microseconds.
+ */
+class LoadGenerator {
+
+    private static final long MAX_TRACKED_MICROS = TimeUnit.MINUTES.toMicros(1);
+    private static final DealStage[] OPEN_STAGES = {DealStage.Prospect, DealStage.UnderEvaluation, DealStage.TermSheetSubmitted};
+
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper;
+    private final String baseUrl;
+    private final List<VirtualUser> users;
+    private final DealIds dealIds;
+
+    private final Map<Operation, Histogram> latencies = new EnumMap<>(Operation.class);
+    private final Map<Operation, LongAdder> errors = new EnumMap<>(Operation.class);
+
+    LoadGenerator(String baseUrl, ObjectMapper objectMapper, List<VirtualUser> users, List<String> seededDealIds) {
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        this.objectMapper = objectMapper;
+        this.baseUrl = baseUrl;
+        this.users = users;
+        this.dealIds = new DealIds(seededDealIds);
+        reset();
+    }
+
+    /* Logs every virtual user in once so all of them hold a token before traffic starts */
+    void loginAll() throws IOException, InterruptedException {
+        for (VirtualUser user : users) {
+            login(user);
+        }
+    }
+
+    void reset() {
+        for (Operation operation : Operation.values()) {
+            latencies.put(operation, new ConcurrentHistogram(MAX_TRACKED_MICROS, 3));
+            errors.put(operation, new LongAdder());
+        }
+    }
+
+    /* Runs the mix for the given duration and returns the wall-clock time actually spent */
+    Duration run(int concurrency, Duration duration) throws InterruptedException {
+        long deadline = System.nanoTime() + duration.toNanos();
+        ExecutorService workers = Executors.newFixedThreadPool(concurrency);
+        CountDownLatch done = new CountDownLatch(concurrency);
+        long started = System.nanoTime();
+
+        for (int i = 0; i < concurrency; i++) {
+            workers.execute(() -> {
+                try {
+                    while (System.nanoTime() < deadline) {
+                        step();
+                    }
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+
+        done.await();
+        workers.shutdown();
+        return Duration.ofNanos(System.nanoTime() - started);
+    }
+
+    Map<Operation, Histogram> latencies() {
+        return latencies;
+    }
+
+    Map<Operation, LongAdder> errors() {
+        return errors;
+    }
+
+    private void step() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Operation operation = Operation.pick(random.nextInt(Operation.totalWeight()));
+        VirtualUser user = users.get(random.nextInt(users.size()));
+
+        long start = System.nanoTime();
+        boolean ok;
+        try {
+            ok = execute(operation, user, random);
+        } catch (IOException e) {
+            ok = false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start);
+
+        latencies.get(operation).recordValue(Math.min(micros, MAX_TRACKED_MICROS));
+        if (!ok) {
+            errors.get(operation).increment();
+        }
+    }
+
+    private boolean execute(Operation operation, VirtualUser user, ThreadLocalRandom random)
+            throws IOException, InterruptedException {
+        return switch (operation) {
+            case LOGIN -> login(user);
+            case LIST_DEALS -> send(user, HttpRequest.newBuilder(uri("/api/deals")).GET()).statusCode() == 200;
+            case GET_DEAL -> send(user, HttpRequest.newBuilder(uri("/api/deals/" + dealIds.random(random))).GET())
+                    .statusCode() == 200;
+            case CREATE_DEAL -> createDeal(user, random);
+            case UPDATE_STAGE -> {
+                String body = json(Map.of("stage", OPEN_STAGES[random.nextInt(OPEN_STAGES.length)].name()));
+                yield send(user, HttpRequest.newBuilder(uri("/api/deals/" + dealIds.random(random) + "/stage"))
+                        .method("PATCH", HttpRequest.BodyPublishers.ofString(body))).statusCode() == 200;
+            }
+            case ADD_NOTE -> {
+                String body = json(Map.of("note", "Call notes #" + random.nextInt(1_000_000)));
+                yield send(user, HttpRequest.newBuilder(uri("/api/deals/" + dealIds.random(random) + "/notes"))
+                        .POST(HttpRequest.BodyPublishers.ofString(body))).statusCode() == 200;
+            }
+        };
+    }
+
+    private boolean login(VirtualUser user) throws IOException, InterruptedException {
+        String body = json(Map.of("username", user.username(), "password", user.password()));
+        HttpResponse<String> response = httpClient.send(HttpRequest.newBuilder(uri("/api/auth/login"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build(), HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            return false;
+        }
+        user.setAccessToken(objectMapper.readTree(response.body()).path("accessToken").asText());
+        return true;
+    }
+
+    private boolean createDeal(VirtualUser user, ThreadLocalRandom random) throws IOException, InterruptedException {
+        String body = json(Map.of(
+                "clientName", "Load Client " + random.nextInt(100_000),
+                "dealType", random.nextBoolean() ? "M&A" : "IPO",
+                "sector", LoadTestData.SECTORS[random.nextInt(LoadTestData.SECTORS.length)],
+                "summary", "Created by the load test"));
+        HttpResponse<String> response = send(user, HttpRequest.newBuilder(uri("/api/deals"))
+                .POST(HttpRequest.BodyPublishers.ofString(body)));
+        if (response.statusCode() != 200) {
+            return false;
+        }
+        JsonNode id = objectMapper.readTree(response.body()).path("id");
+        if (!id.isMissingNode()) {
+            dealIds.add(id.asText());
+        }
+        return true;
+    }
+
+    private HttpResponse<String> send(VirtualUser user, HttpRequest.Builder request) throws IOException, InterruptedException {
+        request.header("Authorization", "Bearer " + user.accessToken())
+                .header("Content-Type", "application/json")
+                .timeout(Duration.ofSeconds(30));
+        return httpClient.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private String json(Map<String, String> body) throws IOException {
+        return objectMapper.writeValueAsString(body);
+    }
+
+    private URI uri(String path) {
+        return URI.create(baseUrl + path);
+    }
+
+    /* Append-only id pool readable without locks; creates during the run become targets too */
+    private static final class DealIds {
+
+        private final AtomicReferenceArray<String> ids;
+        private final AtomicInteger size = new AtomicInteger();
+
+        DealIds(List<String> seeded) {
+            this.ids = new AtomicReferenceArray<>(Math.max(seeded.size(), 1) * 4 + 1_000_000);
+            seeded.forEach(this::add);
+        }
+
+        void add(String id) {
+            int index = size.getAndIncrement();
+            if (index < ids.length()) {
+                ids.set(index, id);
+            }
+        }
+
+        String random(ThreadLocalRandom random) {
+            int bound = Math.min(size.get(), ids.length());
+            for (int attempt = 0; attempt < 8; attempt++) {
+                String id = ids.get(random.nextInt(bound));
+                if (id != null) {
+                    return id;
+                }
+            }
+            return ids.get(0);
+        }
+    }
+}
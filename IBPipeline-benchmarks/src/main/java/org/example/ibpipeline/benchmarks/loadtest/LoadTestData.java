@@ -0,0 +1,80 @@
+package org.example.ibpipeline.benchmarks.loadtest;
+
+import org.example.ibpipeline.model.Deal;
+import org.example.ibpipeline.model.DealNote;
+import org.example.ibpipeline.model.DealStage;
+import org.example.ibpipeline.model.Role;
+import org.example.ibpipeline.model.User;
+import org.example.ibpipeline.repository.DealRepository;
+import org.example.ibpipeline.repository.UserRepository;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/* Seeds users and deals straight into the in-memory repositories before traffic starts */
+final class LoadTestData {
+
+    static final String[] SECTORS = {"TECH", "HEALTHCARE", "ENERGY", "FINANCIALS", "INDUSTRIALS", "CONSUMER"};
+    private static final String[] DEAL_TYPES = {"M&A", "IPO", "Debt", "Private Placement"};
+    private static final DealStage[] OPEN_STAGES = {DealStage.Prospect, DealStage.UnderEvaluation, DealStage.TermSheetSubmitted};
+
+    private LoadTestData() {
+    }
+
+    /* Password is hashed once and shared; the hash is what login verifies against */
+    static List<VirtualUser> seedUsers(UserRepository userRepository, PasswordEncoder passwordEncoder, int count) {
+        String password = "load-test-password";
+        String hash = passwordEncoder.encode(password);
+
+        List<VirtualUser> users = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            User user = new User();
+            user.setUsername("loaduser" + i);
+            user.setEmail("loaduser" + i + "@ibpipeline.test");
+            user.setPassword(hash);
+            user.setRole(Role.USER);
+            user.setActive(true);
+            userRepository.save(user);
+            users.add(new VirtualUser(user.getUsername(), password));
+        }
+        return users;
+    }
+
+    /* Deals with a handful of notes each, spread over sectors, stages and the last 90 days */
+    static List<String> seedDeals(DealRepository dealRepository, List<VirtualUser> users, int count) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        List<String> ids = new ArrayList<>(count);
+
+        for (int i = 0; i < count; i++) {
+            String owner = users.get(random.nextInt(users.size())).username();
+            Instant created = Instant.now().minus(random.nextInt(90), ChronoUnit.DAYS);
+
+            Deal deal = new Deal();
+            deal.setClientName("Client " + i);
+            deal.setDealType(DEAL_TYPES[random.nextInt(DEAL_TYPES.length)]);
+            deal.setSector(SECTORS[random.nextInt(SECTORS.length)]);
+            deal.setDealValue(random.nextLong(1_000_000L, 5_000_000_000L));
+            deal.setCurrentStage(OPEN_STAGES[random.nextInt(OPEN_STAGES.length)]);
+            deal.setSummary("Seeded deal " + i);
+            deal.setCreatedBy(owner);
+            deal.setAssignedTo(owner);
+            deal.setCreatedAt(created);
+            deal.setUpdatedAt(created);
+
+            int notes = random.nextInt(10);
+            for (int n = 0; n < notes; n++) {
+                DealNote note = new DealNote();
+                note.setUserId(owner);
+                note.setNote("Seeded note " + n);
+                deal.getNotes().add(note);
+            }
+
+            ids.add(dealRepository.save(deal).getId());
+        }
+        return ids;
+    }
+}
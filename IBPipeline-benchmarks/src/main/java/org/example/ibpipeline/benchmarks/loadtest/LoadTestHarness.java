@@ -0,0 +1,81 @@
+package org.example.ibpipeline.benchmarks.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.ibpipeline.IbPipelineApplication;
+import org.example.ibpipeline.benchmarks.support.InMemoryDealEventTransport;
+import org.example.ibpipeline.config.KafkaConfig;
+import org.example.ibpipeline.repository.DealRepository;
+import org.example.ibpipeline.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.List;
+
+/*
+ * Boots the full application (HTTP, security, services, async publishing, consumer) on a
+ * random local port with InMemoryBackendConfiguration in place of MongoDB and Kafka, seeds
+ * users and deals, drives the Operation mix and reports latency per endpoint.
+ *
+ *   mvn compile exec:exec@loadtest -Dloadtest.args="--concurrency=64 --duration=PT2M"
+ *
+ * Options: --concurrency, --warmup, --duration (ISO-8601), --users, --seed-deals, --report
+ */
+public class LoadTestHarness {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoadTestHarness.class);
+
+    private static final String[] EXCLUDED_AUTO_CONFIGURATION = {
+            "org.springframework.boot.mongodb.autoconfigure.MongoAutoConfiguration",
+            "org.springframework.boot.mongodb.autoconfigure.health.MongoHealthContributorAutoConfiguration",
+            "org.springframework.boot.mongodb.autoconfigure.metrics.MongoMetricsAutoConfiguration",
+            "org.springframework.boot.data.mongodb.autoconfigure.DataMongoAutoConfiguration",
+            "org.springframework.boot.data.mongodb.autoconfigure.DataMongoRepositoriesAutoConfiguration"
+    };
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+        ObjectMapper objectMapper = KafkaConfig.dealEventObjectMapper();
+
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(
+                IbPipelineApplication.class, InMemoryBackendConfiguration.class)
+                // passed as arguments so they win over application.properties
+                .run("--server.port=0",
+                        "--spring.main.allow-bean-definition-overriding=true",
+                        "--spring.autoconfigure.exclude=" + String.join(",", EXCLUDED_AUTO_CONFIGURATION),
+                        "--app.archive.enabled=false")) {
+
+            String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+            List<VirtualUser> users = LoadTestData.seedUsers(
+                    context.getBean(UserRepository.class), context.getBean(PasswordEncoder.class), options.users());
+            List<String> dealIds = LoadTestData.seedDeals(context.getBean(DealRepository.class), users, options.seedDeals());
+            logger.warn("Seeded {} users and {} deals; target {}", users.size(), dealIds.size(), baseUrl);
+
+            LoadGenerator generator = new LoadGenerator(baseUrl, objectMapper, users, dealIds);
+            generator.loginAll();
+
+            if (!options.warmup().isZero()) {
+                logger.warn("Warming up for {}", options.warmup());
+                generator.run(options.concurrency(), options.warmup());
+                generator.reset();
+            }
+
+            InMemoryDealEventTransport transport = context.getBean(InMemoryDealEventTransport.class);
+            long publishedBefore = transport.published();
+            long consumedBefore = transport.consumed();
+
+            logger.warn("Measuring {} at concurrency {}", options.duration(), options.concurrency());
+            Duration elapsed = generator.run(options.concurrency(), options.duration());
+
+            LoadTestReport report = LoadTestReport.of(options.concurrency(), elapsed,
+                    generator.latencies(), generator.errors(),
+                    transport.published() - publishedBefore, transport.consumed() - consumedBefore);
+            report.print(System.out);
+            report.write(options.report(), objectMapper);
+            logger.warn("Report written to {}", options.report().toAbsolutePath());
+        }
+    }
+}
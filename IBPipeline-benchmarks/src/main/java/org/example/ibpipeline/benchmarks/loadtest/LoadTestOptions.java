@@ -0,0 +1,40 @@
+package org.example.ibpipeline.benchmarks.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/* Command-line options, given as --name=value */
+record LoadTestOptions(int concurrency,
+                       Duration warmup,
+                       Duration duration,
+                       int users,
+                       int seedDeals,
+                       Path report) {
+
+    static LoadTestOptions parse(String[] args) {
+        int concurrency = 32;
+        Duration warmup = Duration.ofSeconds(15);
+        Duration duration = Duration.ofSeconds(60);
+        int users = 50;
+        int seedDeals = 5_000;
+        Path report = Path.of("target", "loadtest-report.json");
+
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value, got: " + arg);
+            }
+            String name = arg.substring(2, arg.indexOf('='));
+            String value = arg.substring(arg.indexOf('=') + 1);
+            switch (name) {
+                case "concurrency" -> concurrency = Integer.parseInt(value);
+                case "warmup" -> warmup = Duration.parse(value);
+                case "duration" -> duration = Duration.parse(value);
+                case "users" -> users = Integer.parseInt(value);
+                case "seed-deals" -> seedDeals = Integer.parseInt(value);
+                case "report" -> report = Path.of(value);
+                default -> throw new IllegalArgumentException("Unknown option: --" + name);
+            }
+        }
+        return new LoadTestOptions(concurrency, warmup, duration, users, seedDeals, report);
+    }
+}
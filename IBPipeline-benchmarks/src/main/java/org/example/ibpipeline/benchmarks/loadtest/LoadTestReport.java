@@ -0,0 +1,115 @@
+package org.example.ibpipeline.benchmarks.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramIterationValue;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/* Throughput and latency per operation; printed as a table and written as JSON */
+record LoadTestReport(int concurrency,
+                      double elapsedSeconds,
+                      long totalRequests,
+                      long totalErrors,
+                      double throughputPerSecond,
+                      long eventsPublished,
+                      long eventsConsumed,
+                      List<OperationReport> operations) {
+
+    record OperationReport(String operation,
+                           String endpoint,
+                           long count,
+                           long errors,
+                           double throughputPerSecond,
+                           LatencyMillis latencyMs,
+                           List<Bucket> histogram) {
+    }
+
+    record LatencyMillis(double mean, double p50, double p90, double p99, double p999, double max) {
+    }
+
+    /* Requests whose latency fell in (previous bucket, upToMs] */
+    record Bucket(double upToMs, long count) {
+    }
+
+    static LoadTestReport of(int concurrency, Duration elapsed, Map<Operation, Histogram> latencies,
+                             Map<Operation, LongAdder> errors, long eventsPublished, long eventsConsumed) {
+        double seconds = elapsed.toNanos() / 1e9;
+        List<OperationReport> operations = new ArrayList<>();
+        long total = 0;
+        long totalErrors = 0;
+
+        for (Operation operation : Operation.values()) {
+            Histogram histogram = latencies.get(operation);
+            long count = histogram.getTotalCount();
+            long failed = errors.get(operation).sum();
+            total += count;
+            totalErrors += failed;
+
+            operations.add(new OperationReport(
+                    operation.name(),
+                    operation.endpoint(),
+                    count,
+                    failed,
+                    count / seconds,
+                    new LatencyMillis(
+                            histogram.getMean() / 1000.0,
+                            millis(histogram.getValueAtPercentile(50)),
+                            millis(histogram.getValueAtPercentile(90)),
+                            millis(histogram.getValueAtPercentile(99)),
+                            millis(histogram.getValueAtPercentile(99.9)),
+                            millis(histogram.getMaxValue())),
+                    buckets(histogram)));
+        }
+
+        return new LoadTestReport(concurrency, seconds, total, totalErrors, total / seconds,
+                eventsPublished, eventsConsumed, operations);
+    }
+
+    void print(PrintStream out) {
+        out.printf("%nconcurrency=%d  elapsed=%.1fs  requests=%d  errors=%d  throughput=%.1f req/s  events published/consumed=%d/%d%n%n",
+                concurrency, elapsedSeconds, totalRequests, totalErrors, throughputPerSecond, eventsPublished, eventsConsumed);
+        out.printf("%-30s %9s %7s %9s %9s %9s %9s %9s %9s%n",
+                "endpoint", "count", "errors", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        for (OperationReport operation : operations) {
+            LatencyMillis latency = operation.latencyMs();
+            out.printf("%-30s %9d %7d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                    operation.endpoint(), operation.count(), operation.errors(), operation.throughputPerSecond(),
+                    latency.p50(), latency.p90(), latency.p99(), latency.p999(), latency.max());
+        }
+    }
+
+    void write(Path path, ObjectMapper objectMapper) throws IOException {
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        objectMapper.copy().enable(SerializationFeature.INDENT_OUTPUT).writeValue(path.toFile(), this);
+    }
+
+    /* Power-of-two buckets starting at 0.25 ms, empty buckets omitted */
+    private static List<Bucket> buckets(Histogram histogram) {
+        List<Bucket> buckets = new ArrayList<>();
+        if (histogram.getTotalCount() == 0) {
+            return buckets;
+        }
+        for (HistogramIterationValue value : histogram.logarithmicBucketValues(250, 2.0)) {
+            if (value.getCountAddedInThisIterationStep() > 0) {
+                buckets.add(new Bucket(millis(value.getValueIteratedTo()), value.getCountAddedInThisIterationStep()));
+            }
+        }
+        return buckets;
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+}
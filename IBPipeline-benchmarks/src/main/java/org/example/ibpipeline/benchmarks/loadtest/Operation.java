@@ -0,0 +1,44 @@
+package org.example.ibpipeline.benchmarks.loadtest;
+
+/* One kind of request in the traffic mix; weights are relative shares of all requests */
+enum Operation {
+
+    LOGIN("POST /api/auth/login", 2),
+    LIST_DEALS("GET /api/deals", 5),
+    GET_DEAL("GET /api/deals/{id}", 40),
+    CREATE_DEAL("POST /api/deals", 10),
+    UPDATE_STAGE("PATCH /api/deals/{id}/stage", 18),
+    ADD_NOTE("POST /api/deals/{id}/notes", 25);
+
+    private final String endpoint;
+    private final int weight;
+
+    Operation(String endpoint, int weight) {
+        this.endpoint = endpoint;
+        this.weight = weight;
+    }
+
+    String endpoint() {
+        return endpoint;
+    }
+
+    /* Maps a uniform draw in [0, totalWeight()) onto an operation */
+    static Operation pick(int draw) {
+        int cumulative = 0;
+        for (Operation operation : values()) {
+            cumulative += operation.weight;
+            if (draw < cumulative) {
+                return operation;
+            }
+        }
+        throw new IllegalArgumentException("Draw out of range: " + draw);
+    }
+
+    static int totalWeight() {
+        int total = 0;
+        for (Operation operation : values()) {
+            total += operation.weight;
+        }
+        return total;
+    }
+}
@@ -0,0 +1,30 @@
+package org.example.ibpipeline.benchmarks.loadtest;
+
+/* A seeded account; its access token is refreshed whenever the mix picks LOGIN for it */
+final class VirtualUser {
+
+    private final String username;
+    private final String password;
+    private volatile String accessToken;
+
+    VirtualUser(String username, String password) {
+        this.username = username;
+        this.password = password;
+    }
+
+    String username() {
+        return username;
+    }
+
+    String password() {
+        return password;
+    }
+
+    String accessToken() {
+        return accessToken;
+    }
+
+    void setAccessToken(String accessToken) {
+        this.accessToken = accessToken;
+    }
+}
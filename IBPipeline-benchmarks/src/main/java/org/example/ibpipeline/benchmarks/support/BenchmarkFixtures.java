@@ -0,0 +1,147 @@
+package org.example.ibpipeline.benchmarks.support;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.producer.MockProducer;
+import org.apache.kafka.clients.producer.Producer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.clients.producer.Callback;
+import org.apache.kafka.clients.producer.RecordMetadata;
+import org.apache.kafka.common.serialization.Serializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.example.ibpipeline.config.KafkaConfig;
+import org.example.ibpipeline.event.DealEvent;
+import org.example.ibpipeline.event.DealEventType;
+import org.example.ibpipeline.model.Deal;
+import org.example.ibpipeline.model.DealNote;
+import org.example.ibpipeline.model.DealStage;
+import org.example.ibpipeline.model.Role;
+import org.example.ibpipeline.model.User;
+import org.example.ibpipeline.security.JwtUtil;
+import org.example.ibpipeline.service.DealBoardIndex;
+import org.example.ibpipeline.service.DealCache;
+import org.example.ibpipeline.service.DealChangePublisher;
+import org.example.ibpipeline.service.DealDictionary;
+import org.example.ibpipeline.service.DealService;
+import org.example.ibpipeline.service.DealSuggestIndex;
+import org.example.ibpipeline.service.DuplicateDealIndex;
+import org.example.ibpipeline.service.KafkaProducerService;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Future;
+
+/* Builds application components outside Spring, wired the same way the application context wires them */
+public final class BenchmarkFixtures {
+
+    /* Same shape as jwt.secret in application.properties (base64, 256-bit) */
+    public static final String JWT_SECRET = "bWFrZS10aGlzLWEtdmVyeS1sb25nLXNlY3JldC1rZXktZm9yLWJlbmNobWFya3M=";
+
+    private BenchmarkFixtures() {
+    }
+
+    public static JwtUtil jwtUtil(MeterRegistry meterRegistry) {
+        JwtUtil jwtUtil = new JwtUtil(meterRegistry);
+        ReflectionTestUtils.setField(jwtUtil, "secret", JWT_SECRET);
+        ReflectionTestUtils.setField(jwtUtil, "accessTokenExpiration", Duration.ofHours(1).toMillis());
+        ReflectionTestUtils.setField(jwtUtil, "refreshTokenExpiration", Duration.ofDays(7).toMillis());
+        jwtUtil.init();
+        return jwtUtil;
+    }
+
+    public static User user(String username, Role role) {
+        User user = new User();
+        user.setUsername(username);
+        user.setRole(role);
+        return user;
+    }
+
+    public static Deal deal(int noteCount) {
+        Deal deal = new Deal();
+        deal.setId(UUID.randomUUID().toString().replace("-", "").substring(0, 24));
+        deal.setVersion(0L);
+        deal.setClientName("Acme Holdings");
+        deal.setDealType("M&A");
+        deal.setSector("TECH");
+        deal.setDealValue(250_000_000L);
+        deal.setCurrentStage(DealStage.Prospect);
+        deal.setSummary("Acquisition of a mid-market SaaS provider");
+        deal.setCreatedBy("analyst1");
+        deal.setAssignedTo("analyst2");
+
+        List<DealNote> notes = new ArrayList<>(noteCount);
+        for (int i = 0; i < noteCount; i++) {
+            DealNote note = new DealNote();
+            note.setUserId("analyst" + (i % 5));
+            note.setNote("Follow-up call #" + i + " with the client's CFO about diligence items");
+            notes.add(note);
+        }
+        deal.setNotes(notes);
+        return deal;
+    }
+
+    public static DealEvent dealEvent() {
+        return new DealEvent(
+                UUID.randomUUID().toString(),
+                DealEventType.STAGE_UPDATED,
+                "65f0c0ffee0123456789abcd",
+                "Acme Holdings",
+                "analyst1",
+                "Stage changed from Prospect to UnderEvaluation",
+                Instant.now()
+        );
+    }
+
+    /* The serializer KafkaConfig installs on the producer factory */
+    public static JsonSerializer<DealEvent> dealEventSerializer() {
+        return new JsonSerializer<>(KafkaConfig.dealEventObjectMapper());
+    }
+
+    /*
+     * KafkaProducerService over a MockProducer that serializes each record (as the real
+     * producer does) and completes it immediately, so no broker is needed.
+     */
+    public static KafkaProducerService kafkaProducerService(MeterRegistry meterRegistry) {
+        Serializer<DealEvent> valueSerializer = dealEventSerializer();
+        DefaultKafkaProducerFactory<String, DealEvent> producerFactory =
+                new DefaultKafkaProducerFactory<>(Map.of(), new StringSerializer(), valueSerializer) {
+                    @Override
+                    protected Producer<String, DealEvent> createRawProducer(Map<String, Object> rawConfigs) {
+                        return new DiscardingMockProducer(valueSerializer);
+                    }
+                };
+        return new KafkaProducerService(new KafkaTemplate<>(producerFactory), meterRegistry);
+    }
+
+    public static DealService dealService(InMemoryDealRepository repository, int cacheSize) {
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        DuplicateDealIndex duplicateDealIndex = new DuplicateDealIndex(meterRegistry);
+        return new DealService(repository, kafkaProducerService(meterRegistry),
+                new DealCache(cacheSize, Duration.ofSeconds(15)), new DealChangePublisher(List.of()),
+                new DealBoardIndex(repository, List.of(new DealSuggestIndex(), duplicateDealIndex), 200),
+                new InMemoryUserRepository(), duplicateDealIndex, new DealDictionary(new InMemoryDictionaryRepository()));
+    }
+
+    /* MockProducer keeps every record it sees; drop them so long runs do not grow the heap */
+    private static final class DiscardingMockProducer extends MockProducer<String, DealEvent> {
+
+        DiscardingMockProducer(Serializer<DealEvent> valueSerializer) {
+            super(true, null, new StringSerializer(), valueSerializer);
+        }
+
+        @Override
+        public synchronized Future<RecordMetadata> send(ProducerRecord<String, DealEvent> record, Callback callback) {
+            Future<RecordMetadata> future = super.send(record, callback);
+            clear();
+            return future;
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package org.example.ibpipeline.benchmarks.support;
+
+import org.apache.kafka.clients.producer.Callback;
+import org.apache.kafka.clients.producer.MockProducer;
+import org.apache.kafka.clients.producer.Producer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.clients.producer.RecordMetadata;
+import org.apache.kafka.common.serialization.Serializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.example.ibpipeline.event.DealEvent;
+import org.example.ibpipeline.service.KafkaConsumerService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+ * In-process replacement for the deal-events topic. Producers created here serialize every
+ * record like the real client, then hand the event to KafkaConsumerService on one consumer
+ * thread, matching the single partition the topic is created with.
+ */
+public class InMemoryDealEventTransport {
+
+    private static final Logger logger = LoggerFactory.getLogger(InMemoryDealEventTransport.class);
+
+    private final KafkaConsumerService consumer;
+    private final ExecutorService consumerThread = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "in-memory-deal-events-consumer");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicLong nextOffset = new AtomicLong();
+    private final AtomicLong consumed = new AtomicLong();
+
+    public InMemoryDealEventTransport(KafkaConsumerService consumer) {
+        this.consumer = consumer;
+    }
+
+    public Producer<String, DealEvent> createProducer(Serializer<DealEvent> valueSerializer) {
+        return new TransportProducer(valueSerializer);
+    }
+
+    public long published() {
+        return nextOffset.get();
+    }
+
+    public long consumed() {
+        return consumed.get();
+    }
+
+    public void shutdown() throws InterruptedException {
+        consumerThread.shutdown();
+        if (!consumerThread.awaitTermination(10, TimeUnit.SECONDS)) {
+            logger.warn("Consumer thread still busy with {} events", published() - consumed());
+        }
+    }
+
+    private void deliver(DealEvent event) {
+        long offset = nextOffset.getAndIncrement();
+        consumerThread.execute(() -> {
+            try {
+                consumer.consumeDealEvent(event, 0, offset);
+            } catch (RuntimeException e) {
+                logger.error("Consumer failed on offset {}: {}", offset, e.getMessage());
+            } finally {
+                consumed.incrementAndGet();
+            }
+        });
+    }
+
+    /* MockProducer keeps every record it sees; drop them after delivery so long runs do not grow the heap */
+    private final class TransportProducer extends MockProducer<String, DealEvent> {
+
+        TransportProducer(Serializer<DealEvent> valueSerializer) {
+            super(true, null, new StringSerializer(), valueSerializer);
+        }
+
+        @Override
+        public synchronized Future<RecordMetadata> send(ProducerRecord<String, DealEvent> record, Callback callback) {
+            Future<RecordMetadata> future = super.send(record, callback);
+            clear();
+            deliver(record.value());
+            return future;
+        }
+    }
+}
@@ -0,0 +1,511 @@
+package org.example.ibpipeline.benchmarks.support;
+
+import org.bson.types.ObjectId;
+import org.example.ibpipeline.dto.DealFilter;
+import org.example.ibpipeline.dto.DealOwnership;
+import org.example.ibpipeline.dto.PipelineDimension;
+import org.example.ibpipeline.dto.PipelineGroup;
+import org.example.ibpipeline.model.Deal;
+import org.example.ibpipeline.model.DealNote;
+import org.example.ibpipeline.model.DealStage;
+import org.example.ibpipeline.repository.DealRepository;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Example;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.repository.query.FluentQuery;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/*
+ * ConcurrentHashMap stand-in for the Mongo-backed DealRepository.
+ * Follows the same @Version rules as MongoTemplate (insert when version is null,
+ * compare-and-increment otherwise) and hands out copies, so services see the same
+ * isolation they get from the driver. Query-by-example is not supported.
+ */
+public class InMemoryDealRepository implements DealRepository {
+
+    private final Map<String, Deal> deals = new ConcurrentHashMap<>();
+    private final Map<String, Deal> archive = new ConcurrentHashMap<>();
+
+    // =========================
+    // CRUD
+    // =========================
+
+    @Override
+    public <S extends Deal> S save(S deal) {
+        if (deal.getId() == null) {
+            deal.setId(new ObjectId().toHexString());
+        }
+
+        deals.compute(deal.getId(), (id, current) -> {
+            if (deal.getVersion() == null) {
+                if (current != null) {
+                    throw new DuplicateKeyException("Duplicate key: " + id);
+                }
+                deal.setVersion(0L);
+            } else {
+                if (current == null || !deal.getVersion().equals(current.getVersion())) {
+                    throw new OptimisticLockingFailureException("Version mismatch for deal " + id);
+                }
+                deal.setVersion(deal.getVersion() + 1);
+            }
+            return copy(deal);
+        });
+        return deal;
+    }
+
+    @Override
+    public <S extends Deal> List<S> saveAll(Iterable<S> entities) {
+        List<S> saved = new ArrayList<>();
+        entities.forEach(deal -> saved.add(save(deal)));
+        return saved;
+    }
+
+    @Override
+    public <S extends Deal> S insert(S deal) {
+        deal.setVersion(null);
+        return save(deal);
+    }
+
+    @Override
+    public <S extends Deal> List<S> insert(Iterable<S> entities) {
+        List<S> saved = new ArrayList<>();
+        entities.forEach(deal -> saved.add(insert(deal)));
+        return saved;
+    }
+
+    @Override
+    public Optional<Deal> findById(String id) {
+        return Optional.ofNullable(deals.get(id)).map(InMemoryDealRepository::copy);
+    }
+
+    @Override
+    public boolean existsById(String id) {
+        return deals.containsKey(id);
+    }
+
+    @Override
+    public List<Deal> findAll() {
+        return deals.values().stream().map(InMemoryDealRepository::copy).toList();
+    }
+
+    @Override
+    public List<Deal> findAll(Sort sort) {
+        if (sort.isSorted()) {
+            throw new UnsupportedOperationException("Sorted findAll is not supported in memory");
+        }
+        return findAll();
+    }
+
+    @Override
+    public Page<Deal> findAll(Pageable pageable) {
+        List<Deal> all = findAll();
+        if (pageable.isUnpaged()) {
+            return new PageImpl<>(all);
+        }
+        int from = (int) Math.min(pageable.getOffset(), all.size());
+        int to = Math.min(from + pageable.getPageSize(), all.size());
+        return new PageImpl<>(all.subList(from, to), pageable, all.size());
+    }
+
+    @Override
+    public List<Deal> findAllById(Iterable<String> ids) {
+        return StreamSupport.stream(ids.spliterator(), false)
+                .map(deals::get)
+                .filter(Objects::nonNull)
+                .map(InMemoryDealRepository::copy)
+                .toList();
+    }
+
+    @Override
+    public long count() {
+        return deals.size();
+    }
+
+    @Override
+    public void deleteById(String id) {
+        deals.remove(id);
+    }
+
+    @Override
+    public void delete(Deal deal) {
+        if (deal.getVersion() == null) {
+            deals.remove(deal.getId());
+            return;
+        }
+
+        boolean[] removed = {false};
+        deals.computeIfPresent(deal.getId(), (id, current) -> {
+            if (deal.getVersion().equals(current.getVersion())) {
+                removed[0] = true;
+                return null;
+            }
+            return current;
+        });
+        if (!removed[0]) {
+            throw new OptimisticLockingFailureException("Version mismatch for deal " + deal.getId());
+        }
+    }
+
+    @Override
+    public void deleteAllById(Iterable<? extends String> ids) {
+        ids.forEach(deals::remove);
+    }
+
+    @Override
+    public void deleteAll(Iterable<? extends Deal> entities) {
+        entities.forEach(this::delete);
+    }
+
+    @Override
+    public void deleteAll() {
+        deals.clear();
+    }
+
+    // =========================
+    // DERIVED QUERIES
+    // =========================
+
+    @Override
+    public List<Deal> findByCurrentStage(DealStage stage) {
+        return find(deal -> deal.getCurrentStage() == stage);
+    }
+
+    @Override
+    public List<Deal> findByCreatedBy(String userId) {
+        return find(deal -> Objects.equals(deal.getCreatedBy(), userId));
+    }
+
+    @Override
+    public List<Deal> findByAssignedTo(String userId) {
+        return find(deal -> Objects.equals(deal.getAssignedTo(), userId));
+    }
+
+    // =========================
+    // DealRepositoryCustom
+    // =========================
+
+    @Override
+    public Map<Integer, String> insertUnordered(List<Deal> batch) {
+        Map<Integer, String> failures = new ConcurrentHashMap<>();
+        for (int i = 0; i < batch.size(); i++) {
+            Deal deal = batch.get(i);
+            if (deals.putIfAbsent(deal.getId(), copy(deal)) != null) {
+                failures.put(i, "E11000 duplicate key error: " + deal.getId());
+            }
+        }
+        return failures;
+    }
+
+    @Override
+    public List<Deal> findBulkTargets(Collection<String> ids, DealFilter filter, int limit) {
+        Predicate<Deal> matches;
+        if (ids != null && !ids.isEmpty()) {
+            matches = deal -> ids.contains(deal.getId());
+        } else if (filter != null) {
+            matches = deal -> (filter.getStage() == null || filter.getStage() == deal.getCurrentStage())
+                    && (filter.getSector() == null || filter.getSector().equals(deal.getSector()))
+                    && (filter.getDealType() == null || filter.getDealType().equals(deal.getDealType()))
+                    && (filter.getCreatedBy() == null || filter.getCreatedBy().equals(deal.getCreatedBy()))
+                    && (filter.getAssignedTo() == null || filter.getAssignedTo().equals(deal.getAssignedTo()));
+        } else {
+            matches = deal -> true;
+        }
+        return deals.values().stream().filter(matches).limit(limit).map(InMemoryDealRepository::copy).toList();
+    }
+
+    @Override
+    public Set<String> bulkUpdate(Collection<Deal> targets, DealStage stage, String assignedTo, Long dealValue,
+                                  Instant updatedAt) {
+        Set<String> updated = new LinkedHashSet<>();
+        for (Deal target : targets) {
+            deals.computeIfPresent(target.getId(), (key, current) -> {
+                if (!Objects.equals(current.getVersion(), target.getVersion())) {
+                    return current;
+                }
+                Deal next = copy(current);
+                next.setUpdatedAt(updatedAt);
+                next.setVersion(current.getVersion() == null ? 1L : current.getVersion() + 1);
+                if (stage != null) {
+                    if (current.getCurrentStage() != stage) {
+                        next.setStageEnteredAt(updatedAt);
+                    }
+                    next.setCurrentStage(stage);
+                }
+                if (assignedTo != null) {
+                    next.setAssignedTo(assignedTo);
+                }
+                if (dealValue != null) {
+                    next.setDealValue(dealValue);
+                }
+                updated.add(key);
+                return next;
+            });
+        }
+        return updated;
+    }
+
+    @Override
+    public Deal pushNotes(String id, List<DealNote> notes, Instant updatedAt) {
+        Deal updated = deals.computeIfPresent(id, (key, current) -> {
+            Deal next = copy(current);
+            next.getNotes().addAll(notes);
+            next.setUpdatedAt(updatedAt);
+            next.setVersion(current.getVersion() == null ? 1L : current.getVersion() + 1);
+            return next;
+        });
+        return updated == null ? null : copy(updated);
+    }
+
+    @Override
+    public Stream<Deal> streamWithoutNotes() {
+        return deals.values().stream().map(deal -> {
+            Deal copy = copy(deal);
+            copy.setNotes(new ArrayList<>());
+            copy.setSummary(null);
+            return copy;
+        });
+    }
+
+    @Override
+    public List<PipelineGroup> countByStageSectorAndDealType() {
+        Map<List<String>, long[]> sums = new HashMap<>();
+        Stream.concat(deals.values().stream(), archive.values().stream()).forEach(deal -> {
+            long[] cell = sums.computeIfAbsent(Arrays.asList(String.valueOf(deal.getCurrentStage()),
+                    deal.getSector(), deal.getDealType()), key -> new long[2]);
+            cell[0]++;
+            cell[1] += deal.getDealValue() == null ? 0 : deal.getDealValue();
+        });
+
+        List<PipelineGroup> groups = new ArrayList<>(sums.size());
+        sums.forEach((key, cell) -> {
+            Map<String, String> keys = new HashMap<>();
+            keys.put(PipelineDimension.STAGE.getParamName(), key.get(0));
+            keys.put(PipelineDimension.SECTOR.getParamName(), key.get(1));
+            keys.put(PipelineDimension.DEAL_TYPE.getParamName(), key.get(2));
+            groups.add(new PipelineGroup(keys, cell[0], cell[1]));
+        });
+        return groups;
+    }
+
+    @Override
+    public List<Deal> findOwned(DealOwnership role, String user, Instant beforeUpdatedAt, String beforeId, int limit) {
+        return deals.values().stream()
+                .filter(deal -> user.equals(role == DealOwnership.CREATOR ? deal.getCreatedBy() : deal.getAssignedTo()))
+                .filter(deal -> beforeId == null
+                        || deal.getUpdatedAt().isBefore(beforeUpdatedAt)
+                        || (deal.getUpdatedAt().equals(beforeUpdatedAt) && deal.getId().compareTo(beforeId) < 0))
+                .sorted(Comparator.comparing(Deal::getUpdatedAt).thenComparing(Deal::getId).reversed())
+                .limit(limit)
+                .map(deal -> {
+                    Deal copy = copy(deal);
+                    copy.setNotes(new ArrayList<>());
+                    copy.setSummary(null);
+                    return copy;
+                })
+                .toList();
+    }
+
+    @Override
+    public Deal updateWatchers(String id, String username, boolean watching) {
+        Deal updated = deals.computeIfPresent(id, (key, current) -> {
+            Deal next = copy(current);
+            if (!watching) {
+                next.getWatchers().remove(username);
+            } else if (!next.getWatchers().contains(username)) {
+                next.getWatchers().add(username);
+            }
+            next.setVersion(current.getVersion() == null ? 1L : current.getVersion() + 1);
+            return next;
+        });
+        return updated == null ? null : copy(updated);
+    }
+
+    @Override
+    public List<Deal> findAudience(Collection<String> ids) {
+        return ids.stream()
+                .map(id -> deals.containsKey(id) ? deals.get(id) : archive.get(id))
+                .filter(Objects::nonNull)
+                .map(InMemoryDealRepository::copy)
+                .toList();
+    }
+
+    @Override
+    public List<Deal> findStale(DealStage stage, Instant afterUpdatedAt, String afterId, Instant updatedBefore, int limit) {
+        return staleDeals(stage, afterUpdatedAt, afterId, updatedBefore)
+                .sorted(Comparator.comparing(Deal::getUpdatedAt).thenComparing(Deal::getId))
+                .limit(limit)
+                .map(InMemoryDealRepository::copy)
+                .toList();
+    }
+
+    @Override
+    public long countStale(DealStage stage, Instant afterUpdatedAt, String afterId, Instant updatedBefore) {
+        return staleDeals(stage, afterUpdatedAt, afterId, updatedBefore).count();
+    }
+
+    private Stream<Deal> staleDeals(DealStage stage, Instant afterUpdatedAt, String afterId, Instant updatedBefore) {
+        return deals.values().stream()
+                .filter(deal -> deal.getCurrentStage() == stage && deal.getUpdatedAt() != null)
+                .filter(deal -> deal.getUpdatedAt().isBefore(updatedBefore))
+                .filter(deal -> afterId == null
+                        ? !deal.getUpdatedAt().isBefore(afterUpdatedAt)
+                        : deal.getUpdatedAt().isAfter(afterUpdatedAt)
+                        || (deal.getUpdatedAt().equals(afterUpdatedAt) && deal.getId().compareTo(afterId) > 0));
+    }
+
+    @Override
+    public List<Deal> findArchiveCandidates(Set<DealStage> stages, Instant updatedBefore, int limit) {
+        return deals.values().stream()
+                .filter(deal -> stages.contains(deal.getCurrentStage()) && deal.getUpdatedAt().isBefore(updatedBefore))
+                .sorted(Comparator.comparing(Deal::getUpdatedAt))
+                .limit(limit)
+                .map(InMemoryDealRepository::copy)
+                .toList();
+    }
+
+    @Override
+    public List<String> moveToArchive(List<Deal> batch, Instant archivedAt) {
+        List<String> moved = new ArrayList<>();
+        for (Deal deal : batch) {
+            boolean[] removed = {false};
+            deals.computeIfPresent(deal.getId(), (id, current) -> {
+                if (Objects.equals(current.getVersion(), deal.getVersion())) {
+                    removed[0] = true;
+                    return null;
+                }
+                return current;
+            });
+            if (removed[0]) {
+                Deal archived = copy(deal);
+                archived.setArchivedAt(archivedAt);
+                archive.put(deal.getId(), archived);
+                moved.add(deal.getId());
+            }
+        }
+        return moved;
+    }
+
+    @Override
+    public Deal findArchivedById(String id) {
+        Deal deal = archive.get(id);
+        return deal == null ? null : copy(deal);
+    }
+
+    @Override
+    public List<Deal> findArchivedByIds(Collection<String> ids) {
+        return ids.stream().map(archive::get).filter(Objects::nonNull).map(InMemoryDealRepository::copy).toList();
+    }
+
+    @Override
+    public Deal restoreFromArchive(String id, Instant restoredAt) {
+        Deal archived = archive.remove(id);
+        if (archived == null) {
+            return null;
+        }
+        archived.setArchivedAt(null);
+        archived.setUpdatedAt(restoredAt);
+        Deal hot = deals.putIfAbsent(id, archived);
+        return copy(hot != null ? hot : archived);
+    }
+
+    /* Deals are held as objects, there is no stored form to migrate */
+    @Override
+    public Set<String> findUncodedValues(String field) {
+        return Set.of();
+    }
+
+    @Override
+    public long encodeValue(String field, String value, int code) {
+        return 0;
+    }
+
+    // =========================
+    // QUERY BY EXAMPLE (unsupported)
+    // =========================
+
+    @Override
+    public <S extends Deal> Optional<S> findOne(Example<S> example) {
+        throw unsupported();
+    }
+
+    @Override
+    public <S extends Deal> List<S> findAll(Example<S> example) {
+        throw unsupported();
+    }
+
+    @Override
+    public <S extends Deal> List<S> findAll(Example<S> example, Sort sort) {
+        throw unsupported();
+    }
+
+    @Override
+    public <S extends Deal> Page<S> findAll(Example<S> example, Pageable pageable) {
+        throw unsupported();
+    }
+
+    @Override
+    public <S extends Deal> long count(Example<S> example) {
+        throw unsupported();
+    }
+
+    @Override
+    public <S extends Deal> boolean exists(Example<S> example) {
+        throw unsupported();
+    }
+
+    @Override
+    public <S extends Deal, R> R findBy(Example<S> example, Function<FluentQuery.FetchableFluentQuery<S>, R> queryFunction) {
+        throw unsupported();
+    }
+
+    private List<Deal> find(Predicate<Deal> predicate) {
+        return deals.values().stream().filter(predicate).map(InMemoryDealRepository::copy).toList();
+    }
+
+    private static UnsupportedOperationException unsupported() {
+        return new UnsupportedOperationException("Query by example is not supported in memory");
+    }
+
+    /* Field-by-field copy; notes are treated as immutable once written, so only the list is copied */
+    static Deal copy(Deal source) {
+        Deal deal = new Deal();
+        deal.setId(source.getId());
+        deal.setVersion(source.getVersion());
+        deal.setClientName(source.getClientName());
+        deal.setDealType(source.getDealType());
+        deal.setSector(source.getSector());
+        deal.setDealValue(source.getDealValue());
+        deal.setCurrentStage(source.getCurrentStage());
+        deal.setSummary(source.getSummary());
+        deal.setNotes(source.getNotes() == null ? new ArrayList<>() : new ArrayList<>(source.getNotes()));
+        deal.setCreatedBy(source.getCreatedBy());
+        deal.setAssignedTo(source.getAssignedTo());
+        deal.setWatchers(source.getWatchers() == null ? new ArrayList<>() : new ArrayList<>(source.getWatchers()));
+        deal.setCreatedAt(source.getCreatedAt());
+        deal.setUpdatedAt(source.getUpdatedAt());
+        deal.setStageEnteredAt(source.getStageEnteredAt());
+        deal.setArchivedAt(source.getArchivedAt());
+        return deal;
+    }
+}
@@ -0,0 +1,30 @@
+package org.example.ibpipeline.benchmarks.support;
+
+import org.example.ibpipeline.model.DictionaryEntry;
+import org.example.ibpipeline.repository.DictionaryRepository;
+import org.springframework.dao.DuplicateKeyException;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/* List-backed stand-in for MongoDictionaryRepository, with the same uniqueness rules */
+public class InMemoryDictionaryRepository implements DictionaryRepository {
+
+    private final List<DictionaryEntry> entries = new ArrayList<>();
+
+    @Override
+    public synchronized List<DictionaryEntry> findAll() {
+        return new ArrayList<>(entries);
+    }
+
+    @Override
+    public synchronized void insert(DictionaryEntry entry) {
+        for (DictionaryEntry existing : entries) {
+            if (existing.getId().equals(entry.getId())
+                    || (existing.getField() == entry.getField() && existing.getKey().equals(entry.getKey()))) {
+                throw new DuplicateKeyException("E11000 duplicate key: " + entry.getId());
+            }
+        }
+        entries.add(entry);
+    }
+}
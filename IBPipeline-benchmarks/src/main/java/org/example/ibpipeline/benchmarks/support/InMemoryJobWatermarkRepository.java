@@ -0,0 +1,26 @@
+package org.example.ibpipeline.benchmarks.support;
+
+import org.example.ibpipeline.model.JobWatermark;
+import org.example.ibpipeline.repository.JobWatermarkRepository;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/* Map-backed stand-in for MongoJobWatermarkRepository */
+public class InMemoryJobWatermarkRepository implements JobWatermarkRepository {
+
+    private final Map<String, JobWatermark> watermarks = new ConcurrentHashMap<>();
+
+    @Override
+    public JobWatermark find(String name) {
+        JobWatermark watermark = watermarks.get(name);
+        return watermark == null ? null
+                : new JobWatermark(watermark.getName(), watermark.getUpdatedAt(), watermark.getDealId(), watermark.getLastRunAt());
+    }
+
+    @Override
+    public void save(JobWatermark watermark) {
+        watermarks.put(watermark.getName(),
+                new JobWatermark(watermark.getName(), watermark.getUpdatedAt(), watermark.getDealId(), watermark.getLastRunAt()));
+    }
+}
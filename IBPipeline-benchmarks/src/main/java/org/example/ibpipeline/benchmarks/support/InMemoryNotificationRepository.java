@@ -0,0 +1,69 @@
+package org.example.ibpipeline.benchmarks.support;
+
+import org.bson.types.ObjectId;
+import org.example.ibpipeline.model.Notification;
+import org.example.ibpipeline.repository.NotificationRepository;
+
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/* Map-backed stand-in for MongoNotificationRepository; entries are shared, not copied */
+public class InMemoryNotificationRepository implements NotificationRepository {
+
+    private static final Comparator<Notification> NEWEST_FIRST =
+            Comparator.comparing(Notification::getCreatedAt).thenComparing(Notification::getId).reversed();
+
+    private final Map<String, Notification> notifications = new ConcurrentHashMap<>();
+
+    @Override
+    public void insertAll(List<Notification> batch) {
+        for (Notification notification : batch) {
+            notification.setId(new ObjectId().toHexString());
+            notifications.put(notification.getId(), notification);
+        }
+    }
+
+    @Override
+    public List<Notification> findPage(String userId, Instant beforeCreatedAt, String beforeId, int limit) {
+        return notifications.values().stream()
+                .filter(notification -> notification.getUserId().equals(userId))
+                .filter(notification -> beforeId == null
+                        || notification.getCreatedAt().isBefore(beforeCreatedAt)
+                        || (notification.getCreatedAt().equals(beforeCreatedAt) && notification.getId().compareTo(beforeId) < 0))
+                .sorted(NEWEST_FIRST)
+                .limit(limit)
+                .toList();
+    }
+
+    @Override
+    public long countUnread(String userId) {
+        return notifications.values().stream()
+                .filter(notification -> notification.getUserId().equals(userId) && !notification.isRead())
+                .count();
+    }
+
+    @Override
+    public boolean markRead(String userId, String id) {
+        Notification notification = notifications.get(id);
+        if (notification == null || !notification.getUserId().equals(userId) || notification.isRead()) {
+            return false;
+        }
+        notification.setRead(true);
+        return true;
+    }
+
+    @Override
+    public long markAllRead(String userId) {
+        long changed = 0;
+        for (Notification notification : notifications.values()) {
+            if (notification.getUserId().equals(userId) && !notification.isRead()) {
+                notification.setRead(true);
+                changed++;
+            }
+        }
+        return changed;
+    }
+}
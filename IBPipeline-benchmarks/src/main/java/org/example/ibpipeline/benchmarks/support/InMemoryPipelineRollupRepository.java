@@ -0,0 +1,48 @@
+package org.example.ibpipeline.benchmarks.support;
+
+import org.example.ibpipeline.model.DealEventRecord;
+import org.example.ibpipeline.model.PipelineRollup;
+import org.example.ibpipeline.repository.PipelineRollupRepository;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/* Map-backed stand-in for MongoPipelineRollupRepository; the event log has no TTL here */
+public class InMemoryPipelineRollupRepository implements PipelineRollupRepository {
+
+    private final Map<String, DealEventRecord> events = new ConcurrentHashMap<>();
+    private final NavigableMap<String, PipelineRollup> rollups = new ConcurrentSkipListMap<>();
+
+    @Override
+    public void saveEvent(DealEventRecord event) {
+        events.putIfAbsent(event.getEventId(), event);
+    }
+
+    @Override
+    public List<DealEventRecord> findEvents(Instant from, Instant to) {
+        return events.values().stream()
+                .filter(event -> !event.getConsumedAt().isBefore(from) && event.getConsumedAt().isBefore(to))
+                .toList();
+    }
+
+    @Override
+    public PipelineRollup findLatest() {
+        Map.Entry<String, PipelineRollup> last = rollups.lastEntry();
+        return last == null ? null : last.getValue();
+    }
+
+    @Override
+    public void save(PipelineRollup rollup) {
+        rollups.put(rollup.getDay(), rollup);
+    }
+
+    @Override
+    public List<PipelineRollup> findBetween(LocalDate from, LocalDate to) {
+        return List.copyOf(rollups.subMap(from.toString(), true, to.toString(), true).values());
+    }
+}
@@ -0,0 +1,47 @@
+package org.example.ibpipeline.benchmarks.support;
+
+import org.example.ibpipeline.model.DealStageHistory;
+import org.example.ibpipeline.model.StageStats;
+import org.example.ibpipeline.repository.StageHistoryRepository;
+
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/* Map-backed stand-in for MongoStageHistoryRepository; keeps the transitions, velocity counters are not kept */
+public class InMemoryStageHistoryRepository implements StageHistoryRepository {
+
+    private final Map<String, List<DealStageHistory.Transition>> transitions = new ConcurrentHashMap<>();
+
+    @Override
+    public void append(List<Entry> entries) {
+        for (Entry entry : entries) {
+            List<DealStageHistory.Transition> list = transitions.computeIfAbsent(entry.dealId(), id -> new ArrayList<>());
+            synchronized (list) {
+                list.add(entry.transition());
+            }
+        }
+    }
+
+    @Override
+    public List<DealStageHistory> findHistory(String dealId) {
+        List<DealStageHistory.Transition> list = transitions.get(dealId);
+        if (list == null) {
+            return List.of();
+        }
+        DealStageHistory history = new DealStageHistory();
+        history.setDealId(dealId);
+        synchronized (list) {
+            history.setTransitions(new ArrayList<>(list));
+        }
+        history.setCount(history.getTransitions().size());
+        return List.of(history);
+    }
+
+    @Override
+    public List<StageStats> findStats(String sector, YearMonth from, YearMonth to) {
+        return List.of();
+    }
+}
@@ -0,0 +1,232 @@
+package org.example.ibpipeline.benchmarks.support;
+
+import org.bson.types.ObjectId;
+import org.example.ibpipeline.dto.UserFilter;
+import org.example.ibpipeline.model.User;
+import org.example.ibpipeline.repository.UserRepository;
+import org.springframework.data.domain.Example;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.repository.query.FluentQuery;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/*
+ * ConcurrentHashMap stand-in for the Mongo-backed UserRepository, with a username index
+ * so login lookups stay O(1) like the unique index in Mongo. Query-by-example is not supported.
+ */
+public class InMemoryUserRepository implements UserRepository {
+
+    private final Map<String, User> users = new ConcurrentHashMap<>();
+    private final Map<String, String> idsByUsername = new ConcurrentHashMap<>();
+
+    @Override
+    public synchronized <S extends User> S save(S user) {
+        if (user.getId() == null) {
+            user.setId(new ObjectId().toHexString());
+        }
+        User previous = users.put(user.getId(), copy(user));
+        if (previous != null) {
+            idsByUsername.remove(previous.getUsername());
+        }
+        idsByUsername.put(user.getUsername(), user.getId());
+        return user;
+    }
+
+    @Override
+    public <S extends User> List<S> saveAll(Iterable<S> entities) {
+        List<S> saved = new ArrayList<>();
+        entities.forEach(user -> saved.add(save(user)));
+        return saved;
+    }
+
+    @Override
+    public <S extends User> S insert(S user) {
+        return save(user);
+    }
+
+    @Override
+    public <S extends User> List<S> insert(Iterable<S> entities) {
+        return saveAll(entities);
+    }
+
+    @Override
+    public Optional<User> findByUsername(String username) {
+        String id = idsByUsername.get(username);
+        return id == null ? Optional.empty() : findById(id);
+    }
+
+    @Override
+    public Optional<User> findByEmail(String email) {
+        return users.values().stream().filter(user -> Objects.equals(user.getEmail(), email)).findFirst().map(InMemoryUserRepository::copy);
+    }
+
+    @Override
+    public boolean existsByUsername(String username) {
+        return idsByUsername.containsKey(username);
+    }
+
+    @Override
+    public boolean existsByEmail(String email) {
+        return findByEmail(email).isPresent();
+    }
+
+    @Override
+    public List<User> findDirectoryPage(UserFilter filter, String afterUsername, int limit) {
+        return streamDirectory(filter)
+                .filter(user -> afterUsername == null || user.getUsername().compareTo(afterUsername) > 0)
+                .limit(limit)
+                .toList();
+    }
+
+    @Override
+    public Stream<User> streamDirectory(UserFilter filter) {
+        return users.values().stream()
+                .filter(user -> filter.matches(user.getUsername(), user.getRole(), user.isActive()))
+                .sorted(Comparator.comparing(User::getUsername))
+                .map(user -> {
+                    User copy = copy(user);
+                    copy.setPassword(null);
+                    return copy;
+                });
+    }
+
+    @Override
+    public Optional<User> findById(String id) {
+        return Optional.ofNullable(users.get(id)).map(InMemoryUserRepository::copy);
+    }
+
+    @Override
+    public boolean existsById(String id) {
+        return users.containsKey(id);
+    }
+
+    @Override
+    public List<User> findAll() {
+        return users.values().stream().map(InMemoryUserRepository::copy).toList();
+    }
+
+    @Override
+    public List<User> findAll(Sort sort) {
+        if (sort.isSorted()) {
+            throw new UnsupportedOperationException("Sorted findAll is not supported in memory");
+        }
+        return findAll();
+    }
+
+    @Override
+    public Page<User> findAll(Pageable pageable) {
+        List<User> all = findAll();
+        if (pageable.isUnpaged()) {
+            return new PageImpl<>(all);
+        }
+        int from = (int) Math.min(pageable.getOffset(), all.size());
+        int to = Math.min(from + pageable.getPageSize(), all.size());
+        return new PageImpl<>(all.subList(from, to), pageable, all.size());
+    }
+
+    @Override
+    public List<User> findAllById(Iterable<String> ids) {
+        return StreamSupport.stream(ids.spliterator(), false)
+                .map(users::get)
+                .filter(Objects::nonNull)
+                .map(InMemoryUserRepository::copy)
+                .toList();
+    }
+
+    @Override
+    public long count() {
+        return users.size();
+    }
+
+    @Override
+    public synchronized void deleteById(String id) {
+        User removed = users.remove(id);
+        if (removed != null) {
+            idsByUsername.remove(removed.getUsername());
+        }
+    }
+
+    @Override
+    public void delete(User user) {
+        deleteById(user.getId());
+    }
+
+    @Override
+    public void deleteAllById(Iterable<? extends String> ids) {
+        ids.forEach(this::deleteById);
+    }
+
+    @Override
+    public void deleteAll(Iterable<? extends User> entities) {
+        entities.forEach(this::delete);
+    }
+
+    @Override
+    public synchronized void deleteAll() {
+        users.clear();
+        idsByUsername.clear();
+    }
+
+    @Override
+    public <S extends User> Optional<S> findOne(Example<S> example) {
+        throw unsupported();
+    }
+
+    @Override
+    public <S extends User> List<S> findAll(Example<S> example) {
+        throw unsupported();
+    }
+
+    @Override
+    public <S extends User> List<S> findAll(Example<S> example, Sort sort) {
+        throw unsupported();
+    }
+
+    @Override
+    public <S extends User> Page<S> findAll(Example<S> example, Pageable pageable) {
+        throw unsupported();
+    }
+
+    @Override
+    public <S extends User> long count(Example<S> example) {
+        throw unsupported();
+    }
+
+    @Override
+    public <S extends User> boolean exists(Example<S> example) {
+        throw unsupported();
+    }
+
+    @Override
+    public <S extends User, R> R findBy(Example<S> example, Function<FluentQuery.FetchableFluentQuery<S>, R> queryFunction) {
+        throw unsupported();
+    }
+
+    private static UnsupportedOperationException unsupported() {
+        return new UnsupportedOperationException("Query by example is not supported in memory");
+    }
+
+    static User copy(User source) {
+        User user = new User();
+        user.setId(source.getId());
+        user.setUsername(source.getUsername());
+        user.setEmail(source.getEmail());
+        user.setPassword(source.getPassword());
+        user.setRole(source.getRole());
+        user.setActive(source.isActive());
+        user.setCreated(source.getCreated());
+        return user;
+    }
+}
@@ -0,0 +1,16 @@
+package org.example.ibpipeline.common;
+
+import java.time.Instant;
+
+public class VersionConflictResponse extends ApiResponse {
+    private Long currentVersion;
+
+    public VersionConflictResponse(String message, Long currentVersion, Instant timestamp) {
+        super(false, message, timestamp);
+        this.currentVersion = currentVersion;
+    }
+
+    public Long getCurrentVersion() {
+        return currentVersion;
+    }
+}
@@ -0,0 +1,169 @@
+package org.example.ibpipeline.config;
+
+import io.micrometer.context.ContextSnapshotFactory;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+public class AsyncConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(AsyncConfig.class);
+
+    public static final String DEAL_EVENT_EXECUTOR = "dealEventExecutor";
+
+    public static final String STAGE_HISTORY_EXECUTOR = "stageHistoryExecutor";
+
+    private static final ThreadLocal<Boolean> DRAINING_SPILL = ThreadLocal.withInitial(() -> false);
+
+    private static final ContextSnapshotFactory CONTEXT_SNAPSHOTS = ContextSnapshotFactory.builder().build();
+
+    @Value("${app.async.deal-events.core-size:2}")
+    private int coreSize;
+
+    @Value("${app.async.deal-events.max-size:4}")
+    private int maxSize;
+
+    @Value("${app.async.deal-events.queue-capacity:1000}")
+    private int queueCapacity;
+
+    @Value("${app.async.deal-events.overflow-policy:CALLER_RUNS}")
+    private ExecutorOverflowPolicy overflowPolicy;
+
+    @Value("${app.async.deal-events.spill-capacity:10000}")
+    private int spillCapacity;
+
+    @Value("${app.async.stage-history.queue-capacity:10000}")
+    private int stageHistoryQueueCapacity;
+
+    @Value("${app.async.stage-history.overflow-policy:CALLER_RUNS}")
+    private ExecutorOverflowPolicy stageHistoryOverflowPolicy;
+
+    @Value("${app.async.stage-history.spill-capacity:10000}")
+    private int stageHistorySpillCapacity;
+
+    /*
+     * Dedicated, bounded executor for Kafka event publishing.
+     * Boot's executor metrics already cover the pool (executor.queued, executor.active, ...);
+     * this adds an executor.spilled gauge, an executor.wait timer (time between submit and
+     * start) and executor.rejected counters, all tagged with name=dealEventExecutor.
+     */
+    @Bean(name = DEAL_EVENT_EXECUTOR)
+    public ThreadPoolTaskExecutor dealEventExecutor(MeterRegistry meterRegistry) {
+        return boundedExecutor(DEAL_EVENT_EXECUTOR, "deal-events-", coreSize, maxSize, queueCapacity,
+                overflowPolicy, spillCapacity, meterRegistry);
+    }
+
+    /*
+     * Stage history writes, taken off the DealChangeListener callbacks. One thread keeps queued
+     * writes in order, but CALLER_RUNS and SPILL let an overflowing write overtake them, so
+     * StageHistoryService.timeline sorts transitions by time rather than relying on bucket order.
+     * The stats counters are sums and do not depend on order.
+     */
+    @Bean(name = STAGE_HISTORY_EXECUTOR)
+    public ThreadPoolTaskExecutor stageHistoryExecutor(MeterRegistry meterRegistry) {
+        return boundedExecutor(STAGE_HISTORY_EXECUTOR, "stage-history-", 1, 1, stageHistoryQueueCapacity,
+                stageHistoryOverflowPolicy, stageHistorySpillCapacity, meterRegistry);
+    }
+
+    private ThreadPoolTaskExecutor boundedExecutor(String name, String threadPrefix, int coreSize, int maxSize,
+                                                   int queueCapacity, ExecutorOverflowPolicy overflowPolicy,
+                                                   int spillCapacity, MeterRegistry meterRegistry) {
+        BlockingQueue<Runnable> spillQueue = new ArrayBlockingQueue<>(Math.max(1, spillCapacity));
+        Timer waitTimer = Timer.builder("executor.wait")
+                .description("Time a task spent queued before it started running")
+                .tag("name", name)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor() {
+            @Override
+            public void shutdown() {
+                super.shutdown();
+                runSpilledOnShutdown(name, spillQueue);
+            }
+        };
+        executor.setThreadNamePrefix(threadPrefix);
+        executor.setCorePoolSize(coreSize);
+        executor.setMaxPoolSize(Math.max(coreSize, maxSize));
+        executor.setQueueCapacity(queueCapacity);
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(10);
+        executor.setRejectedExecutionHandler(
+                new OverflowRejectedExecutionHandler(name, overflowPolicy, spillQueue, meterRegistry));
+
+        // Decoration happens at submit time, so the wrapper can measure queue wait and carry the
+        // caller's observation (trace) context over to the worker thread.
+        // When a worker frees up it drains one spilled task, and keeps draining while the main queue is empty.
+        executor.setTaskDecorator(task -> {
+            long submittedAt = System.nanoTime();
+            Runnable withContext = CONTEXT_SNAPSHOTS.captureAll().wrap(task);
+            return () -> {
+                waitTimer.record(System.nanoTime() - submittedAt, TimeUnit.NANOSECONDS);
+                try {
+                    withContext.run();
+                } finally {
+                    if (!DRAINING_SPILL.get()) {
+                        drainSpill(spillQueue, executor);
+                    }
+                }
+            };
+        });
+
+        Gauge.builder("executor.spilled", spillQueue, BlockingQueue::size)
+                .description("Tasks parked in the spill buffer")
+                .tag("name", name)
+                .register(meterRegistry);
+
+        return executor;
+    }
+
+    /*
+     * Workers drain the spill buffer after their own tasks, but whatever is still parked once
+     * the pool has stopped (or the termination wait ran out) would be lost: run it here.
+     */
+    private static void runSpilledOnShutdown(String name, BlockingQueue<Runnable> spillQueue) {
+        int ran = 0;
+        int failed = 0;
+        DRAINING_SPILL.set(true);
+        try {
+            for (Runnable spilled; (spilled = spillQueue.poll()) != null; ) {
+                try {
+                    spilled.run();
+                    ran++;
+                } catch (RuntimeException e) {
+                    failed++;
+                    logger.warn("Executor {} spilled task failed during shutdown", name, e);
+                }
+            }
+        } finally {
+            DRAINING_SPILL.set(false);
+        }
+        if (ran + failed > 0) {
+            logger.info("Executor {} ran {} spilled tasks on shutdown ({} failed)", name, ran + failed, failed);
+        }
+    }
+
+    private static void drainSpill(BlockingQueue<Runnable> spillQueue, ThreadPoolTaskExecutor executor) {
+        DRAINING_SPILL.set(true);
+        try {
+            Runnable spilled = spillQueue.poll();
+            while (spilled != null) {
+                spilled.run();
+                spilled = executor.getQueueSize() == 0 ? spillQueue.poll() : null;
+            }
+        } finally {
+            DRAINING_SPILL.set(false);
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package org.example.ibpipeline.config;
 
+import org.example.ibpipeline.model.Deal;
 import org.example.ibpipeline.model.User;
 import org.example.ibpipeline.model.Role;
 import org.example.ibpipeline.repository.UserRepository;
@@ -8,6 +9,10 @@ import org.slf4j.LoggerFactory;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
 import java.time.Instant;
@@ -38,4 +43,20 @@ public class DatabaseInitializer {
             }
         };
     }
+
+    /* Deals written before optimistic locking have no version; start them at 0 so saves update instead of insert */
+    @Bean
+    public CommandLineRunner initDealVersions(MongoTemplate mongoTemplate) {
+        return args -> {
+            long migrated = mongoTemplate.updateMulti(
+                    Query.query(Criteria.where("version").exists(false)),
+                    new Update().set("version", 0L),
+                    Deal.class
+            ).getModifiedCount();
+
+            if (migrated > 0) {
+                logger.info("Initialized version on {} existing deals", migrated);
+            }
+        };
+    }
 }
@@ -0,0 +1,41 @@
+package org.example.ibpipeline.config;
+
+import org.example.ibpipeline.dto.DictionaryField;
+import org.example.ibpipeline.model.Deal;
+import org.example.ibpipeline.service.DealDictionary;
+import org.springframework.data.convert.PropertyValueConversions;
+import org.springframework.data.convert.PropertyValueConverter;
+import org.springframework.data.convert.ValueConversionContext;
+import org.springframework.data.mapping.PersistentProperty;
+
+import java.util.Map;
+
+/*
+ * Routes Deal.sector and Deal.dealType through DictionaryValueConverter.
+ *
+ * Used instead of the registrar-based SimplePropertyValueConversions, whose getValueConverter
+ * formats an assertion message with the property's toString (every annotation included) on
+ * each call, which made decoding a coded deal about 1.7x slower than a plain one.
+ */
+public class DictionaryValueConversions implements PropertyValueConversions {
+
+    private final Map<String, DictionaryValueConverter> dealConverters;
+
+    public DictionaryValueConversions(DealDictionary dictionary) {
+        this.dealConverters = Map.of(
+                "sector", new DictionaryValueConverter(dictionary, DictionaryField.SECTOR),
+                "dealType", new DictionaryValueConverter(dictionary, DictionaryField.DEAL_TYPE));
+    }
+
+    @Override
+    public boolean hasValueConverter(PersistentProperty<?> property) {
+        return property.getOwner().getType() == Deal.class && dealConverters.containsKey(property.getName());
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <DV, SV, P extends PersistentProperty<P>, VCC extends ValueConversionContext<P>>
+    PropertyValueConverter<DV, SV, VCC> getValueConverter(P property) {
+        return (PropertyValueConverter<DV, SV, VCC>) (PropertyValueConverter<?, ?, ?>) dealConverters.get(property.getName());
+    }
+}
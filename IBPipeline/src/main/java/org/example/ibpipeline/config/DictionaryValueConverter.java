@@ -0,0 +1,32 @@
+package org.example.ibpipeline.config;
+
+import org.example.ibpipeline.dto.DictionaryField;
+import org.example.ibpipeline.service.DealDictionary;
+import org.springframework.data.mongodb.core.convert.MongoConversionContext;
+import org.springframework.data.mongodb.core.convert.MongoValueConverter;
+
+/*
+ * Stores a dictionary-managed deal field as its code. Applied by the mapping converter on
+ * entity reads and writes, and by the query and update mappers to values compared with the
+ * field, so criteria like where("sector").is("Energy") match the coded documents.
+ */
+public class DictionaryValueConverter implements MongoValueConverter<String, Object> {
+
+    private final DealDictionary dictionary;
+    private final DictionaryField field;
+
+    public DictionaryValueConverter(DealDictionary dictionary, DictionaryField field) {
+        this.dictionary = dictionary;
+        this.field = field;
+    }
+
+    @Override
+    public String read(Object value, MongoConversionContext context) {
+        return dictionary.decode(field, value);
+    }
+
+    @Override
+    public Object write(String value, MongoConversionContext context) {
+        return dictionary.encode(field, value);
+    }
+}
@@ -0,0 +1,11 @@
+package org.example.ibpipeline.config;
+
+/* What a bounded executor does with a task once its queue is full */
+public enum ExecutorOverflowPolicy {
+    /* Run the task on the submitting thread (back-pressure on the caller) */
+    CALLER_RUNS,
+    /* Park the task in a secondary bounded buffer drained by the workers */
+    SPILL,
+    /* Discard the task and count it */
+    DROP
+}
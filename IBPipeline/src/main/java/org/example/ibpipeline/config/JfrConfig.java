@@ -0,0 +1,37 @@
+package org.example.ibpipeline.config;
+
+import org.example.ibpipeline.event.jfr.DealOperationRecorder;
+import org.example.ibpipeline.repository.DealRepository;
+import org.example.ibpipeline.service.DealService;
+import org.example.ibpipeline.service.KafkaProducerService;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class JfrConfig {
+
+    /*
+     * Wraps DealService, DealRepository and KafkaProducerService with the DealOperationRecorder
+     * interceptors. Not ordered, so it runs after the @Async post-processor and the publish time
+     * is the hand-off to the executor, not the send.
+     */
+    @Bean
+    public static BeanPostProcessor dealOperationRecorderPostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DealService) {
+                    return DealOperationRecorder.advise(bean, DealOperationRecorder.operations());
+                }
+                if (bean instanceof DealRepository) {
+                    return DealOperationRecorder.advise(bean, DealOperationRecorder.mongo());
+                }
+                if (bean instanceof KafkaProducerService) {
+                    return DealOperationRecorder.advise(bean, DealOperationRecorder.publish());
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -2,6 +2,7 @@ package org.example.ibpipeline.config;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.clients.producer.ProducerConfig;
 import org.apache.kafka.common.serialization.StringDeserializer;
@@ -27,29 +28,39 @@ public class KafkaConfig {
     @Value("${spring.kafka.consumer.group-id}")
     private String consumerGroupId;
 
-    // Producer Configuration
+    /* ObjectMapper used on both sides of the deal-events topic */
+    public static ObjectMapper dealEventObjectMapper() {
+        ObjectMapper objectMapper = new ObjectMapper();
+        objectMapper.registerModule(new JavaTimeModule());
+        return objectMapper;
+    }
+
+    // Producer Configuration (client metrics such as record-send-rate are bound to the MeterRegistry)
     @Bean
-    public ProducerFactory<String, DealEvent> producerFactory() {
+    public ProducerFactory<String, DealEvent> producerFactory(MeterRegistry meterRegistry) {
         Map<String, Object> configProps = new HashMap<>();
         configProps.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
         configProps.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
         configProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, JsonSerializer.class);
         
-        ObjectMapper objectMapper = new ObjectMapper();
-        objectMapper.registerModule(new JavaTimeModule());
-        
-        JsonSerializer<DealEvent> jsonSerializer = new JsonSerializer<>(objectMapper);
-        return new DefaultKafkaProducerFactory<>(configProps, new StringSerializer(), jsonSerializer);
+        JsonSerializer<DealEvent> jsonSerializer = new JsonSerializer<>(dealEventObjectMapper());
+        DefaultKafkaProducerFactory<String, DealEvent> factory =
+                new DefaultKafkaProducerFactory<>(configProps, new StringSerializer(), jsonSerializer);
+        factory.addListener(new MicrometerProducerListener<>(meterRegistry));
+        return factory;
     }
 
     @Bean
-    public KafkaTemplate<String, DealEvent> kafkaTemplate() {
-        return new KafkaTemplate<>(producerFactory());
+    public KafkaTemplate<String, DealEvent> kafkaTemplate(ProducerFactory<String, DealEvent> producerFactory) {
+        KafkaTemplate<String, DealEvent> template = new KafkaTemplate<>(producerFactory);
+        // send span + traceparent header on every record
+        template.setObservationEnabled(true);
+        return template;
     }
 
-    // Consumer Configuration
+    // Consumer Configuration (client metrics include kafka.consumer.fetch.manager.records.lag.max)
     @Bean
-    public ConsumerFactory<String, DealEvent> consumerFactory() {
+    public ConsumerFactory<String, DealEvent> consumerFactory(MeterRegistry meterRegistry) {
         Map<String, Object> configProps = new HashMap<>();
         configProps.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
         configProps.put(ConsumerConfig.GROUP_ID_CONFIG, consumerGroupId);
@@ -57,22 +68,25 @@ public class KafkaConfig {
         configProps.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, JsonDeserializer.class);
         configProps.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
         
-        ObjectMapper objectMapper = new ObjectMapper();
-        objectMapper.registerModule(new JavaTimeModule());
-        
-        JsonDeserializer<DealEvent> jsonDeserializer = new JsonDeserializer<>(DealEvent.class, objectMapper);
+        JsonDeserializer<DealEvent> jsonDeserializer = new JsonDeserializer<>(DealEvent.class, dealEventObjectMapper());
         jsonDeserializer.setRemoveTypeHeaders(false);
         jsonDeserializer.addTrustedPackages("*");
         jsonDeserializer.setUseTypeMapperForKey(false);
         
-        return new DefaultKafkaConsumerFactory<>(configProps, new StringDeserializer(), jsonDeserializer);
+        DefaultKafkaConsumerFactory<String, DealEvent> factory =
+                new DefaultKafkaConsumerFactory<>(configProps, new StringDeserializer(), jsonDeserializer);
+        factory.addListener(new MicrometerConsumerListener<>(meterRegistry));
+        return factory;
     }
 
     @Bean
-    public ConcurrentKafkaListenerContainerFactory<String, DealEvent> kafkaListenerContainerFactory() {
+    public ConcurrentKafkaListenerContainerFactory<String, DealEvent> kafkaListenerContainerFactory(
+            ConsumerFactory<String, DealEvent> consumerFactory) {
         ConcurrentKafkaListenerContainerFactory<String, DealEvent> factory =
                 new ConcurrentKafkaListenerContainerFactory<>();
-        factory.setConsumerFactory(consumerFactory());
+        factory.setConsumerFactory(consumerFactory);
+        // receive span continuing the trace from the record's traceparent header
+        factory.getContainerProperties().setObservationEnabled(true);
         return factory;
     }
 }
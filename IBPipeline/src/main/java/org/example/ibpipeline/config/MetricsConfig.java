@@ -0,0 +1,46 @@
+package org.example.ibpipeline.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import org.springframework.data.repository.core.support.RepositoryMethodInvocationListener;
+
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+public class MetricsConfig {
+
+    /*
+     * Times every repository method (derived queries, CRUD and DealRepositoryCustom fragments)
+     * as spring.data.repository.invocations{repository, method, state}. Mongo driver command
+     * timers (mongodb.driver.commands) come from Spring Boot's Mongo metrics auto-configuration.
+     */
+    @Bean
+    public static BeanPostProcessor repositoryMetricsPostProcessor(ObjectProvider<MeterRegistry> meterRegistry) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+                    RepositoryMethodInvocationListener listener = invocation -> {
+                        Throwable error = invocation.getResult() == null ? null : invocation.getResult().getError();
+                        Timer.builder("spring.data.repository.invocations")
+                                .description("Duration of repository method invocations")
+                                .tag("repository", invocation.getRepositoryInterface().getSimpleName())
+                                .tag("method", invocation.getMethod().getName())
+                                .tag("state", invocation.getResult() == null ? "UNKNOWN" : invocation.getResult().getState().name())
+                                .tag("exception", error == null ? "none" : error.getClass().getSimpleName())
+                                .publishPercentileHistogram()
+                                .register(meterRegistry.getObject())
+                                .record(invocation.getDuration(TimeUnit.NANOSECONDS), TimeUnit.NANOSECONDS);
+                    };
+                    factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addInvocationListener(listener));
+                }
+                return bean;
+            }
+        };
+    }
+}
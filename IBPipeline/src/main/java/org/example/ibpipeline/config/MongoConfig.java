@@ -0,0 +1,209 @@
+package org.example.ibpipeline.config;
+
+import com.mongodb.MongoCompressor;
+import com.mongodb.ReadConcern;
+import com.mongodb.ReadConcernLevel;
+import com.mongodb.WriteConcern;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.example.ibpipeline.model.DealEventRecord;
+import org.example.ibpipeline.model.DealStageHistory;
+import org.example.ibpipeline.model.JobWatermark;
+import org.example.ibpipeline.model.Notification;
+import org.example.ibpipeline.model.PipelineRollup;
+import org.example.ibpipeline.model.StageStats;
+import org.example.ibpipeline.repository.ReadConcernResolver;
+import org.example.ibpipeline.service.DealDictionary;
+import org.example.ibpipeline.service.SlowQueryMonitor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.data.mongodb.autoconfigure.DataMongoProperties;
+import org.springframework.boot.mongodb.autoconfigure.MongoClientSettingsBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.WriteConcernResolver;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.observability.ContextProviderFactory;
+import org.springframework.data.mongodb.observability.MongoObservationCommandListener;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+public class MongoConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(MongoConfig.class);
+
+    /*
+     * Written by the Kafka consumers and scheduled jobs, which retry or replay on failure, and
+     * read back by those jobs and the analytics endpoints
+     */
+    static final Set<Class<?>> BACKGROUND_ENTITIES = Set.of(DealEventRecord.class, DealStageHistory.class,
+            StageStats.class, PipelineRollup.class, Notification.class, JobWatermark.class);
+
+    @Value("${app.mongo.pool.min-size:0}")
+    private int poolMinSize;
+
+    @Value("${app.mongo.pool.max-size:100}")
+    private int poolMaxSize = 100;
+
+    /* How long an operation waits for a free connection before failing */
+    @Value("${app.mongo.pool.max-wait:PT2M}")
+    private Duration poolMaxWait = Duration.ofMinutes(2);
+
+    @Value("${app.mongo.pool.max-connecting:2}")
+    private int poolMaxConnecting = 2;
+
+    /* 0 keeps idle connections open */
+    @Value("${app.mongo.pool.max-idle-time:PT0S}")
+    private Duration poolMaxIdleTime = Duration.ZERO;
+
+    /* In order of preference; the server picks the first one it supports */
+    @Value("${app.mongo.compressors:}")
+    private List<String> compressors = List.of();
+
+    /* local, majority, available, linearizable or snapshot */
+    @Value("${app.mongo.read-concern:local}")
+    private String readConcern = "local";
+
+    @Value("${app.mongo.read-concern.background:local}")
+    private String backgroundReadConcern = "local";
+
+    /* WriteConcern constant names; acknowledged leaves w to the server default */
+    @Value("${app.mongo.write-concern.default:acknowledged}")
+    private String defaultWriteConcern = "acknowledged";
+
+    @Value("${app.mongo.write-concern.background:acknowledged}")
+    private String backgroundWriteConcern = "acknowledged";
+
+    /* Adds the slow-query listener to the auto-configured MongoClient */
+    @Bean
+    public MongoClientSettingsBuilderCustomizer slowQueryListenerCustomizer(SlowQueryMonitor slowQueryMonitor) {
+        return builder -> builder.addCommandListener(slowQueryMonitor);
+    }
+
+    /* One span per Mongo command, parented to the current request or listener span */
+    @Bean
+    public MongoClientSettingsBuilderCustomizer mongoObservationCustomizer(ObservationRegistry observationRegistry) {
+        return builder -> builder
+                .contextProvider(ContextProviderFactory.create(observationRegistry))
+                .addCommandListener(new MongoObservationCommandListener(observationRegistry));
+    }
+
+    /*
+     * Pool sizing, wire compression and the default read and write concerns from app.mongo.*.
+     * Runs after Boot's customizer that applies spring.mongodb.uri, so these settings win over
+     * the same options given in the connection string.
+     */
+    @Bean
+    public MongoClientSettingsBuilderCustomizer mongoClientTuningCustomizer(MeterRegistry meterRegistry) {
+        List<MongoCompressor> compressorList = compressors(compressors);
+        WriteConcern writeConcern = writeConcern(defaultWriteConcern);
+        ReadConcern readConcernLevel = readConcern(readConcern);
+        logger.info("Mongo client: pool {}..{} connections, max wait {}, compressors {}, read concern {} (background {}), write concern {} (background {})",
+                poolMinSize, poolMaxSize, poolMaxWait, compressors, readConcern, backgroundReadConcern,
+                defaultWriteConcern, backgroundWriteConcern);
+
+        return builder -> builder
+                .applyToConnectionPoolSettings(pool -> pool
+                        .minSize(poolMinSize)
+                        .maxSize(poolMaxSize)
+                        .maxWaitTime(poolMaxWait.toMillis(), TimeUnit.MILLISECONDS)
+                        .maxConnecting(poolMaxConnecting)
+                        .maxConnectionIdleTime(poolMaxIdleTime.toMillis(), TimeUnit.MILLISECONDS)
+                        .addConnectionPoolListener(new MongoPoolMetricsListener(meterRegistry)))
+                .compressorList(compressorList)
+                .readConcern(readConcernLevel)
+                .writeConcern(writeConcern);
+    }
+
+    /*
+     * Background writes (event log, stage history, rollups, notifications, job watermarks) use
+     * app.mongo.write-concern.background; everything else keeps the client default. Raw driver
+     * calls (bulk imports, archive moves) bypass the resolver and use the client default too.
+     */
+    @Bean
+    public WriteConcernResolver writeConcernResolver() {
+        WriteConcern background = writeConcern(backgroundWriteConcern);
+        return action -> BACKGROUND_ENTITIES.contains(action.getEntityType())
+                ? background
+                : action.getDefaultWriteConcern();
+    }
+
+    /*
+     * Reads of the same entities (stage history and stats, rollups and the event log, notifications,
+     * job watermarks) use app.mongo.read-concern.background; the repositories apply it to each
+     * Query, since MongoTemplate only takes a read concern per query or per client
+     */
+    @Bean
+    public ReadConcernResolver readConcernResolver() {
+        ReadConcern background = readConcern(backgroundReadConcern);
+        return entityType -> BACKGROUND_ENTITIES.contains(entityType) ? background : null;
+    }
+
+    /* Boot's auto-configured MongoTemplate does not pick up a WriteConcernResolver bean by itself */
+    @Bean
+    public static BeanPostProcessor writeConcernResolverPostProcessor(ObjectProvider<WriteConcernResolver> resolver) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof MongoTemplate template) {
+                    template.setWriteConcernResolver(resolver.getObject());
+                }
+                return bean;
+            }
+        };
+    }
+
+    /*
+     * Replaces Boot's conversions to store sector and dealType as dictionary codes, keeping
+     * its spring.data.mongodb.representation.big-decimal setting
+     */
+    @Bean
+    public MongoCustomConversions mongoCustomConversions(ObjectProvider<DataMongoProperties> properties,
+                                                         DealDictionary dictionary) {
+        return MongoCustomConversions.create(adapter -> {
+            properties.ifAvailable(mongo -> {
+                if (mongo.getRepresentation().getBigDecimal() != null) {
+                    adapter.bigDecimal(mongo.getRepresentation().getBigDecimal());
+                }
+            });
+            adapter.withPropertyValueConversions(new DictionaryValueConversions(dictionary));
+        });
+    }
+
+    static List<MongoCompressor> compressors(List<String> names) {
+        List<MongoCompressor> compressors = new ArrayList<>();
+        for (String name : names) {
+            switch (name.trim().toLowerCase()) {
+                case "" -> { }
+                case "zstd" -> compressors.add(MongoCompressor.createZstdCompressor());
+                case "snappy" -> compressors.add(MongoCompressor.createSnappyCompressor());
+                case "zlib" -> compressors.add(MongoCompressor.createZlibCompressor());
+                default -> throw new IllegalArgumentException("Unknown Mongo compressor: " + name);
+            }
+        }
+        return compressors;
+    }
+
+    /* A read concern level name; unknown names throw IllegalArgumentException */
+    static ReadConcern readConcern(String level) {
+        return new ReadConcern(ReadConcernLevel.fromString(level.trim()));
+    }
+
+    /* A WriteConcern constant name (w1, majority, journaled, ...) */
+    static WriteConcern writeConcern(String name) {
+        WriteConcern writeConcern = WriteConcern.valueOf(name.trim());
+        if (writeConcern == null) {
+            throw new IllegalArgumentException("Unknown Mongo write concern: " + name);
+        }
+        return writeConcern;
+    }
+}
@@ -0,0 +1,76 @@
+package org.example.ibpipeline.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/*
+ * Rejection handler for bounded executors. Applies the configured overflow policy
+ * and counts every overflow as executor.rejected{name, policy, outcome}.
+ */
+public class OverflowRejectedExecutionHandler implements RejectedExecutionHandler {
+
+    private static final Logger logger = LoggerFactory.getLogger(OverflowRejectedExecutionHandler.class);
+
+    private final String executorName;
+    private final ExecutorOverflowPolicy policy;
+    private final BlockingQueue<Runnable> spillQueue;
+
+    private final Counter callerRunsCounter;
+    private final Counter spilledCounter;
+    private final Counter droppedCounter;
+
+    public OverflowRejectedExecutionHandler(String executorName,
+                                            ExecutorOverflowPolicy policy,
+                                            BlockingQueue<Runnable> spillQueue,
+                                            MeterRegistry meterRegistry) {
+        this.executorName = executorName;
+        this.policy = policy;
+        this.spillQueue = spillQueue;
+        this.callerRunsCounter = rejectedCounter(meterRegistry, "caller_runs");
+        this.spilledCounter = rejectedCounter(meterRegistry, "spilled");
+        this.droppedCounter = rejectedCounter(meterRegistry, "dropped");
+    }
+
+    @Override
+    public void rejectedExecution(Runnable task, ThreadPoolExecutor executor) {
+        if (executor.isShutdown()) {
+            drop(task, "executor is shut down");
+            return;
+        }
+
+        switch (policy) {
+            case CALLER_RUNS -> {
+                callerRunsCounter.increment();
+                task.run();
+            }
+            case SPILL -> {
+                if (spillQueue.offer(task)) {
+                    spilledCounter.increment();
+                } else {
+                    drop(task, "spill buffer is full");
+                }
+            }
+            case DROP -> drop(task, "queue is full");
+        }
+    }
+
+    private void drop(Runnable task, String reason) {
+        droppedCounter.increment();
+        logger.warn("Executor {} dropped a task: {}", executorName, reason);
+    }
+
+    private Counter rejectedCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("executor.rejected")
+                .description("Tasks that did not fit in the executor queue")
+                .tag("name", executorName)
+                .tag("policy", policy.name())
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
@@ -6,16 +6,26 @@ import org.apache.coyote.BadRequestException;
 import org.example.ibpipeline.common.ApiResponse;
 import org.example.ibpipeline.dto.CreateUserRequest;
 import org.example.ibpipeline.dto.UpdateUserStatusRequest;
+import org.example.ibpipeline.dto.UserDirectoryPage;
+import org.example.ibpipeline.dto.UserFilter;
 import org.example.ibpipeline.model.Role;
 import org.example.ibpipeline.model.User;
 import org.example.ibpipeline.service.UserService;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import tools.jackson.databind.json.JsonMapper;
 
+import java.io.BufferedWriter;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
-import java.util.List;
+import java.util.Iterator;
+import java.util.stream.Stream;
 
 @RestController
 @RequestMapping("/api/admin/users")
@@ -23,9 +33,11 @@ import java.util.List;
 public class AdminController {
 
     private final UserService userService;
+    private final JsonMapper jsonMapper;
 
-    public AdminController(UserService userService) {
+    public AdminController(UserService userService, JsonMapper jsonMapper) {
         this.userService = userService;
+        this.jsonMapper = jsonMapper;
     }
 
     /* CREATE USER */
@@ -63,10 +75,36 @@ public class AdminController {
         return ResponseEntity.ok(response);
     }
 
-    /* ADMIN: List all users */
+    /* ADMIN: User directory, by username (?role=USER&active=true&q=jo&cursor=...&limit=50) */
     @GetMapping
-    public List<User> getAllUsers() {
-        return userService.getAllUsers();
+    public UserDirectoryPage getUsers(@RequestParam(required = false) Role role,
+                                      @RequestParam(required = false) Boolean active,
+                                      @RequestParam(required = false) String q,
+                                      @RequestParam(required = false) String cursor,
+                                      @RequestParam(defaultValue = "50") int limit) {
+        return userService.getDirectory(new UserFilter(role, active, q), cursor, limit);
+    }
+
+    /* ADMIN: The whole filtered directory as NDJSON, written while it is read from Mongo */
+    @GetMapping(value = "/export", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> exportUsers(@RequestParam(required = false) Role role,
+                                                             @RequestParam(required = false) Boolean active,
+                                                             @RequestParam(required = false) String q) {
+        UserFilter filter = new UserFilter(role, active, q);
+        StreamingResponseBody body = out -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            try (Stream<User> users = userService.streamDirectory(filter)) {
+                Iterator<User> iterator = users.iterator();
+                while (iterator.hasNext()) {
+                    writer.write(jsonMapper.writeValueAsString(iterator.next()));
+                    writer.write('\n');
+                }
+            }
+            writer.flush();
+        };
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"users.ndjson\"")
+                .body(body);
     }
 
     /* USER / ADMIN: Get own profile */
@@ -0,0 +1,97 @@
+package org.example.ibpipeline.controller;
+
+import org.example.ibpipeline.dto.PipelineAggregate;
+import org.example.ibpipeline.dto.PipelineDimension;
+import org.example.ibpipeline.dto.PipelineQuery;
+import org.example.ibpipeline.dto.PipelineSnapshotStats;
+import org.example.ibpipeline.dto.SectorVelocity;
+import org.example.ibpipeline.model.DealStage;
+import org.example.ibpipeline.model.PipelineRollup;
+import org.example.ibpipeline.service.PipelineRollupService;
+import org.example.ibpipeline.service.PipelineSnapshot;
+import org.example.ibpipeline.service.StageHistoryService;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/* Pipeline analytics; deal values are sensitive, so ADMIN only */
+@RestController
+@RequestMapping("/api/analytics")
+@PreAuthorize("hasRole('ADMIN')")
+public class AnalyticsController {
+
+    private final PipelineSnapshot pipelineSnapshot;
+    private final PipelineRollupService pipelineRollupService;
+    private final StageHistoryService stageHistoryService;
+
+    public AnalyticsController(PipelineSnapshot pipelineSnapshot, PipelineRollupService pipelineRollupService,
+                               StageHistoryService stageHistoryService) {
+        this.pipelineSnapshot = pipelineSnapshot;
+        this.pipelineRollupService = pipelineRollupService;
+        this.stageHistoryService = stageHistoryService;
+    }
+
+    /*
+     * COUNT AND VALUE BY UP TO 3 DIMENSIONS
+     * e.g. ?groupBy=sector,stage  or  ?groupBy=createdWeek&stage=Closed&createdFrom=2025-01-01T00:00:00Z
+     */
+    @GetMapping("/pipeline")
+    public ResponseEntity<PipelineAggregate> pipeline(
+            @RequestParam(defaultValue = "stage") List<String> groupBy,
+            @RequestParam(required = false) List<DealStage> stage,
+            @RequestParam(required = false) String sector,
+            @RequestParam(required = false) String dealType,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant createdFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant createdTo) {
+
+        Set<DealStage> stages = stage == null || stage.isEmpty() ? null : EnumSet.copyOf(stage);
+        PipelineQuery query = new PipelineQuery(
+                groupBy.stream().map(PipelineDimension::parse).distinct().toList(),
+                stages, sector, dealType, createdFrom, createdTo);
+        return ResponseEntity.ok(pipelineSnapshot.aggregate(query));
+    }
+
+    /*
+     * PIPELINE AT THE END OF EACH DAY (UTC), oldest first
+     * e.g. ?from=2025-01-01&to=2025-03-31; defaults to the last 30 days
+     */
+    @GetMapping("/pipeline/daily")
+    public ResponseEntity<List<PipelineRollup>> pipelineDaily(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+
+        LocalDate last = to != null ? to : LocalDate.now(ZoneOffset.UTC).minusDays(1);
+        LocalDate first = from != null ? from : last.minusDays(29);
+        return ResponseEntity.ok(pipelineRollupService.range(first, last));
+    }
+
+    /*
+     * TIME IN STAGE PERCENTILES AND CONVERSION, PER SECTOR
+     * e.g. ?from=2025-01&to=2025-06&sector=Technology; defaults to the last 12 months, all sectors
+     */
+    @GetMapping("/stages")
+    public ResponseEntity<List<SectorVelocity>> stageVelocity(
+            @RequestParam(required = false) String sector,
+            @RequestParam(required = false) YearMonth from,
+            @RequestParam(required = false) YearMonth to) {
+
+        YearMonth last = to != null ? to : YearMonth.now(ZoneOffset.UTC);
+        YearMonth first = from != null ? from : last.minusMonths(11);
+        return ResponseEntity.ok(stageHistoryService.velocity(sector, first, last));
+    }
+
+    /* SNAPSHOT SIZE */
+    @GetMapping("/pipeline/stats")
+    public ResponseEntity<PipelineSnapshotStats> pipelineStats() {
+        return ResponseEntity.ok(pipelineSnapshot.stats());
+    }
+}
@@ -1,14 +1,37 @@
 package org.example.ibpipeline.controller;
 
 import jakarta.validation.Valid;
+import org.example.ibpipeline.dto.BulkDealUpdateRequest;
+import org.example.ibpipeline.dto.BulkDealUpdateResponse;
+import org.example.ibpipeline.dto.DealBatchGetRequest;
+import org.example.ibpipeline.dto.DealBatchGetResponse;
+import org.example.ibpipeline.dto.DealBoard;
+import org.example.ibpipeline.dto.DealBoardLane;
+import org.example.ibpipeline.dto.DealImportReport;
+import org.example.ibpipeline.dto.DealOwnership;
+import org.example.ibpipeline.dto.DealStageTimeline;
+import org.example.ibpipeline.dto.DuplicateScanReport;
+import org.example.ibpipeline.dto.MyDeals;
+import org.example.ibpipeline.dto.SuggestField;
+import org.example.ibpipeline.dto.Suggestion;
+import org.example.ibpipeline.exception.BadRequestException;
 import org.example.ibpipeline.model.Deal;
 import org.example.ibpipeline.model.DealStage;
+import org.example.ibpipeline.service.DealArchiveService;
+import org.example.ibpipeline.service.DealBoardIndex;
+import org.example.ibpipeline.service.DealImportService;
 import org.example.ibpipeline.service.DealService;
+import org.example.ibpipeline.service.DealSuggestIndex;
+import org.example.ibpipeline.service.DuplicateDealIndex;
+import org.example.ibpipeline.service.StageHistoryService;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.InputStream;
 import java.util.List;
 import java.util.Map;
 
@@ -18,9 +41,27 @@ import java.util.Map;
 public class DealController {
 
     private final DealService dealService;
+    private final DealImportService dealImportService;
+    private final DealArchiveService dealArchiveService;
+    private final DealBoardIndex dealBoardIndex;
+    private final StageHistoryService stageHistoryService;
+    private final DealSuggestIndex dealSuggestIndex;
+    private final DuplicateDealIndex duplicateDealIndex;
 
-    public DealController(DealService dealService) {
+    public DealController(DealService dealService,
+                          DealImportService dealImportService,
+                          DealArchiveService dealArchiveService,
+                          DealBoardIndex dealBoardIndex,
+                          StageHistoryService stageHistoryService,
+                          DealSuggestIndex dealSuggestIndex,
+                          DuplicateDealIndex duplicateDealIndex) {
         this.dealService = dealService;
+        this.dealImportService = dealImportService;
+        this.dealArchiveService = dealArchiveService;
+        this.dealBoardIndex = dealBoardIndex;
+        this.stageHistoryService = stageHistoryService;
+        this.dealSuggestIndex = dealSuggestIndex;
+        this.duplicateDealIndex = duplicateDealIndex;
     }
 
     // =========================
@@ -36,6 +77,20 @@ public class DealController {
         return ResponseEntity.ok(created);
     }
 
+    // =========================
+    // BULK IMPORT (ADMIN)
+    // =========================
+    @PostMapping(value = "/import", consumes = {"text/csv", "application/x-ndjson", "application/jsonl"})
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<DealImportReport> importDeals(InputStream body,
+                                                        @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+                                                        Authentication authentication) {
+
+        DealImportService.Format format = DealImportService.formatFor(contentType);
+        DealImportReport report = dealImportService.importDeals(body, format, authentication.getName());
+        return ResponseEntity.ok(report);
+    }
+
     // =========================
     // LIST DEALS
     // =========================
@@ -44,12 +99,85 @@ public class DealController {
         return ResponseEntity.ok(dealService.getAllDeals());
     }
 
+    // =========================
+    // KANBAN BOARD (per-stage counts + first page of each lane)
+    // =========================
+    @GetMapping("/board")
+    public ResponseEntity<DealBoard> getBoard(@RequestParam(defaultValue = "20") int limit,
+                                              Authentication authentication) {
+        return ResponseEntity.ok(dealBoardIndex.board(limit, isAdmin(authentication)));
+    }
+
+    @GetMapping("/board/{stage}")
+    public ResponseEntity<DealBoardLane> getBoardLane(@PathVariable DealStage stage,
+                                                      @RequestParam(required = false) String cursor,
+                                                      @RequestParam(defaultValue = "20") int limit,
+                                                      Authentication authentication) {
+        return ResponseEntity.ok(dealBoardIndex.lane(stage, cursor, limit, isAdmin(authentication)));
+    }
+
+    // =========================
+    // MY DEALS (as creator or assignee)
+    // =========================
+    @GetMapping("/mine")
+    public ResponseEntity<MyDeals> getMine(@RequestParam(defaultValue = "assignee") String role,
+                                           @RequestParam(required = false) String cursor,
+                                           @RequestParam(defaultValue = "20") int limit,
+                                           Authentication authentication) {
+        return ResponseEntity.ok(dealService.findMine(DealOwnership.parse(role), authentication.getName(),
+                cursor, limit, isAdmin(authentication)));
+    }
+
+    // =========================
+    // TYPEAHEAD (clientName, sector, dealType)
+    // =========================
+    @GetMapping("/suggest")
+    public ResponseEntity<List<Suggestion>> suggest(@RequestParam String field,
+                                                    @RequestParam(defaultValue = "") String prefix,
+                                                    @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(dealSuggestIndex.suggest(SuggestField.parse(field), prefix, limit));
+    }
+
+    // =========================
+    // DUPLICATE CLIENTS (ADMIN): last nightly scan, or run one now
+    // =========================
+    @GetMapping("/duplicates")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<DuplicateScanReport> getDuplicates() {
+        DuplicateScanReport report = duplicateDealIndex.lastScan();
+        return report == null ? ResponseEntity.noContent().build() : ResponseEntity.ok(report);
+    }
+
+    @PostMapping("/duplicates/scan")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<DuplicateScanReport> scanDuplicates() {
+        return ResponseEntity.ok(duplicateDealIndex.scan());
+    }
+
     // =========================
     // GET DEAL BY ID
     // =========================
     @GetMapping("/{id}")
     public ResponseEntity<Deal> getDeal(@PathVariable String id) {
-        return ResponseEntity.ok(dealService.getDealById(id));
+        return withETag(dealService.getDealById(id));
+    }
+
+    // =========================
+    // STAGE TIMELINE
+    // =========================
+    @GetMapping("/{id}/stage-history")
+    public ResponseEntity<DealStageTimeline> getStageHistory(@PathVariable String id) {
+        return ResponseEntity.ok(stageHistoryService.timeline(dealService.getDealById(id)));
+    }
+
+    // =========================
+    // BATCH GET BY IDS (dealValue only for ADMIN)
+    // =========================
+    @PostMapping("/batch-get")
+    public ResponseEntity<DealBatchGetResponse> getDealsByIds(@Valid @RequestBody DealBatchGetRequest request,
+                                                              Authentication authentication) {
+
+        return ResponseEntity.ok(dealService.getDealsByIds(request.getIds(), isAdmin(authentication)));
     }
 
     // =========================
@@ -58,14 +186,18 @@ public class DealController {
     @PutMapping("/{id}")
     public ResponseEntity<Deal> updateBasicFields(
             @PathVariable String id,
-            @RequestBody Map<String, String> body) {
+            @RequestBody Map<String, String> body,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            Authentication authentication) {
 
         String summary = body.get("summary");
         String sector = body.get("sector");
         String dealType = body.get("dealType");
+        Long expectedVersion = expectedVersion(ifMatch, body.get("expectedVersion"));
 
-        Deal updated = dealService.updateBasicFields(id, summary, sector, dealType);
-        return ResponseEntity.ok(updated);
+        Deal updated = dealService.updateBasicFields(id, summary, sector, dealType, expectedVersion,
+                authentication.getName());
+        return withETag(updated);
     }
 
     // =========================
@@ -74,11 +206,31 @@ public class DealController {
     @PatchMapping("/{id}/stage")
     public ResponseEntity<Deal> updateStage(
             @PathVariable String id,
-            @RequestBody Map<String, String> body) {
+            @RequestBody Map<String, String> body,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            Authentication authentication) {
 
         DealStage stage = DealStage.valueOf(body.get("stage"));
-        Deal updated = dealService.updateStage(id, stage);
-        return ResponseEntity.ok(updated);
+        Long expectedVersion = expectedVersion(ifMatch, body.get("expectedVersion"));
+
+        Deal updated = dealService.updateStage(id, stage, expectedVersion, authentication.getName());
+        return withETag(updated);
+    }
+
+    // =========================
+    // ASSIGN (null or blank assignedTo unassigns)
+    // =========================
+    @PatchMapping("/{id}/assignee")
+    public ResponseEntity<Deal> updateAssignee(
+            @PathVariable String id,
+            @RequestBody Map<String, String> body,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            Authentication authentication) {
+
+        Long expectedVersion = expectedVersion(ifMatch, body.get("expectedVersion"));
+
+        Deal updated = dealService.updateAssignee(id, body.get("assignedTo"), expectedVersion, authentication.getName());
+        return withETag(updated);
     }
 
     // =========================
@@ -92,8 +244,24 @@ public class DealController {
         String note = body.get("note");
         String userId = authentication.getName();
 
+        // Appends never conflict, so If-Match is not needed here
         Deal updated = dealService.addNote(id, userId, note);
-        return ResponseEntity.ok(updated);
+        return withETag(updated);
+    }
+
+    // =========================
+    // WATCH (notified of every change)
+    // =========================
+    @PutMapping("/{id}/watch")
+    public ResponseEntity<Void> watch(@PathVariable String id, Authentication authentication) {
+        dealService.setWatching(id, authentication.getName(), true);
+        return ResponseEntity.noContent().build();
+    }
+
+    @DeleteMapping("/{id}/watch")
+    public ResponseEntity<Void> unwatch(@PathVariable String id, Authentication authentication) {
+        dealService.setWatching(id, authentication.getName(), false);
+        return ResponseEntity.noContent().build();
     }
 
     // =========================
@@ -102,11 +270,39 @@ public class DealController {
     @PatchMapping("/{id}/value")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<Deal> updateDealValue(@PathVariable String id,
-                                                @RequestBody Map<String, Long> body) {
+                                                @RequestBody Map<String, Long> body,
+                                                @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                                Authentication authentication) {
 
         Long value = body.get("dealValue");
-        Deal updated = dealService.updateDealValue(id, value);
-        return ResponseEntity.ok(updated);
+        Long expectedVersion = expectedVersion(ifMatch, body.get("expectedVersion"));
+
+        Deal updated = dealService.updateDealValue(id, value, expectedVersion, authentication.getName());
+        return withETag(updated);
+    }
+
+    // =========================
+    // BULK UPDATE (value changes are ADMIN only)
+    // =========================
+    @PatchMapping("/bulk")
+    public ResponseEntity<BulkDealUpdateResponse> bulkUpdate(@RequestBody BulkDealUpdateRequest request,
+                                                             Authentication authentication) {
+
+        if (request.getDealValue() != null && !isAdmin(authentication)) {
+            throw new AccessDeniedException("Only ADMIN can change deal values");
+        }
+
+        BulkDealUpdateResponse response = dealService.bulkUpdate(request, authentication.getName());
+        return ResponseEntity.ok(response);
+    }
+
+    // =========================
+    // RESTORE ARCHIVED DEAL (ADMIN)
+    // =========================
+    @PostMapping("/{id}/restore")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Deal> restoreDeal(@PathVariable String id, Authentication authentication) {
+        return withETag(dealArchiveService.restoreDeal(id, authentication.getName()));
     }
 
     // =========================
@@ -114,8 +310,42 @@ public class DealController {
     // =========================
     @DeleteMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<Void> deleteDeal(@PathVariable String id) {
-        dealService.deleteDeal(id);
+    public ResponseEntity<Void> deleteDeal(@PathVariable String id,
+                                           @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                           Authentication authentication) {
+        dealService.deleteDeal(id, expectedVersion(ifMatch, null), authentication.getName());
         return ResponseEntity.noContent().build();
     }
+
+    private static boolean isAdmin(Authentication authentication) {
+        return authentication.getAuthorities().stream()
+                .anyMatch(authority -> "ROLE_ADMIN".equals(authority.getAuthority()));
+    }
+
+    private static ResponseEntity<Deal> withETag(Deal deal) {
+        if (deal.getVersion() == null) {
+            return ResponseEntity.ok(deal);
+        }
+        return ResponseEntity.ok().eTag(deal.getVersion().toString()).body(deal);
+    }
+
+    /* Expected version from If-Match ("3", W/"3" or 3), falling back to an expectedVersion body field */
+    private static Long expectedVersion(String ifMatch, Object bodyValue) {
+        String raw = ifMatch != null ? ifMatch : (bodyValue != null ? bodyValue.toString() : null);
+        if (raw == null || raw.isBlank() || raw.trim().equals("*")) {
+            return null;
+        }
+
+        String version = raw.trim();
+        if (version.startsWith("W/")) {
+            version = version.substring(2);
+        }
+        version = version.replace("\"", "");
+
+        try {
+            return Long.parseLong(version);
+        } catch (NumberFormatException e) {
+            throw new BadRequestException("If-Match must be a deal version, got: " + raw);
+        }
+    }
 }
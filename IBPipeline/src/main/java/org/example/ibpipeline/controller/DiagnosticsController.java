@@ -0,0 +1,104 @@
+package org.example.ibpipeline.controller;
+
+import org.example.ibpipeline.dto.JfrRecordingStatus;
+import org.example.ibpipeline.dto.SlowQueryStats;
+import org.example.ibpipeline.dto.TraceSpan;
+import org.example.ibpipeline.dto.TraceSummary;
+import org.example.ibpipeline.exception.ResourceNotFoundException;
+import org.example.ibpipeline.service.FlightRecorderService;
+import org.example.ibpipeline.service.SlowQueryMonitor;
+import org.example.ibpipeline.service.TraceBuffer;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/admin/diagnostics")
+@PreAuthorize("hasRole('ADMIN')")
+public class DiagnosticsController {
+
+    private final SlowQueryMonitor slowQueryMonitor;
+    private final TraceBuffer traceBuffer;
+    private final FlightRecorderService flightRecorderService;
+
+    public DiagnosticsController(SlowQueryMonitor slowQueryMonitor, TraceBuffer traceBuffer,
+                                 FlightRecorderService flightRecorderService) {
+        this.slowQueryMonitor = slowQueryMonitor;
+        this.traceBuffer = traceBuffer;
+        this.flightRecorderService = flightRecorderService;
+    }
+
+    /* SLOW QUERY SHAPES, WORST FIRST */
+    @GetMapping("/slow-queries")
+    public List<SlowQueryStats> slowQueries(@RequestParam(defaultValue = "20") int limit) {
+        return slowQueryMonitor.topOffenders(limit);
+    }
+
+    /* CLEAR RECORDED SLOW QUERIES */
+    @DeleteMapping("/slow-queries")
+    public ResponseEntity<Void> resetSlowQueries() {
+        slowQueryMonitor.reset();
+        return ResponseEntity.noContent().build();
+    }
+
+    /* RECENT TRACES (HTTP -> Mongo -> Kafka send -> Kafka receive) */
+    @GetMapping("/traces")
+    public List<TraceSummary> traces(@RequestParam(defaultValue = "20") int limit) {
+        return traceBuffer.recent(limit);
+    }
+
+    /* ALL SPANS OF ONE TRACE */
+    @GetMapping("/traces/{traceId}")
+    public List<TraceSpan> trace(@PathVariable String traceId) {
+        List<TraceSpan> spans = traceBuffer.trace(traceId);
+        if (spans == null) {
+            throw new ResourceNotFoundException("Trace not found: " + traceId);
+        }
+        return spans;
+    }
+
+    /* CLEAR BUFFERED TRACES */
+    @DeleteMapping("/traces")
+    public ResponseEntity<Void> clearTraces() {
+        traceBuffer.clear();
+        return ResponseEntity.noContent().build();
+    }
+
+    /* START A JFR RECORDING (settings: default | profile; duration capped by app.jfr.max-duration) */
+    @PostMapping("/jfr/start")
+    public JfrRecordingStatus startRecording(@RequestParam(defaultValue = "profile") String settings,
+                                             @RequestParam(required = false) Duration duration) {
+        return flightRecorderService.start(settings, duration);
+    }
+
+    /* STOP THE JFR RECORDING */
+    @PostMapping("/jfr/stop")
+    public JfrRecordingStatus stopRecording() {
+        return flightRecorderService.stop();
+    }
+
+    @GetMapping("/jfr")
+    public JfrRecordingStatus recordingStatus() {
+        return flightRecorderService.status();
+    }
+
+    /* DOWNLOAD THE RECORDING (a snapshot if it is still running); open with JDK Mission Control or `jfr print` */
+    @GetMapping("/jfr/recording")
+    public ResponseEntity<Resource> downloadRecording() {
+        Path file = flightRecorderService.file();
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename(file.getFileName().toString()).build().toString())
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .body(new FileSystemResource(file));
+    }
+}
@@ -0,0 +1,59 @@
+package org.example.ibpipeline.controller;
+
+import org.example.ibpipeline.dto.DictionaryField;
+import org.example.ibpipeline.dto.DictionaryMigrationReport;
+import org.example.ibpipeline.model.DictionaryEntry;
+import org.example.ibpipeline.service.DealDictionary;
+import org.example.ibpipeline.service.DictionaryMigration;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/* The managed sector and dealType values; deals can only use values listed here */
+@RestController
+@RequestMapping("/api/admin/dictionaries")
+@PreAuthorize("hasRole('ADMIN')")
+public class DictionaryController {
+
+    private final DealDictionary dictionary;
+    private final DictionaryMigration migration;
+
+    public DictionaryController(DealDictionary dictionary, DictionaryMigration migration) {
+        this.dictionary = dictionary;
+        this.migration = migration;
+    }
+
+    @GetMapping
+    public ResponseEntity<Map<String, List<DictionaryEntry>>> all() {
+        Map<String, List<DictionaryEntry>> all = new LinkedHashMap<>();
+        for (DictionaryField field : DictionaryField.values()) {
+            all.put(field.getParamName(), dictionary.entries(field));
+        }
+        return ResponseEntity.ok(all);
+    }
+
+    @GetMapping("/{field}")
+    public ResponseEntity<List<DictionaryEntry>> entries(@PathVariable String field) {
+        return ResponseEntity.ok(dictionary.entries(DictionaryField.parse(field)));
+    }
+
+    /* Idempotent: adding a known value (in any case) returns its entry */
+    @PostMapping("/{field}")
+    public ResponseEntity<DictionaryEntry> add(@PathVariable String field,
+                                               @RequestBody Map<String, String> body,
+                                               Authentication authentication) {
+        return ResponseEntity.ok(dictionary.add(DictionaryField.parse(field), body.get("value"),
+                authentication.getName()));
+    }
+
+    /* Encodes the deals still holding string values; also runs on startup */
+    @PostMapping("/migrate")
+    public ResponseEntity<DictionaryMigrationReport> migrate() {
+        return ResponseEntity.ok(migration.migrate());
+    }
+}
@@ -0,0 +1,47 @@
+package org.example.ibpipeline.controller;
+
+import org.example.ibpipeline.dto.NotificationPage;
+import org.example.ibpipeline.exception.ResourceNotFoundException;
+import org.example.ibpipeline.service.NotificationService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+/* The caller's own inbox */
+@RestController
+@RequestMapping("/api/notifications")
+public class NotificationController {
+
+    private final NotificationService notificationService;
+
+    public NotificationController(NotificationService notificationService) {
+        this.notificationService = notificationService;
+    }
+
+    @GetMapping
+    public ResponseEntity<NotificationPage> list(@RequestParam(required = false) String cursor,
+                                                 @RequestParam(defaultValue = "20") int limit,
+                                                 Authentication authentication) {
+        return ResponseEntity.ok(notificationService.page(authentication.getName(), cursor, limit));
+    }
+
+    @GetMapping("/unread-count")
+    public ResponseEntity<Map<String, Long>> unreadCount(Authentication authentication) {
+        return ResponseEntity.ok(Map.of("unreadCount", notificationService.unreadCount(authentication.getName())));
+    }
+
+    @PostMapping("/{id}/read")
+    public ResponseEntity<Void> markRead(@PathVariable String id, Authentication authentication) {
+        if (!notificationService.markRead(authentication.getName(), id)) {
+            throw new ResourceNotFoundException("Unread notification not found");
+        }
+        return ResponseEntity.noContent().build();
+    }
+
+    @PostMapping("/read-all")
+    public ResponseEntity<Map<String, Long>> markAllRead(Authentication authentication) {
+        return ResponseEntity.ok(Map.of("marked", notificationService.markAllRead(authentication.getName())));
+    }
+}
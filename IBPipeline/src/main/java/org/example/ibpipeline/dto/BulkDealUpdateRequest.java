@@ -0,0 +1,35 @@
+package org.example.ibpipeline.dto;
+
+import org.example.ibpipeline.model.DealStage;
+
+import java.util.List;
+
+/* Targets (ids or filter) plus the changes to apply to every target */
+public class BulkDealUpdateRequest {
+
+    private List<String> ids;
+    private DealFilter filter;
+
+    private DealStage stage;
+    private String assignedTo;
+    private Long dealValue;
+
+    public List<String> getIds() { return ids; }
+    public void setIds(List<String> ids) { this.ids = ids; }
+
+    public DealFilter getFilter() { return filter; }
+    public void setFilter(DealFilter filter) { this.filter = filter; }
+
+    public DealStage getStage() { return stage; }
+    public void setStage(DealStage stage) { this.stage = stage; }
+
+    public String getAssignedTo() { return assignedTo; }
+    public void setAssignedTo(String assignedTo) { this.assignedTo = assignedTo; }
+
+    public Long getDealValue() { return dealValue; }
+    public void setDealValue(Long dealValue) { this.dealValue = dealValue; }
+
+    public boolean hasChanges() {
+        return stage != null || assignedTo != null || dealValue != null;
+    }
+}
@@ -0,0 +1,50 @@
+package org.example.ibpipeline.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class BulkDealUpdateResponse {
+
+    public enum Status {
+        UPDATED,
+        NOT_FOUND,
+        /* Changed or removed by someone else between the read and the bulk write; left as it was */
+        CONFLICT
+    }
+
+    public static class Item {
+        private final String dealId;
+        private final Status status;
+
+        public Item(String dealId, Status status) {
+            this.dealId = dealId;
+            this.status = status;
+        }
+
+        public String getDealId() { return dealId; }
+
+        public Status getStatus() { return status; }
+    }
+
+    private int updated;
+    private int notFound;
+    private int conflicts;
+    private final List<Item> results = new ArrayList<>();
+
+    public void add(String dealId, Status status) {
+        results.add(new Item(dealId, status));
+        switch (status) {
+            case UPDATED -> updated++;
+            case NOT_FOUND -> notFound++;
+            case CONFLICT -> conflicts++;
+        }
+    }
+
+    public int getUpdated() { return updated; }
+
+    public int getNotFound() { return notFound; }
+
+    public int getConflicts() { return conflicts; }
+
+    public List<Item> getResults() { return results; }
+}
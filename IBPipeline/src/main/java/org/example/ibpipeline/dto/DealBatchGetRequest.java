@@ -0,0 +1,14 @@
+package org.example.ibpipeline.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+
+import java.util.List;
+
+public class DealBatchGetRequest {
+
+    @NotEmpty(message = "ids must not be empty")
+    private List<String> ids;
+
+    public List<String> getIds() { return ids; }
+    public void setIds(List<String> ids) { this.ids = ids; }
+}
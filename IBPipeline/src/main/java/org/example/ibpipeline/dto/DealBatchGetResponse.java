@@ -0,0 +1,20 @@
+package org.example.ibpipeline.dto;
+
+import org.example.ibpipeline.model.Deal;
+
+import java.util.List;
+
+public class DealBatchGetResponse {
+
+    private final List<Deal> deals;
+    private final List<String> missingIds;
+
+    public DealBatchGetResponse(List<Deal> deals, List<String> missingIds) {
+        this.deals = deals;
+        this.missingIds = missingIds;
+    }
+
+    public List<Deal> getDeals() { return deals; }
+
+    public List<String> getMissingIds() { return missingIds; }
+}
@@ -0,0 +1,19 @@
+package org.example.ibpipeline.dto;
+
+import java.util.List;
+
+public class DealBoard {
+
+    private final List<DealBoardLane> lanes;
+    private final boolean complete;
+
+    public DealBoard(List<DealBoardLane> lanes, boolean complete) {
+        this.lanes = lanes;
+        this.complete = complete;
+    }
+
+    public List<DealBoardLane> getLanes() { return lanes; }
+
+    /* False while the index is still loading after startup; counts may then be low */
+    public boolean isComplete() { return complete; }
+}
@@ -0,0 +1,35 @@
+package org.example.ibpipeline.dto;
+
+import org.example.ibpipeline.model.DealStage;
+
+import java.util.List;
+
+/* One kanban column: the stage total plus one page of its cards, most recently updated first */
+public class DealBoardLane {
+
+    private final DealStage stage;
+    private final long count;
+    private final Long totalValue;
+    private final List<DealCard> deals;
+    private final String nextCursor;
+
+    public DealBoardLane(DealStage stage, long count, Long totalValue, List<DealCard> deals, String nextCursor) {
+        this.stage = stage;
+        this.count = count;
+        this.totalValue = totalValue;
+        this.deals = deals;
+        this.nextCursor = nextCursor;
+    }
+
+    public DealStage getStage() { return stage; }
+
+    public long getCount() { return count; }
+
+    /* ADMIN only; null for other roles */
+    public Long getTotalValue() { return totalValue; }
+
+    public List<DealCard> getDeals() { return deals; }
+
+    /* Pass to GET /api/deals/board/{stage}?cursor= for the next page; null on the last page */
+    public String getNextCursor() { return nextCursor; }
+}
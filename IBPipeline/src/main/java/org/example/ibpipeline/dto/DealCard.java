@@ -0,0 +1,67 @@
+package org.example.ibpipeline.dto;
+
+import org.example.ibpipeline.model.Deal;
+import org.example.ibpipeline.model.DealStage;
+
+import java.time.Instant;
+
+/* The fields a board card shows; immutable so index entries can be handed out without copying */
+public class DealCard {
+
+    private final String id;
+    private final Long version;
+    private final String clientName;
+    private final String sector;
+    private final String dealType;
+    private final Long dealValue;
+    private final DealStage currentStage;
+    private final String assignedTo;
+    private final String createdBy;
+    private final Instant updatedAt;
+
+    public DealCard(String id, Long version, String clientName, String sector, String dealType, Long dealValue,
+                    DealStage currentStage, String assignedTo, String createdBy, Instant updatedAt) {
+        this.id = id;
+        this.version = version;
+        this.clientName = clientName;
+        this.sector = sector;
+        this.dealType = dealType;
+        this.dealValue = dealValue;
+        this.currentStage = currentStage;
+        this.assignedTo = assignedTo;
+        this.createdBy = createdBy;
+        this.updatedAt = updatedAt;
+    }
+
+    public static DealCard of(Deal deal) {
+        return new DealCard(deal.getId(), deal.getVersion(), deal.getClientName(), deal.getSector(),
+                deal.getDealType(), deal.getDealValue(), deal.getCurrentStage(), deal.getAssignedTo(),
+                deal.getCreatedBy(), deal.getUpdatedAt());
+    }
+
+    /* Same card with the ADMIN-only value cleared */
+    public DealCard withoutValue() {
+        return dealValue == null ? this : new DealCard(id, version, clientName, sector, dealType, null,
+                currentStage, assignedTo, createdBy, updatedAt);
+    }
+
+    public String getId() { return id; }
+
+    public Long getVersion() { return version; }
+
+    public String getClientName() { return clientName; }
+
+    public String getSector() { return sector; }
+
+    public String getDealType() { return dealType; }
+
+    public Long getDealValue() { return dealValue; }
+
+    public DealStage getCurrentStage() { return currentStage; }
+
+    public String getAssignedTo() { return assignedTo; }
+
+    public String getCreatedBy() { return createdBy; }
+
+    public Instant getUpdatedAt() { return updatedAt; }
+}
@@ -0,0 +1,32 @@
+package org.example.ibpipeline.dto;
+
+import org.example.ibpipeline.model.DealStage;
+
+/* Equality filter on deal fields; null fields are ignored */
+public class DealFilter {
+
+    private DealStage stage;
+    private String sector;
+    private String dealType;
+    private String createdBy;
+    private String assignedTo;
+
+    public DealStage getStage() { return stage; }
+    public void setStage(DealStage stage) { this.stage = stage; }
+
+    public String getSector() { return sector; }
+    public void setSector(String sector) { this.sector = sector; }
+
+    public String getDealType() { return dealType; }
+    public void setDealType(String dealType) { this.dealType = dealType; }
+
+    public String getCreatedBy() { return createdBy; }
+    public void setCreatedBy(String createdBy) { this.createdBy = createdBy; }
+
+    public String getAssignedTo() { return assignedTo; }
+    public void setAssignedTo(String assignedTo) { this.assignedTo = assignedTo; }
+
+    public boolean isEmpty() {
+        return stage == null && sector == null && dealType == null && createdBy == null && assignedTo == null;
+    }
+}
@@ -0,0 +1,32 @@
+package org.example.ibpipeline.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class DealImportReport {
+
+    private long rowsRead;
+    private long imported;
+    private long failed;
+    private boolean errorsTruncated;
+    private long committedThroughLine;
+    private final List<DealImportRowError> errors = new ArrayList<>();
+
+    public long getRowsRead() { return rowsRead; }
+    public void setRowsRead(long rowsRead) { this.rowsRead = rowsRead; }
+
+    public long getImported() { return imported; }
+    public void setImported(long imported) { this.imported = imported; }
+
+    public long getFailed() { return failed; }
+    public void setFailed(long failed) { this.failed = failed; }
+
+    public boolean isErrorsTruncated() { return errorsTruncated; }
+    public void setErrorsTruncated(boolean errorsTruncated) { this.errorsTruncated = errorsTruncated; }
+
+    /* Line of the last row in the last batch written; 0 before the first batch */
+    public long getCommittedThroughLine() { return committedThroughLine; }
+    public void setCommittedThroughLine(long committedThroughLine) { this.committedThroughLine = committedThroughLine; }
+
+    public List<DealImportRowError> getErrors() { return errors; }
+}
@@ -0,0 +1,16 @@
+package org.example.ibpipeline.dto;
+
+public class DealImportRowError {
+
+    private final long line;
+    private final String message;
+
+    public DealImportRowError(long line, String message) {
+        this.line = line;
+        this.message = message;
+    }
+
+    public long getLine() { return line; }
+
+    public String getMessage() { return message; }
+}
@@ -0,0 +1,35 @@
+package org.example.ibpipeline.dto;
+
+import org.example.ibpipeline.exception.BadRequestException;
+
+import java.util.Arrays;
+
+/* How a user relates to a deal in GET /api/deals/mine; field is the Deal property it matches */
+public enum DealOwnership {
+    CREATOR("creator", "createdBy"),
+    ASSIGNEE("assignee", "assignedTo");
+
+    private final String paramName;
+    private final String field;
+
+    DealOwnership(String paramName, String field) {
+        this.paramName = paramName;
+        this.field = field;
+    }
+
+    public String getParamName() {
+        return paramName;
+    }
+
+    public String getField() {
+        return field;
+    }
+
+    public static DealOwnership parse(String name) {
+        return Arrays.stream(values())
+                .filter(role -> role.paramName.equalsIgnoreCase(name.trim())
+                        || role.name().equalsIgnoreCase(name.trim()))
+                .findFirst()
+                .orElseThrow(() -> new BadRequestException("Unknown role: " + name + " (use creator or assignee)"));
+    }
+}
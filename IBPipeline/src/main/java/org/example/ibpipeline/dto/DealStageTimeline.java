@@ -0,0 +1,36 @@
+package org.example.ibpipeline.dto;
+
+import org.example.ibpipeline.model.DealStage;
+import org.example.ibpipeline.model.DealStageHistory;
+
+import java.time.Instant;
+import java.util.List;
+
+/* Every recorded stage change of one deal, oldest first, and how long it has been in its current stage */
+public class DealStageTimeline {
+
+    private final String dealId;
+    private final DealStage currentStage;
+    private final Instant stageEnteredAt;
+    private final Long millisInCurrentStage;
+    private final List<DealStageHistory.Transition> transitions;
+
+    public DealStageTimeline(String dealId, DealStage currentStage, Instant stageEnteredAt,
+                             Long millisInCurrentStage, List<DealStageHistory.Transition> transitions) {
+        this.dealId = dealId;
+        this.currentStage = currentStage;
+        this.stageEnteredAt = stageEnteredAt;
+        this.millisInCurrentStage = millisInCurrentStage;
+        this.transitions = transitions;
+    }
+
+    public String getDealId() { return dealId; }
+
+    public DealStage getCurrentStage() { return currentStage; }
+
+    public Instant getStageEnteredAt() { return stageEnteredAt; }
+
+    public Long getMillisInCurrentStage() { return millisInCurrentStage; }
+
+    public List<DealStageHistory.Transition> getTransitions() { return transitions; }
+}
@@ -0,0 +1,42 @@
+package org.example.ibpipeline.dto;
+
+import org.example.ibpipeline.exception.BadRequestException;
+
+import java.util.Arrays;
+import java.util.List;
+
+/* Deal fields stored as dictionary codes; managed under /api/admin/dictionaries */
+public enum DictionaryField {
+    SECTOR("sector", List.of("TECH", "ENERGY", "CONSUMER", "RETAIL", "BIOTECH", "HEALTHCARE", "FINANCIALS",
+            "INDUSTRIALS", "REAL ESTATE", "MATERIALS", "UTILITIES", "TELECOM", "MEDIA")),
+    DEAL_TYPE("dealType", List.of("M&A", "IPO", "DEBT", "ADVISORY", "PRIVATE PLACEMENT", "FOLLOW-ON", "LBO",
+            "RESTRUCTURING"));
+
+    private final String paramName;
+    private final List<String> defaults;
+
+    DictionaryField(String paramName, List<String> defaults) {
+        this.paramName = paramName;
+        this.defaults = defaults;
+    }
+
+    public String getParamName() {
+        return paramName;
+    }
+
+    /*
+     * Seeded the first time the field's dictionary is found empty. The first entries are the
+     * options of the deal form and list filters, spelled as the UI sends and compares them.
+     */
+    public List<String> getDefaults() {
+        return defaults;
+    }
+
+    public static DictionaryField parse(String name) {
+        return Arrays.stream(values())
+                .filter(field -> field.paramName.equalsIgnoreCase(name.trim())
+                        || field.name().equalsIgnoreCase(name.trim()))
+                .findFirst()
+                .orElseThrow(() -> new BadRequestException("Unknown dictionary: " + name));
+    }
+}
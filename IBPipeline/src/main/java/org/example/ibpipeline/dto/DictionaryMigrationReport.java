@@ -0,0 +1,34 @@
+package org.example.ibpipeline.dto;
+
+import java.time.Instant;
+
+public class DictionaryMigrationReport {
+
+    private final Instant migratedAt;
+    private final long durationMs;
+    private final int valuesEncoded;
+    private final int valuesAdded;
+    private final long dealsUpdated;
+
+    public DictionaryMigrationReport(Instant migratedAt, long durationMs, int valuesEncoded,
+                                     int valuesAdded, long dealsUpdated) {
+        this.migratedAt = migratedAt;
+        this.durationMs = durationMs;
+        this.valuesEncoded = valuesEncoded;
+        this.valuesAdded = valuesAdded;
+        this.dealsUpdated = dealsUpdated;
+    }
+
+    public Instant getMigratedAt() { return migratedAt; }
+
+    public long getDurationMs() { return durationMs; }
+
+    /* Distinct string values found and replaced by their code */
+    public int getValuesEncoded() { return valuesEncoded; }
+
+    /* Of those, the values that were not in a dictionary yet */
+    public int getValuesAdded() { return valuesAdded; }
+
+    /* Field updates across hot and archived deals; a deal with both fields uncoded counts twice */
+    public long getDealsUpdated() { return dealsUpdated; }
+}
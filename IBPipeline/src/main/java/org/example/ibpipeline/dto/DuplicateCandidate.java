@@ -0,0 +1,25 @@
+package org.example.ibpipeline.dto;
+
+/* An existing hot deal whose client looks like the same client, with the name similarity (0-1) */
+public class DuplicateCandidate {
+
+    private final String dealId;
+    private final String clientName;
+    private final String sector;
+    private final double score;
+
+    public DuplicateCandidate(String dealId, String clientName, String sector, double score) {
+        this.dealId = dealId;
+        this.clientName = clientName;
+        this.sector = sector;
+        this.score = score;
+    }
+
+    public String getDealId() { return dealId; }
+
+    public String getClientName() { return clientName; }
+
+    public String getSector() { return sector; }
+
+    public double getScore() { return score; }
+}
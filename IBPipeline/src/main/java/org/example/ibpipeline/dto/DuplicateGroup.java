@@ -0,0 +1,25 @@
+package org.example.ibpipeline.dto;
+
+import java.util.List;
+
+/* Deals of one sector whose client names are linked by similarity above the threshold */
+public class DuplicateGroup {
+
+    private final String sector;
+    private final double minScore;
+    private final List<DuplicateCandidate> deals;
+
+    public DuplicateGroup(String sector, double minScore, List<DuplicateCandidate> deals) {
+        this.sector = sector;
+        this.minScore = minScore;
+        this.deals = deals;
+    }
+
+    public String getSector() { return sector; }
+
+    /* Weakest link that joined the group; 1.0 when every deal has the same client */
+    public double getMinScore() { return minScore; }
+
+    /* Each deal's score is its best match inside the group */
+    public List<DuplicateCandidate> getDeals() { return deals; }
+}
@@ -0,0 +1,35 @@
+package org.example.ibpipeline.dto;
+
+import java.time.Instant;
+import java.util.List;
+
+public class DuplicateScanReport {
+
+    private final Instant scannedAt;
+    private final long durationMs;
+    private final int clientsScanned;
+    private final List<DuplicateGroup> groups;
+    private final boolean truncated;
+
+    public DuplicateScanReport(Instant scannedAt, long durationMs, int clientsScanned,
+                               List<DuplicateGroup> groups, boolean truncated) {
+        this.scannedAt = scannedAt;
+        this.durationMs = durationMs;
+        this.clientsScanned = clientsScanned;
+        this.groups = groups;
+        this.truncated = truncated;
+    }
+
+    public Instant getScannedAt() { return scannedAt; }
+
+    public long getDurationMs() { return durationMs; }
+
+    /* Distinct (client name, sector) pairs among the hot deals */
+    public int getClientsScanned() { return clientsScanned; }
+
+    /* Largest groups first */
+    public List<DuplicateGroup> getGroups() { return groups; }
+
+    /* True when more groups were found than app.duplicates.max-groups */
+    public boolean isTruncated() { return truncated; }
+}
@@ -0,0 +1,44 @@
+package org.example.ibpipeline.dto;
+
+import java.time.Instant;
+
+/* State of the on-demand flight recording started through the diagnostics endpoints */
+public class JfrRecordingStatus {
+
+    private final long id;
+    private final String name;
+    private final String state;
+    private final String settings;
+    private final Instant startTime;
+    private final Instant stopTime;
+    private final long maxDurationSeconds;
+    private final long sizeBytes;
+
+    public JfrRecordingStatus(long id, String name, String state, String settings, Instant startTime,
+                              Instant stopTime, long maxDurationSeconds, long sizeBytes) {
+        this.id = id;
+        this.name = name;
+        this.state = state;
+        this.settings = settings;
+        this.startTime = startTime;
+        this.stopTime = stopTime;
+        this.maxDurationSeconds = maxDurationSeconds;
+        this.sizeBytes = sizeBytes;
+    }
+
+    public long getId() { return id; }
+
+    public String getName() { return name; }
+
+    public String getState() { return state; }
+
+    public String getSettings() { return settings; }
+
+    public Instant getStartTime() { return startTime; }
+
+    public Instant getStopTime() { return stopTime; }
+
+    public long getMaxDurationSeconds() { return maxDurationSeconds; }
+
+    public long getSizeBytes() { return sizeBytes; }
+}
@@ -0,0 +1,42 @@
+package org.example.ibpipeline.dto;
+
+import org.example.ibpipeline.model.DealStage;
+
+import java.util.List;
+import java.util.Map;
+
+/* The caller's deals in one role: counts per stage plus one page, most recently updated first */
+public class MyDeals {
+
+    private final DealOwnership role;
+    private final Map<DealStage, Long> countsByStage;
+    private final long total;
+    private final List<DealCard> deals;
+    private final String nextCursor;
+    private final boolean complete;
+
+    public MyDeals(DealOwnership role, Map<DealStage, Long> countsByStage, long total, List<DealCard> deals,
+                   String nextCursor, boolean complete) {
+        this.role = role;
+        this.countsByStage = countsByStage;
+        this.total = total;
+        this.deals = deals;
+        this.nextCursor = nextCursor;
+        this.complete = complete;
+    }
+
+    public DealOwnership getRole() { return role; }
+
+    /* Hot deals only, like the board; archived deals are not counted */
+    public Map<DealStage, Long> getCountsByStage() { return countsByStage; }
+
+    public long getTotal() { return total; }
+
+    public List<DealCard> getDeals() { return deals; }
+
+    /* Pass to GET /api/deals/mine?cursor= for the next page; null on the last page */
+    public String getNextCursor() { return nextCursor; }
+
+    /* False while the board index is still loading after startup; counts may then be low */
+    public boolean isComplete() { return complete; }
+}
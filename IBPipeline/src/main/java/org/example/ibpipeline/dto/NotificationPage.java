@@ -0,0 +1,26 @@
+package org.example.ibpipeline.dto;
+
+import org.example.ibpipeline.model.Notification;
+
+import java.util.List;
+
+/* One page of the caller's inbox, newest first, with the unread total */
+public class NotificationPage {
+
+    private final List<Notification> notifications;
+    private final long unreadCount;
+    private final String nextCursor;
+
+    public NotificationPage(List<Notification> notifications, long unreadCount, String nextCursor) {
+        this.notifications = notifications;
+        this.unreadCount = unreadCount;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<Notification> getNotifications() { return notifications; }
+
+    public long getUnreadCount() { return unreadCount; }
+
+    /* Pass to GET /api/notifications?cursor= for the next page; null on the last page */
+    public String getNextCursor() { return nextCursor; }
+}
@@ -0,0 +1,37 @@
+package org.example.ibpipeline.dto;
+
+import java.util.List;
+
+public class PipelineAggregate {
+
+    private final List<String> groupBy;
+    private final List<PipelineGroup> groups;
+    private final long matchedDeals;
+    private final long totalValue;
+    private final long tookMicros;
+    private final boolean complete;
+
+    public PipelineAggregate(List<String> groupBy, List<PipelineGroup> groups, long matchedDeals, long totalValue,
+                             long tookMicros, boolean complete) {
+        this.groupBy = groupBy;
+        this.groups = groups;
+        this.matchedDeals = matchedDeals;
+        this.totalValue = totalValue;
+        this.tookMicros = tookMicros;
+        this.complete = complete;
+    }
+
+    public List<String> getGroupBy() { return groupBy; }
+
+    /* Largest total value first */
+    public List<PipelineGroup> getGroups() { return groups; }
+
+    public long getMatchedDeals() { return matchedDeals; }
+
+    public long getTotalValue() { return totalValue; }
+
+    public long getTookMicros() { return tookMicros; }
+
+    /* False while the snapshot is still loading after startup */
+    public boolean isComplete() { return complete; }
+}
@@ -0,0 +1,31 @@
+package org.example.ibpipeline.dto;
+
+import org.example.ibpipeline.exception.BadRequestException;
+
+import java.util.Arrays;
+
+/* What a pipeline aggregate can be grouped by; createdWeek buckets by the Monday (UTC) of the creation week */
+public enum PipelineDimension {
+    STAGE("stage"),
+    SECTOR("sector"),
+    DEAL_TYPE("dealType"),
+    CREATED_WEEK("createdWeek");
+
+    private final String paramName;
+
+    PipelineDimension(String paramName) {
+        this.paramName = paramName;
+    }
+
+    public String getParamName() {
+        return paramName;
+    }
+
+    public static PipelineDimension parse(String name) {
+        return Arrays.stream(values())
+                .filter(dimension -> dimension.paramName.equalsIgnoreCase(name.trim())
+                        || dimension.name().equalsIgnoreCase(name.trim()))
+                .findFirst()
+                .orElseThrow(() -> new BadRequestException("Unknown groupBy dimension: " + name));
+    }
+}
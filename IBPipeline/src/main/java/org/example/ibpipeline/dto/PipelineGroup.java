@@ -0,0 +1,23 @@
+package org.example.ibpipeline.dto;
+
+import java.util.Map;
+
+public class PipelineGroup {
+
+    private final Map<String, String> keys;
+    private final long count;
+    private final long totalValue;
+
+    public PipelineGroup(Map<String, String> keys, long count, long totalValue) {
+        this.keys = keys;
+        this.count = count;
+        this.totalValue = totalValue;
+    }
+
+    /* groupBy dimension name to value, e.g. {"sector": "Technology", "stage": "Closed"} */
+    public Map<String, String> getKeys() { return keys; }
+
+    public long getCount() { return count; }
+
+    public long getTotalValue() { return totalValue; }
+}
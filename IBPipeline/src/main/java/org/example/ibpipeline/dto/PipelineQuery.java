@@ -0,0 +1,42 @@
+package org.example.ibpipeline.dto;
+
+import org.example.ibpipeline.model.DealStage;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+
+/* Filters and group-by of one pipeline aggregate; null filters match everything */
+public class PipelineQuery {
+
+    private final List<PipelineDimension> groupBy;
+    private final Set<DealStage> stages;
+    private final String sector;
+    private final String dealType;
+    private final Instant createdFrom;
+    private final Instant createdTo;
+
+    public PipelineQuery(List<PipelineDimension> groupBy, Set<DealStage> stages, String sector, String dealType,
+                         Instant createdFrom, Instant createdTo) {
+        this.groupBy = groupBy;
+        this.stages = stages;
+        this.sector = sector;
+        this.dealType = dealType;
+        this.createdFrom = createdFrom;
+        this.createdTo = createdTo;
+    }
+
+    public List<PipelineDimension> getGroupBy() { return groupBy; }
+
+    public Set<DealStage> getStages() { return stages; }
+
+    public String getSector() { return sector; }
+
+    public String getDealType() { return dealType; }
+
+    /* Inclusive */
+    public Instant getCreatedFrom() { return createdFrom; }
+
+    /* Exclusive */
+    public Instant getCreatedTo() { return createdTo; }
+}
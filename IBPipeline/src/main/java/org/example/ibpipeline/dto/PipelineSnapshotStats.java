@@ -0,0 +1,35 @@
+package org.example.ibpipeline.dto;
+
+public class PipelineSnapshotStats {
+
+    private final int liveDeals;
+    private final int capacity;
+    private final long columnBytes;
+    private final long idIndexBytes;
+    private final int sectors;
+    private final int dealTypes;
+
+    public PipelineSnapshotStats(int liveDeals, int capacity, long columnBytes, long idIndexBytes, int sectors,
+                                 int dealTypes) {
+        this.liveDeals = liveDeals;
+        this.capacity = capacity;
+        this.columnBytes = columnBytes;
+        this.idIndexBytes = idIndexBytes;
+        this.sectors = sectors;
+        this.dealTypes = dealTypes;
+    }
+
+    public int getLiveDeals() { return liveDeals; }
+
+    public int getCapacity() { return capacity; }
+
+    /* Exact size of the primitive column arrays */
+    public long getColumnBytes() { return columnBytes; }
+
+    /* Estimate for the id-to-row map (entry, key string and boxed row) */
+    public long getIdIndexBytes() { return idIndexBytes; }
+
+    public int getSectors() { return sectors; }
+
+    public int getDealTypes() { return dealTypes; }
+}
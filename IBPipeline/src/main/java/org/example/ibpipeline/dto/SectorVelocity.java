@@ -0,0 +1,24 @@
+package org.example.ibpipeline.dto;
+
+import java.util.List;
+
+public class SectorVelocity {
+
+    private final String sector;
+    private final List<StageVelocity> stages;
+    private final Double winRate;
+
+    public SectorVelocity(String sector, List<StageVelocity> stages, Double winRate) {
+        this.sector = sector;
+        this.stages = stages;
+        this.winRate = winRate;
+    }
+
+    /* null for the entry that combines every sector */
+    public String getSector() { return sector; }
+
+    public List<StageVelocity> getStages() { return stages; }
+
+    /* Closed / (Closed + Lost) among deals that reached either; null if none did */
+    public Double getWinRate() { return winRate; }
+}
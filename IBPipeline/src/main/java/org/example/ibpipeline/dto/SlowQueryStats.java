@@ -0,0 +1,51 @@
+package org.example.ibpipeline.dto;
+
+import java.time.Instant;
+
+/* One query shape that crossed the slow-query threshold; values in the shape are redacted */
+public class SlowQueryStats {
+
+    private final String collection;
+    private final String command;
+    private final String shape;
+    private final long count;
+    private final long totalMillis;
+    private final long maxMillis;
+    private final Instant lastSeen;
+    private final String plan;
+    private final boolean collectionScan;
+
+    public SlowQueryStats(String collection, String command, String shape, long count, long totalMillis,
+                          long maxMillis, Instant lastSeen, String plan, boolean collectionScan) {
+        this.collection = collection;
+        this.command = command;
+        this.shape = shape;
+        this.count = count;
+        this.totalMillis = totalMillis;
+        this.maxMillis = maxMillis;
+        this.lastSeen = lastSeen;
+        this.plan = plan;
+        this.collectionScan = collectionScan;
+    }
+
+    public String getCollection() { return collection; }
+
+    public String getCommand() { return command; }
+
+    public String getShape() { return shape; }
+
+    public long getCount() { return count; }
+
+    public long getTotalMillis() { return totalMillis; }
+
+    public long getMaxMillis() { return maxMillis; }
+
+    public long getAvgMillis() { return count == 0 ? 0 : totalMillis / count; }
+
+    public Instant getLastSeen() { return lastSeen; }
+
+    /* Winning plan from explain, e.g. "COLLSCAN" or "IXSCAN stage_updatedAt"; null until explained */
+    public String getPlan() { return plan; }
+
+    public boolean isCollectionScan() { return collectionScan; }
+}
@@ -0,0 +1,48 @@
+package org.example.ibpipeline.dto;
+
+import org.example.ibpipeline.model.DealStage;
+
+import java.util.Map;
+
+/* How deals moved through one stage: volume, where they went next and how long they stayed */
+public class StageVelocity {
+
+    private final DealStage stage;
+    private final long entered;
+    private final long exited;
+    private final Map<String, Long> exitsTo;
+    private final Double conversionRate;
+    private final Long p50Millis;
+    private final Long p90Millis;
+    private final Long p99Millis;
+
+    public StageVelocity(DealStage stage, long entered, long exited, Map<String, Long> exitsTo,
+                         Double conversionRate, Long p50Millis, Long p90Millis, Long p99Millis) {
+        this.stage = stage;
+        this.entered = entered;
+        this.exited = exited;
+        this.exitsTo = exitsTo;
+        this.conversionRate = conversionRate;
+        this.p50Millis = p50Millis;
+        this.p90Millis = p90Millis;
+        this.p99Millis = p99Millis;
+    }
+
+    public DealStage getStage() { return stage; }
+
+    public long getEntered() { return entered; }
+
+    public long getExited() { return exited; }
+
+    public Map<String, Long> getExitsTo() { return exitsTo; }
+
+    /* Share of exits that went on to the next stage of the funnel; null for Closed/Lost or without exits */
+    public Double getConversionRate() { return conversionRate; }
+
+    /* Time in stage of the deals that left it, within 1% (DurationSketch); null without exits */
+    public Long getP50Millis() { return p50Millis; }
+
+    public Long getP90Millis() { return p90Millis; }
+
+    public Long getP99Millis() { return p99Millis; }
+}
@@ -0,0 +1,38 @@
+package org.example.ibpipeline.dto;
+
+import org.example.ibpipeline.exception.BadRequestException;
+
+import java.util.Arrays;
+
+/* Free-text deal fields offered as typeahead by GET /api/deals/suggest */
+public enum SuggestField {
+    CLIENT_NAME("clientName"),
+    SECTOR("sector"),
+    DEAL_TYPE("dealType");
+
+    private final String paramName;
+
+    SuggestField(String paramName) {
+        this.paramName = paramName;
+    }
+
+    public String getParamName() {
+        return paramName;
+    }
+
+    public String valueOf(DealCard card) {
+        return switch (this) {
+            case CLIENT_NAME -> card.getClientName();
+            case SECTOR -> card.getSector();
+            case DEAL_TYPE -> card.getDealType();
+        };
+    }
+
+    public static SuggestField parse(String name) {
+        return Arrays.stream(values())
+                .filter(field -> field.paramName.equalsIgnoreCase(name.trim())
+                        || field.name().equalsIgnoreCase(name.trim()))
+                .findFirst()
+                .orElseThrow(() -> new BadRequestException("Unknown suggest field: " + name));
+    }
+}
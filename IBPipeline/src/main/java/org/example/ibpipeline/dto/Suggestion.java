@@ -0,0 +1,17 @@
+package org.example.ibpipeline.dto;
+
+/* One typeahead value and how many hot deals use it */
+public class Suggestion {
+
+    private final String value;
+    private final long count;
+
+    public Suggestion(String value, long count) {
+        this.value = value;
+        this.count = count;
+    }
+
+    public String getValue() { return value; }
+
+    public long getCount() { return count; }
+}
@@ -0,0 +1,52 @@
+package org.example.ibpipeline.dto;
+
+import java.util.Map;
+
+/* A finished span as kept by TraceBuffer; timestamps are epoch microseconds */
+public class TraceSpan {
+
+    private final String traceId;
+    private final String spanId;
+    private final String parentId;
+    private final String name;
+    private final String kind;
+    private final String remoteService;
+    private final long startMicros;
+    private final long durationMicros;
+    private final String error;
+    private final Map<String, String> tags;
+
+    public TraceSpan(String traceId, String spanId, String parentId, String name, String kind, String remoteService,
+                     long startMicros, long durationMicros, String error, Map<String, String> tags) {
+        this.traceId = traceId;
+        this.spanId = spanId;
+        this.parentId = parentId;
+        this.name = name;
+        this.kind = kind;
+        this.remoteService = remoteService;
+        this.startMicros = startMicros;
+        this.durationMicros = durationMicros;
+        this.error = error;
+        this.tags = tags;
+    }
+
+    public String getTraceId() { return traceId; }
+
+    public String getSpanId() { return spanId; }
+
+    public String getParentId() { return parentId; }
+
+    public String getName() { return name; }
+
+    public String getKind() { return kind; }
+
+    public String getRemoteService() { return remoteService; }
+
+    public long getStartMicros() { return startMicros; }
+
+    public long getDurationMicros() { return durationMicros; }
+
+    public String getError() { return error; }
+
+    public Map<String, String> getTags() { return tags; }
+}
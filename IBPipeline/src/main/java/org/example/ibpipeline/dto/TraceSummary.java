@@ -0,0 +1,35 @@
+package org.example.ibpipeline.dto;
+
+/* One trace in the TraceBuffer listing: its root span and end-to-end extent */
+public class TraceSummary {
+
+    private final String traceId;
+    private final String rootName;
+    private final int spanCount;
+    private final long startMicros;
+    private final long durationMicros;
+    private final boolean error;
+
+    public TraceSummary(String traceId, String rootName, int spanCount, long startMicros, long durationMicros,
+                        boolean error) {
+        this.traceId = traceId;
+        this.rootName = rootName;
+        this.spanCount = spanCount;
+        this.startMicros = startMicros;
+        this.durationMicros = durationMicros;
+        this.error = error;
+    }
+
+    public String getTraceId() { return traceId; }
+
+    public String getRootName() { return rootName; }
+
+    public int getSpanCount() { return spanCount; }
+
+    public long getStartMicros() { return startMicros; }
+
+    /* From the earliest span start to the latest span end, across threads and the broker hop */
+    public long getDurationMicros() { return durationMicros; }
+
+    public boolean isError() { return error; }
+}
@@ -0,0 +1,22 @@
+package org.example.ibpipeline.dto;
+
+import org.example.ibpipeline.model.User;
+
+import java.util.List;
+
+/* One page of the user directory in username order; password hashes are never loaded */
+public class UserDirectoryPage {
+
+    private final List<User> users;
+    private final String nextCursor;
+
+    public UserDirectoryPage(List<User> users, String nextCursor) {
+        this.users = users;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<User> getUsers() { return users; }
+
+    /* Pass to GET /api/admin/users?cursor= for the next page; null on the last page */
+    public String getNextCursor() { return nextCursor; }
+}
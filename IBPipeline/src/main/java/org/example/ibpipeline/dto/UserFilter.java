@@ -0,0 +1,29 @@
+package org.example.ibpipeline.dto;
+
+import org.example.ibpipeline.model.Role;
+
+/* User directory filter; null fields are ignored, usernamePrefix is case-sensitive */
+public class UserFilter {
+
+    private final Role role;
+    private final Boolean active;
+    private final String usernamePrefix;
+
+    public UserFilter(Role role, Boolean active, String usernamePrefix) {
+        this.role = role;
+        this.active = active;
+        this.usernamePrefix = usernamePrefix == null || usernamePrefix.isBlank() ? null : usernamePrefix.trim();
+    }
+
+    public Role getRole() { return role; }
+
+    public Boolean getActive() { return active; }
+
+    public String getUsernamePrefix() { return usernamePrefix; }
+
+    public boolean matches(String username, Role userRole, boolean userActive) {
+        return (role == null || role == userRole)
+                && (active == null || active == userActive)
+                && (usernamePrefix == null || (username != null && username.startsWith(usernamePrefix)));
+    }
+}
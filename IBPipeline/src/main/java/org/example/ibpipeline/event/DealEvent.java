@@ -5,6 +5,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.time.Instant;
+import java.util.List;
 
 @Data
 @NoArgsConstructor
@@ -17,4 +18,53 @@ public class DealEvent {
     private String userId;
     private String details;
     private Instant timestamp;
+
+    /*
+     * Stage, sector, dealType and value before and after the change, for the daily rollups.
+     * before is null when the deal appears (created), after when it disappears (deleted);
+     * both are null when none of those fields changed (notes, reassignment, archive/restore).
+     */
+    private DealFacts before;
+    private DealFacts after;
+
+    /*
+     * Usernames to notify, carried only by DEAL_DELETED: the deal is gone by the time the
+     * notification consumer would look up its creator, assignee and watchers.
+     */
+    private List<String> audience;
+
+    /*
+     * Every user behind a combined event when there is more than one (notes written together,
+     * see DealService.addNote); userId is then the first of them. Null otherwise.
+     */
+    private List<String> actors;
+
+    public DealEvent(String eventId, DealEventType eventType, String dealId, String dealTitle,
+                     String userId, String details, Instant timestamp) {
+        this(eventId, eventType, dealId, dealTitle, userId, details, timestamp, null, null, null, null);
+    }
+
+    public DealEvent withChange(DealFacts before, DealFacts after) {
+        this.before = before;
+        this.after = after;
+        return this;
+    }
+
+    public DealEvent withAudience(List<String> audience) {
+        this.audience = audience;
+        return this;
+    }
+
+    public DealEvent withActors(List<String> actors) {
+        this.actors = actors;
+        return this;
+    }
+
+    /* The users who caused this event: actors if set, else userId (possibly none) */
+    public List<String> actingUsers() {
+        if (actors != null) {
+            return actors;
+        }
+        return userId == null ? List.of() : List.of(userId);
+    }
 }
@@ -6,5 +6,8 @@ public enum DealEventType {
     DEAL_DELETED,
     STAGE_UPDATED,
     NOTE_ADDED,
-    VALUE_UPDATED
+    VALUE_UPDATED,
+    DEAL_ARCHIVED,
+    DEAL_RESTORED,
+    DEAL_STALE
 }
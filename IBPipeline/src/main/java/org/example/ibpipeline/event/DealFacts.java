@@ -0,0 +1,22 @@
+package org.example.ibpipeline.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.example.ibpipeline.model.Deal;
+import org.example.ibpipeline.model.DealStage;
+
+/* The fields of a deal that pipeline rollups count and sum, as carried on a DealEvent */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DealFacts {
+    private DealStage stage;
+    private String sector;
+    private String dealType;
+    private Long dealValue;
+
+    public static DealFacts of(Deal deal) {
+        return new DealFacts(deal.getCurrentStage(), deal.getSector(), deal.getDealType(), deal.getDealValue());
+    }
+}
@@ -0,0 +1,29 @@
+package org.example.ibpipeline.event.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/* JFR event for one listener invocation in KafkaConsumerService; the event duration is the handling time */
+@Name("org.example.ibpipeline.DealEventConsumed")
+@Label("Deal Event Consumed")
+@Category({"IBPipeline", "Kafka"})
+@Description("Handling of deal events delivered to the Kafka listener in one invocation")
+@StackTrace(false)
+public class DealEventConsumedEvent extends Event {
+
+    @Label("Batch Size")
+    public int batchSize;
+
+    @Label("Event Type")
+    public String eventType;
+
+    @Label("Partition")
+    public int partition;
+
+    @Label("Offset")
+    public long offset;
+}
@@ -0,0 +1,51 @@
+package org.example.ibpipeline.event.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/*
+ * JFR event for one DealService call. The event duration is the whole call; mongoTime and
+ * publishTime split out how much of it was spent in repository calls and in handing events
+ * to the Kafka producer. Recorded by DealOperationRecorder around the beans involved.
+ */
+@Name("org.example.ibpipeline.DealOperation")
+@Label("Deal Operation")
+@Category({"IBPipeline", "Deals"})
+@Description("A DealService call with the time spent in MongoDB and in Kafka publishing")
+@StackTrace(false)
+public class DealOperationEvent extends Event {
+
+    @Label("Operation")
+    public String operation;
+
+    @Label("Deal Id")
+    public String dealId;
+
+    @Label("Deal Count")
+    @Description("Number of deals touched (bulk operations)")
+    public int dealCount;
+
+    @Label("Mongo Time")
+    @Timespan(Timespan.NANOSECONDS)
+    public long mongoTime;
+
+    @Label("Publish Time")
+    @Timespan(Timespan.NANOSECONDS)
+    public long publishTime;
+
+    public static DealOperationEvent begin(String operation, String dealId) {
+        DealOperationEvent event = new DealOperationEvent();
+        if (event.isEnabled()) {
+            event.operation = operation;
+            event.dealId = dealId;
+            event.dealCount = dealId == null ? 0 : 1;
+            event.begin();
+        }
+        return event;
+    }
+}
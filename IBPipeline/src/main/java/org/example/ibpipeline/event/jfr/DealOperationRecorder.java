@@ -0,0 +1,98 @@
+package org.example.ibpipeline.event.jfr;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.example.ibpipeline.dto.BulkDealUpdateResponse;
+import org.example.ibpipeline.model.Deal;
+import org.springframework.aop.framework.Advised;
+import org.springframework.aop.framework.ProxyFactory;
+
+import java.util.Set;
+
+/*
+ * Records DealOperationEvents from outside DealService. The operation interceptor wraps the
+ * DealService bean and keeps the event of the running call for its thread; the mongo and
+ * publish interceptors wrap DealRepository and KafkaProducerService and add their time to
+ * that event. Calls into those beans outside a recorded operation are not timed, and while
+ * no recording wants the event each interceptor costs one check.
+ */
+public final class DealOperationRecorder {
+
+    /* The DealService calls that are recorded, by method name */
+    static final Set<String> OPERATIONS = Set.of("createDeal", "getDealById", "updateBasicFields", "updateStage",
+            "updateAssignee", "addNote", "updateDealValue", "deleteDeal", "bulkUpdate");
+
+    private static final ThreadLocal<DealOperationEvent> CURRENT = new ThreadLocal<>();
+
+    private DealOperationRecorder() {
+    }
+
+    public static MethodInterceptor operations() {
+        return DealOperationRecorder::operation;
+    }
+
+    public static MethodInterceptor mongo() {
+        return invocation -> timed(invocation, true);
+    }
+
+    public static MethodInterceptor publish() {
+        return invocation -> timed(invocation, false);
+    }
+
+    /* Puts the interceptor in front of the bean: first advice of its existing proxy, or a new proxy */
+    public static Object advise(Object bean, MethodInterceptor interceptor) {
+        if (bean instanceof Advised advised && !advised.isFrozen()) {
+            advised.addAdvice(0, interceptor);
+            return bean;
+        }
+        ProxyFactory proxyFactory = new ProxyFactory(bean);
+        proxyFactory.addAdvice(interceptor);
+        return proxyFactory.getProxy(bean.getClass().getClassLoader());
+    }
+
+    private static Object operation(MethodInvocation invocation) throws Throwable {
+        String name = invocation.getMethod().getName();
+        if (!OPERATIONS.contains(name) || CURRENT.get() != null) {
+            return invocation.proceed();
+        }
+
+        Object[] arguments = invocation.getArguments();
+        DealOperationEvent event = DealOperationEvent.begin(name,
+                arguments.length > 0 && arguments[0] instanceof String id ? id : null);
+        if (!event.isEnabled()) {
+            return invocation.proceed();
+        }
+
+        CURRENT.set(event);
+        try {
+            Object result = invocation.proceed();
+            if (result instanceof Deal deal) {
+                event.dealId = deal.getId();
+                event.dealCount = 1;
+            } else if (result instanceof BulkDealUpdateResponse response) {
+                event.dealCount = response.getUpdated();
+            }
+            return result;
+        } finally {
+            CURRENT.remove();
+            event.commit();
+        }
+    }
+
+    private static Object timed(MethodInvocation invocation, boolean mongo) throws Throwable {
+        DealOperationEvent event = CURRENT.get();
+        if (event == null) {
+            return invocation.proceed();
+        }
+        long start = System.nanoTime();
+        try {
+            return invocation.proceed();
+        } finally {
+            if (mongo) {
+                event.mongoTime += System.nanoTime() - start;
+            } else {
+                event.publishTime += System.nanoTime() - start;
+            }
+        }
+    }
+}
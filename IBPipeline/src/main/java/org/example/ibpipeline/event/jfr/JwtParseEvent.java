@@ -0,0 +1,24 @@
+package org.example.ibpipeline.event.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/* JFR event around the bearer token verification in JwtFilter; the event duration is the parse time */
+@Name("org.example.ibpipeline.JwtParse")
+@Label("JWT Parse")
+@Category({"IBPipeline", "Security"})
+@Description("Verification and parsing of the bearer token on one request")
+@StackTrace(false)
+public class JwtParseEvent extends Event {
+
+    @Label("Outcome")
+    @Description("VALID, WRONG_TYPE or INVALID")
+    public String outcome;
+
+    @Label("Token Length")
+    public int tokenLength;
+}
@@ -1,8 +1,11 @@
 package org.example.ibpipeline.exception;
 
 import org.example.ibpipeline.common.ApiResponse;
+import org.example.ibpipeline.common.VersionConflictResponse;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.AccessDeniedException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
@@ -24,6 +27,22 @@ public class GlobalExceptionHandler {
         return buildResponse(HttpStatus.NOT_FOUND, e.getMessage());
     }
 
+    /* VERSION CONFLICT (409) - carries the current version in the body and the ETag */
+    @ExceptionHandler(VersionConflictException.class)
+    public ResponseEntity<ApiResponse> handleVersionConflict(VersionConflictException e) {
+        VersionConflictResponse response = new VersionConflictResponse(e.getMessage(), e.getCurrentVersion(), Instant.now());
+
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .header(HttpHeaders.ETAG, "\"" + e.getCurrentVersion() + "\"")
+                .body(response);
+    }
+
+    /* FORBIDDEN (403) - method security and explicit role checks */
+    @ExceptionHandler(AccessDeniedException.class)
+    public ResponseEntity<ApiResponse> handleAccessDenied(AccessDeniedException e) {
+        return buildResponse(HttpStatus.FORBIDDEN, e.getMessage());
+    }
+
     /* VALIDATION ERRORS (400 )*/
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<ApiResponse> handelValidation(MethodArgumentNotValidException e) {
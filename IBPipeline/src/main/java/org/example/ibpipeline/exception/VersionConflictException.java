@@ -0,0 +1,15 @@
+package org.example.ibpipeline.exception;
+
+public class VersionConflictException extends RuntimeException {
+
+    private final Long currentVersion;
+
+    public VersionConflictException(Long currentVersion) {
+        super("Deal was modified by someone else; current version is " + currentVersion);
+        this.currentVersion = currentVersion;
+    }
+
+    public Long getCurrentVersion() {
+        return currentVersion;
+    }
+}
@@ -1,6 +1,12 @@
 package org.example.ibpipeline.model;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import org.example.ibpipeline.dto.DuplicateCandidate;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Transient;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import jakarta.validation.constraints.NotBlank;
@@ -10,11 +16,20 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Document(collection = "deals")
+@CompoundIndex(name = "stage_updatedAt", def = "{'currentStage': 1, 'updatedAt': 1}")
+@CompoundIndex(name = "createdBy_updatedAt", def = "{'createdBy': 1, 'updatedAt': -1, '_id': -1}")
+@CompoundIndex(name = "assignedTo_updatedAt", def = "{'assignedTo': 1, 'updatedAt': -1, '_id': -1}")
 public class Deal {
 
+    public static final String ARCHIVE_COLLECTION = "deals_archive";
+
     @Id
     private String id;
 
+    /* Optimistic-locking version, bumped on every write; exposed as the ETag */
+    @Version
+    private Long version;
+
     @NotBlank
     private String clientName;
 
@@ -37,13 +52,30 @@ public class Deal {
     private String createdBy;
     private String assignedTo;
 
+    /* Usernames notified of changes besides the creator and the assignee */
+    private List<String> watchers = new ArrayList<>();
+
     private Instant createdAt = Instant.now();
     private Instant updatedAt = Instant.now();
 
+    /* When the deal entered currentStage; null on deals that have not moved since before it was tracked */
+    private Instant stageEnteredAt;
+
+    /* Set only while the deal lives in the deals_archive collection */
+    private Instant archivedAt;
+
+    /* Likely duplicates of an existing client, only on the response to a create; never stored */
+    @Transient
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @JsonInclude(JsonInclude.Include.NON_EMPTY)
+    private List<DuplicateCandidate> possibleDuplicates;
 
     public String getId() { return id; }
     public void setId(String id) { this.id = id; }
 
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
+
     public String getClientName() { return clientName; }
     public void setClientName(String clientName) { this.clientName = clientName; }
 
@@ -71,9 +103,21 @@ public class Deal {
     public String getAssignedTo() { return assignedTo; }
     public void setAssignedTo(String assignedTo) { this.assignedTo = assignedTo; }
 
+    public List<String> getWatchers() { return watchers; }
+    public void setWatchers(List<String> watchers) { this.watchers = watchers; }
+
     public Instant getCreatedAt() { return createdAt; }
     public void setCreatedAt(Instant createdAt) { this.createdAt = createdAt; }
 
     public Instant getUpdatedAt() { return updatedAt; }
     public void setUpdatedAt(Instant updatedAt) { this.updatedAt = updatedAt; }
+
+    public Instant getStageEnteredAt() { return stageEnteredAt; }
+    public void setStageEnteredAt(Instant stageEnteredAt) { this.stageEnteredAt = stageEnteredAt; }
+
+    public Instant getArchivedAt() { return archivedAt; }
+    public void setArchivedAt(Instant archivedAt) { this.archivedAt = archivedAt; }
+
+    public List<DuplicateCandidate> getPossibleDuplicates() { return possibleDuplicates; }
+    public void setPossibleDuplicates(List<DuplicateCandidate> possibleDuplicates) { this.possibleDuplicates = possibleDuplicates; }
 }
\ No newline at end of file
@@ -0,0 +1,51 @@
+package org.example.ibpipeline.model;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.example.ibpipeline.event.DealEvent;
+import org.example.ibpipeline.event.DealEventType;
+import org.example.ibpipeline.event.DealFacts;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+/*
+ * A consumed DealEvent that changed stage, sector, dealType or value, kept until the daily
+ * rollup has folded it in. Keyed by eventId so a redelivered event is not counted twice.
+ * Rollups pick events by consumedAt, not the producer's timestamp: an event that arrives after
+ * its day was rolled up still lands in the day it was consumed. The consumedAt index doubles
+ * as the TTL.
+ */
+@Document(collection = "deal_event_log")
+@Data
+@NoArgsConstructor
+public class DealEventRecord {
+
+    @Id
+    private String eventId;
+
+    private DealEventType eventType;
+    private String dealId;
+
+    private Instant timestamp;
+
+    @Indexed(name = "consumedAt_ttl", expireAfter = "35d")
+    private Instant consumedAt;
+
+    private DealFacts before;
+    private DealFacts after;
+
+    public static DealEventRecord of(DealEvent event, Instant consumedAt) {
+        DealEventRecord record = new DealEventRecord();
+        record.setEventId(event.getEventId());
+        record.setEventType(event.getEventType());
+        record.setDealId(event.getDealId());
+        record.setTimestamp(event.getTimestamp());
+        record.setConsumedAt(consumedAt);
+        record.setBefore(event.getBefore());
+        record.setAfter(event.getAfter());
+        return record;
+    }
+}
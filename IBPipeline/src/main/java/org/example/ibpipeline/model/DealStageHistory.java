@@ -0,0 +1,50 @@
+package org.example.ibpipeline.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+ * Stage transitions of one deal in one calendar month (UTC), appended with $push.
+ * A deal moves a handful of times a month at most, so a bucket stays small while the
+ * whole timeline of a deal is a few documents instead of one per transition.
+ */
+@Document(collection = "deal_stage_history")
+@Data
+@NoArgsConstructor
+public class DealStageHistory {
+
+    /* dealId:yyyy-MM */
+    @Id
+    private String id;
+
+    @Indexed
+    private String dealId;
+
+    private String month;
+    private int count;
+    private List<Transition> transitions = new ArrayList<>();
+
+    public static String idOf(String dealId, String month) {
+        return dealId + ":" + month;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Transition {
+        /* null for the creation of the deal */
+        private DealStage from;
+        private DealStage to;
+        private Instant at;
+        /* Time spent in from; null on creation */
+        private Long millisInPreviousStage;
+    }
+}
@@ -0,0 +1,48 @@
+package org.example.ibpipeline.model;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.example.ibpipeline.dto.DictionaryField;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+/*
+ * One value of a managed dictionary. Deals store the code instead of the value.
+ * The id is "<field>:<code>", which keeps codes unique per field; key is the trimmed,
+ * lowercased value and keeps values unique regardless of case.
+ * Entries are never removed or renumbered, so a code read from any deal stays valid.
+ */
+@Document(collection = "dictionaries")
+@CompoundIndex(name = "field_key", def = "{'field': 1, 'key': 1}", unique = true)
+@Data
+@NoArgsConstructor
+public class DictionaryEntry {
+
+    @Id
+    private String id;
+
+    private DictionaryField field;
+    private int code;
+    private String value;
+    private String key;
+
+    private Instant createdAt;
+    private String createdBy;
+
+    public DictionaryEntry(DictionaryField field, int code, String value, String createdBy) {
+        this.id = field.getParamName() + ":" + code;
+        this.field = field;
+        this.code = code;
+        this.value = value;
+        this.key = keyOf(value);
+        this.createdAt = Instant.now();
+        this.createdBy = createdBy;
+    }
+
+    public static String keyOf(String value) {
+        return value.trim().toLowerCase();
+    }
+}
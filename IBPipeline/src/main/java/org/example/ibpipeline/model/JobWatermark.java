@@ -0,0 +1,27 @@
+package org.example.ibpipeline.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+/*
+ * How far an incremental job has got through a (updatedAt, id) ordered scan.
+ * A null dealId means everything updated before updatedAt has been handled.
+ */
+@Document(collection = "job_watermarks")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class JobWatermark {
+
+    @Id
+    private String name;
+
+    private Instant updatedAt;
+    private String dealId;
+    private Instant lastRunAt;
+}
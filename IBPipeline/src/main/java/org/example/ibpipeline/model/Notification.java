@@ -0,0 +1,50 @@
+package org.example.ibpipeline.model;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.example.ibpipeline.event.DealEventType;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+ * One inbox entry: every event on one deal that reached one user within the same
+ * notification window, folded together. createdAt is when the entry was written and
+ * drives both the inbox order and the TTL.
+ */
+@Document(collection = "notifications")
+@CompoundIndex(name = "user_createdAt", def = "{'userId': 1, 'createdAt': -1, '_id': -1}")
+@Data
+@NoArgsConstructor
+public class Notification {
+
+    @Id
+    private String id;
+
+    private String userId;
+    private String dealId;
+    private String dealTitle;
+
+    /* Distinct event types in the order they happened */
+    private List<DealEventType> eventTypes = new ArrayList<>();
+    private int eventCount;
+
+    /* Distinct users who made the changes; system events (stale deals) add none */
+    private List<String> actors = new ArrayList<>();
+
+    /* Details of the latest event */
+    private String summary;
+
+    private Instant firstEventAt;
+    private Instant lastEventAt;
+
+    @Indexed(name = "createdAt_ttl", expireAfter = "90d")
+    private Instant createdAt;
+
+    private boolean read;
+}
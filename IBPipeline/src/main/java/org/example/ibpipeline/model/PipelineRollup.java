@@ -0,0 +1,50 @@
+package org.example.ibpipeline.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+import java.util.List;
+
+/*
+ * The pipeline at the end of one UTC day: deal count and value summed per stage, sector and
+ * dealType (hot and archived deals alike), plus how many deals were created and deleted that day.
+ * Buckets are lists rather than maps so sector names never end up as Mongo field names.
+ */
+@Document(collection = "pipeline_rollups")
+@Data
+@NoArgsConstructor
+public class PipelineRollup {
+
+    /* ISO date, e.g. 2025-03-31; sorts chronologically */
+    @Id
+    private String day;
+
+    private long totalCount;
+    private long totalValue;
+
+    private List<Bucket> stages;
+    private List<Bucket> sectors;
+    private List<Bucket> dealTypes;
+
+    private long events;
+    private long created;
+    private long deleted;
+
+    /* True for the first rollup, computed from the deals themselves rather than from events */
+    private boolean baseline;
+
+    private Instant computedAt;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Bucket {
+        private String key;
+        private long count;
+        private long value;
+    }
+}
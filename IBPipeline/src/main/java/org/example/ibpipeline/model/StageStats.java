@@ -0,0 +1,42 @@
+package org.example.ibpipeline.model;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/*
+ * Pre-aggregated velocity counters for one (sector, stage, month): how many deals entered and
+ * left the stage, where they went, and a DurationSketch of the time they spent in it. Every
+ * field is a counter bumped with $inc, so documents for several months or sectors can simply
+ * be added up.
+ */
+@Document(collection = "stage_stats")
+@Data
+@NoArgsConstructor
+public class StageStats {
+
+    /* sector|stage|yyyy-MM */
+    @Id
+    private String id;
+
+    private String sector;
+    private DealStage stage;
+    private String month;
+
+    private long entered;
+    private long exited;
+
+    /* Next stage name -> deals that moved there */
+    private Map<String, Long> exitsTo = new HashMap<>();
+
+    /* DurationSketch bucket -> deals that left after that long */
+    private Map<String, Long> durations = new HashMap<>();
+
+    public static String idOf(String sector, DealStage stage, String month) {
+        return sector + "|" + stage + "|" + month;
+    }
+}
@@ -1,29 +1,36 @@
 package org.example.ibpipeline.model;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import lombok.Data;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 import org.example.ibpipeline.model.Role;
 
 import java.time.Instant;
 
 @Document(collection = "users")
+@CompoundIndex(name = "role_username", def = "{'role': 1, 'username': 1}")
 @Data
 public class User {
     @Id
     private String id;
 
     @NotBlank(message = "Username is required")
+    @Indexed(name = "username", unique = true)
     private String username;
 
     @Email(message = "Email must be valid")
     @NotBlank(message = "Email is required")
     private String email;
 
+    /* bcrypt hash; accepted on input but never serialized */
     @NotBlank(message = "Password is required")
+    @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
     private String password;
 
     @NotNull(message = "Role is required")
@@ -6,7 +6,7 @@ import org.springframework.data.mongodb.repository.MongoRepository;
 
 import java.util.List;
 
-public interface DealRepository extends MongoRepository<Deal, String> {
+public interface DealRepository extends MongoRepository<Deal, String>, DealRepositoryCustom {
 
     List<Deal> findByCurrentStage(DealStage stage);
 
@@ -0,0 +1,118 @@
+package org.example.ibpipeline.repository;
+
+import org.example.ibpipeline.dto.DealFilter;
+import org.example.ibpipeline.dto.DealOwnership;
+import org.example.ibpipeline.dto.PipelineGroup;
+import org.example.ibpipeline.model.Deal;
+import org.example.ibpipeline.model.DealNote;
+import org.example.ibpipeline.model.DealStage;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/* Deal operations that need the Mongo driver directly (bulk writes, partial updates) */
+public interface DealRepositoryCustom {
+
+    /*
+     * Inserts the deals with a single unordered insertMany.
+     * Ids must already be assigned. Returns the write error message for every
+     * position in the list that failed; an empty map means every deal was inserted.
+     */
+    Map<Integer, String> insertUnordered(List<Deal> deals);
+
+    /*
+     * Loads the id, clientName, sector, dealType, stage, stageEnteredAt, value, assignee and
+     * createdAt of the deals matching either the ids or the filter, capped at limit documents.
+     */
+    List<Deal> findBulkTargets(Collection<String> ids, DealFilter filter, int limit);
+
+    /*
+     * Applies the same change to every target, each only while it still has the version it was
+     * read with: a deal changed or removed since is left alone. Null arguments leave that field
+     * untouched. A stage change also sets stageEnteredAt, except on deals already in that stage.
+     * Returns the ids that were updated.
+     */
+    Set<String> bulkUpdate(Collection<Deal> targets, DealStage stage, String assignedTo, Long dealValue, Instant updatedAt);
+
+    /*
+     * Appends the notes with one atomic $push/$each and bumps the version.
+     * Returns the updated deal, or null if it does not exist.
+     */
+    Deal pushNotes(String id, List<DealNote> notes, Instant updatedAt);
+
+    /*
+     * Every hot deal without notes and summary, read with a cursor. Used to build in-memory
+     * indexes at startup; the caller must close the stream.
+     */
+    Stream<Deal> streamWithoutNotes();
+
+    /*
+     * Deal count and value summed per (stage, sector, dealType), over hot and archived deals.
+     * Keys are named as in PipelineDimension. Used once to seed the daily rollups.
+     */
+    List<PipelineGroup> countByStageSectorAndDealType();
+
+    // ----- personal views (createdBy_updatedAt / assignedTo_updatedAt indexes) -----
+
+    /*
+     * Hot deals the user created or is assigned, newest updatedAt first, after the
+     * (beforeUpdatedAt, beforeId) keyset position; a null beforeId starts from the newest.
+     * Notes and summary are not loaded.
+     */
+    List<Deal> findOwned(DealOwnership role, String user, Instant beforeUpdatedAt, String beforeId, int limit);
+
+    // ----- notifications -----
+
+    /*
+     * Adds or removes the username in watchers with $addToSet/$pull. Watching is not an edit,
+     * so version and updatedAt are left alone. Returns the updated deal, or null if it does not exist.
+     */
+    Deal updateWatchers(String id, String username, boolean watching);
+
+    /* The id, createdBy, assignedTo and watchers of the deals, hot or archived */
+    List<Deal> findAudience(Collection<String> ids);
+
+    // ----- stale deal detection (stage_updatedAt index) -----
+
+    /*
+     * Deals in the stage last updated before updatedBefore and after the (afterUpdatedAt, afterId)
+     * keyset position, in (updatedAt, id) order. A null afterId means every deal updated at or
+     * after afterUpdatedAt. Loads the id, clientName, sector, assignee and updatedAt.
+     */
+    List<Deal> findStale(DealStage stage, Instant afterUpdatedAt, String afterId, Instant updatedBefore, int limit);
+
+    /* How many deals findStale would return without a limit */
+    long countStale(DealStage stage, Instant afterUpdatedAt, String afterId, Instant updatedBefore);
+
+    // ----- hot/cold tiering (deals_archive) -----
+
+    /* Full deals (with notes) in the given stages last updated before the cutoff, oldest first */
+    List<Deal> findArchiveCandidates(Set<DealStage> stages, Instant updatedBefore, int limit);
+
+    /*
+     * Copies the deals into deals_archive, then removes each one from the hot collection
+     * only if its version is unchanged. Deals modified in between stay hot and their archive
+     * copy is discarded. Returns the ids that were moved.
+     */
+    List<String> moveToArchive(List<Deal> deals, Instant archivedAt);
+
+    Deal findArchivedById(String id);
+
+    List<Deal> findArchivedByIds(Collection<String> ids);
+
+    /* Moves an archived deal back into the hot collection; returns null if it is not archived */
+    Deal restoreFromArchive(String id, Instant restoredAt);
+
+    /* Distinct string values of a dictionary-coded field (documents not yet migrated), hot and archived */
+    Set<String> findUncodedValues(String field);
+
+    /*
+     * Replaces the string value with its dictionary code in every hot and archived deal.
+     * Leaves version and updatedAt alone: the deal did not change. Returns how many changed.
+     */
+    long encodeValue(String field, String value, int code);
+}
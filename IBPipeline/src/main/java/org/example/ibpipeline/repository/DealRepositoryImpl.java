@@ -0,0 +1,385 @@
+package org.example.ibpipeline.repository;
+
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.MongoNamespace;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.InsertManyOptions;
+import com.mongodb.client.model.ReplaceOneModel;
+import com.mongodb.client.model.ReplaceOptions;
+import com.mongodb.client.model.Updates;
+import com.mongodb.client.model.WriteModel;
+import com.mongodb.client.model.bulk.ClientBulkWriteOptions;
+import com.mongodb.client.model.bulk.ClientNamespacedWriteModel;
+import com.mongodb.client.model.bulk.ClientUpdateResult;
+import org.bson.BsonType;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.bson.types.ObjectId;
+import org.example.ibpipeline.dto.DealFilter;
+import org.example.ibpipeline.dto.DealOwnership;
+import org.example.ibpipeline.dto.DictionaryField;
+import org.example.ibpipeline.dto.PipelineDimension;
+import org.example.ibpipeline.dto.PipelineGroup;
+import org.example.ibpipeline.model.Deal;
+import org.example.ibpipeline.model.DealNote;
+import org.example.ibpipeline.model.DealStage;
+import org.example.ibpipeline.service.DealDictionary;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+public class DealRepositoryImpl implements DealRepositoryCustom {
+
+    private final MongoTemplate mongoTemplate;
+    private final MongoClient mongoClient;
+    private final DealDictionary dictionary;
+
+    public DealRepositoryImpl(MongoTemplate mongoTemplate, MongoClient mongoClient, DealDictionary dictionary) {
+        this.mongoTemplate = mongoTemplate;
+        this.mongoClient = mongoClient;
+        this.dictionary = dictionary;
+    }
+
+    @Override
+    public Map<Integer, String> insertUnordered(List<Deal> deals) {
+        if (deals.isEmpty()) {
+            return Map.of();
+        }
+
+        List<Document> documents = new ArrayList<>(deals.size());
+        for (Deal deal : deals) {
+            Document document = new Document();
+            mongoTemplate.getConverter().write(deal, document);
+            documents.add(document);
+        }
+
+        try {
+            mongoTemplate.getCollection(mongoTemplate.getCollectionName(Deal.class))
+                    .insertMany(documents, new InsertManyOptions().ordered(false));
+            return Map.of();
+        } catch (MongoBulkWriteException e) {
+            Map<Integer, String> failures = new HashMap<>();
+            for (BulkWriteError error : e.getWriteErrors()) {
+                failures.put(error.getIndex(), error.getMessage());
+            }
+            return failures;
+        }
+    }
+
+    @Override
+    public List<Deal> findBulkTargets(Collection<String> ids, DealFilter filter, int limit) {
+        Query query = new Query();
+        if (ids != null && !ids.isEmpty()) {
+            query.addCriteria(Criteria.where("id").in(ids));
+        } else if (filter != null) {
+            addEquals(query, "currentStage", filter.getStage());
+            addEquals(query, "sector", filter.getSector());
+            addEquals(query, "dealType", filter.getDealType());
+            addEquals(query, "createdBy", filter.getCreatedBy());
+            addEquals(query, "assignedTo", filter.getAssignedTo());
+        }
+
+        query.fields().include("clientName", "sector", "dealType", "currentStage", "dealValue", "assignedTo",
+                "createdAt", "stageEnteredAt", "version");
+        query.limit(limit);
+        return mongoTemplate.find(query, Deal.class);
+    }
+
+    /*
+     * One updateOne per deal, conditional on the version it was read with, all sent as a single
+     * client bulkWrite. The verbose result has the matched count of each update, so the deals
+     * changed by someone else in between are known by id, not only counted.
+     */
+    @Override
+    public Set<String> bulkUpdate(Collection<Deal> targets, DealStage stage, String assignedTo, Long dealValue,
+                                  Instant updatedAt) {
+        if (targets.isEmpty()) {
+            return Set.of();
+        }
+
+        MongoNamespace namespace = new MongoNamespace(mongoTemplate.getDb().getName(),
+                mongoTemplate.getCollectionName(Deal.class));
+        List<Deal> deals = List.copyOf(targets);
+        List<ClientNamespacedWriteModel> updates = new ArrayList<>(deals.size());
+        for (Deal deal : deals) {
+            Bson filter = Filters.and(
+                    Filters.eq("_id", mongoTemplate.getConverter().convertId(deal.getId(), ObjectId.class)),
+                    Filters.eq("version", deal.getVersion()));
+            updates.add(ClientNamespacedWriteModel.updateOne(namespace, filter,
+                    bulkChange(deal, stage, assignedTo, dealValue, updatedAt)));
+        }
+
+        Map<Integer, ClientUpdateResult> results = mongoClient.bulkWrite(updates,
+                        ClientBulkWriteOptions.clientBulkWriteOptions().ordered(false).verboseResults(true))
+                .getVerboseResults()
+                .orElseThrow()
+                .getUpdateResults();
+        Set<String> updated = new LinkedHashSet<>();
+        for (int i = 0; i < deals.size(); i++) {
+            ClientUpdateResult result = results.get(i);
+            if (result != null && result.getMatchedCount() > 0) {
+                updated.add(deals.get(i).getId());
+            }
+        }
+        return updated;
+    }
+
+    private static Bson bulkChange(Deal deal, DealStage stage, String assignedTo, Long dealValue, Instant updatedAt) {
+        List<Bson> changes = new ArrayList<>(6);
+        changes.add(Updates.set("updatedAt", Date.from(updatedAt)));
+        changes.add(Updates.inc("version", 1));
+        if (stage != null) {
+            changes.add(Updates.set("currentStage", stage.name()));
+            // the version condition guarantees the stage is still the one that was read
+            if (deal.getCurrentStage() != stage) {
+                changes.add(Updates.set("stageEnteredAt", Date.from(updatedAt)));
+            }
+        }
+        if (assignedTo != null) {
+            changes.add(Updates.set("assignedTo", assignedTo));
+        }
+        if (dealValue != null) {
+            changes.add(Updates.set("dealValue", dealValue));
+        }
+        return Updates.combine(changes);
+    }
+
+    @Override
+    public Deal pushNotes(String id, List<DealNote> notes, Instant updatedAt) {
+        Update update = new Update()
+                .push("notes").each(notes.toArray())
+                .set("updatedAt", updatedAt)
+                .inc("version", 1);
+
+        return mongoTemplate.findAndModify(
+                Query.query(Criteria.where("id").is(id)),
+                update,
+                FindAndModifyOptions.options().returnNew(true),
+                Deal.class);
+    }
+
+    @Override
+    public Stream<Deal> streamWithoutNotes() {
+        Query query = new Query();
+        query.fields().exclude("notes", "summary");
+        query.cursorBatchSize(2_000);
+        return mongoTemplate.stream(query, Deal.class);
+    }
+
+    @Override
+    public List<PipelineGroup> countByStageSectorAndDealType() {
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.group("currentStage", "sector", "dealType")
+                        .count().as("count")
+                        .sum("dealValue").as("totalValue"));
+
+        List<PipelineGroup> groups = new ArrayList<>();
+        for (String collection : List.of(mongoTemplate.getCollectionName(Deal.class), Deal.ARCHIVE_COLLECTION)) {
+            for (Document row : mongoTemplate.aggregate(aggregation, collection, Document.class)) {
+                Document id = row.get("_id", Document.class);
+                Map<String, String> keys = new HashMap<>();
+                keys.put(PipelineDimension.STAGE.getParamName(), id.getString("currentStage"));
+                // raw documents: the grouped sector and dealType are still codes
+                keys.put(PipelineDimension.SECTOR.getParamName(), dictionary.decode(DictionaryField.SECTOR, id.get("sector")));
+                keys.put(PipelineDimension.DEAL_TYPE.getParamName(), dictionary.decode(DictionaryField.DEAL_TYPE, id.get("dealType")));
+                groups.add(new PipelineGroup(keys,
+                        ((Number) row.get("count")).longValue(),
+                        row.get("totalValue") == null ? 0 : ((Number) row.get("totalValue")).longValue()));
+            }
+        }
+        return groups;
+    }
+
+    @Override
+    public List<Deal> findOwned(DealOwnership role, String user, Instant beforeUpdatedAt, String beforeId, int limit) {
+        Criteria criteria = Criteria.where(role.getField()).is(user);
+        if (beforeId != null) {
+            criteria.and("updatedAt").lte(beforeUpdatedAt).orOperator(
+                    Criteria.where("updatedAt").lt(beforeUpdatedAt),
+                    Criteria.where("id").lt(beforeId));
+        }
+        Query query = Query.query(criteria)
+                .with(Sort.by(Sort.Direction.DESC, "updatedAt", "id"))
+                .limit(limit);
+        query.fields().exclude("notes", "summary");
+        return mongoTemplate.find(query, Deal.class);
+    }
+
+    @Override
+    public Deal updateWatchers(String id, String username, boolean watching) {
+        // Bumps the version like pushNotes, so a save() of a copy read before this fails its check
+        // instead of writing the old watchers back
+        Update update = (watching
+                ? new Update().addToSet("watchers", username)
+                : new Update().pull("watchers", username))
+                .inc("version", 1);
+
+        return mongoTemplate.findAndModify(
+                Query.query(Criteria.where("id").is(id)),
+                update,
+                FindAndModifyOptions.options().returnNew(true),
+                Deal.class);
+    }
+
+    @Override
+    public List<Deal> findAudience(Collection<String> ids) {
+        Query query = Query.query(Criteria.where("id").in(ids));
+        query.fields().include("createdBy", "assignedTo", "watchers");
+
+        List<Deal> deals = new ArrayList<>(mongoTemplate.find(query, Deal.class));
+        if (deals.size() < ids.size()) {
+            deals.addAll(mongoTemplate.find(query, Deal.class, Deal.ARCHIVE_COLLECTION));
+        }
+        return deals;
+    }
+
+    @Override
+    public List<Deal> findStale(DealStage stage, Instant afterUpdatedAt, String afterId, Instant updatedBefore, int limit) {
+        Query query = staleQuery(stage, afterUpdatedAt, afterId, updatedBefore)
+                .with(Sort.by("updatedAt", "id"))
+                .limit(limit);
+        query.fields().include("clientName", "sector", "currentStage", "assignedTo", "updatedAt");
+        return mongoTemplate.find(query, Deal.class);
+    }
+
+    @Override
+    public long countStale(DealStage stage, Instant afterUpdatedAt, String afterId, Instant updatedBefore) {
+        return mongoTemplate.count(staleQuery(stage, afterUpdatedAt, afterId, updatedBefore), Deal.class);
+    }
+
+    /* Equality on currentStage plus a range on updatedAt, so both bounds come from the stage_updatedAt index */
+    private static Query staleQuery(DealStage stage, Instant afterUpdatedAt, String afterId, Instant updatedBefore) {
+        Criteria criteria = Criteria.where("currentStage").is(stage);
+        if (afterId == null) {
+            criteria.and("updatedAt").gte(afterUpdatedAt).lt(updatedBefore);
+        } else {
+            criteria.and("updatedAt").gte(afterUpdatedAt).lt(updatedBefore).orOperator(
+                    Criteria.where("updatedAt").gt(afterUpdatedAt),
+                    Criteria.where("id").gt(afterId));
+        }
+        return Query.query(criteria);
+    }
+
+    @Override
+    public List<Deal> findArchiveCandidates(Set<DealStage> stages, Instant updatedBefore, int limit) {
+        Query query = Query.query(Criteria.where("currentStage").in(stages).and("updatedAt").lt(updatedBefore))
+                .with(Sort.by("updatedAt"))
+                .limit(limit);
+        return mongoTemplate.find(query, Deal.class);
+    }
+
+    @Override
+    public List<String> moveToArchive(List<Deal> deals, Instant archivedAt) {
+        if (deals.isEmpty()) {
+            return List.of();
+        }
+
+        // 1. Idempotent copy into the archive (replace-upsert keyed by _id)
+        List<WriteModel<Document>> copies = new ArrayList<>(deals.size());
+        for (Deal deal : deals) {
+            deal.setArchivedAt(archivedAt);
+            Document document = new Document();
+            mongoTemplate.getConverter().write(deal, document);
+            copies.add(new ReplaceOneModel<>(new Document("_id", document.get("_id")), document,
+                    new ReplaceOptions().upsert(true)));
+        }
+        mongoTemplate.getCollection(Deal.ARCHIVE_COLLECTION).bulkWrite(copies);
+
+        // 2. Remove from the hot collection only if nobody changed the deal since it was read
+        BulkOperations removals = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Deal.class);
+        for (Deal deal : deals) {
+            removals.remove(Query.query(Criteria.where("id").is(deal.getId()).and("version").is(deal.getVersion())));
+        }
+        long removed = removals.execute().getDeletedCount();
+
+        List<String> ids = deals.stream().map(Deal::getId).toList();
+        if (removed == deals.size()) {
+            return ids;
+        }
+
+        // 3. Some deals changed concurrently: they stay hot, drop their archive copy
+        Query stillHot = Query.query(Criteria.where("id").in(ids));
+        stillHot.fields().include("id");
+        List<String> stillHotIds = mongoTemplate.find(stillHot, Deal.class).stream().map(Deal::getId).toList();
+        mongoTemplate.remove(Query.query(Criteria.where("id").in(stillHotIds)), Deal.class, Deal.ARCHIVE_COLLECTION);
+
+        return ids.stream().filter(id -> !stillHotIds.contains(id)).toList();
+    }
+
+    @Override
+    public Deal findArchivedById(String id) {
+        return mongoTemplate.findById(id, Deal.class, Deal.ARCHIVE_COLLECTION);
+    }
+
+    @Override
+    public List<Deal> findArchivedByIds(Collection<String> ids) {
+        return mongoTemplate.find(Query.query(Criteria.where("id").in(ids)), Deal.class, Deal.ARCHIVE_COLLECTION);
+    }
+
+    @Override
+    public Deal restoreFromArchive(String id, Instant restoredAt) {
+        Deal deal = findArchivedById(id);
+        if (deal == null) {
+            return null;
+        }
+
+        deal.setArchivedAt(null);
+        deal.setUpdatedAt(restoredAt);
+        try {
+            mongoTemplate.insert(deal);
+        } catch (DuplicateKeyException e) {
+            // Already hot (restored concurrently); the hot copy wins
+            deal = mongoTemplate.findById(id, Deal.class);
+        }
+        mongoTemplate.remove(Query.query(Criteria.where("id").is(id)), Deal.class, Deal.ARCHIVE_COLLECTION);
+        return deal;
+    }
+
+    /* Raw driver calls on purpose: the mapped field would be run through the dictionary converter */
+    @Override
+    public Set<String> findUncodedValues(String field) {
+        Set<String> values = new LinkedHashSet<>();
+        for (String collection : List.of(mongoTemplate.getCollectionName(Deal.class), Deal.ARCHIVE_COLLECTION)) {
+            mongoTemplate.getCollection(collection)
+                    .distinct(field, Filters.type(field, BsonType.STRING), String.class)
+                    .into(values);
+        }
+        return values;
+    }
+
+    @Override
+    public long encodeValue(String field, String value, int code) {
+        long modified = 0;
+        for (String collection : List.of(mongoTemplate.getCollectionName(Deal.class), Deal.ARCHIVE_COLLECTION)) {
+            modified += mongoTemplate.getCollection(collection)
+                    .updateMany(Filters.eq(field, value), Updates.set(field, code))
+                    .getModifiedCount();
+        }
+        return modified;
+    }
+
+    private static void addEquals(Query query, String field, Object value) {
+        if (value != null) {
+            query.addCriteria(Criteria.where(field).is(value));
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package org.example.ibpipeline.repository;
+
+import org.example.ibpipeline.model.DictionaryEntry;
+
+import java.util.List;
+
+/* Managed dictionaries for the coded deal fields */
+public interface DictionaryRepository {
+
+    List<DictionaryEntry> findAll();
+
+    /* Throws DuplicateKeyException if the code or the value is already taken */
+    void insert(DictionaryEntry entry);
+}
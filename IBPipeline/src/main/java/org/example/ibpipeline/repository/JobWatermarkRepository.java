@@ -0,0 +1,12 @@
+package org.example.ibpipeline.repository;
+
+import org.example.ibpipeline.model.JobWatermark;
+
+/* Persisted progress of incremental scheduled jobs, one document per job */
+public interface JobWatermarkRepository {
+
+    /* null if the job has never saved one */
+    JobWatermark find(String name);
+
+    void save(JobWatermark watermark);
+}
@@ -0,0 +1,27 @@
+package org.example.ibpipeline.repository;
+
+import org.example.ibpipeline.model.DictionaryEntry;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public class MongoDictionaryRepository implements DictionaryRepository {
+
+    private final MongoTemplate mongoTemplate;
+
+    public MongoDictionaryRepository(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public List<DictionaryEntry> findAll() {
+        return mongoTemplate.findAll(DictionaryEntry.class);
+    }
+
+    @Override
+    public void insert(DictionaryEntry entry) {
+        mongoTemplate.insert(entry);
+    }
+}
@@ -0,0 +1,30 @@
+package org.example.ibpipeline.repository;
+
+import org.example.ibpipeline.model.JobWatermark;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public class MongoJobWatermarkRepository implements JobWatermarkRepository {
+
+    private final MongoTemplate mongoTemplate;
+    private final ReadConcernResolver readConcerns;
+
+    public MongoJobWatermarkRepository(MongoTemplate mongoTemplate, ReadConcernResolver readConcerns) {
+        this.mongoTemplate = mongoTemplate;
+        this.readConcerns = readConcerns;
+    }
+
+    @Override
+    public JobWatermark find(String name) {
+        Query query = Query.query(Criteria.where("id").is(name));
+        return mongoTemplate.findOne(readConcerns.apply(query, JobWatermark.class), JobWatermark.class);
+    }
+
+    @Override
+    public void save(JobWatermark watermark) {
+        mongoTemplate.save(watermark);
+    }
+}
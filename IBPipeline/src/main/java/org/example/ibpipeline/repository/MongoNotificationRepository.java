@@ -0,0 +1,66 @@
+package org.example.ibpipeline.repository;
+
+import org.example.ibpipeline.model.Notification;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public class MongoNotificationRepository implements NotificationRepository {
+
+    private final MongoTemplate mongoTemplate;
+    private final ReadConcernResolver readConcerns;
+
+    public MongoNotificationRepository(MongoTemplate mongoTemplate, ReadConcernResolver readConcerns) {
+        this.mongoTemplate = mongoTemplate;
+        this.readConcerns = readConcerns;
+    }
+
+    @Override
+    public void insertAll(List<Notification> notifications) {
+        if (!notifications.isEmpty()) {
+            mongoTemplate.insertAll(notifications);
+        }
+    }
+
+    /* Equality on userId plus a range on (createdAt, _id): a bounded walk of user_createdAt */
+    @Override
+    public List<Notification> findPage(String userId, Instant beforeCreatedAt, String beforeId, int limit) {
+        Criteria criteria = Criteria.where("userId").is(userId);
+        if (beforeId != null) {
+            criteria.and("createdAt").lte(beforeCreatedAt).orOperator(
+                    Criteria.where("createdAt").lt(beforeCreatedAt),
+                    Criteria.where("id").lt(beforeId));
+        }
+        Query query = Query.query(criteria)
+                .with(Sort.by(Sort.Direction.DESC, "createdAt", "id"))
+                .limit(limit);
+        return mongoTemplate.find(readConcerns.apply(query, Notification.class), Notification.class);
+    }
+
+    @Override
+    public long countUnread(String userId) {
+        Query query = Query.query(Criteria.where("userId").is(userId).and("read").is(false));
+        return mongoTemplate.count(readConcerns.apply(query, Notification.class), Notification.class);
+    }
+
+    @Override
+    public boolean markRead(String userId, String id) {
+        Query query = Query.query(Criteria.where("id").is(id).and("userId").is(userId).and("read").is(false));
+        return mongoTemplate.updateFirst(query, Update.update("read", true), Notification.class)
+                .getModifiedCount() > 0;
+    }
+
+    @Override
+    public long markAllRead(String userId) {
+        Query query = Query.query(Criteria.where("userId").is(userId).and("read").is(false));
+        return mongoTemplate.updateMulti(query, Update.update("read", true), Notification.class)
+                .getModifiedCount();
+    }
+}
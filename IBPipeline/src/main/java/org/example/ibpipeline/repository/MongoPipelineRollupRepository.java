@@ -0,0 +1,60 @@
+package org.example.ibpipeline.repository;
+
+import org.example.ibpipeline.model.DealEventRecord;
+import org.example.ibpipeline.model.PipelineRollup;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public class MongoPipelineRollupRepository implements PipelineRollupRepository {
+
+    private final MongoTemplate mongoTemplate;
+    private final ReadConcernResolver readConcerns;
+
+    public MongoPipelineRollupRepository(MongoTemplate mongoTemplate, ReadConcernResolver readConcerns) {
+        this.mongoTemplate = mongoTemplate;
+        this.readConcerns = readConcerns;
+    }
+
+    @Override
+    public void saveEvent(DealEventRecord event) {
+        try {
+            mongoTemplate.insert(event);
+        } catch (DuplicateKeyException e) {
+            // redelivered: the first copy may already be rolled up under its own consumedAt
+        }
+    }
+
+    @Override
+    public List<DealEventRecord> findEvents(Instant from, Instant to) {
+        Query query = Query.query(Criteria.where("consumedAt").gte(from).lt(to));
+        query.fields().include("before", "after");
+        return mongoTemplate.find(readConcerns.apply(query, DealEventRecord.class), DealEventRecord.class);
+    }
+
+    @Override
+    public PipelineRollup findLatest() {
+        Query query = new Query().with(Sort.by(Sort.Direction.DESC, "day")).limit(1);
+        return mongoTemplate.findOne(readConcerns.apply(query, PipelineRollup.class), PipelineRollup.class);
+    }
+
+    @Override
+    public void save(PipelineRollup rollup) {
+        mongoTemplate.save(rollup);
+    }
+
+    @Override
+    public List<PipelineRollup> findBetween(LocalDate from, LocalDate to) {
+        Query query = Query.query(Criteria.where("day").gte(from.toString()).lte(to.toString()))
+                .with(Sort.by("day"));
+        return mongoTemplate.find(readConcerns.apply(query, PipelineRollup.class), PipelineRollup.class);
+    }
+}
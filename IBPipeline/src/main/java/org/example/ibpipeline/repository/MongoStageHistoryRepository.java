@@ -0,0 +1,92 @@
+package org.example.ibpipeline.repository;
+
+import org.example.ibpipeline.model.DealStage;
+import org.example.ibpipeline.model.DealStageHistory;
+import org.example.ibpipeline.model.StageStats;
+import org.example.ibpipeline.util.DurationSketch;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Repository;
+
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.List;
+
+@Repository
+public class MongoStageHistoryRepository implements StageHistoryRepository {
+
+    private final MongoTemplate mongoTemplate;
+    private final ReadConcernResolver readConcerns;
+
+    public MongoStageHistoryRepository(MongoTemplate mongoTemplate, ReadConcernResolver readConcerns) {
+        this.mongoTemplate = mongoTemplate;
+        this.readConcerns = readConcerns;
+    }
+
+    @Override
+    public void append(List<Entry> entries) {
+        if (entries.isEmpty()) {
+            return;
+        }
+
+        BulkOperations history = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, DealStageHistory.class);
+        BulkOperations stats = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, StageStats.class);
+
+        for (Entry entry : entries) {
+            DealStageHistory.Transition transition = entry.transition();
+            String month = YearMonth.from(transition.getAt().atZone(ZoneOffset.UTC)).toString();
+
+            history.upsert(byId(DealStageHistory.idOf(entry.dealId(), month)), new Update()
+                    .push("transitions", transition)
+                    .inc("count", 1)
+                    .setOnInsert("dealId", entry.dealId())
+                    .setOnInsert("month", month));
+
+            stats.upsert(byId(StageStats.idOf(entry.sector(), transition.getTo(), month)),
+                    statsKey(entry.sector(), transition.getTo(), month).inc("entered", 1));
+
+            if (transition.getFrom() != null) {
+                Update left = statsKey(entry.sector(), transition.getFrom(), month)
+                        .inc("exited", 1)
+                        .inc("exitsTo." + transition.getTo().name(), 1);
+                if (transition.getMillisInPreviousStage() != null) {
+                    left.inc("durations." + DurationSketch.bucketOf(transition.getMillisInPreviousStage()), 1);
+                }
+                stats.upsert(byId(StageStats.idOf(entry.sector(), transition.getFrom(), month)), left);
+            }
+        }
+
+        history.execute();
+        stats.execute();
+    }
+
+    @Override
+    public List<DealStageHistory> findHistory(String dealId) {
+        Query query = Query.query(Criteria.where("dealId").is(dealId)).with(Sort.by("id"));
+        return mongoTemplate.find(readConcerns.apply(query, DealStageHistory.class), DealStageHistory.class);
+    }
+
+    @Override
+    public List<StageStats> findStats(String sector, YearMonth from, YearMonth to) {
+        Criteria criteria = Criteria.where("month").gte(from.toString()).lte(to.toString());
+        if (sector != null) {
+            criteria.and("sector").is(sector);
+        }
+        return mongoTemplate.find(readConcerns.apply(Query.query(criteria), StageStats.class), StageStats.class);
+    }
+
+    private static Query byId(String id) {
+        return Query.query(Criteria.where("id").is(id));
+    }
+
+    private static Update statsKey(String sector, DealStage stage, String month) {
+        return new Update()
+                .setOnInsert("sector", sector)
+                .setOnInsert("stage", stage)
+                .setOnInsert("month", month);
+    }
+}
@@ -0,0 +1,27 @@
+package org.example.ibpipeline.repository;
+
+import org.example.ibpipeline.model.Notification;
+
+import java.time.Instant;
+import java.util.List;
+
+/* Per-user notification inboxes */
+public interface NotificationRepository {
+
+    /* One insertMany for the whole list; assigns the ids */
+    void insertAll(List<Notification> notifications);
+
+    /*
+     * The user's entries after the (beforeCreatedAt, beforeId) keyset position, newest first.
+     * A null beforeId starts from the newest entry.
+     */
+    List<Notification> findPage(String userId, Instant beforeCreatedAt, String beforeId, int limit);
+
+    long countUnread(String userId);
+
+    /* false if the entry does not exist, belongs to someone else or was already read */
+    boolean markRead(String userId, String id);
+
+    /* Returns how many entries changed */
+    long markAllRead(String userId);
+}
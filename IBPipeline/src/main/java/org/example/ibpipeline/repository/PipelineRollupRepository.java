@@ -0,0 +1,26 @@
+package org.example.ibpipeline.repository;
+
+import org.example.ibpipeline.model.DealEventRecord;
+import org.example.ibpipeline.model.PipelineRollup;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+
+/* Storage for the deal event log and the daily pipeline rollups built from it */
+public interface PipelineRollupRepository {
+
+    /* Idempotent: an eventId that is already logged keeps its first copy (and consumedAt) */
+    void saveEvent(DealEventRecord event);
+
+    /* Logged events with from <= consumedAt < to */
+    List<DealEventRecord> findEvents(Instant from, Instant to);
+
+    /* The most recent rollup, or null if none has been written yet */
+    PipelineRollup findLatest();
+
+    void save(PipelineRollup rollup);
+
+    /* Rollups for from..to inclusive, oldest first */
+    List<PipelineRollup> findBetween(LocalDate from, LocalDate to);
+}
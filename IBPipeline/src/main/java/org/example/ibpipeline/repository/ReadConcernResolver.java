@@ -0,0 +1,20 @@
+package org.example.ibpipeline.repository;
+
+import com.mongodb.ReadConcern;
+import org.springframework.data.mongodb.core.query.Query;
+
+/*
+ * Read-side counterpart of Spring's WriteConcernResolver, which MongoTemplate has no hook for:
+ * repositories pass their queries through it so a read concern can be chosen per entity type.
+ */
+@FunctionalInterface
+public interface ReadConcernResolver {
+
+    /* null keeps the client default */
+    ReadConcern resolve(Class<?> entityType);
+
+    default Query apply(Query query, Class<?> entityType) {
+        ReadConcern readConcern = resolve(entityType);
+        return readConcern == null ? query : query.withReadConcern(readConcern);
+    }
+}
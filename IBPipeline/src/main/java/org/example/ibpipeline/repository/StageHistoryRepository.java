@@ -0,0 +1,27 @@
+package org.example.ibpipeline.repository;
+
+import org.example.ibpipeline.model.DealStageHistory;
+import org.example.ibpipeline.model.StageStats;
+
+import java.time.YearMonth;
+import java.util.List;
+
+/* Storage for deal stage transitions (deal_stage_history) and their per-sector counters (stage_stats) */
+public interface StageHistoryRepository {
+
+    /* One transition of one deal, with the sector it is counted under */
+    record Entry(String dealId, String sector, DealStageHistory.Transition transition) {
+    }
+
+    /*
+     * Appends each transition to its deal's monthly bucket and bumps the stage_stats counters
+     * of the stages it left and entered: two unordered bulk writes whatever the number of entries.
+     */
+    void append(List<Entry> entries);
+
+    /* Every bucket of the deal, oldest first */
+    List<DealStageHistory> findHistory(String dealId);
+
+    /* Counters for from..to inclusive; a null sector means every sector */
+    List<StageStats> findStats(String sector, YearMonth from, YearMonth to);
+}
@@ -0,0 +1,20 @@
+package org.example.ibpipeline.repository;
+
+import org.example.ibpipeline.dto.UserFilter;
+import org.example.ibpipeline.model.User;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+/* User directory reads; they project the password hash out so it never leaves Mongo */
+public interface UserRepositoryCustom {
+
+    /*
+     * Matching users with a username after afterUsername (null starts from the first one),
+     * in username order.
+     */
+    List<User> findDirectoryPage(UserFilter filter, String afterUsername, int limit);
+
+    /* Every matching user in username order, read with a cursor; the caller must close the stream */
+    Stream<User> streamDirectory(UserFilter filter);
+}
@@ -0,0 +1,63 @@
+package org.example.ibpipeline.repository;
+
+import org.example.ibpipeline.dto.UserFilter;
+import org.example.ibpipeline.model.User;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+public class UserRepositoryImpl implements UserRepositoryCustom {
+
+    private final MongoTemplate mongoTemplate;
+
+    public UserRepositoryImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public List<User> findDirectoryPage(UserFilter filter, String afterUsername, int limit) {
+        return mongoTemplate.find(directoryQuery(filter, afterUsername).limit(limit), User.class);
+    }
+
+    @Override
+    public Stream<User> streamDirectory(UserFilter filter) {
+        Query query = directoryQuery(filter, null);
+        query.cursorBatchSize(1_000);
+        return mongoTemplate.stream(query, User.class);
+    }
+
+    /*
+     * The prefix and the keyset position are both bounds on username, so the page is one range
+     * scan of the username index (or of role_username when filtering by role).
+     */
+    private static Query directoryQuery(UserFilter filter, String afterUsername) {
+        Criteria criteria = new Criteria();
+        if (filter.getRole() != null) {
+            criteria.and("role").is(filter.getRole());
+        }
+        if (filter.getActive() != null) {
+            criteria.and("active").is(filter.getActive());
+        }
+
+        String prefix = filter.getUsernamePrefix();
+        if (prefix != null || afterUsername != null) {
+            Criteria username = criteria.and("username");
+            if (afterUsername != null && (prefix == null || afterUsername.compareTo(prefix) >= 0)) {
+                username.gt(afterUsername);
+            } else {
+                username.gte(prefix);
+            }
+            if (prefix != null) {
+                username.lt(prefix + Character.MAX_VALUE);
+            }
+        }
+
+        Query query = Query.query(criteria).with(Sort.by("username"));
+        query.fields().exclude("password");
+        return query;
+    }
+}
@@ -1,9 +1,12 @@
 package org.example.ibpipeline.security;
 
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.example.ibpipeline.event.jfr.JwtParseEvent;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -33,9 +36,10 @@ public class JwtFilter extends OncePerRequestFilter {
         if (authHeader != null && authHeader.startsWith("Bearer ")) {
             String token = authHeader.substring(7);
 
-            if(jwtUtil.validateAccessToken(token)) {
-                String username = jwtUtil.extractUsername(token);
-                String role = jwtUtil.extractRole(token);
+            Claims claims = parseAccessToken(token);
+            if (claims != null) {
+                String username = claims.getSubject();
+                String role = claims.get("role", String.class);
 
                 SimpleGrantedAuthority authority = new SimpleGrantedAuthority("ROLE_" + role);
 
@@ -50,4 +54,22 @@ public class JwtFilter extends OncePerRequestFilter {
 
         filterChain.doFilter(request, response);
     }
+
+    /* Verifies the token once per request; null unless it is a valid ACCESS token */
+    private Claims parseAccessToken(String token) {
+        JwtParseEvent event = new JwtParseEvent();
+        event.begin();
+        try {
+            Claims claims = jwtUtil.extractAllClaims(token);
+            boolean access = "ACCESS".equals(claims.get("type", String.class));
+            event.outcome = access ? "VALID" : "WRONG_TYPE";
+            return access ? claims : null;
+        } catch (JwtException | IllegalArgumentException e) {
+            event.outcome = "INVALID";
+            return null;
+        } finally {
+            event.tokenLength = token.length();
+            event.commit();
+        }
+    }
 }
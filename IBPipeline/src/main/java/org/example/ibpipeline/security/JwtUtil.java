@@ -3,6 +3,8 @@ package org.example.ibpipeline.security;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.annotation.PostConstruct;
 import org.example.ibpipeline.model.User;
 import org.springframework.beans.factory.annotation.Value;
@@ -26,6 +28,20 @@ public class JwtUtil {
 
     private SecretKey secretKey;
 
+    private final Timer generateTimer;
+    private final Timer parseTimer;
+
+    public JwtUtil(MeterRegistry meterRegistry) {
+        this.generateTimer = Timer.builder("jwt.generate")
+                .description("Time to build and sign a JWT")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.parseTimer = Timer.builder("jwt.parse")
+                .description("Time to verify and parse a JWT")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
     @PostConstruct
     public void init() {
         this.secretKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(secret));
@@ -34,25 +50,25 @@ public class JwtUtil {
 
     /* ACCESS TOKEN */
     public String generateAccessToken(User user) {
-        return Jwts.builder()
+        return generateTimer.record(() -> Jwts.builder()
                 .subject(user.getUsername())
                 .claim("role", user.getRole().name())
                 .claim("type", "ACCESS")
                 .issuedAt(new Date())
                 .expiration(new Date(System.currentTimeMillis() + accessTokenExpiration))
                 .signWith(secretKey)
-                .compact();
+                .compact());
     }
 
     /* REFRESH TOKEN */
     public String generateRefreshToken(User user) {
-        return Jwts.builder()
+        return generateTimer.record(() -> Jwts.builder()
                 .subject(user.getUsername())
                 .claim("type", "REFRESH")
                 .issuedAt(new Date())
                 .expiration(new Date(System.currentTimeMillis() + refreshTokenExpiration))
                 .signWith(secretKey)
-                .compact();
+                .compact());
     }
 
     /*  VALIDATION */
@@ -84,10 +100,10 @@ public class JwtUtil {
     }
 
     public Claims extractAllClaims(String token) {
-        return Jwts.parser()
+        return parseTimer.record(() -> Jwts.parser()
                 .verifyWith(secretKey)
                 .build()
                 .parseSignedClaims(token)
-                .getPayload();
+                .getPayload());
     }
 }
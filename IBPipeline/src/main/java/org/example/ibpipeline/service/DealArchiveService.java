@@ -0,0 +1,137 @@
+package org.example.ibpipeline.service;
+
+import org.example.ibpipeline.event.DealEvent;
+import org.example.ibpipeline.event.DealEventType;
+import org.example.ibpipeline.exception.ResourceNotFoundException;
+import org.example.ibpipeline.model.Deal;
+import org.example.ibpipeline.model.DealStage;
+import org.example.ibpipeline.repository.DealRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/*
+ * Hot/cold tiering: Closed and Lost deals untouched for longer than app.archive.min-age
+ * are moved, notes included, from deals into deals_archive so the hot collection and
+ * its indexes stay small. DealService reads fall through to the archive.
+ */
+@Service
+public class DealArchiveService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DealArchiveService.class);
+
+    static final Set<DealStage> TERMINAL_STAGES = EnumSet.of(DealStage.Closed, DealStage.Lost);
+
+    private final DealRepository dealRepository;
+    private final DealCache dealCache;
+    private final KafkaProducerService kafkaProducerService;
+    private final DealChangePublisher dealChangePublisher;
+
+    @Value("${app.archive.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${app.archive.min-age:P180D}")
+    private Duration minAge = Duration.ofDays(180);
+
+    @Value("${app.archive.batch-size:500}")
+    private int batchSize = 500;
+
+    @Value("${app.archive.max-batches-per-run:20}")
+    private int maxBatchesPerRun = 20;
+
+    public DealArchiveService(DealRepository dealRepository,
+                              DealCache dealCache,
+                              KafkaProducerService kafkaProducerService,
+                              DealChangePublisher dealChangePublisher) {
+        this.dealRepository = dealRepository;
+        this.dealCache = dealCache;
+        this.kafkaProducerService = kafkaProducerService;
+        this.dealChangePublisher = dealChangePublisher;
+    }
+
+    @Scheduled(initialDelayString = "${app.archive.initial-delay:PT5M}", fixedDelayString = "${app.archive.interval:PT1H}")
+    public void scheduledArchive() {
+        if (enabled) {
+            archiveEligibleDeals();
+        }
+    }
+
+    /* Archives eligible deals batch by batch; returns how many were moved */
+    public int archiveEligibleDeals() {
+        Instant cutoff = Instant.now().minus(minAge);
+        int archived = 0;
+
+        for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+            List<Deal> candidates = dealRepository.findArchiveCandidates(TERMINAL_STAGES, cutoff, batchSize);
+            if (candidates.isEmpty()) {
+                break;
+            }
+
+            Instant archivedAt = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+            List<String> moved = dealRepository.moveToArchive(candidates, archivedAt);
+            dealCache.evictAll(moved);
+            archived += moved.size();
+
+            List<DealEvent> events = new ArrayList<>(moved.size());
+            for (Deal deal : candidates) {
+                if (moved.contains(deal.getId())) {
+                    dealChangePublisher.archived(deal);
+                    events.add(new DealEvent(
+                            UUID.randomUUID().toString(),
+                            DealEventType.DEAL_ARCHIVED,
+                            deal.getId(),
+                            deal.getClientName(),
+                            null,
+                            "Deal archived in stage: " + deal.getCurrentStage(),
+                            Instant.now()
+                    ));
+                }
+            }
+            if (!events.isEmpty()) {
+                kafkaProducerService.sendDealEvents(events);
+            }
+
+            if (candidates.size() < batchSize) {
+                break;
+            }
+        }
+
+        if (archived > 0) {
+            logger.info("Archived {} deals untouched since {}", archived, cutoff);
+        }
+        return archived;
+    }
+
+    public Deal restoreDeal(String id, String userId) {
+        Deal restored = dealRepository.restoreFromArchive(id, Instant.now());
+        if (restored == null) {
+            throw new ResourceNotFoundException("Archived deal not found");
+        }
+        dealCache.evict(id);
+        dealChangePublisher.restored(restored);
+
+        DealEvent event = new DealEvent(
+                UUID.randomUUID().toString(),
+                DealEventType.DEAL_RESTORED,
+                restored.getId(),
+                restored.getClientName(),
+                userId,
+                "Deal restored from archive",
+                Instant.now()
+        );
+        kafkaProducerService.sendDealEvent(event);
+
+        return restored;
+    }
+}
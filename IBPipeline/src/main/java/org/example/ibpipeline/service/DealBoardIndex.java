@@ -0,0 +1,318 @@
+package org.example.ibpipeline.service;
+
+import org.example.ibpipeline.dto.BulkDealUpdateRequest;
+import org.example.ibpipeline.dto.DealBoard;
+import org.example.ibpipeline.dto.DealBoardLane;
+import org.example.ibpipeline.dto.DealCard;
+import org.example.ibpipeline.dto.DealOwnership;
+import org.example.ibpipeline.model.Deal;
+import org.example.ibpipeline.model.DealStage;
+import org.example.ibpipeline.repository.DealRepository;
+import org.example.ibpipeline.util.KeysetCursor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.stream.Stream;
+
+/*
+ * Kanban board served from memory: per stage, the hot deals as cards sorted by updatedAt
+ * (newest first), plus a running count and value total. Loaded once when the application is
+ * ready and then kept current by DealChangeListener callbacks, so opening the board costs
+ * O(stages x page size) whatever the number of deals. The same cards also feed per-user counts
+ * by stage, as creator and as assignee, for the personal dashboards, and every card change is
+ * forwarded to the DealCardListeners (typeahead, duplicate detection).
+ *
+ * Writes are serialized on the index; reads walk the skip lists without locking. Callbacks can
+ * arrive out of order for the same deal (two writers), so an older version never replaces a
+ * newer one, and deletes seen while the initial load is still streaming are remembered so the
+ * load does not bring those deals back.
+ */
+@Component
+public class DealBoardIndex implements DealChangeListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(DealBoardIndex.class);
+
+    private final DealRepository dealRepository;
+    private final List<DealCardListener> cardListeners;
+    private final int maxLaneSize;
+
+    private final Map<String, DealCard> cards = new ConcurrentHashMap<>();
+    private final Map<DealStage, Lane> lanes = new EnumMap<>(DealStage.class);
+    /* role -> username -> deal count per stage ordinal; guarded by the index lock */
+    private final Map<DealOwnership, Map<String, long[]>> owners = new EnumMap<>(DealOwnership.class);
+    private final Set<String> removedWhileLoading = new HashSet<>();
+    private volatile boolean loaded;
+
+    public DealBoardIndex(DealRepository dealRepository,
+                          List<DealCardListener> cardListeners,
+                          @Value("${app.board.max-lane-size:200}") int maxLaneSize) {
+        this.dealRepository = dealRepository;
+        this.cardListeners = List.copyOf(cardListeners);
+        this.maxLaneSize = maxLaneSize;
+        for (DealStage stage : DealStage.values()) {
+            lanes.put(stage, new Lane());
+        }
+        for (DealOwnership role : DealOwnership.values()) {
+            owners.put(role, new HashMap<>());
+        }
+    }
+
+    // =========================
+    // LOAD
+    // =========================
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        long started = System.nanoTime();
+        try (Stream<Deal> deals = dealRepository.streamWithoutNotes()) {
+            deals.forEach(deal -> {
+                DealCard card = DealCard.of(deal);
+                synchronized (this) {
+                    if (!removedWhileLoading.contains(card.getId())) {
+                        upsert(card);
+                    }
+                }
+            });
+        } catch (RuntimeException e) {
+            // the board stays marked incomplete; the write callbacks keep what was loaded current
+            logger.error("Deal board index load failed after {} deals: {}", cards.size(), e.toString());
+            return;
+        }
+
+        synchronized (this) {
+            loaded = true;
+            removedWhileLoading.clear();
+        }
+        logger.info("Deal board index loaded {} deals in {} ms", cards.size(), (System.nanoTime() - started) / 1_000_000);
+    }
+
+    // =========================
+    // DealChangeListener
+    // =========================
+    @Override
+    public synchronized void dealCreated(Deal deal) {
+        upsert(DealCard.of(deal));
+    }
+
+    @Override
+    public synchronized void dealUpdated(Deal before, Deal after) {
+        upsert(DealCard.of(after));
+    }
+
+    /* Bulk targets are partial documents, so the change is applied on top of the cards already indexed */
+    @Override
+    public synchronized void dealsBulkUpdated(Collection<Deal> before, BulkDealUpdateRequest change, Instant updatedAt) {
+        for (Deal target : before) {
+            DealCard current = cards.get(target.getId());
+            if (current == null) {
+                continue;
+            }
+            upsert(new DealCard(
+                    current.getId(),
+                    current.getVersion() == null ? null : current.getVersion() + 1,
+                    current.getClientName(),
+                    current.getSector(),
+                    current.getDealType(),
+                    change.getDealValue() != null ? change.getDealValue() : current.getDealValue(),
+                    change.getStage() != null ? change.getStage() : current.getCurrentStage(),
+                    change.getAssignedTo() != null ? change.getAssignedTo() : current.getAssignedTo(),
+                    current.getCreatedBy(),
+                    updatedAt));
+        }
+    }
+
+    @Override
+    public synchronized void dealDeleted(Deal deal) {
+        remove(deal.getId());
+    }
+
+    @Override
+    public synchronized void dealArchived(Deal deal) {
+        remove(deal.getId());
+    }
+
+    @Override
+    public synchronized void dealRestored(Deal deal) {
+        upsert(DealCard.of(deal));
+    }
+
+    // =========================
+    // READ
+    // =========================
+
+    /* Counts and the first page of every lane */
+    public DealBoard board(int limit, boolean includeValues) {
+        List<DealBoardLane> result = new ArrayList<>(lanes.size());
+        for (DealStage stage : DealStage.values()) {
+            result.add(page(stage, lanes.get(stage).cards, limit, includeValues));
+        }
+        return new DealBoard(result, loaded);
+    }
+
+    /* The page of one lane after the cursor returned with the previous page */
+    public DealBoardLane lane(DealStage stage, String cursor, int limit, boolean includeValues) {
+        NavigableMap<CardKey, DealCard> cardsInLane = lanes.get(stage).cards;
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        if (after != null) {
+            cardsInLane = cardsInLane.tailMap(CardKey.of(after), false);
+        }
+        return page(stage, cardsInLane, limit, includeValues);
+    }
+
+    /* Hot deals per stage that the user created or is assigned, depending on role */
+    public synchronized Map<DealStage, Long> countsFor(DealOwnership role, String user) {
+        long[] counts = owners.get(role).get(user);
+        Map<DealStage, Long> result = new EnumMap<>(DealStage.class);
+        for (DealStage stage : DealStage.values()) {
+            result.put(stage, counts == null ? 0 : counts[stage.ordinal()]);
+        }
+        return result;
+    }
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    private DealBoardLane page(DealStage stage, NavigableMap<CardKey, DealCard> cardsInLane, int limit,
+                               boolean includeValues) {
+        int size = Math.max(1, Math.min(limit, maxLaneSize));
+        List<DealCard> page = new ArrayList<>(size);
+        CardKey last = null;
+        boolean more = false;
+
+        Iterator<Map.Entry<CardKey, DealCard>> iterator = cardsInLane.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<CardKey, DealCard> entry = iterator.next();
+            if (page.size() == size) {
+                more = true;
+                break;
+            }
+            page.add(includeValues ? entry.getValue() : entry.getValue().withoutValue());
+            last = entry.getKey();
+        }
+
+        Lane lane = lanes.get(stage);
+        return new DealBoardLane(stage, lane.count, includeValues ? lane.totalValue : null, page,
+                more ? last.toCursor().encode() : null);
+    }
+
+    // =========================
+    // WRITE (callers hold the index lock)
+    // =========================
+    private void upsert(DealCard card) {
+        DealCard existing = cards.get(card.getId());
+        if (existing != null) {
+            if (isOlder(card, existing)) {
+                return;
+            }
+            lanes.get(existing.getCurrentStage()).remove(existing);
+            countOwners(existing, -1);
+        }
+        cards.put(card.getId(), card);
+        lanes.get(card.getCurrentStage()).add(card);
+        countOwners(card, 1);
+        notifyCardListeners(existing, card);
+    }
+
+    private void remove(String id) {
+        if (!loaded) {
+            removedWhileLoading.add(id);
+        }
+        DealCard existing = cards.remove(id);
+        if (existing != null) {
+            lanes.get(existing.getCurrentStage()).remove(existing);
+            countOwners(existing, -1);
+            notifyCardListeners(existing, null);
+        }
+    }
+
+    private void notifyCardListeners(DealCard before, DealCard after) {
+        for (DealCardListener listener : cardListeners) {
+            listener.cardChanged(before, after);
+        }
+    }
+
+    private void countOwners(DealCard card, int delta) {
+        countOwner(DealOwnership.CREATOR, card.getCreatedBy(), card.getCurrentStage(), delta);
+        countOwner(DealOwnership.ASSIGNEE, card.getAssignedTo(), card.getCurrentStage(), delta);
+    }
+
+    private void countOwner(DealOwnership role, String user, DealStage stage, int delta) {
+        if (user == null || stage == null) {
+            return;
+        }
+        Map<String, long[]> byUser = owners.get(role);
+        long[] counts = byUser.computeIfAbsent(user, key -> new long[DealStage.values().length]);
+        counts[stage.ordinal()] += delta;
+        if (delta < 0 && Arrays.stream(counts).allMatch(count -> count == 0)) {
+            byUser.remove(user);
+        }
+    }
+
+    private static boolean isOlder(DealCard candidate, DealCard existing) {
+        return candidate.getVersion() != null && existing.getVersion() != null
+                && candidate.getVersion() < existing.getVersion();
+    }
+
+    private static final class Lane {
+
+        private final ConcurrentSkipListMap<CardKey, DealCard> cards = new ConcurrentSkipListMap<>();
+        private volatile long count;
+        private volatile long totalValue;
+
+        void add(DealCard card) {
+            cards.put(CardKey.of(card), card);
+            count++;
+            totalValue += card.getDealValue() == null ? 0 : card.getDealValue();
+        }
+
+        void remove(DealCard card) {
+            if (cards.remove(CardKey.of(card)) != null) {
+                count--;
+                totalValue -= card.getDealValue() == null ? 0 : card.getDealValue();
+            }
+        }
+    }
+
+    /*
+     * Lane order: most recently updated first, ties broken by id descending, the same
+     * (updatedAt desc, id desc) order as the Mongo-backed lists; the page cursor is its KeysetCursor
+     */
+    private record CardKey(long updatedAtMillis, String id) implements Comparable<CardKey> {
+
+        static CardKey of(DealCard card) {
+            return new CardKey(card.getUpdatedAt() == null ? 0 : card.getUpdatedAt().toEpochMilli(), card.getId());
+        }
+
+        static CardKey of(KeysetCursor cursor) {
+            return new CardKey(cursor.at().toEpochMilli(), cursor.id());
+        }
+
+        @Override
+        public int compareTo(CardKey other) {
+            int byTime = Long.compare(other.updatedAtMillis, updatedAtMillis);
+            return byTime != 0 ? byTime : other.id.compareTo(id);
+        }
+
+        KeysetCursor toCursor() {
+            return new KeysetCursor(Instant.ofEpochMilli(updatedAtMillis), id);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package org.example.ibpipeline.service;
+
+import org.example.ibpipeline.model.Deal;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/*
+ * Bounded LRU cache of recently read deals with a short TTL.
+ * Local to this instance: DealService refreshes or evicts entries on its own writes,
+ * and the TTL bounds how stale an entry can get when another instance writes.
+ * Cached instances are shared, so callers must not mutate them.
+ */
+@Component
+public class DealCache {
+
+    private final int maxSize;
+    private final long ttlNanos;
+    private final LinkedHashMap<String, Entry> entries;
+
+    public DealCache(@Value("${app.deal-cache.max-size:10000}") int maxSize,
+                     @Value("${app.deal-cache.ttl:PT15S}") Duration ttl) {
+        this.maxSize = maxSize;
+        this.ttlNanos = ttl.toNanos();
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > DealCache.this.maxSize;
+            }
+        };
+    }
+
+    public synchronized Deal get(String id) {
+        Entry entry = entries.get(id);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiresAt - System.nanoTime() < 0) {
+            entries.remove(id);
+            return null;
+        }
+        return entry.deal;
+    }
+
+    /* Returns the cached subset of the ids */
+    public synchronized Map<String, Deal> getAll(Collection<String> ids) {
+        Map<String, Deal> found = new HashMap<>();
+        for (String id : ids) {
+            Deal deal = get(id);
+            if (deal != null) {
+                found.put(id, deal);
+            }
+        }
+        return found;
+    }
+
+    public synchronized void put(Deal deal) {
+        if (maxSize <= 0 || deal == null || deal.getId() == null) {
+            return;
+        }
+        entries.put(deal.getId(), new Entry(deal, System.nanoTime() + ttlNanos));
+    }
+
+    public synchronized void putAll(Collection<Deal> deals) {
+        deals.forEach(this::put);
+    }
+
+    public synchronized void evict(String id) {
+        entries.remove(id);
+    }
+
+    public synchronized void evictAll(Collection<String> ids) {
+        ids.forEach(entries::remove);
+    }
+
+    private record Entry(Deal deal, long expiresAt) {
+    }
+}
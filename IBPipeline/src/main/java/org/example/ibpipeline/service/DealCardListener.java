@@ -0,0 +1,13 @@
+package org.example.ibpipeline.service;
+
+import org.example.ibpipeline.dto.DealCard;
+
+/*
+ * In-memory views derived from DealBoardIndex's cards. The board index calls these under its
+ * lock with the card before and after every change it accepts (null where the deal is absent),
+ * so implementations see each hot deal exactly once, already de-duplicated and in version order.
+ */
+public interface DealCardListener {
+
+    void cardChanged(DealCard before, DealCard after);
+}
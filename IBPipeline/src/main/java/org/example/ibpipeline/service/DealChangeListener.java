@@ -0,0 +1,45 @@
+package org.example.ibpipeline.service;
+
+import org.example.ibpipeline.dto.BulkDealUpdateRequest;
+import org.example.ibpipeline.model.Deal;
+
+import java.time.Instant;
+import java.util.Collection;
+
+/*
+ * Hook for in-memory views that are kept current from deal writes instead of re-reading Mongo.
+ * Called synchronously on the writing thread once the write has been persisted, so
+ * implementations must be quick and must not throw; DealChangePublisher logs and swallows
+ * anything they do throw. Deal instances passed in are shared and must not be modified.
+ */
+public interface DealChangeListener {
+
+    default void dealCreated(Deal deal) {
+    }
+
+    /*
+     * before is a copy taken ahead of the change (without notes), or null for note appends,
+     * which are applied without a read and change only notes, updatedAt and version.
+     * after is the saved deal.
+     */
+    default void dealUpdated(Deal before, Deal after) {
+    }
+
+    /*
+     * One bulk update. before holds only id, clientName, stage, value and assignee of each
+     * updated deal; null fields in the request were left unchanged.
+     */
+    default void dealsBulkUpdated(Collection<Deal> before, BulkDealUpdateRequest change, Instant updatedAt) {
+    }
+
+    default void dealDeleted(Deal deal) {
+    }
+
+    /* Moved to deals_archive; still readable by id but no longer part of the hot collection */
+    default void dealArchived(Deal deal) {
+    }
+
+    /* Moved back from deals_archive into the hot collection */
+    default void dealRestored(Deal deal) {
+    }
+}
@@ -0,0 +1,61 @@
+package org.example.ibpipeline.service;
+
+import org.example.ibpipeline.dto.BulkDealUpdateRequest;
+import org.example.ibpipeline.model.Deal;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+
+/* Fans deal writes out to every DealChangeListener; a failing listener never fails the write */
+@Component
+public class DealChangePublisher {
+
+    private static final Logger logger = LoggerFactory.getLogger(DealChangePublisher.class);
+
+    private final List<DealChangeListener> listeners;
+
+    public DealChangePublisher(List<DealChangeListener> listeners) {
+        this.listeners = List.copyOf(listeners);
+    }
+
+    public void created(Deal deal) {
+        dispatch(listener -> listener.dealCreated(deal));
+    }
+
+    public void updated(Deal before, Deal after) {
+        dispatch(listener -> listener.dealUpdated(before, after));
+    }
+
+    public void bulkUpdated(Collection<Deal> before, BulkDealUpdateRequest change, Instant updatedAt) {
+        if (!before.isEmpty()) {
+            dispatch(listener -> listener.dealsBulkUpdated(before, change, updatedAt));
+        }
+    }
+
+    public void deleted(Deal deal) {
+        dispatch(listener -> listener.dealDeleted(deal));
+    }
+
+    public void archived(Deal deal) {
+        dispatch(listener -> listener.dealArchived(deal));
+    }
+
+    public void restored(Deal deal) {
+        dispatch(listener -> listener.dealRestored(deal));
+    }
+
+    private void dispatch(Consumer<DealChangeListener> call) {
+        for (DealChangeListener listener : listeners) {
+            try {
+                call.accept(listener);
+            } catch (RuntimeException e) {
+                logger.warn("Deal change listener {} failed: {}", listener.getClass().getSimpleName(), e.toString());
+            }
+        }
+    }
+}
@@ -0,0 +1,216 @@
+package org.example.ibpipeline.service;
+
+import org.example.ibpipeline.dto.DictionaryField;
+import org.example.ibpipeline.exception.BadRequestException;
+import org.example.ibpipeline.model.DictionaryEntry;
+import org.example.ibpipeline.repository.DictionaryRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Managed dictionaries for sector and dealType.
+ *
+ * Deals store the small integer code of these fields instead of the string (see
+ * DictionaryValueConverter), and every read maps the code back to the one canonical String
+ * instance held here, so a million cached or indexed deals share a dozen sector strings.
+ * Writes only accept known values, matched case-insensitively and returned in their
+ * canonical spelling; admins add new ones through /api/admin/dictionaries.
+ *
+ * The dictionaries are loaded on first use (and seeded with DictionaryField defaults when
+ * empty) and served from immutable snapshots, so lookups take no lock. Entries are
+ * append-only: a code missing from the snapshot was added by another instance and triggers
+ * a reload, at most one such reload a second.
+ *
+ * The repository is injected lazily: the Mongo converter depends on this class, and the
+ * repository depends on the converter.
+ */
+@Component
+public class DealDictionary {
+
+    private static final Logger logger = LoggerFactory.getLogger(DealDictionary.class);
+
+    private static final long RELOAD_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+    private static final int MAX_ADD_ATTEMPTS = 5;
+
+    private final DictionaryRepository repository;
+
+    private volatile Map<DictionaryField, Snapshot> snapshots;
+    private volatile long lastMissReload = System.nanoTime() - RELOAD_INTERVAL_NANOS;
+
+    public DealDictionary(@Lazy DictionaryRepository repository) {
+        this.repository = repository;
+    }
+
+    // =========================
+    // LOOKUPS
+    // =========================
+
+    /* The canonical spelling of a known value; null and blank values pass through */
+    public String canonical(DictionaryField field, String value) {
+        if (value == null || value.isBlank()) {
+            return value;
+        }
+        String canonical = lookup(field, value);
+        if (canonical == null) {
+            throw new BadRequestException("Unknown " + field.getParamName() + " '" + value.trim()
+                    + "'; an admin can add it under /api/admin/dictionaries/" + field.getParamName());
+        }
+        return canonical;
+    }
+
+    /* The canonical spelling, or null if the value is not in the dictionary */
+    public String lookup(DictionaryField field, String value) {
+        Snapshot snapshot = snapshot(field);
+        Integer code = snapshot.codes.get(DictionaryEntry.keyOf(value));
+        return code == null ? null : snapshot.values[code];
+    }
+
+    /*
+     * The stored form of a value: its code, or the string itself when it is not in the
+     * dictionary (documents written before the migration, or query values that match nothing).
+     */
+    public Object encode(DictionaryField field, String value) {
+        Integer code = snapshot(field).codes.get(DictionaryEntry.keyOf(value));
+        return code == null ? value : code;
+    }
+
+    /* Reverses encode; legacy string values are mapped to the canonical instance when known */
+    public String decode(DictionaryField field, Object stored) {
+        if (stored instanceof Number number) {
+            int code = number.intValue();
+            String value = valueOf(snapshot(field), code);
+            if (value == null && reloadAllowed()) {
+                lastMissReload = System.nanoTime();
+                reload();
+                value = valueOf(snapshot(field), code);
+            }
+            if (value == null) {
+                logger.warn("Unknown {} code {}", field.getParamName(), code);
+                return String.valueOf(code);
+            }
+            return value;
+        }
+        if (stored == null) {
+            return null;
+        }
+        String value = stored.toString();
+        String canonical = lookup(field, value);
+        return canonical == null ? value : canonical;
+    }
+
+    public List<DictionaryEntry> entries(DictionaryField field) {
+        return snapshot(field).entries;
+    }
+
+    // =========================
+    // ADMIN
+    // =========================
+
+    /* Adds a value with the next free code; returns the existing entry if the value is known */
+    public synchronized DictionaryEntry add(DictionaryField field, String value, String createdBy) {
+        if (value == null || value.isBlank()) {
+            throw new BadRequestException("Dictionary value must not be blank");
+        }
+        for (int attempt = 0; attempt < MAX_ADD_ATTEMPTS; attempt++) {
+            Snapshot snapshot = snapshot(field);
+            Integer code = snapshot.codes.get(DictionaryEntry.keyOf(value));
+            if (code != null) {
+                return snapshot.entries.stream().filter(entry -> entry.getCode() == code).findFirst().orElseThrow();
+            }
+            DictionaryEntry entry = new DictionaryEntry(field, snapshot.values.length, value.trim(), createdBy);
+            try {
+                repository.insert(entry);
+                install(field, snapshot.with(entry));
+                logger.info("Added {} '{}' as code {}", field.getParamName(), entry.getValue(), entry.getCode());
+                return entry;
+            } catch (DuplicateKeyException e) {
+                // another instance took the code or added the same value: pick up its entries and retry
+                reload();
+            }
+        }
+        throw new IllegalStateException("Could not add " + field.getParamName() + " '" + value + "'");
+    }
+
+    public synchronized void reload() {
+        Map<DictionaryField, List<DictionaryEntry>> byField = new EnumMap<>(DictionaryField.class);
+        for (DictionaryField field : DictionaryField.values()) {
+            byField.put(field, new ArrayList<>());
+        }
+        for (DictionaryEntry entry : repository.findAll()) {
+            byField.get(entry.getField()).add(entry);
+        }
+
+        Map<DictionaryField, Snapshot> loaded = new EnumMap<>(DictionaryField.class);
+        byField.forEach((field, entries) -> loaded.put(field, Snapshot.of(entries)));
+        snapshots = loaded;
+    }
+
+    private Snapshot snapshot(DictionaryField field) {
+        Map<DictionaryField, Snapshot> current = snapshots;
+        if (current == null) {
+            current = load();
+        }
+        return current.get(field);
+    }
+
+    private synchronized Map<DictionaryField, Snapshot> load() {
+        if (snapshots == null) {
+            reload();
+            for (DictionaryField field : DictionaryField.values()) {
+                if (snapshots.get(field).entries.isEmpty()) {
+                    logger.info("Seeding the {} dictionary with {} values", field.getParamName(), field.getDefaults().size());
+                    field.getDefaults().forEach(value -> add(field, value, null));
+                }
+            }
+        }
+        return snapshots;
+    }
+
+    private synchronized void install(DictionaryField field, Snapshot snapshot) {
+        Map<DictionaryField, Snapshot> next = new EnumMap<>(snapshots);
+        next.put(field, snapshot);
+        snapshots = next;
+    }
+
+    private boolean reloadAllowed() {
+        return System.nanoTime() - lastMissReload >= RELOAD_INTERVAL_NANOS;
+    }
+
+    private static String valueOf(Snapshot snapshot, int code) {
+        return code >= 0 && code < snapshot.values.length ? snapshot.values[code] : null;
+    }
+
+    /* values is indexed by code; codes maps each key to its code */
+    private record Snapshot(String[] values, Map<String, Integer> codes, List<DictionaryEntry> entries) {
+
+        static Snapshot of(List<DictionaryEntry> entries) {
+            List<DictionaryEntry> sorted = new ArrayList<>(entries);
+            sorted.sort(Comparator.comparingInt(DictionaryEntry::getCode));
+            int size = sorted.isEmpty() ? 0 : sorted.get(sorted.size() - 1).getCode() + 1;
+            String[] values = new String[size];
+            Map<String, Integer> codes = new HashMap<>();
+            for (DictionaryEntry entry : sorted) {
+                values[entry.getCode()] = entry.getValue();
+                codes.put(entry.getKey(), entry.getCode());
+            }
+            return new Snapshot(values, Map.copyOf(codes), List.copyOf(sorted));
+        }
+
+        Snapshot with(DictionaryEntry entry) {
+            List<DictionaryEntry> next = new ArrayList<>(entries);
+            next.add(entry);
+            return of(next);
+        }
+    }
+}
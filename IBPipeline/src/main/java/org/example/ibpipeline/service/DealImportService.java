@@ -0,0 +1,307 @@
+package org.example.ibpipeline.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.bson.types.ObjectId;
+import org.example.ibpipeline.dto.DealImportReport;
+import org.example.ibpipeline.dto.DealImportRowError;
+import org.example.ibpipeline.dto.DictionaryField;
+import org.example.ibpipeline.event.DealEvent;
+import org.example.ibpipeline.event.DealEventType;
+import org.example.ibpipeline.event.DealFacts;
+import org.example.ibpipeline.exception.BadRequestException;
+import org.example.ibpipeline.model.Deal;
+import org.example.ibpipeline.model.DealStage;
+import org.example.ibpipeline.repository.DealRepository;
+import org.example.ibpipeline.repository.UserRepository;
+import org.example.ibpipeline.util.CsvLineParser;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/*
+ * Streams a CSV or NDJSON body row by row, validates each row and writes valid
+ * deals in unordered insertMany batches. Only one batch is held in memory at a time.
+ * If the body cannot be read to the end, the pending batch is dropped and the error says
+ * through which line rows were written.
+ */
+@Service
+public class DealImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DealImportService.class);
+
+    private static final List<String> REQUIRED_COLUMNS = List.of("clientName", "dealType", "sector");
+
+    public enum Format {
+        CSV,
+        NDJSON
+    }
+
+    private final DealRepository dealRepository;
+    private final UserRepository userRepository;
+    private final KafkaProducerService kafkaProducerService;
+    private final DealChangePublisher dealChangePublisher;
+    private final Validator validator;
+    private final DealDictionary dealDictionary;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Value("${app.import.batch-size:500}")
+    private int batchSize;
+
+    @Value("${app.import.max-reported-errors:1000}")
+    private int maxReportedErrors;
+
+    public DealImportService(DealRepository dealRepository,
+                             UserRepository userRepository,
+                             KafkaProducerService kafkaProducerService,
+                             DealChangePublisher dealChangePublisher,
+                             Validator validator,
+                             DealDictionary dealDictionary) {
+        this.dealRepository = dealRepository;
+        this.userRepository = userRepository;
+        this.kafkaProducerService = kafkaProducerService;
+        this.dealChangePublisher = dealChangePublisher;
+        this.validator = validator;
+        this.dealDictionary = dealDictionary;
+    }
+
+    public static Format formatFor(String contentType) {
+        String type = contentType == null ? "" : contentType.toLowerCase();
+        if (type.contains("csv")) {
+            return Format.CSV;
+        }
+        if (type.contains("ndjson") || type.contains("jsonl") || type.contains("json-seq")) {
+            return Format.NDJSON;
+        }
+        throw new BadRequestException("Unsupported import content type: " + contentType);
+    }
+
+    public DealImportReport importDeals(InputStream body, Format format, String importedBy) {
+        DealImportReport report = new DealImportReport();
+        List<Deal> batch = new ArrayList<>(batchSize);
+        List<Long> batchLines = new ArrayList<>(batchSize);
+        Map<String, Boolean> knownUsers = new HashMap<>();
+        List<String> header = null;
+        long lineNumber = 0;
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+
+                if (format == Format.CSV && header == null) {
+                    header = readHeader(line);
+                    continue;
+                }
+
+                report.setRowsRead(report.getRowsRead() + 1);
+                try {
+                    Map<String, String> row = format == Format.CSV ? csvRow(header, line) : jsonRow(line);
+                    batch.add(toDeal(row, importedBy, knownUsers));
+                    batchLines.add(lineNumber);
+                } catch (IllegalArgumentException | JsonProcessingException e) {
+                    recordError(report, lineNumber, e.getMessage());
+                }
+
+                if (batch.size() >= batchSize) {
+                    flush(batch, batchLines, importedBy, report);
+                }
+            }
+            flush(batch, batchLines, importedBy, report);
+        } catch (IOException e) {
+            throw new BadRequestException("Could not read import body at line " + (lineNumber + 1) + ": "
+                    + e.getMessage() + "; " + committed(report));
+        } catch (RuntimeException e) {
+            logger.warn("Deal import by {} aborted at line {}: {}", importedBy, lineNumber, committed(report));
+            throw e;
+        }
+
+        logger.info("Deal import by {}: {} rows read, {} imported, {} failed",
+                importedBy, report.getRowsRead(), report.getImported(), report.getFailed());
+        return report;
+    }
+
+    private void flush(List<Deal> batch, List<Long> batchLines, String importedBy, DealImportReport report) {
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        Map<Integer, String> failures = dealRepository.insertUnordered(batch);
+        List<DealEvent> events = new ArrayList<>(batch.size());
+
+        for (int i = 0; i < batch.size(); i++) {
+            String failure = failures.get(i);
+            if (failure != null) {
+                recordError(report, batchLines.get(i), failure);
+                continue;
+            }
+
+            Deal deal = batch.get(i);
+            report.setImported(report.getImported() + 1);
+            dealChangePublisher.created(deal);
+            events.add(new DealEvent(
+                    UUID.randomUUID().toString(),
+                    DealEventType.DEAL_CREATED,
+                    deal.getId(),
+                    deal.getClientName(),
+                    importedBy,
+                    "Deal imported with stage: " + deal.getCurrentStage(),
+                    Instant.now()
+            ).withChange(null, DealFacts.of(deal)));
+        }
+
+        if (!events.isEmpty()) {
+            kafkaProducerService.sendDealEvents(events);
+        }
+
+        report.setCommittedThroughLine(batchLines.get(batchLines.size() - 1));
+        batch.clear();
+        batchLines.clear();
+    }
+
+    private static String committed(DealImportReport report) {
+        return report.getImported() == 0
+                ? "no rows were imported"
+                : report.getImported() + " rows were imported, through line " + report.getCommittedThroughLine()
+                        + "; nothing after that line was written";
+    }
+
+    private List<String> readHeader(String line) {
+        List<String> header = CsvLineParser.parse(line).stream().map(String::trim).toList();
+        for (String column : REQUIRED_COLUMNS) {
+            if (!header.contains(column)) {
+                throw new BadRequestException("CSV header is missing required column: " + column);
+            }
+        }
+        return header;
+    }
+
+    private Map<String, String> csvRow(List<String> header, String line) {
+        List<String> values = CsvLineParser.parse(line);
+        if (values.size() > header.size()) {
+            throw new IllegalArgumentException("Row has " + values.size() + " fields but header has " + header.size());
+        }
+
+        Map<String, String> row = new HashMap<>();
+        for (int i = 0; i < values.size(); i++) {
+            row.put(header.get(i), values.get(i));
+        }
+        return row;
+    }
+
+    private Map<String, String> jsonRow(String line) throws JsonProcessingException {
+        JsonNode node = objectMapper.readTree(line);
+        if (node == null || !node.isObject()) {
+            throw new IllegalArgumentException("Line is not a JSON object");
+        }
+
+        Map<String, String> row = new HashMap<>();
+        node.properties().forEach(field ->
+                row.put(field.getKey(), field.getValue().isNull() ? null : field.getValue().asText()));
+        return row;
+    }
+
+    private Deal toDeal(Map<String, String> row, String importedBy, Map<String, Boolean> knownUsers) {
+        Deal deal = new Deal();
+        deal.setId(new ObjectId().toHexString());
+        deal.setVersion(0L);
+        deal.setClientName(trimToNull(row.get("clientName")));
+        deal.setDealType(dictionaryValue(DictionaryField.DEAL_TYPE, row.get("dealType")));
+        deal.setSector(dictionaryValue(DictionaryField.SECTOR, row.get("sector")));
+        deal.setSummary(trimToNull(row.get("summary")));
+        deal.setAssignedTo(assignee(row.get("assignedTo"), knownUsers));
+        deal.setCreatedBy(importedBy);
+
+        String value = trimToNull(row.get("dealValue"));
+        if (value != null) {
+            try {
+                deal.setDealValue(Long.parseLong(value));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("dealValue: must be a whole number");
+            }
+            if (deal.getDealValue() < 0) {
+                throw new IllegalArgumentException("dealValue: must be positive");
+            }
+        }
+
+        String stage = trimToNull(row.get("currentStage"));
+        if (stage != null) {
+            try {
+                deal.setCurrentStage(DealStage.valueOf(stage));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("currentStage: unknown stage " + stage);
+            }
+        }
+
+        Instant now = Instant.now();
+        deal.setCreatedAt(now);
+        deal.setUpdatedAt(now);
+
+        Set<ConstraintViolation<Deal>> violations = validator.validate(deal);
+        if (!violations.isEmpty()) {
+            ConstraintViolation<Deal> violation = violations.iterator().next();
+            throw new IllegalArgumentException(violation.getPropertyPath() + ": " + violation.getMessage());
+        }
+
+        return deal;
+    }
+
+    /* Unknown users fail the row, the same as a single-deal reassignment; each name is looked up once per import */
+    private String assignee(String raw, Map<String, Boolean> knownUsers) {
+        String username = trimToNull(raw);
+        if (username != null && !knownUsers.computeIfAbsent(username, userRepository::existsByUsername)) {
+            throw new IllegalArgumentException("assignedTo: unknown user " + username);
+        }
+        return username;
+    }
+
+    /* The canonical value; unknown values fail the row, they are not added to the dictionary */
+    private String dictionaryValue(DictionaryField field, String raw) {
+        String value = trimToNull(raw);
+        if (value == null) {
+            return null;
+        }
+        String canonical = dealDictionary.lookup(field, value);
+        if (canonical == null) {
+            throw new IllegalArgumentException(field.getParamName() + ": unknown value " + value);
+        }
+        return canonical;
+    }
+
+    private void recordError(DealImportReport report, long line, String message) {
+        report.setFailed(report.getFailed() + 1);
+        if (report.getErrors().size() < maxReportedErrors) {
+            report.getErrors().add(new DealImportRowError(line, message));
+        } else {
+            report.setErrorsTruncated(true);
+        }
+    }
+
+    private static String trimToNull(String value) {
+        if (value == null) {
+            return null;
+        }
+        String trimmed = value.trim();
+        return trimmed.isEmpty() ? null : trimmed;
+    }
+}
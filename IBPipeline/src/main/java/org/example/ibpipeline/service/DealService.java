@@ -1,39 +1,111 @@
 package org.example.ibpipeline.service;
 
+import org.example.ibpipeline.dto.BulkDealUpdateRequest;
+import org.example.ibpipeline.dto.BulkDealUpdateResponse;
+import org.example.ibpipeline.dto.DealBatchGetResponse;
+import org.example.ibpipeline.dto.DealCard;
+import org.example.ibpipeline.dto.DealOwnership;
+import org.example.ibpipeline.dto.DictionaryField;
+import org.example.ibpipeline.dto.DuplicateCandidate;
+import org.example.ibpipeline.dto.MyDeals;
 import org.example.ibpipeline.event.DealEvent;
 import org.example.ibpipeline.event.DealEventType;
+import org.example.ibpipeline.event.DealFacts;
 import org.example.ibpipeline.exception.BadRequestException;
 import org.example.ibpipeline.exception.ResourceNotFoundException;
+import org.example.ibpipeline.exception.VersionConflictException;
 import org.example.ibpipeline.model.Deal;
 import org.example.ibpipeline.model.DealNote;
 import org.example.ibpipeline.model.DealStage;
 import org.example.ibpipeline.repository.DealRepository;
+import org.example.ibpipeline.repository.UserRepository;
+import org.example.ibpipeline.util.GroupCommit;
+import org.example.ibpipeline.util.KeysetCursor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
 import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 @Service
 public class DealService {
 
+    private static final Logger logger = LoggerFactory.getLogger(DealService.class);
+
     private final DealRepository dealRepository;
     private final KafkaProducerService kafkaProducerService;
-
-    public DealService(DealRepository dealRepository, KafkaProducerService kafkaProducerService) {
+    private final DealCache dealCache;
+    private final DealChangePublisher dealChangePublisher;
+    private final DealBoardIndex dealBoardIndex;
+    private final UserRepository userRepository;
+    private final DuplicateDealIndex duplicateDealIndex;
+    private final DealDictionary dealDictionary;
+
+    private static final int MAX_WRITE_ATTEMPTS = 3;
+    static final int MAX_MINE_PAGE_SIZE = 100;
+
+    @Value("${app.bulk.max-deals:1000}")
+    private int maxBulkDeals = 1000;
+
+    @Value("${app.batch-get.max-ids:500}")
+    private int maxBatchGetIds = 500;
+
+    /* Notes for one deal arriving within this window are written together; zero disables the wait */
+    @Value("${app.notes.coalesce-window:PT0.01S}")
+    private Duration noteCoalesceWindow = Duration.ofMillis(10);
+
+    @Value("${app.notes.max-batch:50}")
+    private int maxNoteBatch = 50;
+
+    private final GroupCommit<String, DealNote, Deal> noteWrites = new GroupCommit<>();
+
+    public DealService(DealRepository dealRepository,
+                       KafkaProducerService kafkaProducerService,
+                       DealCache dealCache,
+                       DealChangePublisher dealChangePublisher,
+                       DealBoardIndex dealBoardIndex,
+                       UserRepository userRepository,
+                       DuplicateDealIndex duplicateDealIndex,
+                       DealDictionary dealDictionary) {
         this.dealRepository = dealRepository;
         this.kafkaProducerService = kafkaProducerService;
+        this.dealCache = dealCache;
+        this.dealChangePublisher = dealChangePublisher;
+        this.dealBoardIndex = dealBoardIndex;
+        this.userRepository = userRepository;
+        this.duplicateDealIndex = duplicateDealIndex;
+        this.dealDictionary = dealDictionary;
     }
 
     // =========================
     // CREATE DEAL
     // =========================
     public Deal createDeal(Deal deal, String createdByUserId) {
+        deal.setSector(dealDictionary.canonical(DictionaryField.SECTOR, deal.getSector()));
+        deal.setDealType(dealDictionary.canonical(DictionaryField.DEAL_TYPE, deal.getDealType()));
+        List<DuplicateCandidate> duplicates = possibleDuplicates(deal);
+        deal.setVersion(null);
         deal.setCreatedBy(createdByUserId);
         deal.setCurrentStage(DealStage.Prospect);
         deal.setCreatedAt(Instant.now());
         deal.setUpdatedAt(Instant.now());
+        deal.setStageEnteredAt(deal.getCreatedAt());
         Deal savedDeal = dealRepository.save(deal);
+        dealChangePublisher.created(savedDeal);
 
         // Publish Kafka event
         DealEvent event = new DealEvent(
@@ -44,12 +116,23 @@ public class DealService {
                 createdByUserId,
                 "Deal created with stage: " + savedDeal.getCurrentStage(),
                 Instant.now()
-        );
+        ).withChange(null, DealFacts.of(savedDeal));
         kafkaProducerService.sendDealEvent(event);
 
+        savedDeal.setPossibleDuplicates(duplicates);
         return savedDeal;
     }
 
+    /* Advisory only: the deal is created whatever this finds, or if the lookup fails */
+    private List<DuplicateCandidate> possibleDuplicates(Deal deal) {
+        try {
+            return duplicateDealIndex.findSimilar(deal.getClientName(), deal.getSector(), null);
+        } catch (RuntimeException e) {
+            logger.warn("Duplicate lookup failed for client {}: {}", deal.getClientName(), e.toString());
+            return List.of();
+        }
+    }
+
     // =========================
     // GET DEALS
     // =========================
@@ -58,8 +141,99 @@ public class DealService {
     }
 
     public Deal getDealById(String id) {
-        return dealRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Deal not found"));
+        Deal cached = dealCache.get(id);
+        if (cached != null) {
+            return cached;
+        }
+
+        // Archived (Closed/Lost, long untouched) deals are read transparently from the cold collection
+        Deal deal = dealRepository.findById(id).orElseGet(() -> dealRepository.findArchivedById(id));
+        if (deal == null) {
+            throw new ResourceNotFoundException("Deal not found");
+        }
+        dealCache.put(deal);
+        return deal;
+    }
+
+    /* Fresh read for the write paths; never hands out a shared cached instance */
+    private Deal loadDeal(String id) {
+        return dealRepository.findById(id).orElseThrow(() -> missingDeal(id));
+    }
+
+    /* Why a write found no hot deal: archived deals must be restored first */
+    private RuntimeException missingDeal(String id) {
+        if (dealRepository.findArchivedById(id) != null) {
+            return new BadRequestException("Deal is archived; restore it before making changes");
+        }
+        return new ResourceNotFoundException("Deal not found");
+    }
+
+    // =========================
+    // BATCH GET
+    // =========================
+    public DealBatchGetResponse getDealsByIds(List<String> ids, boolean includeSensitive) {
+        List<String> requested = ids.stream().distinct().toList();
+        if (requested.size() > maxBatchGetIds) {
+            throw new BadRequestException("At most " + maxBatchGetIds + " ids can be fetched at once");
+        }
+
+        Map<String, Deal> found = new HashMap<>(dealCache.getAll(requested));
+
+        List<String> uncached = requested.stream().filter(id -> !found.containsKey(id)).toList();
+        if (!uncached.isEmpty()) {
+            List<Deal> loaded = dealRepository.findAllById(uncached);
+            dealCache.putAll(loaded);
+            loaded.forEach(deal -> found.put(deal.getId(), deal));
+        }
+
+        List<String> notHot = requested.stream().filter(id -> !found.containsKey(id)).toList();
+        if (!notHot.isEmpty()) {
+            List<Deal> archived = dealRepository.findArchivedByIds(notHot);
+            dealCache.putAll(archived);
+            archived.forEach(deal -> found.put(deal.getId(), deal));
+        }
+
+        List<Deal> deals = new ArrayList<>(found.size());
+        List<String> missingIds = new ArrayList<>();
+        for (String id : requested) {
+            Deal deal = found.get(id);
+            if (deal == null) {
+                missingIds.add(id);
+            } else {
+                deals.add(includeSensitive ? deal : withoutSensitiveFields(deal));
+            }
+        }
+
+        return new DealBatchGetResponse(deals, missingIds);
+    }
+
+    /* Pre-change copy for DealChangeListeners; the loaded instance is modified in place and saved */
+    private static Deal snapshot(Deal deal) {
+        Deal copy = withoutSensitiveFields(deal);
+        copy.setNotes(List.of());
+        copy.setDealValue(deal.getDealValue());
+        return copy;
+    }
+
+    /* Copy with the ADMIN-only fields cleared; cached instances are shared and must not be changed */
+    private static Deal withoutSensitiveFields(Deal deal) {
+        Deal copy = new Deal();
+        copy.setId(deal.getId());
+        copy.setClientName(deal.getClientName());
+        copy.setDealType(deal.getDealType());
+        copy.setSector(deal.getSector());
+        copy.setCurrentStage(deal.getCurrentStage());
+        copy.setSummary(deal.getSummary());
+        copy.setNotes(deal.getNotes());
+        copy.setCreatedBy(deal.getCreatedBy());
+        copy.setAssignedTo(deal.getAssignedTo());
+        copy.setWatchers(deal.getWatchers());
+        copy.setCreatedAt(deal.getCreatedAt());
+        copy.setUpdatedAt(deal.getUpdatedAt());
+        copy.setStageEnteredAt(deal.getStageEnteredAt());
+        copy.setVersion(deal.getVersion());
+        copy.setArchivedAt(deal.getArchivedAt());
+        return copy;
     }
 
     // =========================
@@ -69,75 +243,198 @@ public class DealService {
                                   String summary,
                                   String sector,
                                   String dealType) {
+        return updateBasicFields(id, summary, sector, dealType, null, null);
+    }
 
-        Deal deal = getDealById(id);
+    public Deal updateBasicFields(String id,
+                                  String summary,
+                                  String sector,
+                                  String dealType,
+                                  Long expectedVersion,
+                                  String userId) {
+
+        String canonicalSector = dealDictionary.canonical(DictionaryField.SECTOR, sector);
+        String canonicalDealType = dealDictionary.canonical(DictionaryField.DEAL_TYPE, dealType);
+        return writeWithVersionCheck(id, expectedVersion, () -> {
+            Deal deal = loadDeal(id);
+            checkVersion(deal, expectedVersion);
+
+            Deal before = snapshot(deal);
+            deal.setSummary(summary);
+            deal.setSector(canonicalSector);
+            deal.setDealType(canonicalDealType);
+            deal.setUpdatedAt(Instant.now());
+
+            Deal updatedDeal = dealRepository.save(deal);
+            dealCache.put(updatedDeal);
+            dealChangePublisher.updated(before, updatedDeal);
+
+            // Publish Kafka event
+            DealEvent event = new DealEvent(
+                    UUID.randomUUID().toString(),
+                    DealEventType.DEAL_UPDATED,
+                    updatedDeal.getId(),
+                    updatedDeal.getClientName(),
+                    userId,
+                    "Deal fields updated: summary, sector, dealType",
+                    Instant.now()
+            ).withChange(DealFacts.of(before), DealFacts.of(updatedDeal));
+            kafkaProducerService.sendDealEvent(event);
+
+            return updatedDeal;
+        });
+    }
 
-        deal.setSummary(summary);
-        deal.setSector(sector);
-        deal.setDealType(dealType);
-        deal.setUpdatedAt(Instant.now());
+    // =========================
+    // UPDATE STAGE
+    // =========================
+    public Deal updateStage(String id, DealStage stage) {
+        return updateStage(id, stage, null, null);
+    }
 
-        Deal updatedDeal = dealRepository.save(deal);
+    public Deal updateStage(String id, DealStage stage, Long expectedVersion, String userId) {
+        return writeWithVersionCheck(id, expectedVersion, () -> {
+            Deal deal = loadDeal(id);
+            checkVersion(deal, expectedVersion);
+
+            Deal before = snapshot(deal);
+            DealStage oldStage = deal.getCurrentStage();
+            deal.setCurrentStage(stage);
+            deal.setUpdatedAt(Instant.now());
+            if (oldStage != stage) {
+                deal.setStageEnteredAt(deal.getUpdatedAt());
+            }
+            Deal updatedDeal = dealRepository.save(deal);
+            dealCache.put(updatedDeal);
+            dealChangePublisher.updated(before, updatedDeal);
+
+            // Publish Kafka event
+            DealEvent event = new DealEvent(
+                    UUID.randomUUID().toString(),
+                    DealEventType.STAGE_UPDATED,
+                    updatedDeal.getId(),
+                    updatedDeal.getClientName(),
+                    userId,
+                    "Stage changed from " + oldStage + " to " + stage,
+                    Instant.now()
+            ).withChange(DealFacts.of(before), DealFacts.of(updatedDeal));
+            kafkaProducerService.sendDealEvent(event);
+
+            return updatedDeal;
+        });
+    }
 
-        // Publish Kafka event
-        DealEvent event = new DealEvent(
-                UUID.randomUUID().toString(),
-                DealEventType.DEAL_UPDATED,
-                updatedDeal.getId(),
-                updatedDeal.getClientName(),
-                null,
-                "Deal fields updated: summary, sector, dealType",
-                Instant.now()
-        );
-        kafkaProducerService.sendDealEvent(event);
+    // =========================
+    // ASSIGN
+    // =========================
 
-        return updatedDeal;
+    /* A null or blank assignee unassigns the deal */
+    public Deal updateAssignee(String id, String assignee, Long expectedVersion, String userId) {
+        String target = assignee == null || assignee.isBlank() ? null : assignee.trim();
+        if (target != null && !userRepository.existsByUsername(target)) {
+            throw new BadRequestException("Unknown user: " + target);
+        }
+
+        return writeWithVersionCheck(id, expectedVersion, () -> {
+            Deal deal = loadDeal(id);
+            checkVersion(deal, expectedVersion);
+
+            Deal before = snapshot(deal);
+            deal.setAssignedTo(target);
+            deal.setUpdatedAt(Instant.now());
+            Deal updatedDeal = dealRepository.save(deal);
+            dealCache.put(updatedDeal);
+            dealChangePublisher.updated(before, updatedDeal);
+
+            // Publish Kafka event
+            DealEvent event = new DealEvent(
+                    UUID.randomUUID().toString(),
+                    DealEventType.DEAL_UPDATED,
+                    updatedDeal.getId(),
+                    updatedDeal.getClientName(),
+                    userId,
+                    "Deal reassigned from " + before.getAssignedTo() + " to " + target,
+                    Instant.now()
+            );
+            kafkaProducerService.sendDealEvent(event);
+
+            return updatedDeal;
+        });
     }
 
     // =========================
-    // UPDATE STAGE
+    // MY DEALS
     // =========================
-    public Deal updateStage(String id, DealStage stage) {
-        Deal deal = getDealById(id);
-        DealStage oldStage = deal.getCurrentStage();
-        deal.setCurrentStage(stage);
-        deal.setUpdatedAt(Instant.now());
-        Deal updatedDeal = dealRepository.save(deal);
 
-        // Publish Kafka event
-        DealEvent event = new DealEvent(
-                UUID.randomUUID().toString(),
-                DealEventType.STAGE_UPDATED,
-                updatedDeal.getId(),
-                updatedDeal.getClientName(),
-                null,
-                "Stage changed from " + oldStage + " to " + stage,
-                Instant.now()
-        );
-        kafkaProducerService.sendDealEvent(event);
+    /* Counts come from the board index; the page is one indexed range read on createdBy or assignedTo */
+    public MyDeals findMine(DealOwnership role, String user, String cursor, int limit, boolean includeValues) {
+        int size = Math.max(1, Math.min(limit, MAX_MINE_PAGE_SIZE));
+        KeysetCursor after = KeysetCursor.decode(cursor);
+
+        List<Deal> deals = dealRepository.findOwned(role, user,
+                after == null ? null : after.at(), after == null ? null : after.id(), size + 1);
+        String nextCursor = null;
+        if (deals.size() > size) {
+            deals = deals.subList(0, size);
+            Deal last = deals.get(size - 1);
+            nextCursor = new KeysetCursor(last.getUpdatedAt(), last.getId()).encode();
+        }
 
-        return updatedDeal;
+        List<DealCard> cards = new ArrayList<>(deals.size());
+        for (Deal deal : deals) {
+            DealCard card = DealCard.of(deal);
+            cards.add(includeValues ? card : card.withoutValue());
+        }
+
+        Map<DealStage, Long> counts = dealBoardIndex.countsFor(role, user);
+        long total = counts.values().stream().mapToLong(Long::longValue).sum();
+        return new MyDeals(role, counts, total, cards, nextCursor, dealBoardIndex.isLoaded());
     }
 
     // =========================
     // ADD NOTE
     // =========================
+    /*
+     * Appending a note commutes with every other change, so it is an atomic $push
+     * instead of read-modify-save: concurrent edits never conflict and never need a retry.
+     * Bursts of notes on one deal (a call debrief typed by three people) are group-committed:
+     * notes arriving within app.notes.coalesce-window share one $push and one event, and each
+     * caller still returns only after the write that contains its note is acknowledged.
+     */
     public Deal addNote(String id, String userId, String noteText) {
         if (noteText == null || noteText.isBlank()) {
             throw new BadRequestException("Note cannot be empty");
         }
 
-        Deal deal = getDealById(id);
-
         DealNote note = new DealNote();
         note.setUserId(userId);
         note.setNote(noteText);
         note.setTimestamp(Instant.now());
 
-        deal.getNotes().add(note);
-        deal.setUpdatedAt(Instant.now());
+        return noteWrites.submit(id, note, noteCoalesceWindow, maxNoteBatch, notes -> writeNotes(id, notes));
+    }
 
-        Deal updatedDeal = dealRepository.save(deal);
+    /*
+     * One $push of every note in the batch and one NOTE_ADDED event for all of them. Runs on
+     * the thread of the batch's first caller; the others return the same updated deal (which
+     * contains their note) or the same exception once this returns.
+     */
+    private Deal writeNotes(String id, List<DealNote> notes) {
+        Deal updatedDeal = dealRepository.pushNotes(id, notes, Instant.now());
+        if (updatedDeal == null) {
+            throw missingDeal(id);
+        }
+        dealCache.put(updatedDeal);
+        dealChangePublisher.updated(null, updatedDeal);
+
+        List<String> authors = notes.stream().map(DealNote::getUserId).distinct().toList();
+        String details;
+        if (notes.size() == 1) {
+            String noteText = notes.get(0).getNote();
+            details = "Note added: " + (noteText.length() > 50 ? noteText.substring(0, 50) + "..." : noteText);
+        } else {
+            details = notes.size() + " notes added by " + String.join(", ", authors);
+        }
 
         // Publish Kafka event
         DealEvent event = new DealEvent(
@@ -145,10 +442,10 @@ public class DealService {
                 DealEventType.NOTE_ADDED,
                 updatedDeal.getId(),
                 updatedDeal.getClientName(),
-                userId,
-                "Note added: " + (noteText.length() > 50 ? noteText.substring(0, 50) + "..." : noteText),
+                authors.get(0),
+                details,
                 Instant.now()
-        );
+        ).withActors(authors.size() > 1 ? authors : null);
         kafkaProducerService.sendDealEvent(event);
 
         return updatedDeal;
@@ -158,53 +455,236 @@ public class DealService {
     // UPDATE DEAL VALUE (ADMIN)
     // =========================
     public Deal updateDealValue(String id, Long value) {
+        return updateDealValue(id, value, null, null);
+    }
+
+    public Deal updateDealValue(String id, Long value, Long expectedVersion, String userId) {
         if (value == null || value < 0) {
             throw new BadRequestException("Deal value must be positive");
         }
 
-        Deal deal = getDealById(id);
-        Long oldValue = deal.getDealValue();
-        deal.setDealValue(value);
-        deal.setUpdatedAt(Instant.now());
-
-        Deal updatedDeal = dealRepository.save(deal);
-
-        // Publish Kafka event
-        DealEvent event = new DealEvent(
-                UUID.randomUUID().toString(),
-                DealEventType.VALUE_UPDATED,
-                updatedDeal.getId(),
-                updatedDeal.getClientName(),
-                null,
-                "Deal value updated from " + oldValue + " to " + value,
-                Instant.now()
-        );
-        kafkaProducerService.sendDealEvent(event);
+        return writeWithVersionCheck(id, expectedVersion, () -> {
+            Deal deal = loadDeal(id);
+            checkVersion(deal, expectedVersion);
+
+            Deal before = snapshot(deal);
+            Long oldValue = deal.getDealValue();
+            deal.setDealValue(value);
+            deal.setUpdatedAt(Instant.now());
+
+            Deal updatedDeal = dealRepository.save(deal);
+            dealCache.put(updatedDeal);
+            dealChangePublisher.updated(before, updatedDeal);
+
+            // Publish Kafka event
+            DealEvent event = new DealEvent(
+                    UUID.randomUUID().toString(),
+                    DealEventType.VALUE_UPDATED,
+                    updatedDeal.getId(),
+                    updatedDeal.getClientName(),
+                    userId,
+                    "Deal value updated from " + oldValue + " to " + value,
+                    Instant.now()
+            ).withChange(DealFacts.of(before), DealFacts.of(updatedDeal));
+            kafkaProducerService.sendDealEvent(event);
+
+            return updatedDeal;
+        });
+    }
 
-        return updatedDeal;
+    // =========================
+    // WATCH / UNWATCH
+    // =========================
+    /*
+     * Not an edit: no event, nothing for the change listeners. The version is still bumped, so
+     * a concurrent read-modify-save retries (or conflicts) instead of dropping the watcher.
+     */
+    public void setWatching(String id, String username, boolean watching) {
+        Deal updated = dealRepository.updateWatchers(id, username, watching);
+        if (updated == null) {
+            throw new ResourceNotFoundException("Deal not found");
+        }
+        dealCache.put(updated);
     }
 
     // =========================
     // DELETE DEAL (ADMIN)
     // =========================
     public void deleteDeal(String id) {
+        deleteDeal(id, null, null);
+    }
+
+    public void deleteDeal(String id, Long expectedVersion, String userId) {
         if (!dealRepository.existsById(id)) {
             throw new ResourceNotFoundException("Deal not found");
         }
-        Deal deal = getDealById(id);
 
-        dealRepository.deleteById(id);
+        writeWithVersionCheck(id, expectedVersion, () -> {
+            Deal deal = loadDeal(id);
+            checkVersion(deal, expectedVersion);
+
+            if (expectedVersion == null) {
+                dealRepository.deleteById(id);
+            } else {
+                // Version-aware remove: fails if the deal changed after the check above
+                dealRepository.delete(deal);
+            }
+            dealCache.evict(id);
+            dealChangePublisher.deleted(deal);
+
+            // Publish Kafka event
+            DealEvent event = new DealEvent(
+                    UUID.randomUUID().toString(),
+                    DealEventType.DEAL_DELETED,
+                    deal.getId(),
+                    deal.getClientName(),
+                    userId,
+                    "Deal deleted permanently",
+                    Instant.now()
+            ).withChange(DealFacts.of(deal), null).withAudience(NotificationService.audienceOf(deal));
+            kafkaProducerService.sendDealEvent(event);
+            return deal;
+        });
+    }
 
-        // Publish Kafka event
-        DealEvent event = new DealEvent(
-                UUID.randomUUID().toString(),
-                DealEventType.DEAL_DELETED,
-                deal.getId(),
-                deal.getClientName(),
-                null,
-                "Deal deleted permanently",
-                Instant.now()
-        );
-        kafkaProducerService.sendDealEvent(event);
+    // =========================
+    // OPTIMISTIC CONCURRENCY
+    // =========================
+    private static void checkVersion(Deal deal, Long expectedVersion) {
+        if (expectedVersion != null && !expectedVersion.equals(deal.getVersion())) {
+            throw new VersionConflictException(deal.getVersion());
+        }
+    }
+
+    /*
+     * Runs a read-modify-save. A conditional write (expectedVersion given) that loses a race
+     * fails with 409 and the current version; an unconditional one re-reads and retries.
+     */
+    private <T> T writeWithVersionCheck(String id, Long expectedVersion, Supplier<T> write) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return write.get();
+            } catch (OptimisticLockingFailureException e) {
+                dealCache.evict(id);
+                if (expectedVersion != null || attempt >= MAX_WRITE_ATTEMPTS) {
+                    throw new VersionConflictException(loadDeal(id).getVersion());
+                }
+            }
+        }
+    }
+
+    // =========================
+    // BULK UPDATE (stage / assignee / value)
+    // =========================
+    public BulkDealUpdateResponse bulkUpdate(BulkDealUpdateRequest request, String userId) {
+        boolean byIds = request.getIds() != null && !request.getIds().isEmpty();
+        boolean byFilter = request.getFilter() != null && !request.getFilter().isEmpty();
+
+        if (byIds == byFilter) {
+            throw new BadRequestException("Provide either ids or a non-empty filter");
+        }
+        if (!request.hasChanges()) {
+            throw new BadRequestException("Nothing to update: set stage, assignedTo or dealValue");
+        }
+        if (request.getDealValue() != null && request.getDealValue() < 0) {
+            throw new BadRequestException("Deal value must be positive");
+        }
+        // One lookup per request: every target gets the same assignee
+        if (request.getAssignedTo() != null && !userRepository.existsByUsername(request.getAssignedTo())) {
+            throw new BadRequestException("Unknown user: " + request.getAssignedTo());
+        }
+
+        Set<String> requestedIds = byIds ? new LinkedHashSet<>(request.getIds()) : Set.of();
+        if (requestedIds.size() > maxBulkDeals) {
+            throw new BadRequestException("At most " + maxBulkDeals + " deals can be updated at once");
+        }
+
+        // Current state drives the event details ("from X to Y"), the same as the single-deal updates
+        Map<String, Deal> targets = dealRepository
+                .findBulkTargets(requestedIds, byIds ? null : request.getFilter(), maxBulkDeals + 1)
+                .stream()
+                .collect(Collectors.toMap(Deal::getId, Function.identity(), (a, b) -> a));
+        if (targets.size() > maxBulkDeals) {
+            throw new BadRequestException("Filter matches more than " + maxBulkDeals + " deals");
+        }
+
+        // Each target is written only if unchanged since the read above, so the facts read are
+        // exactly the ones the write replaced; the others are reported as conflicts
+        Instant now = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+        Set<String> updatedIds = dealRepository.bulkUpdate(
+                targets.values(), request.getStage(), request.getAssignedTo(), request.getDealValue(), now);
+        dealCache.evictAll(targets.keySet());
+        dealChangePublisher.bulkUpdated(
+                updatedIds.stream().map(targets::get).toList(), request, now);
+
+        BulkDealUpdateResponse response = new BulkDealUpdateResponse();
+        List<DealEvent> events = new ArrayList<>();
+
+        for (String id : byIds ? requestedIds : targets.keySet()) {
+            if (!targets.containsKey(id)) {
+                response.add(id, BulkDealUpdateResponse.Status.NOT_FOUND);
+                continue;
+            }
+            if (!updatedIds.contains(id)) {
+                response.add(id, BulkDealUpdateResponse.Status.CONFLICT);
+                continue;
+            }
+
+            response.add(id, BulkDealUpdateResponse.Status.UPDATED);
+            events.addAll(bulkEvents(targets.get(id), request, userId));
+        }
+
+        if (!events.isEmpty()) {
+            kafkaProducerService.sendDealEvents(events);
+        }
+
+        return response;
+    }
+
+    /* One event per changed field; their facts chain (stage first, then value) so the rollup deltas add up */
+    private List<DealEvent> bulkEvents(Deal before, BulkDealUpdateRequest request, String userId) {
+        List<DealEvent> events = new ArrayList<>(3);
+        DealFacts facts = DealFacts.of(before);
+
+        if (request.getStage() != null) {
+            DealFacts staged = new DealFacts(request.getStage(), facts.getSector(), facts.getDealType(), facts.getDealValue());
+            events.add(new DealEvent(
+                    UUID.randomUUID().toString(),
+                    DealEventType.STAGE_UPDATED,
+                    before.getId(),
+                    before.getClientName(),
+                    userId,
+                    "Stage changed from " + before.getCurrentStage() + " to " + request.getStage(),
+                    Instant.now()
+            ).withChange(facts, staged));
+            facts = staged;
+        }
+
+        if (request.getDealValue() != null) {
+            events.add(new DealEvent(
+                    UUID.randomUUID().toString(),
+                    DealEventType.VALUE_UPDATED,
+                    before.getId(),
+                    before.getClientName(),
+                    userId,
+                    "Deal value updated from " + before.getDealValue() + " to " + request.getDealValue(),
+                    Instant.now()
+            ).withChange(facts, new DealFacts(facts.getStage(), facts.getSector(), facts.getDealType(),
+                    request.getDealValue())));
+        }
+
+        if (request.getAssignedTo() != null) {
+            events.add(new DealEvent(
+                    UUID.randomUUID().toString(),
+                    DealEventType.DEAL_UPDATED,
+                    before.getId(),
+                    before.getClientName(),
+                    userId,
+                    "Deal reassigned from " + before.getAssignedTo() + " to " + request.getAssignedTo(),
+                    Instant.now()
+            ));
+        }
+
+        return events;
     }
 }
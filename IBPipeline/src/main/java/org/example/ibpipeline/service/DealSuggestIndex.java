@@ -0,0 +1,283 @@
+package org.example.ibpipeline.service;
+
+import org.example.ibpipeline.dto.DealCard;
+import org.example.ibpipeline.dto.SuggestField;
+import org.example.ibpipeline.dto.Suggestion;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+
+/*
+ * Typeahead for client names, sectors and deal types: one compressed prefix trie per field,
+ * keyed by the trimmed lower-cased value and weighted by how many hot deals use it. Every node
+ * keeps the top TOP_K values of its subtree, so a lookup is a walk down the prefix plus a copy
+ * of at most TOP_K entries, whatever the number of distinct values.
+ *
+ * Fed by DealBoardIndex as a DealCardListener: it already holds the current card of every hot
+ * deal and turns each callback into a (before, after) pair, so counts stay exact across
+ * out-of-order callbacks and the startup load. Writes are serialized and republish the child
+ * arrays and top lists of the nodes they touch; reads never lock.
+ */
+@Component
+public class DealSuggestIndex implements DealCardListener {
+
+    static final int TOP_K = 10;
+
+    private static final Comparator<Suggestion> BY_WEIGHT = Comparator
+            .comparingLong(Suggestion::getCount).reversed()
+            .thenComparing(Suggestion::getValue);
+
+    private final Map<SuggestField, Trie> tries = new EnumMap<>(SuggestField.class);
+
+    public DealSuggestIndex() {
+        for (SuggestField field : SuggestField.values()) {
+            tries.put(field, new Trie());
+        }
+    }
+
+    /* Most used values of the field starting with the prefix (case-insensitive), most used first */
+    public List<Suggestion> suggest(SuggestField field, String prefix, int limit) {
+        Suggestion[] top = tries.get(field).find(normalize(prefix == null ? "" : prefix));
+        int size = Math.max(1, Math.min(limit, TOP_K));
+        return List.of(top.length <= size ? top : Arrays.copyOf(top, size));
+    }
+
+    /* Moves the card's values from before to after */
+    @Override
+    public synchronized void cardChanged(DealCard before, DealCard after) {
+        for (SuggestField field : SuggestField.values()) {
+            String previous = before == null ? null : display(field.valueOf(before));
+            String current = after == null ? null : display(field.valueOf(after));
+            if (Objects.equals(previous, current)) {
+                continue;
+            }
+            Trie trie = tries.get(field);
+            if (previous != null) {
+                trie.add(previous, -1);
+            }
+            if (current != null) {
+                trie.add(current, 1);
+            }
+        }
+    }
+
+    private static String display(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        return value.trim();
+    }
+
+    private static String normalize(String value) {
+        return value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    // =========================
+    // TRIE
+    // =========================
+    private static final class Trie {
+
+        private final Node root = new Node("");
+
+        Suggestion[] find(String prefix) {
+            Node node = root;
+            int i = 0;
+            while (i < prefix.length()) {
+                Node child = node.child(prefix.charAt(i));
+                if (child == null) {
+                    return Node.NO_SUGGESTIONS;
+                }
+                String label = child.label;
+                int matched = commonLength(label, prefix, i);
+                if (matched == prefix.length() - i) {
+                    return child.top;
+                }
+                if (matched < label.length()) {
+                    return Node.NO_SUGGESTIONS;
+                }
+                node = child;
+                i += matched;
+            }
+            return node.top;
+        }
+
+        /* Caller holds the index lock */
+        void add(String value, long delta) {
+            String key = normalize(value);
+            List<Node> path = new ArrayList<>();
+            path.add(root);
+            Node node = root;
+            int i = 0;
+            while (i < key.length()) {
+                Node child = node.child(key.charAt(i));
+                if (child == null) {
+                    if (delta < 0) {
+                        return;
+                    }
+                    child = new Node(key.substring(i));
+                    node.putChild(child);
+                    path.add(child);
+                    node = child;
+                    break;
+                }
+                int matched = commonLength(child.label, key, i);
+                if (matched < child.label.length()) {
+                    if (delta < 0) {
+                        return;
+                    }
+                    child = split(node, child, matched);
+                }
+                path.add(child);
+                node = child;
+                i += matched;
+            }
+
+            long count = node.values.getOrDefault(value, 0L) + delta;
+            if (count > 0) {
+                node.values.put(value, count);
+            } else {
+                node.values.remove(value);
+            }
+
+            for (int depth = path.size() - 1; depth >= 0; depth--) {
+                Node current = path.get(depth);
+                if (depth > 0 && current.values.isEmpty() && current.children.nodes().length == 0) {
+                    path.get(depth - 1).removeChild(current.label.charAt(0));
+                } else {
+                    current.refreshTop();
+                }
+            }
+        }
+
+        /* Replaces child with a node for the first `at` chars of its label holding the rest */
+        private static Node split(Node parent, Node child, int at) {
+            Node head = new Node(child.label.substring(0, at));
+            Node tail = child.relabel(child.label.substring(at));
+            head.putChild(tail);
+            head.top = tail.top;
+            parent.putChild(head);
+            return head;
+        }
+
+        private static int commonLength(String label, String key, int from) {
+            int max = Math.min(label.length(), key.length() - from);
+            int n = 0;
+            while (n < max && label.charAt(n) == key.charAt(from + n)) {
+                n++;
+            }
+            return n;
+        }
+    }
+
+    private static final class Node {
+
+        static final Suggestion[] NO_SUGGESTIONS = new Suggestion[0];
+        private static final char[] NO_KEYS = new char[0];
+        private static final Node[] NO_CHILDREN = new Node[0];
+
+        final String label;
+        /* Children sorted by the first char of their label; replaced, never mutated, so readers see a consistent pair */
+        private volatile Children children = Children.EMPTY;
+        /* Exact spellings ending here and their counts; writer-only */
+        private final Map<String, Long> values = new HashMap<>(2);
+        volatile Suggestion[] top = NO_SUGGESTIONS;
+
+        Node(String label) {
+            this.label = label;
+        }
+
+        Node child(char first) {
+            Children current = children;
+            int index = Arrays.binarySearch(current.keys(), first);
+            return index < 0 ? null : current.nodes()[index];
+        }
+
+        void putChild(Node child) {
+            Children current = children;
+            char first = child.label.charAt(0);
+            int index = Arrays.binarySearch(current.keys(), first);
+            if (index >= 0) {
+                Node[] nodes = current.nodes().clone();
+                nodes[index] = child;
+                children = new Children(current.keys(), nodes);
+                return;
+            }
+            int at = -index - 1;
+            char[] keys = new char[current.keys().length + 1];
+            Node[] nodes = new Node[keys.length];
+            System.arraycopy(current.keys(), 0, keys, 0, at);
+            System.arraycopy(current.nodes(), 0, nodes, 0, at);
+            keys[at] = first;
+            nodes[at] = child;
+            System.arraycopy(current.keys(), at, keys, at + 1, current.keys().length - at);
+            System.arraycopy(current.nodes(), at, nodes, at + 1, current.nodes().length - at);
+            children = new Children(keys, nodes);
+        }
+
+        void removeChild(char first) {
+            Children current = children;
+            int index = Arrays.binarySearch(current.keys(), first);
+            if (index < 0) {
+                return;
+            }
+            char[] keys = new char[current.keys().length - 1];
+            Node[] nodes = new Node[keys.length];
+            System.arraycopy(current.keys(), 0, keys, 0, index);
+            System.arraycopy(current.nodes(), 0, nodes, 0, index);
+            System.arraycopy(current.keys(), index + 1, keys, index, keys.length - index);
+            System.arraycopy(current.nodes(), index + 1, nodes, index, nodes.length - index);
+            children = keys.length == 0 ? Children.EMPTY : new Children(keys, nodes);
+        }
+
+        /* Copy under a shorter label; the old node stays valid for readers already holding it */
+        Node relabel(String newLabel) {
+            Node copy = new Node(newLabel);
+            copy.children = children;
+            copy.values.putAll(values);
+            copy.top = top;
+            return copy;
+        }
+
+        /* Merges the spellings ending here with the children's sorted top lists, stopping early per child */
+        void refreshTop() {
+            PriorityQueue<Suggestion> best = new PriorityQueue<>(TOP_K + 1, BY_WEIGHT.reversed());
+            values.forEach((value, count) -> offer(best, new Suggestion(value, count)));
+            for (Node child : children.nodes()) {
+                for (Suggestion suggestion : child.top) {
+                    if (!offer(best, suggestion)) {
+                        break;
+                    }
+                }
+            }
+            Suggestion[] sorted = best.toArray(NO_SUGGESTIONS);
+            Arrays.sort(sorted, BY_WEIGHT);
+            top = sorted;
+        }
+
+        private static boolean offer(PriorityQueue<Suggestion> best, Suggestion suggestion) {
+            if (best.size() < TOP_K) {
+                best.add(suggestion);
+                return true;
+            }
+            if (BY_WEIGHT.compare(suggestion, best.peek()) >= 0) {
+                return false;
+            }
+            best.poll();
+            best.add(suggestion);
+            return true;
+        }
+
+        private record Children(char[] keys, Node[] nodes) {
+            static final Children EMPTY = new Children(NO_KEYS, NO_CHILDREN);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package org.example.ibpipeline.service;
+
+import org.example.ibpipeline.dto.DictionaryField;
+import org.example.ibpipeline.dto.DictionaryMigrationReport;
+import org.example.ibpipeline.model.DictionaryEntry;
+import org.example.ibpipeline.repository.DealRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+
+/*
+ * Rewrites sector and dealType values stored as strings (deals written before the
+ * dictionaries existed, or by an older instance during a rolling deploy) as dictionary codes.
+ *
+ * Each distinct string is added to its dictionary if needed, then replaced with one
+ * updateMany per collection, so the cost is one round trip per distinct value rather than
+ * per deal. Values differing only in case share the same code. Reads handle both forms, so
+ * the migration can run while the service is live, and running it again only touches the
+ * strings written since.
+ */
+@Service
+public class DictionaryMigration {
+
+    private static final Logger logger = LoggerFactory.getLogger(DictionaryMigration.class);
+
+    private static final String MIGRATION_USER = "dictionary-migration";
+
+    private final DealRepository dealRepository;
+    private final DealDictionary dictionary;
+
+    @Value("${app.dictionaries.migrate-on-startup:true}")
+    private boolean migrateOnStartup = true;
+
+    public DictionaryMigration(DealRepository dealRepository, DealDictionary dictionary) {
+        this.dealRepository = dealRepository;
+        this.dictionary = dictionary;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrateOnStartup() {
+        if (migrateOnStartup) {
+            try {
+                migrate();
+            } catch (RuntimeException e) {
+                // reads still decode the string values; an admin can rerun it
+                logger.error("Dictionary migration failed", e);
+            }
+        }
+    }
+
+    public synchronized DictionaryMigrationReport migrate() {
+        long start = System.nanoTime();
+        int encoded = 0;
+        int added = 0;
+        long updated = 0;
+
+        for (DictionaryField field : DictionaryField.values()) {
+            for (String value : dealRepository.findUncodedValues(field.getParamName())) {
+                if (value.isBlank()) {
+                    continue;
+                }
+                if (dictionary.lookup(field, value) == null) {
+                    added++;
+                }
+                DictionaryEntry entry = dictionary.add(field, value, MIGRATION_USER);
+                updated += dealRepository.encodeValue(field.getParamName(), value, entry.getCode());
+                encoded++;
+            }
+        }
+
+        long durationMs = (System.nanoTime() - start) / 1_000_000;
+        if (encoded > 0) {
+            logger.info("Dictionary migration encoded {} values ({} new) in {} deal fields in {} ms",
+                    encoded, added, updated, durationMs);
+        }
+        return new DictionaryMigrationReport(Instant.now(), durationMs, encoded, added, updated);
+    }
+}
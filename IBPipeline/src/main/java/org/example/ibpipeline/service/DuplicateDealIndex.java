@@ -0,0 +1,435 @@
+package org.example.ibpipeline.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.example.ibpipeline.dto.DealCard;
+import org.example.ibpipeline.dto.DuplicateCandidate;
+import org.example.ibpipeline.dto.DuplicateGroup;
+import org.example.ibpipeline.dto.DuplicateScanReport;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/*
+ * Near-duplicate client detection. Client names are normalized (case, accents, punctuation and
+ * legal suffixes such as "Inc" or "Ltd" dropped) and broken into character trigrams; an
+ * inverted index maps each (sector, trigram) to the distinct client names holding it. A
+ * lookup walks only the posting lists of the query's rarest trigrams (see similar) and scores
+ * the names found there exactly by trigram Jaccard similarity, so common words such as
+ * "Capital" or "Holdings" never cost a pass over every client using them.
+ *
+ * Fed with hot deal cards by DealBoardIndex. Everything is guarded by the index lock; a lookup
+ * costs microseconds, and the nightly scan takes the lock once per client rather than for the
+ * whole pass, so board writes and creates never wait behind it.
+ */
+@Component
+public class DuplicateDealIndex implements DealCardListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(DuplicateDealIndex.class);
+
+    static final int MAX_CANDIDATES = 5;
+
+    private static final Set<String> LEGAL_SUFFIXES = Set.of("the", "inc", "incorporated", "corp", "corporation",
+            "co", "company", "ltd", "limited", "llc", "llp", "lp", "plc", "sa", "ag", "gmbh", "nv", "bv");
+
+    /* (sector + '\0' + normalized name) -> client */
+    private final Map<String, Client> clients = new HashMap<>();
+    /* Clients by slot, the int stored in postings; freed slots are reused */
+    private final List<Client> slots = new ArrayList<>();
+    private final ArrayDeque<Integer> freeSlots = new ArrayDeque<>();
+    private final Map<String, Integer> sectorIds = new HashMap<>();
+    /* (sector id, trigram) -> slots of the clients containing it */
+    private final Map<Long, Posting> postings = new HashMap<>();
+
+    /* Per slot: trigram count of the client, and lookup scratch (lookup stamp << 32 | shared trigrams) */
+    private int[] gramCounts = new int[1024];
+    private long[] scratch = new long[1024];
+    private int scratchStamp;
+
+    private final AtomicInteger lastGroupCount = new AtomicInteger();
+    private volatile DuplicateScanReport lastScan;
+
+    /* Minimum trigram Jaccard similarity for two client names to count as duplicates */
+    @Value("${app.duplicates.threshold:0.6}")
+    private double threshold = 0.6;
+
+    @Value("${app.duplicates.max-groups:1000}")
+    private int maxGroups = 1000;
+
+    @Value("${app.duplicates.scan-enabled:true}")
+    private boolean scanEnabled = true;
+
+    public DuplicateDealIndex(MeterRegistry meterRegistry) {
+        Gauge.builder("deals.duplicates.groups", lastGroupCount, AtomicInteger::get)
+                .description("Duplicate client groups found by the last scan")
+                .register(meterRegistry);
+    }
+
+    // =========================
+    // DealCardListener
+    // =========================
+    @Override
+    public synchronized void cardChanged(DealCard before, DealCard after) {
+        if (before != null) {
+            remove(before);
+        }
+        if (after != null) {
+            add(after);
+        }
+    }
+
+    private void add(DealCard card) {
+        String name = normalize(card.getClientName());
+        String sector = normalizeSector(card.getSector());
+        if (name.isEmpty() || sector.isEmpty()) {
+            return;
+        }
+        Client client = clients.get(sector + '\0' + name);
+        if (client == null) {
+            int sectorId = sectorIds.computeIfAbsent(sector, key -> sectorIds.size());
+            Integer free = freeSlots.poll();
+            int slot = free != null ? free : slots.size();
+            client = new Client(slot, sector + '\0' + name, card.getSector().trim(), grams(name, sectorId));
+            if (free != null) {
+                slots.set(slot, client);
+            } else {
+                slots.add(client);
+                if (slot == gramCounts.length) {
+                    gramCounts = Arrays.copyOf(gramCounts, slot * 2);
+                    scratch = Arrays.copyOf(scratch, slot * 2);
+                }
+            }
+            gramCounts[slot] = client.grams.length;
+            clients.put(client.key, client);
+            for (long gram : client.grams) {
+                postings.computeIfAbsent(gram, key -> new Posting()).add(slot);
+            }
+        }
+        client.deals.put(card.getId(), card.getClientName().trim());
+    }
+
+    private void remove(DealCard card) {
+        Client client = clients.get(normalizeSector(card.getSector()) + '\0' + normalize(card.getClientName()));
+        if (client == null || client.deals.remove(card.getId()) == null || !client.deals.isEmpty()) {
+            return;
+        }
+        clients.remove(client.key);
+        for (long gram : client.grams) {
+            Posting posting = postings.get(gram);
+            posting.remove(client.slot);
+            if (posting.size == 0) {
+                postings.remove(gram);
+            }
+        }
+        slots.set(client.slot, null);
+        freeSlots.add(client.slot);
+    }
+
+    // =========================
+    // LOOKUP
+    // =========================
+
+    /* Hot deals of the same sector whose client name looks like this one, best match first */
+    public synchronized List<DuplicateCandidate> findSimilar(String clientName, String sector, String excludeDealId) {
+        String name = normalize(clientName);
+        Integer sectorId = sectorIds.get(normalizeSector(sector));
+        if (name.isEmpty() || sectorId == null) {
+            return List.of();
+        }
+
+        List<Match> matches = similar(grams(name, sectorId), null);
+        matches.sort(Comparator.comparingDouble(Match::score).reversed()
+                .thenComparing(match -> match.client.key));
+        List<DuplicateCandidate> result = new ArrayList<>(MAX_CANDIDATES);
+        for (Match match : matches) {
+            for (Map.Entry<String, String> deal : match.client.deals.entrySet()) {
+                if (result.size() == MAX_CANDIDATES) {
+                    return result;
+                }
+                if (!deal.getKey().equals(excludeDealId)) {
+                    result.add(new DuplicateCandidate(deal.getKey(), deal.getValue(), match.client.sector,
+                            round(match.score)));
+                }
+            }
+        }
+        return result;
+    }
+
+    /*
+     * Prefix filter: a client reaching the threshold shares at least `needed` of the query's
+     * trigrams, so it must share one of the (length - needed + 1) rarest. Only those posting
+     * lists introduce candidates; the longer lists just add to the shared-trigram counts of
+     * candidates already found, which makes the Jaccard score exact without touching the
+     * clients themselves. Trigrams no client has are the rarest of all, which is why a name
+     * unlike any other returns almost at once.
+     */
+    private List<Match> similar(long[] grams, Client self) {
+        int needed = Math.max(1, (int) Math.ceil(threshold * grams.length - 1e-9));
+        Posting[] lists = new Posting[grams.length];
+        int present = 0;
+        for (long gram : grams) {
+            Posting posting = postings.get(gram);
+            if (posting != null) {
+                lists[present++] = posting;
+            }
+        }
+        int introducing = (grams.length - needed + 1) - (grams.length - present);
+        if (introducing <= 0) {
+            return new ArrayList<>();
+        }
+        Arrays.sort(lists, 0, present, Comparator.comparingInt(posting -> posting.size));
+
+        int stamp = ++scratchStamp;
+        Posting candidates = new Posting();
+        for (int i = 0; i < present; i++) {
+            Posting posting = lists[i];
+            boolean introduces = i < introducing;
+            for (int j = 0; j < posting.size; j++) {
+                int slot = posting.slots[j];
+                long entry = scratch[slot];
+                if ((int) (entry >>> 32) != stamp) {
+                    if (!introduces) {
+                        continue;
+                    }
+                    candidates.add(slot);
+                    entry = (long) stamp << 32;
+                }
+                scratch[slot] = entry + 1;
+            }
+        }
+
+        List<Match> matches = new ArrayList<>();
+        for (int i = 0; i < candidates.size; i++) {
+            int slot = candidates.slots[i];
+            int overlap = (int) scratch[slot];
+            double score = (double) overlap / (grams.length + gramCounts[slot] - overlap);
+            if (score >= threshold && slots.get(slot) != self) {
+                matches.add(new Match(slots.get(slot), score));
+            }
+        }
+        return matches;
+    }
+
+    // =========================
+    // SCAN (whole collection)
+    // =========================
+    @Scheduled(cron = "${app.duplicates.scan-cron:0 30 1 * * *}", zone = "UTC")
+    public void scheduledScan() {
+        if (scanEnabled) {
+            scan();
+        }
+    }
+
+    /*
+     * Groups every hot deal with its likely duplicates: clients linked by a match above the
+     * threshold end up in one group, and a client used by several deals is a group on its own.
+     */
+    public DuplicateScanReport scan() {
+        long started = System.nanoTime();
+        List<Client> snapshot;
+        synchronized (this) {
+            snapshot = new ArrayList<>(clients.values());
+        }
+
+        Map<String, String> parents = new HashMap<>();
+        Map<String, Map<String, String>> dealsByClient = new HashMap<>();
+        Map<String, String> sectorByClient = new HashMap<>();
+        Map<String, Double> bestScore = new HashMap<>();
+        List<Match> links = new ArrayList<>();
+        for (Client client : snapshot) {
+            List<Match> matches;
+            synchronized (this) {
+                if (clients.get(client.key) != client) {
+                    continue;
+                }
+                matches = similar(client.grams, client);
+                dealsByClient.put(client.key, new LinkedHashMap<>(client.deals));
+                for (Match match : matches) {
+                    dealsByClient.putIfAbsent(match.client.key, new LinkedHashMap<>(match.client.deals));
+                }
+            }
+            sectorByClient.put(client.key, client.sector);
+            if (dealsByClient.get(client.key).size() > 1) {
+                bestScore.put(client.key, 1.0);
+            }
+            for (Match match : matches) {
+                sectorByClient.putIfAbsent(match.client.key, match.client.sector);
+                bestScore.merge(client.key, match.score, Math::max);
+                bestScore.merge(match.client.key, match.score, Math::max);
+                union(parents, client.key, match.client.key);
+                links.add(new Match(client, match.score));
+            }
+        }
+
+        Map<String, List<String>> members = new HashMap<>();
+        for (String key : bestScore.keySet()) {
+            members.computeIfAbsent(find(parents, key), root -> new ArrayList<>()).add(key);
+        }
+        Map<String, Double> weakestLink = new HashMap<>();
+        for (Match link : links) {
+            weakestLink.merge(find(parents, link.client.key), link.score, Math::min);
+        }
+
+        List<DuplicateGroup> groups = new ArrayList<>();
+        members.forEach((root, keys) -> {
+            List<DuplicateCandidate> deals = new ArrayList<>();
+            for (String key : keys) {
+                double score = round(bestScore.get(key));
+                dealsByClient.get(key).forEach((dealId, display) ->
+                        deals.add(new DuplicateCandidate(dealId, display, sectorByClient.get(key), score)));
+            }
+            if (deals.size() > 1) {
+                deals.sort(Comparator.comparing(DuplicateCandidate::getClientName)
+                        .thenComparing(DuplicateCandidate::getDealId));
+                groups.add(new DuplicateGroup(sectorByClient.get(root), round(weakestLink.getOrDefault(root, 1.0)),
+                        deals));
+            }
+        });
+        groups.sort(Comparator.comparingInt((DuplicateGroup group) -> group.getDeals().size()).reversed()
+                .thenComparing(group -> group.getDeals().get(0).getClientName()));
+
+        boolean truncated = groups.size() > maxGroups;
+        DuplicateScanReport report = new DuplicateScanReport(Instant.now(), (System.nanoTime() - started) / 1_000_000,
+                snapshot.size(), truncated ? List.copyOf(groups.subList(0, maxGroups)) : groups, truncated);
+        lastScan = report;
+        lastGroupCount.set(groups.size());
+        logger.info("Duplicate scan: {} groups among {} clients in {} ms",
+                groups.size(), snapshot.size(), report.getDurationMs());
+        return report;
+    }
+
+    /* Result of the last scan on this instance, or null before the first one */
+    public DuplicateScanReport lastScan() {
+        return lastScan;
+    }
+
+    private static void union(Map<String, String> parents, String a, String b) {
+        String rootA = find(parents, a);
+        String rootB = find(parents, b);
+        if (!rootA.equals(rootB)) {
+            parents.put(rootB, rootA);
+        }
+    }
+
+    private static String find(Map<String, String> parents, String key) {
+        String root = key;
+        for (String parent; (parent = parents.get(root)) != null; ) {
+            root = parent;
+        }
+        // path compression
+        for (String node = key, parent; (parent = parents.get(node)) != null && !parent.equals(root); node = parent) {
+            parents.put(node, root);
+        }
+        return root;
+    }
+
+    // =========================
+    // NORMALIZATION / TRIGRAMS
+    // =========================
+    static String normalize(String clientName) {
+        if (clientName == null) {
+            return "";
+        }
+        String folded = Normalizer.normalize(clientName, Normalizer.Form.NFKD)
+                .replaceAll("\\p{M}+", "")
+                .toLowerCase(Locale.ROOT)
+                .replace("&", " and ")
+                .replaceAll("[.'\\u2019]", "");  // "S.A." -> "sa", "O'Neil" -> "oneil"
+        String[] tokens = folded.split("[^\\p{L}\\p{N}]+");
+        List<String> kept = new ArrayList<>(tokens.length);
+        for (String token : tokens) {
+            if (!token.isEmpty() && !LEGAL_SUFFIXES.contains(token)) {
+                kept.add(token);
+            }
+        }
+        // a name made only of suffix words ("The Company") is kept as is
+        if (kept.isEmpty()) {
+            return String.join(" ", Arrays.stream(tokens).filter(token -> !token.isEmpty()).toList());
+        }
+        return String.join(" ", kept);
+    }
+
+    private static String normalizeSector(String sector) {
+        return sector == null ? "" : sector.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /*
+     * Distinct trigrams of " name ", each packed with the sector id into a long. The packed value
+     * is multiplied by an odd constant (a bijection, so keys stay unique) because Long.hashCode
+     * folds the sector and character fields onto each other and would crowd the posting map.
+     */
+    private static long[] grams(String name, int sectorId) {
+        String padded = " " + name + " ";
+        long[] grams = new long[padded.length() - 2];
+        for (int i = 0; i < grams.length; i++) {
+            long packed = ((long) sectorId << 48)
+                    | ((long) padded.charAt(i) << 32)
+                    | ((long) padded.charAt(i + 1) << 16)
+                    | padded.charAt(i + 2);
+            grams[i] = packed * 0x9E3779B97F4A7C15L;
+        }
+        return Arrays.stream(grams).sorted().distinct().toArray();
+    }
+
+    private static double round(double score) {
+        return Math.round(score * 1000) / 1000.0;
+    }
+
+    private static final class Client {
+
+        final int slot;
+        final String key;
+        final String sector;
+        final long[] grams;
+        /* deal id -> client name as entered on that deal */
+        final Map<String, String> deals = new LinkedHashMap<>(2);
+
+        Client(int slot, String key, String sector, long[] grams) {
+            this.slot = slot;
+            this.key = key;
+            this.sector = sector;
+            this.grams = grams;
+        }
+    }
+
+    private record Match(Client client, double score) {
+    }
+
+    private static final class Posting {
+
+        int[] slots = new int[4];
+        int size;
+
+        void add(int slot) {
+            if (size == slots.length) {
+                slots = Arrays.copyOf(slots, size * 2);
+            }
+            slots[size++] = slot;
+        }
+
+        void remove(int slot) {
+            for (int i = 0; i < size; i++) {
+                if (slots[i] == slot) {
+                    slots[i] = slots[--size];
+                    return;
+                }
+            }
+        }
+    }
+}
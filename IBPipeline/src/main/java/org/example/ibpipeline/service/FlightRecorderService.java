@@ -0,0 +1,173 @@
+package org.example.ibpipeline.service;
+
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import org.example.ibpipeline.dto.JfrRecordingStatus;
+import org.example.ibpipeline.exception.BadRequestException;
+import org.example.ibpipeline.exception.ResourceNotFoundException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+
+/*
+ * One on-demand Java Flight Recorder recording at a time, started and stopped over HTTP so a
+ * running instance can be profiled without a restart. Every recording has a hard duration and
+ * size cap so a forgotten one cannot fill the disk. The recording picks up the application's
+ * own events (org.example.ibpipeline.*) next to the JDK's GC, allocation and lock events.
+ */
+@Service
+public class FlightRecorderService {
+
+    private static final Logger logger = LoggerFactory.getLogger(FlightRecorderService.class);
+
+    private static final DateTimeFormatter FILE_TIMESTAMP =
+            DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss").withZone(ZoneOffset.UTC);
+
+    private final Path directory;
+    private final Duration maxDuration;
+    private final DataSize maxSize;
+
+    private Recording recording;
+    private String settings;
+    private Path stoppedFile;
+
+    public FlightRecorderService(@Value("${app.jfr.directory:${java.io.tmpdir}}") Path directory,
+                                 @Value("${app.jfr.max-duration:PT30M}") Duration maxDuration,
+                                 @Value("${app.jfr.max-size:256MB}") DataSize maxSize) {
+        this.directory = directory;
+        this.maxDuration = maxDuration;
+        this.maxSize = maxSize;
+    }
+
+    /* "default" is the low-overhead continuous profile; "profile" samples more and costs a few percent */
+    public synchronized JfrRecordingStatus start(String settingsName, Duration duration) {
+        if (recording != null && recording.getState() == RecordingState.RUNNING) {
+            throw new BadRequestException("A recording is already running; stop it first");
+        }
+
+        Configuration configuration;
+        try {
+            configuration = Configuration.getConfiguration(settingsName);
+        } catch (IOException | ParseException e) {
+            throw new BadRequestException("Unknown JFR settings: " + settingsName);
+        }
+
+        Duration effective = duration == null || duration.isNegative() || duration.isZero()
+                || duration.compareTo(maxDuration) > 0 ? maxDuration : duration;
+
+        discard();
+        Recording started = new Recording(configuration);
+        started.setName("ibpipeline-" + FILE_TIMESTAMP.format(Instant.now()));
+        started.setDuration(effective);
+        started.setMaxSize(maxSize.toBytes());
+        started.setToDisk(true);
+        started.start();
+
+        recording = started;
+        settings = settingsName;
+        logger.warn("JFR recording {} started with '{}' settings for at most {}", started.getName(), settingsName, effective);
+        return status();
+    }
+
+    /* Stops the recording and keeps its file for download until the next start */
+    public synchronized JfrRecordingStatus stop() {
+        Recording current = requireRecording();
+        if (current.getState() == RecordingState.RUNNING) {
+            current.stop();
+        }
+        if (stoppedFile == null) {
+            stoppedFile = dump(current);
+        }
+        logger.warn("JFR recording {} stopped, {} bytes", current.getName(), sizeOf(stoppedFile));
+        return status();
+    }
+
+    public synchronized JfrRecordingStatus status() {
+        Recording current = requireRecording();
+        return new JfrRecordingStatus(
+                current.getId(),
+                current.getName(),
+                current.getState().name(),
+                settings,
+                current.getStartTime(),
+                current.getStopTime(),
+                current.getDuration() == null ? 0 : current.getDuration().toSeconds(),
+                stoppedFile != null ? sizeOf(stoppedFile) : current.getSize());
+    }
+
+    /*
+     * File to download: the stopped recording, or a snapshot of the running one (which keeps
+     * running). Snapshots are written next to the recording and replaced on the next call.
+     */
+    public synchronized Path file() {
+        Recording current = requireRecording();
+        if (current.getState() == RecordingState.RUNNING) {
+            return dump(current);
+        }
+        if (stoppedFile == null) {
+            // stopped on its own when the duration elapsed
+            stoppedFile = dump(current);
+        }
+        return stoppedFile;
+    }
+
+    @PreDestroy
+    public synchronized void shutdown() {
+        discard();
+    }
+
+    private Recording requireRecording() {
+        if (recording == null) {
+            throw new ResourceNotFoundException("No JFR recording has been started");
+        }
+        return recording;
+    }
+
+    private Path dump(Recording current) {
+        Path file = directory.resolve(current.getName() + ".jfr");
+        try {
+            Files.createDirectories(directory);
+            current.dump(file);
+            return file;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write JFR recording to " + file, e);
+        }
+    }
+
+    private void discard() {
+        if (recording == null) {
+            return;
+        }
+        Path file = directory.resolve(recording.getName() + ".jfr");
+        recording.close();
+        recording = null;
+        stoppedFile = null;
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            logger.debug("Could not delete old JFR file {}: {}", file, e.getMessage());
+        }
+    }
+
+    private static long sizeOf(Path file) {
+        try {
+            return Files.size(file);
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+}
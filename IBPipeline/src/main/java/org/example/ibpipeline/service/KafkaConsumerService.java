@@ -1,7 +1,10 @@
 package org.example.ibpipeline.service;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.example.ibpipeline.config.KafkaTopicConfig;
 import org.example.ibpipeline.event.DealEvent;
+import org.example.ibpipeline.event.jfr.DealEventConsumedEvent;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.kafka.annotation.KafkaListener;
@@ -10,11 +13,25 @@ import org.springframework.messaging.handler.annotation.Header;
 import org.springframework.messaging.handler.annotation.Payload;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
+import java.time.Instant;
+
 @Service
 public class KafkaConsumerService {
 
     private static final Logger logger = LoggerFactory.getLogger(KafkaConsumerService.class);
 
+    private final MeterRegistry meterRegistry;
+    private final PipelineRollupService pipelineRollupService;
+    private final NotificationService notificationService;
+
+    public KafkaConsumerService(MeterRegistry meterRegistry, PipelineRollupService pipelineRollupService,
+                                NotificationService notificationService) {
+        this.meterRegistry = meterRegistry;
+        this.pipelineRollupService = pipelineRollupService;
+        this.notificationService = notificationService;
+    }
+
     @KafkaListener(
             topics = KafkaTopicConfig.DEAL_EVENTS_TOPIC,
             groupId = "deal-event-consumer-group",
@@ -24,7 +41,37 @@ public class KafkaConsumerService {
             @Payload DealEvent event,
             @Header(KafkaHeaders.RECEIVED_PARTITION) int partition,
             @Header(KafkaHeaders.OFFSET) long offset) {
-        
+
+        if (event.getTimestamp() != null) {
+            Timer.builder("deal.events.age")
+                    .description("Time from the event timestamp until the consumer picked it up")
+                    .tag("eventType", String.valueOf(event.getEventType()))
+                    .publishPercentileHistogram()
+                    .register(meterRegistry)
+                    .record(Duration.between(event.getTimestamp(), Instant.now()));
+        }
+
+        DealEventConsumedEvent jfr = new DealEventConsumedEvent();
+        jfr.begin();
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            handle(event, partition, offset);
+        } finally {
+            jfr.batchSize = 1;
+            jfr.eventType = String.valueOf(event.getEventType());
+            jfr.partition = partition;
+            jfr.offset = offset;
+            jfr.commit();
+
+            sample.stop(Timer.builder("kafka.consume")
+                    .description("Time spent processing one consumed deal event")
+                    .tag("eventType", String.valueOf(event.getEventType()))
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+        }
+    }
+
+    private void handle(DealEvent event, int partition, long offset) {
         logger.info("==============================================");
         logger.info("📨 Consumed Deal Event from Kafka");
         logger.info("Event Type: {}", event.getEventType());
@@ -36,7 +83,10 @@ public class KafkaConsumerService {
         logger.info("Partition: {} | Offset: {}", partition, offset);
         logger.info("==============================================");
 
+        pipelineRollupService.record(event);
+        notificationService.accept(event);
+
         // Add your business logic here
-        // For example: send notifications, update analytics, trigger workflows, etc.
+        // For example: trigger workflows, etc.
     }
 }
@@ -1,5 +1,8 @@
 package org.example.ibpipeline.service;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.example.ibpipeline.config.AsyncConfig;
 import org.example.ibpipeline.config.KafkaTopicConfig;
 import org.example.ibpipeline.event.DealEvent;
 import org.slf4j.Logger;
@@ -9,6 +12,7 @@ import org.springframework.kafka.support.SendResult;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
 
 @Service
@@ -17,28 +21,24 @@ public class KafkaProducerService {
     private static final Logger logger = LoggerFactory.getLogger(KafkaProducerService.class);
 
     private final KafkaTemplate<String, DealEvent> kafkaTemplate;
+    private final MeterRegistry meterRegistry;
 
-    public KafkaProducerService(KafkaTemplate<String, DealEvent> kafkaTemplate) {
+    public KafkaProducerService(KafkaTemplate<String, DealEvent> kafkaTemplate, MeterRegistry meterRegistry) {
         this.kafkaTemplate = kafkaTemplate;
+        this.meterRegistry = meterRegistry;
     }
 
-    @Async
+    @Async(AsyncConfig.DEAL_EVENT_EXECUTOR)
     public void sendDealEvent(DealEvent event) {
         try {
             logger.info("Publishing deal event: {} for deal: {}", event.getEventType(), event.getDealId());
-            
-            CompletableFuture<SendResult<String, DealEvent>> future = 
-                kafkaTemplate.send(KafkaTopicConfig.DEAL_EVENTS_TOPIC, event.getDealId(), event);
 
-            future.whenComplete((result, ex) -> {
+            send(event).whenComplete((result, ex) -> {
                 if (ex == null) {
                     logger.info("Successfully published event: {} to partition: {} with offset: {}",
                             event.getEventType(),
                             result.getRecordMetadata().partition(),
                             result.getRecordMetadata().offset());
-                } else {
-                    logger.error("Failed to publish event: {} for deal: {}. Error: {}", 
-                            event.getEventType(), event.getDealId(), ex.getMessage());
                 }
             });
         } catch (Exception e) {
@@ -46,4 +46,43 @@ public class KafkaProducerService {
                     event.getEventType(), event.getDealId(), e.getMessage());
         }
     }
+
+    /* Publishes a batch of events as one executor task; the producer batches the records on the wire */
+    @Async(AsyncConfig.DEAL_EVENT_EXECUTOR)
+    public void sendDealEvents(List<DealEvent> events) {
+        logger.info("Publishing batch of {} deal events", events.size());
+
+        for (DealEvent event : events) {
+            try {
+                send(event);
+            } catch (Exception e) {
+                logger.error("Exception while publishing Kafka event: {} for deal: {}. Error: {}",
+                        event.getEventType(), event.getDealId(), e.getMessage());
+            }
+        }
+    }
+
+    /* Send-to-ack latency is recorded as kafka.publish{eventType, outcome}; failures also count kafka.publish.failures */
+    private CompletableFuture<SendResult<String, DealEvent>> send(DealEvent event) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        CompletableFuture<SendResult<String, DealEvent>> future =
+                kafkaTemplate.send(KafkaTopicConfig.DEAL_EVENTS_TOPIC, event.getDealId(), event);
+
+        future.whenComplete((result, ex) -> {
+            String eventType = String.valueOf(event.getEventType());
+            sample.stop(Timer.builder("kafka.publish")
+                    .description("Time from send until the broker acknowledged the record")
+                    .tag("eventType", eventType)
+                    .tag("outcome", ex == null ? "success" : "failure")
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+
+            if (ex != null) {
+                meterRegistry.counter("kafka.publish.failures", "eventType", eventType).increment();
+                logger.error("Failed to publish event: {} for deal: {}. Error: {}", 
+                        event.getEventType(), event.getDealId(), ex.getMessage());
+            }
+        });
+        return future;
+    }
 }
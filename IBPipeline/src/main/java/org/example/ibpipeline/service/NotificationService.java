@@ -0,0 +1,309 @@
+package org.example.ibpipeline.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.example.ibpipeline.dto.NotificationPage;
+import org.example.ibpipeline.event.DealEvent;
+import org.example.ibpipeline.model.Deal;
+import org.example.ibpipeline.model.Notification;
+import org.example.ibpipeline.repository.DealRepository;
+import org.example.ibpipeline.repository.NotificationRepository;
+import org.example.ibpipeline.util.KeysetCursor;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/*
+ * Per-user inboxes fed by the deal-events consumer.
+ *
+ * Consumed events are only queued. Every window (app.notifications.window) the queue is
+ * drained, the creator, assignee and watchers of all the deals involved are loaded with one
+ * query, and each (user, deal) pair gets a single entry folding every event of the window,
+ * written with one insertMany. A burst of edits on a deal therefore costs one entry per
+ * recipient, and the write rate is bounded by users x deals touched per window rather than
+ * events x recipients. Users are not notified of their own changes.
+ *
+ * Unread counts are served from a bounded per-instance cache, loaded from Mongo on first
+ * request and kept current by this instance's flushes and mark-read calls. Entries written
+ * by another instance's consumer show up once the cached count expires.
+ */
+@Service
+public class NotificationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(NotificationService.class);
+
+    static final int MAX_PAGE_SIZE = 100;
+
+    private final NotificationRepository notificationRepository;
+    private final DealRepository dealRepository;
+    private final Counter eventsCounter;
+    private final Counter writtenCounter;
+    private final Counter droppedCounter;
+
+    private final ConcurrentLinkedQueue<DealEvent> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pendingCount = new AtomicInteger();
+    private final Object flushLock = new Object();
+    private final LinkedHashMap<String, Unread> unread;
+
+    /* Queued events that force a flush before the window ends */
+    @Value("${app.notifications.max-pending:10000}")
+    private int maxPending = 10_000;
+
+    @Value("${app.notifications.unread-cache.max-size:50000}")
+    private int unreadCacheSize = 50_000;
+
+    @Value("${app.notifications.unread-cache.ttl:PT5M}")
+    private Duration unreadTtl = Duration.ofMinutes(5);
+
+    public NotificationService(NotificationRepository notificationRepository,
+                               DealRepository dealRepository,
+                               MeterRegistry meterRegistry) {
+        this.notificationRepository = notificationRepository;
+        this.dealRepository = dealRepository;
+        this.eventsCounter = Counter.builder("notifications.events")
+                .description("Deal events queued for notification")
+                .register(meterRegistry);
+        this.writtenCounter = Counter.builder("notifications.written")
+                .description("Inbox entries written")
+                .register(meterRegistry);
+        this.droppedCounter = Counter.builder("notifications.dropped")
+                .description("Deal events lost because their flush failed")
+                .register(meterRegistry);
+        this.unread = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Unread> eldest) {
+                return size() > unreadCacheSize;
+            }
+        };
+    }
+
+    // =========================
+    // INGEST
+    // =========================
+    public void accept(DealEvent event) {
+        if (event.getDealId() == null) {
+            return;
+        }
+        pending.add(event);
+        eventsCounter.increment();
+        if (pendingCount.incrementAndGet() >= maxPending) {
+            flush();
+        }
+    }
+
+    /* Writes the queued events; returns the number of inbox entries written */
+    @Scheduled(initialDelayString = "${app.notifications.window:PT5S}", fixedDelayString = "${app.notifications.window:PT5S}")
+    public int flush() {
+        synchronized (flushLock) {
+            List<DealEvent> events = new ArrayList<>();
+            for (DealEvent event; (event = pending.poll()) != null; ) {
+                events.add(event);
+            }
+            pendingCount.addAndGet(-events.size());
+            if (events.isEmpty()) {
+                return 0;
+            }
+
+            try {
+                List<Notification> notifications = coalesce(events, Instant.now());
+                notificationRepository.insertAll(notifications);
+                writtenCounter.increment(notifications.size());
+                for (Notification notification : notifications) {
+                    adjustUnread(notification.getUserId(), 1);
+                }
+                return notifications.size();
+            } catch (RuntimeException e) {
+                // the events were already acknowledged to Kafka; an inbox gap beats blocking the consumer
+                droppedCounter.increment(events.size());
+                logger.error("Dropped {} deal events: notification flush failed", events.size(), e);
+                return 0;
+            }
+        }
+    }
+
+    /*
+     * The queued events were already acknowledged to Kafka, so they are written before the
+     * instance goes away. Listener containers stop before singletons are destroyed, so
+     * nothing is queued behind this flush.
+     */
+    @PreDestroy
+    public void shutdown() {
+        if (pendingCount.get() > 0) {
+            logger.info("Writing {} queued deal events to inboxes before shutdown", pendingCount.get());
+            flush();
+        }
+    }
+
+    private List<Notification> coalesce(List<DealEvent> events, Instant now) {
+        Map<String, List<DealEvent>> byDeal = new LinkedHashMap<>();
+        Set<String> lookup = new LinkedHashSet<>();
+        for (DealEvent event : events) {
+            byDeal.computeIfAbsent(event.getDealId(), id -> new ArrayList<>()).add(event);
+            if (event.getAudience() == null) {
+                lookup.add(event.getDealId());
+            }
+        }
+
+        Map<String, List<String>> audiences = new HashMap<>();
+        if (!lookup.isEmpty()) {
+            for (Deal deal : dealRepository.findAudience(lookup)) {
+                audiences.put(deal.getId(), audienceOf(deal));
+            }
+        }
+
+        List<Notification> notifications = new ArrayList<>();
+        byDeal.forEach((dealId, dealEvents) -> {
+            Map<String, Notification> byUser = new LinkedHashMap<>();
+            for (DealEvent event : dealEvents) {
+                List<String> audience = event.getAudience() != null
+                        ? event.getAudience()
+                        : audiences.getOrDefault(dealId, List.of());
+                for (String user : audience) {
+                    if (!event.actingUsers().contains(user)) {
+                        fold(byUser.computeIfAbsent(user, key -> newNotification(key, dealId, now)), event);
+                    }
+                }
+            }
+            notifications.addAll(byUser.values());
+        });
+        return notifications;
+    }
+
+    private static Notification newNotification(String userId, String dealId, Instant now) {
+        Notification notification = new Notification();
+        notification.setUserId(userId);
+        notification.setDealId(dealId);
+        notification.setCreatedAt(now);
+        return notification;
+    }
+
+    private static void fold(Notification notification, DealEvent event) {
+        if (!notification.getEventTypes().contains(event.getEventType())) {
+            notification.getEventTypes().add(event.getEventType());
+        }
+        for (String actor : event.actingUsers()) {
+            if (!notification.getActors().contains(actor)) {
+                notification.getActors().add(actor);
+            }
+        }
+        notification.setEventCount(notification.getEventCount() + 1);
+        if (event.getDealTitle() != null) {
+            notification.setDealTitle(event.getDealTitle());
+        }
+        notification.setSummary(event.getDetails());
+
+        Instant at = event.getTimestamp();
+        if (at != null) {
+            if (notification.getFirstEventAt() == null || at.isBefore(notification.getFirstEventAt())) {
+                notification.setFirstEventAt(at);
+            }
+            if (notification.getLastEventAt() == null || at.isAfter(notification.getLastEventAt())) {
+                notification.setLastEventAt(at);
+            }
+        }
+    }
+
+    /* Creator, assignee and watchers, without duplicates */
+    public static List<String> audienceOf(Deal deal) {
+        Set<String> audience = new LinkedHashSet<>();
+        addUser(audience, deal.getCreatedBy());
+        addUser(audience, deal.getAssignedTo());
+        if (deal.getWatchers() != null) {
+            deal.getWatchers().forEach(user -> addUser(audience, user));
+        }
+        return new ArrayList<>(audience);
+    }
+
+    private static void addUser(Set<String> audience, String user) {
+        if (user != null && !user.isBlank()) {
+            audience.add(user);
+        }
+    }
+
+    // =========================
+    // INBOX
+    // =========================
+    public NotificationPage page(String userId, String cursor, int limit) {
+        int size = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        KeysetCursor after = KeysetCursor.decode(cursor);
+
+        List<Notification> notifications = notificationRepository.findPage(userId,
+                after == null ? null : after.at(), after == null ? null : after.id(), size + 1);
+        String nextCursor = null;
+        if (notifications.size() > size) {
+            notifications = notifications.subList(0, size);
+            Notification last = notifications.get(size - 1);
+            nextCursor = new KeysetCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+        return new NotificationPage(notifications, unreadCount(userId), nextCursor);
+    }
+
+    public long unreadCount(String userId) {
+        synchronized (unread) {
+            Unread cached = unread.get(userId);
+            if (cached != null && cached.expiresAt - System.nanoTime() > 0) {
+                return cached.count;
+            }
+        }
+        long count = notificationRepository.countUnread(userId);
+        synchronized (unread) {
+            unread.put(userId, new Unread(count, System.nanoTime() + unreadTtl.toNanos()));
+        }
+        return count;
+    }
+
+    public boolean markRead(String userId, String id) {
+        boolean changed = notificationRepository.markRead(userId, id);
+        if (changed) {
+            adjustUnread(userId, -1);
+        }
+        return changed;
+    }
+
+    public long markAllRead(String userId) {
+        long changed = notificationRepository.markAllRead(userId);
+        synchronized (unread) {
+            Unread cached = unread.get(userId);
+            if (cached != null) {
+                cached.count = 0;
+            }
+        }
+        return changed;
+    }
+
+    /* Only users whose count is cached; the others are counted in Mongo when first asked */
+    private void adjustUnread(String userId, long delta) {
+        synchronized (unread) {
+            Unread cached = unread.get(userId);
+            if (cached != null) {
+                cached.count = Math.max(0, cached.count + delta);
+            }
+        }
+    }
+
+    private static final class Unread {
+
+        private long count;
+        private final long expiresAt;
+
+        Unread(long count, long expiresAt) {
+            this.count = count;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
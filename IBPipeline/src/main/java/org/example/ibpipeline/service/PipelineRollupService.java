@@ -0,0 +1,243 @@
+package org.example.ibpipeline.service;
+
+import org.example.ibpipeline.dto.PipelineDimension;
+import org.example.ibpipeline.dto.PipelineGroup;
+import org.example.ibpipeline.event.DealEvent;
+import org.example.ibpipeline.event.DealFacts;
+import org.example.ibpipeline.exception.BadRequestException;
+import org.example.ibpipeline.model.DealEventRecord;
+import org.example.ibpipeline.model.DealStage;
+import org.example.ibpipeline.model.PipelineRollup;
+import org.example.ibpipeline.repository.DealRepository;
+import org.example.ibpipeline.repository.PipelineRollupRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/*
+ * Daily pipeline rollups. The Kafka consumer logs every event that moves a deal's stage,
+ * sector, dealType or value; shortly after midnight (UTC) the job takes the previous day's
+ * rollup and applies the events consumed that day to it, so each day costs O(events of the
+ * day) and a chart over N days reads N small documents.
+ *
+ * Days are cut by consumption time, not by the producer's timestamp: an event that arrives
+ * late (consumer lag, a stopped consumer, a spilled publish) is folded into the next rollup
+ * instead of belonging to a day that has already been written.
+ *
+ * The very first rollup has nothing to start from, so it is seeded from the deals themselves
+ * (one aggregation) and the events logged since midnight are backed out of it. The same
+ * happens when the job has been off for longer than the event log keeps events.
+ */
+@Service
+public class PipelineRollupService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PipelineRollupService.class);
+
+    /* Matches the TTL on deal_event_log.consumedAt */
+    static final int EVENT_RETENTION_DAYS = 35;
+    static final int MAX_RANGE_DAYS = 3_660;
+    static final String NONE = "(none)";
+
+    private final PipelineRollupRepository rollupRepository;
+    private final DealRepository dealRepository;
+    private final boolean enabled;
+
+    public PipelineRollupService(PipelineRollupRepository rollupRepository,
+                                 DealRepository dealRepository,
+                                 @Value("${app.rollup.enabled:true}") boolean enabled) {
+        this.rollupRepository = rollupRepository;
+        this.dealRepository = dealRepository;
+        this.enabled = enabled;
+    }
+
+    /* A few minutes past midnight, so events consumed just before it have been logged */
+    @Scheduled(cron = "${app.rollup.cron:0 10 0 * * *}", zone = "UTC")
+    public void scheduledRollup() {
+        if (enabled) {
+            rollUpThrough(LocalDate.now(ZoneOffset.UTC).minusDays(1));
+        }
+    }
+
+    /* Logs the event for the next rollup if it changed anything a rollup counts */
+    public void record(DealEvent event) {
+        if (event.getBefore() == null && event.getAfter() == null) {
+            return;
+        }
+        rollupRepository.saveEvent(DealEventRecord.of(event, Instant.now()));
+    }
+
+    // =========================
+    // ROLL UP
+    // =========================
+
+    /* Writes every missing rollup up to and including lastDay; returns how many were written */
+    public synchronized int rollUpThrough(LocalDate lastDay) {
+        PipelineRollup latest = rollupRepository.findLatest();
+        if (latest == null || LocalDate.parse(latest.getDay()).isBefore(lastDay.minusDays(EVENT_RETENTION_DAYS))) {
+            if (latest != null) {
+                logger.warn("Last pipeline rollup is for {}, older than the event log; seeding again from the deals",
+                        latest.getDay());
+            }
+            rollupRepository.save(seed(lastDay));
+            logger.info("Seeded pipeline rollups with {}", lastDay);
+            return 1;
+        }
+
+        Totals totals = Totals.from(latest);
+        int written = 0;
+        for (LocalDate day = LocalDate.parse(latest.getDay()).plusDays(1); !day.isAfter(lastDay); day = day.plusDays(1)) {
+            List<DealEventRecord> events = rollupRepository.findEvents(startOf(day), startOf(day.plusDays(1)));
+            long created = 0;
+            long deleted = 0;
+            for (DealEventRecord event : events) {
+                totals.apply(event.getBefore(), event.getAfter());
+                created += event.getBefore() == null ? 1 : 0;
+                deleted += event.getAfter() == null ? 1 : 0;
+            }
+            rollupRepository.save(totals.toRollup(day, events.size(), created, deleted, false));
+            written++;
+        }
+
+        if (written > 0) {
+            logger.info("Wrote {} pipeline rollups through {}", written, lastDay);
+        }
+        return written;
+    }
+
+    /* The deals as they are now, minus what has happened since the end of lastDay */
+    private PipelineRollup seed(LocalDate lastDay) {
+        Totals totals = new Totals();
+        for (PipelineGroup group : dealRepository.countByStageSectorAndDealType()) {
+            Map<String, String> keys = group.getKeys();
+            totals.add(keys.get(PipelineDimension.STAGE.getParamName()),
+                    keys.get(PipelineDimension.SECTOR.getParamName()),
+                    keys.get(PipelineDimension.DEAL_TYPE.getParamName()),
+                    group.getCount(), group.getTotalValue());
+        }
+
+        for (DealEventRecord event : rollupRepository.findEvents(startOf(lastDay.plusDays(1)), Instant.now())) {
+            totals.apply(event.getAfter(), event.getBefore());
+        }
+        return totals.toRollup(lastDay, 0, 0, 0, true);
+    }
+
+    // =========================
+    // READ
+    // =========================
+
+    /* One point per day from..to inclusive; days without a rollup are simply absent */
+    public List<PipelineRollup> range(LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
+            throw new BadRequestException("from must not be after to");
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= MAX_RANGE_DAYS) {
+            throw new BadRequestException("At most " + MAX_RANGE_DAYS + " days can be requested at once");
+        }
+        return rollupRepository.findBetween(from, to);
+    }
+
+    private static Instant startOf(LocalDate day) {
+        return day.atStartOfDay(ZoneOffset.UTC).toInstant();
+    }
+
+    /* Running count and value per stage, sector and dealType; index 0 is the count, 1 the value */
+    private static final class Totals {
+
+        private final Map<String, long[]> stages = new LinkedHashMap<>();
+        private final Map<String, long[]> sectors = new TreeMap<>();
+        private final Map<String, long[]> dealTypes = new TreeMap<>();
+
+        Totals() {
+            for (DealStage stage : DealStage.values()) {
+                stages.put(stage.name(), new long[2]);
+            }
+        }
+
+        static Totals from(PipelineRollup rollup) {
+            Totals totals = new Totals();
+            load(totals.stages, rollup.getStages());
+            load(totals.sectors, rollup.getSectors());
+            load(totals.dealTypes, rollup.getDealTypes());
+            return totals;
+        }
+
+        /* Moves one deal from its old facts to its new ones; either side may be null */
+        void apply(DealFacts remove, DealFacts add) {
+            if (remove != null) {
+                add(stageKey(remove), remove.getSector(), remove.getDealType(), -1, -value(remove));
+            }
+            if (add != null) {
+                add(stageKey(add), add.getSector(), add.getDealType(), 1, value(add));
+            }
+        }
+
+        void add(String stage, String sector, String dealType, long count, long value) {
+            add(stages, stage, count, value);
+            add(sectors, sector, count, value);
+            add(dealTypes, dealType, count, value);
+        }
+
+        PipelineRollup toRollup(LocalDate day, long events, long created, long deleted, boolean baseline) {
+            PipelineRollup rollup = new PipelineRollup();
+            rollup.setDay(day.toString());
+            rollup.setStages(buckets(stages, true));
+            rollup.setSectors(buckets(sectors, false));
+            rollup.setDealTypes(buckets(dealTypes, false));
+            for (long[] sums : stages.values()) {
+                rollup.setTotalCount(rollup.getTotalCount() + sums[0]);
+                rollup.setTotalValue(rollup.getTotalValue() + sums[1]);
+            }
+            rollup.setEvents(events);
+            rollup.setCreated(created);
+            rollup.setDeleted(deleted);
+            rollup.setBaseline(baseline);
+            rollup.setComputedAt(Instant.now());
+            return rollup;
+        }
+
+        private static void add(Map<String, long[]> totals, String key, long count, long value) {
+            long[] sums = totals.computeIfAbsent(key == null || key.isBlank() ? NONE : key, k -> new long[2]);
+            sums[0] += count;
+            sums[1] += value;
+        }
+
+        private static void load(Map<String, long[]> totals, List<PipelineRollup.Bucket> buckets) {
+            if (buckets != null) {
+                for (PipelineRollup.Bucket bucket : buckets) {
+                    add(totals, bucket.getKey(), bucket.getCount(), bucket.getValue());
+                }
+            }
+        }
+
+        /* Every stage is always listed; sectors and deal types only while they hold deals */
+        private static List<PipelineRollup.Bucket> buckets(Map<String, long[]> totals, boolean keepEmpty) {
+            List<PipelineRollup.Bucket> buckets = new ArrayList<>(totals.size());
+            totals.forEach((key, sums) -> {
+                if (keepEmpty || sums[0] != 0 || sums[1] != 0) {
+                    buckets.add(new PipelineRollup.Bucket(key, sums[0], sums[1]));
+                }
+            });
+            return buckets;
+        }
+
+        private static String stageKey(DealFacts facts) {
+            return facts.getStage() == null ? null : facts.getStage().name();
+        }
+
+        private static long value(DealFacts facts) {
+            return facts.getDealValue() == null ? 0 : facts.getDealValue();
+        }
+    }
+}
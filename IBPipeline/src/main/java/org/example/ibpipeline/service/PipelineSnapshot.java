@@ -0,0 +1,626 @@
+package org.example.ibpipeline.service;
+
+import jakarta.annotation.PreDestroy;
+import org.example.ibpipeline.dto.BulkDealUpdateRequest;
+import org.example.ibpipeline.dto.PipelineAggregate;
+import org.example.ibpipeline.dto.PipelineDimension;
+import org.example.ibpipeline.dto.PipelineGroup;
+import org.example.ibpipeline.dto.PipelineQuery;
+import org.example.ibpipeline.dto.PipelineSnapshotStats;
+import org.example.ibpipeline.exception.BadRequestException;
+import org.example.ibpipeline.model.Deal;
+import org.example.ibpipeline.model.DealStage;
+import org.example.ibpipeline.repository.DealRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/*
+ * Column-oriented copy of the hot deals for ad-hoc pipeline aggregates. One row per deal:
+ * stage as a byte ordinal, sector and dealType as dictionary codes and the creation week in
+ * int[], and value, createdAt, updatedAt and version as long[] (45 bytes a row). Filtered group-bys scan
+ * the columns in parallel on a fork/join pool, so they never touch Mongo.
+ *
+ * Loaded once when the application is ready and kept current by DealChangeListener callbacks
+ * (same rules as DealBoardIndex: stale versions are dropped, deletes during the load stick).
+ * Writers are serialized; queries read the arrays without locking, so a query racing a write
+ * can see that one row half-updated, which is fine for analytics. Freed rows are reused.
+ */
+@Component
+public class PipelineSnapshot implements DealChangeListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(PipelineSnapshot.class);
+
+    private static final DealStage[] STAGES = DealStage.values();
+    private static final byte FREE = -1;
+    private static final int NONE = -1;
+    private static final int ANY = Integer.MIN_VALUE;
+
+    /* PipelineDimension ordinals, as switch labels for the scan loop */
+    private static final int STAGE_KIND = 0;
+    private static final int SECTOR_KIND = 1;
+    private static final int DEAL_TYPE_KIND = 2;
+
+    /* Weeks are numbered from Monday 1969-12-29 UTC */
+    private static final long DAY_MILLIS = TimeUnit.DAYS.toMillis(1);
+    private static final long WEEK_MILLIS = 7 * DAY_MILLIS;
+    private static final long FIRST_MONDAY_MILLIS = -3 * DAY_MILLIS;
+
+    /* Rows per fork/join leaf, and the largest group space aggregated into flat arrays */
+    private static final int LEAF_ROWS = 32_768;
+    private static final int DENSE_GROUP_LIMIT = 1 << 16;
+    private static final int BITS_PER_DIMENSION = 21;
+    private static final int INITIAL_CAPACITY = 1_024;
+
+    private final DealRepository dealRepository;
+    private final ForkJoinPool pool;
+
+    private final Dictionary sectors = new Dictionary();
+    private final Dictionary dealTypes = new Dictionary();
+    private final Map<String, Integer> rowById = new HashMap<>();
+    private final Set<String> removedWhileLoading = new HashSet<>();
+    private int[] freeRows = new int[16];
+    private int freeCount;
+
+    private volatile Columns columns = new Columns(INITIAL_CAPACITY);
+    private volatile int rowCount;
+    private volatile int minWeek = Integer.MAX_VALUE;
+    private volatile int maxWeek = Integer.MIN_VALUE;
+    private volatile boolean loaded;
+
+    public PipelineSnapshot(DealRepository dealRepository,
+                            @Value("${app.analytics.parallelism:0}") int parallelism) {
+        this.dealRepository = dealRepository;
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    }
+
+    // =========================
+    // LOAD
+    // =========================
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        long started = System.nanoTime();
+        try (Stream<Deal> deals = dealRepository.streamWithoutNotes()) {
+            deals.forEach(deal -> {
+                synchronized (this) {
+                    if (!removedWhileLoading.contains(deal.getId())) {
+                        upsert(deal);
+                    }
+                }
+            });
+        } catch (RuntimeException e) {
+            logger.error("Pipeline snapshot load failed after {} deals: {}", rowById.size(), e.toString());
+            return;
+        }
+
+        synchronized (this) {
+            loaded = true;
+            removedWhileLoading.clear();
+        }
+        PipelineSnapshotStats stats = stats();
+        logger.info("Pipeline snapshot loaded {} deals in {} ms ({} KB of columns)", stats.getLiveDeals(),
+                (System.nanoTime() - started) / 1_000_000, stats.getColumnBytes() / 1024);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    // =========================
+    // DealChangeListener
+    // =========================
+    @Override
+    public synchronized void dealCreated(Deal deal) {
+        upsert(deal);
+    }
+
+    @Override
+    public synchronized void dealUpdated(Deal before, Deal after) {
+        upsert(after);
+    }
+
+    @Override
+    public synchronized void dealsBulkUpdated(Collection<Deal> before, BulkDealUpdateRequest change, Instant updatedAt) {
+        Columns c = columns;
+        for (Deal target : before) {
+            Integer row = rowById.get(target.getId());
+            if (row == null) {
+                continue;
+            }
+            if (change.getStage() != null) {
+                c.stage[row] = (byte) change.getStage().ordinal();
+            }
+            if (change.getDealValue() != null) {
+                c.value[row] = change.getDealValue();
+            }
+            c.updatedAt[row] = updatedAt.toEpochMilli();
+            c.version[row]++;
+        }
+    }
+
+    @Override
+    public synchronized void dealDeleted(Deal deal) {
+        remove(deal.getId());
+    }
+
+    @Override
+    public synchronized void dealArchived(Deal deal) {
+        remove(deal.getId());
+    }
+
+    @Override
+    public synchronized void dealRestored(Deal deal) {
+        upsert(deal);
+    }
+
+    // =========================
+    // QUERY
+    // =========================
+    public PipelineAggregate aggregate(PipelineQuery query) {
+        long started = System.nanoTime();
+        List<PipelineDimension> dimensions = query.getGroupBy();
+        if (dimensions.size() * BITS_PER_DIMENSION > 63) {
+            throw new BadRequestException("At most 3 groupBy dimensions are supported");
+        }
+
+        // rowCount before columns: a grown array is published before the row count that needs it
+        int rows = rowCount;
+        Scan scan = new Scan(columns, rows, dimensions, minWeek);
+        if (!scan.resolveFilters(query)) {
+            return result(scan, new Partial(), started);
+        }
+        Partial totals = pool.invoke(new ScanTask(scan, 0, scan.rows));
+        return result(scan, totals, started);
+    }
+
+    public synchronized PipelineSnapshotStats stats() {
+        Columns c = columns;
+        int capacity = c.stage.length;
+        // HashMap entry (32) + table slot (4) + 24-char String with its byte[] (64) + boxed Integer (16)
+        long idIndexBytes = (long) rowById.size() * 116;
+        return new PipelineSnapshotStats(rowById.size(), capacity, (long) capacity * Columns.BYTES_PER_ROW,
+                idIndexBytes, sectors.size(), dealTypes.size());
+    }
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    private PipelineAggregate result(Scan scan, Partial totals, long started) {
+        List<PipelineGroup> groups = new ArrayList<>();
+        long matched = 0;
+        long value = 0;
+
+        if (totals.denseCounts != null) {
+            for (int key = 0; key < totals.denseCounts.length; key++) {
+                if (totals.denseCounts[key] > 0) {
+                    groups.add(scan.group(key, totals.denseCounts[key], totals.denseSums[key]));
+                }
+            }
+        } else if (totals.sparse != null) {
+            totals.sparse.forEach((key, sums) -> groups.add(scan.group(key, sums[0], sums[1])));
+        }
+        for (PipelineGroup group : groups) {
+            matched += group.getCount();
+            value += group.getTotalValue();
+        }
+        groups.sort(Comparator.comparingLong(PipelineGroup::getTotalValue).reversed()
+                .thenComparing(Comparator.comparingLong(PipelineGroup::getCount).reversed()));
+
+        return new PipelineAggregate(
+                scan.dimensions.stream().map(PipelineDimension::getParamName).toList(),
+                groups, matched, value, (System.nanoTime() - started) / 1_000, loaded);
+    }
+
+    // =========================
+    // WRITE (callers hold the snapshot lock)
+    // =========================
+    private void upsert(Deal deal) {
+        Integer existing = rowById.get(deal.getId());
+        long version = deal.getVersion() == null ? 0 : deal.getVersion();
+        int row;
+        if (existing != null) {
+            row = existing;
+            if (version < columns.version[row]) {
+                return;
+            }
+        } else {
+            row = allocateRow();
+            rowById.put(deal.getId(), row);
+        }
+
+        Columns c = columns;
+        long createdAt = deal.getCreatedAt() == null ? 0 : deal.getCreatedAt().toEpochMilli();
+        c.sector[row] = sectors.encode(deal.getSector());
+        c.dealType[row] = dealTypes.encode(deal.getDealType());
+        c.value[row] = deal.getDealValue() == null ? 0 : deal.getDealValue();
+        c.createdAt[row] = createdAt;
+        int week = weekOf(createdAt);
+        c.createdWeek[row] = week;
+        c.updatedAt[row] = deal.getUpdatedAt() == null ? 0 : deal.getUpdatedAt().toEpochMilli();
+        c.version[row] = version;
+        // written last: a row becomes visible to queries once its stage is set
+        c.stage[row] = (byte) (deal.getCurrentStage() == null ? DealStage.Prospect : deal.getCurrentStage()).ordinal();
+
+        if (week < minWeek) {
+            minWeek = week;
+        }
+        if (week > maxWeek) {
+            maxWeek = week;
+        }
+    }
+
+    private void remove(String id) {
+        if (!loaded) {
+            removedWhileLoading.add(id);
+        }
+        Integer row = rowById.remove(id);
+        if (row == null) {
+            return;
+        }
+        columns.stage[row] = FREE;
+        if (freeCount == freeRows.length) {
+            freeRows = Arrays.copyOf(freeRows, freeCount * 2);
+        }
+        freeRows[freeCount++] = row;
+    }
+
+    private int allocateRow() {
+        if (freeCount > 0) {
+            return freeRows[--freeCount];
+        }
+        int row = rowCount;
+        if (row == columns.stage.length) {
+            columns = columns.grow(row * 2);
+        }
+        rowCount = row + 1;
+        return row;
+    }
+
+    private static int weekOf(long epochMillis) {
+        return (int) Math.floorDiv(epochMillis - FIRST_MONDAY_MILLIS, WEEK_MILLIS);
+    }
+
+    private static String weekStart(int week) {
+        return LocalDate.ofEpochDay(Math.floorDiv(FIRST_MONDAY_MILLIS + week * WEEK_MILLIS, DAY_MILLIS)).toString();
+    }
+
+    // =========================
+    // SCAN
+    // =========================
+
+    /* One query resolved against the dictionaries and bound to a columns snapshot */
+    private final class Scan {
+
+        private final Columns columns;
+        private final int rows;
+        private final List<PipelineDimension> dimensions;
+        private final int weekBase;
+        private final int[] kinds;
+        private final long[] radix;
+        private final boolean dense;
+        private final int denseSize;
+
+        private boolean[] stageAllowed;
+        private int sectorFilter = ANY;
+        private int dealTypeFilter = ANY;
+        private long createdFrom = Long.MIN_VALUE;
+        private long createdTo = Long.MAX_VALUE;
+
+        Scan(Columns columns, int rows, List<PipelineDimension> dimensions, int weekBase) {
+            this.columns = columns;
+            this.rows = rows;
+            this.dimensions = dimensions;
+            this.weekBase = weekBase == Integer.MAX_VALUE ? 0 : weekBase;
+
+            kinds = new int[dimensions.size()];
+            radix = new long[dimensions.size()];
+            long cells = 1;
+            for (int i = 0; i < radix.length; i++) {
+                kinds[i] = dimensions.get(i).ordinal();
+                radix[i] = switch (dimensions.get(i)) {
+                    case STAGE -> STAGES.length;
+                    // code + 1 so a missing value (NONE) becomes 0
+                    case SECTOR -> sectors.size() + 1;
+                    case DEAL_TYPE -> dealTypes.size() + 1;
+                    case CREATED_WEEK -> Math.max(1, maxWeek - this.weekBase + 1);
+                };
+                cells *= radix[i];
+            }
+            this.dense = cells <= DENSE_GROUP_LIMIT;
+            this.denseSize = dense ? (int) cells : 0;
+        }
+
+        /* False if a filter value has never been seen, in which case nothing can match */
+        boolean resolveFilters(PipelineQuery query) {
+            if (query.getStages() != null && !query.getStages().isEmpty()) {
+                stageAllowed = new boolean[STAGES.length];
+                query.getStages().forEach(stage -> stageAllowed[stage.ordinal()] = true);
+            }
+            if (query.getSector() != null) {
+                sectorFilter = sectors.lookup(query.getSector());
+                if (sectorFilter == NONE) {
+                    return false;
+                }
+            }
+            if (query.getDealType() != null) {
+                dealTypeFilter = dealTypes.lookup(query.getDealType());
+                if (dealTypeFilter == NONE) {
+                    return false;
+                }
+            }
+            if (query.getCreatedFrom() != null) {
+                createdFrom = query.getCreatedFrom().toEpochMilli();
+            }
+            if (query.getCreatedTo() != null) {
+                createdTo = query.getCreatedTo().toEpochMilli();
+            }
+            return true;
+        }
+
+        void scan(int from, int to, Partial partial) {
+            // everything the loop touches in locals, so the JIT keeps it in registers
+            byte[] stageColumn = columns.stage;
+            int[] sectorColumn = columns.sector;
+            int[] dealTypeColumn = columns.dealType;
+            int[] weekColumn = columns.createdWeek;
+            long[] createdColumn = columns.createdAt;
+            long[] valueColumn = columns.value;
+            boolean[] stages = stageAllowed;
+            int sector = sectorFilter;
+            int dealType = dealTypeFilter;
+            long fromMillis = createdFrom;
+            long toMillis = createdTo;
+            boolean byCreated = fromMillis != Long.MIN_VALUE || toMillis != Long.MAX_VALUE;
+            int[] kinds = this.kinds;
+            long[] radix = this.radix;
+            int base = weekBase;
+            long[] counts = partial.denseCounts;
+            long[] sums = partial.denseSums;
+
+            rows:
+            for (int row = from; row < to; row++) {
+                int stage = stageColumn[row];
+                if (stage < 0
+                        || (stages != null && !stages[stage])
+                        || (sector != ANY && sectorColumn[row] != sector)
+                        || (dealType != ANY && dealTypeColumn[row] != dealType)) {
+                    continue;
+                }
+                if (byCreated) {
+                    long created = createdColumn[row];
+                    if (created < fromMillis || created >= toMillis) {
+                        continue;
+                    }
+                }
+
+                long key = 0;
+                for (int i = 0; i < kinds.length; i++) {
+                    long code = switch (kinds[i]) {
+                        case STAGE_KIND -> stage;
+                        case SECTOR_KIND -> sectorColumn[row] + 1;
+                        case DEAL_TYPE_KIND -> dealTypeColumn[row] + 1;
+                        default -> weekColumn[row] - base;
+                    };
+                    if (code < 0 || code >= radix[i]) {
+                        // a sector, dealType or week first written after the query started
+                        continue rows;
+                    }
+                    key = counts != null ? key * radix[i] + code : (key << BITS_PER_DIMENSION) | code;
+                }
+
+                if (counts != null) {
+                    counts[(int) key]++;
+                    sums[(int) key] += valueColumn[row];
+                } else {
+                    partial.addSparse(key, valueColumn[row]);
+                }
+            }
+        }
+
+        Partial newPartial() {
+            Partial partial = new Partial();
+            if (dense) {
+                partial.denseCounts = new long[denseSize];
+                partial.denseSums = new long[denseSize];
+            } else {
+                partial.sparse = new HashMap<>();
+            }
+            return partial;
+        }
+
+        PipelineGroup group(long key, long count, long value) {
+            Map<String, String> keys = new LinkedHashMap<>();
+            for (int i = dimensions.size() - 1; i >= 0; i--) {
+                long code;
+                if (dense) {
+                    code = key % radix[i];
+                    key /= radix[i];
+                } else {
+                    code = key & ((1L << BITS_PER_DIMENSION) - 1);
+                    key >>>= BITS_PER_DIMENSION;
+                }
+                PipelineDimension dimension = dimensions.get(i);
+                keys.put(dimension.getParamName(), switch (dimension) {
+                    case STAGE -> STAGES[(int) code].name();
+                    case SECTOR -> sectors.decode((int) code - 1);
+                    case DEAL_TYPE -> dealTypes.decode((int) code - 1);
+                    case CREATED_WEEK -> weekStart((int) code + weekBase);
+                });
+            }
+            // keys were decoded last dimension first; present them in groupBy order
+            Map<String, String> ordered = new LinkedHashMap<>();
+            for (PipelineDimension dimension : dimensions) {
+                ordered.put(dimension.getParamName(), keys.get(dimension.getParamName()));
+            }
+            return new PipelineGroup(ordered, count, value);
+        }
+    }
+
+    private final class ScanTask extends RecursiveTask<Partial> {
+
+        private final Scan scan;
+        private final int from;
+        private final int to;
+
+        ScanTask(Scan scan, int from, int to) {
+            this.scan = scan;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Partial compute() {
+            if (to - from <= LEAF_ROWS) {
+                Partial partial = scan.newPartial();
+                scan.scan(from, to, partial);
+                return partial;
+            }
+            int middle = (from + to) >>> 1;
+            ScanTask left = new ScanTask(scan, from, middle);
+            left.fork();
+            Partial right = new ScanTask(scan, middle, to).compute();
+            return left.join().merge(right);
+        }
+    }
+
+    /* Per-group count and value sum: flat arrays for small group spaces, a map otherwise */
+    private static final class Partial {
+
+        private long[] denseCounts;
+        private long[] denseSums;
+        private Map<Long, long[]> sparse;
+
+        void addSparse(long key, long value) {
+            long[] sums = sparse.computeIfAbsent(key, k -> new long[2]);
+            sums[0]++;
+            sums[1] += value;
+        }
+
+        Partial merge(Partial other) {
+            if (denseCounts != null) {
+                for (int i = 0; i < denseCounts.length; i++) {
+                    denseCounts[i] += other.denseCounts[i];
+                    denseSums[i] += other.denseSums[i];
+                }
+            } else if (sparse != null) {
+                other.sparse.forEach((key, sums) -> {
+                    long[] mine = sparse.computeIfAbsent(key, k -> new long[2]);
+                    mine[0] += sums[0];
+                    mine[1] += sums[1];
+                });
+            }
+            return this;
+        }
+    }
+
+    private static final class Columns {
+
+        static final int BYTES_PER_ROW = 1 + 4 + 4 + 4 + 8 * 4;
+
+        final byte[] stage;
+        final int[] sector;
+        final int[] dealType;
+        final int[] createdWeek;
+        final long[] value;
+        final long[] createdAt;
+        final long[] updatedAt;
+        final long[] version;
+
+        Columns(int capacity) {
+            stage = new byte[capacity];
+            Arrays.fill(stage, FREE);
+            sector = new int[capacity];
+            dealType = new int[capacity];
+            createdWeek = new int[capacity];
+            value = new long[capacity];
+            createdAt = new long[capacity];
+            updatedAt = new long[capacity];
+            version = new long[capacity];
+        }
+
+        private Columns(Columns from, int capacity) {
+            stage = Arrays.copyOf(from.stage, capacity);
+            Arrays.fill(stage, from.stage.length, capacity, FREE);
+            sector = Arrays.copyOf(from.sector, capacity);
+            dealType = Arrays.copyOf(from.dealType, capacity);
+            createdWeek = Arrays.copyOf(from.createdWeek, capacity);
+            value = Arrays.copyOf(from.value, capacity);
+            createdAt = Arrays.copyOf(from.createdAt, capacity);
+            updatedAt = Arrays.copyOf(from.updatedAt, capacity);
+            version = Arrays.copyOf(from.version, capacity);
+        }
+
+        Columns grow(int capacity) {
+            return new Columns(this, capacity);
+        }
+    }
+
+    /* String to dense int code; codes are never reused, NONE stands for null */
+    private static final class Dictionary {
+
+        private final Map<String, Integer> codes = new HashMap<>();
+        private volatile String[] values = new String[16];
+        private volatile int size;
+
+        /* Callers hold the snapshot lock */
+        int encode(String value) {
+            if (value == null) {
+                return NONE;
+            }
+            Integer code = codes.get(value);
+            if (code != null) {
+                return code;
+            }
+            String[] current = values;
+            if (size == current.length) {
+                current = Arrays.copyOf(current, size * 2);
+            }
+            current[size] = value;
+            values = current;
+            codes.put(value, size);
+            return size++;
+        }
+
+        int lookup(String value) {
+            // size before values: the array read is then at least as new as the size
+            int known = size;
+            String[] current = values;
+            for (int code = 0; code < known; code++) {
+                if (current[code].equals(value)) {
+                    return code;
+                }
+            }
+            return NONE;
+        }
+
+        String decode(int code) {
+            return code < 0 ? null : values[code];
+        }
+
+        int size() {
+            return size;
+        }
+    }
+}
@@ -0,0 +1,329 @@
+package org.example.ibpipeline.service;
+
+import com.mongodb.event.CommandFailedEvent;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.event.CommandSucceededEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.bson.BsonDocument;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.example.ibpipeline.dto.SlowQueryStats;
+import org.example.ibpipeline.util.QueryShapes;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Mongo command listener that records every query command slower than the threshold,
+ * grouped by collection, command and value-free filter shape. The first time a shape is slow
+ * it is explained in the background (as a find with the same filter and sort, which is what
+ * drives index selection for update/delete/findAndModify too) so COLLSCANs show up on
+ * GET /api/admin/diagnostics/slow-queries before they become an outage.
+ */
+@Component
+public class SlowQueryMonitor implements CommandListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(SlowQueryMonitor.class);
+
+    private static final Set<String> QUERY_COMMANDS =
+            Set.of("find", "count", "distinct", "aggregate", "update", "delete", "findAndModify");
+    private static final int MAX_IN_FLIGHT = 10_000;
+
+    private final boolean enabled;
+    private final long thresholdNanos;
+    private final int maxShapes;
+    private final ObjectProvider<MongoTemplate> mongoTemplate;
+    private final MeterRegistry meterRegistry;
+    private final Executor explainExecutor;
+
+    private final Map<Integer, InFlight> inFlight = new ConcurrentHashMap<>();
+    private final Map<String, ShapeStats> shapes = new ConcurrentHashMap<>();
+
+    @Autowired
+    public SlowQueryMonitor(@Value("${app.mongo.slow-query.enabled:true}") boolean enabled,
+                            @Value("${app.mongo.slow-query.threshold:PT0.1S}") Duration threshold,
+                            @Value("${app.mongo.slow-query.max-shapes:200}") int maxShapes,
+                            ObjectProvider<MongoTemplate> mongoTemplate,
+                            MeterRegistry meterRegistry) {
+        this(enabled, threshold, maxShapes, mongoTemplate, meterRegistry, new ThreadPoolExecutor(
+                1, 1, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(100),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "slow-query-explain");
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.DiscardPolicy()));
+    }
+
+    SlowQueryMonitor(boolean enabled, Duration threshold, int maxShapes, ObjectProvider<MongoTemplate> mongoTemplate,
+                     MeterRegistry meterRegistry, Executor explainExecutor) {
+        this.enabled = enabled;
+        this.thresholdNanos = threshold.toNanos();
+        this.maxShapes = maxShapes;
+        this.mongoTemplate = mongoTemplate;
+        this.meterRegistry = meterRegistry;
+        this.explainExecutor = explainExecutor;
+    }
+
+    // =========================
+    // CommandListener
+    // =========================
+
+    /* Runs on the driver thread for every command, so only the filter shape is kept */
+    @Override
+    public void commandStarted(CommandStartedEvent event) {
+        if (!enabled || !QUERY_COMMANDS.contains(event.getCommandName())) {
+            return;
+        }
+
+        BsonDocument command = event.getCommand();
+        BsonValue collection = command.get(event.getCommandName());
+        if (collection == null || !collection.isString()) {
+            return;
+        }
+
+        if (inFlight.size() >= MAX_IN_FLIGHT) {
+            // completions were lost (e.g. connection closed mid-command); start over rather than grow
+            inFlight.clear();
+        }
+
+        BsonDocument filter = filterOf(event.getCommandName(), command);
+        BsonDocument sort = sortOf(event.getCommandName(), command);
+        inFlight.put(event.getRequestId(), new InFlight(
+                collection.asString().getValue(),
+                QueryShapes.placeholders(filter),
+                sort == null ? null : sort.clone()));
+    }
+
+    @Override
+    public void commandSucceeded(CommandSucceededEvent event) {
+        completed(event.getRequestId(), event.getCommandName(), event.getElapsedTime(TimeUnit.NANOSECONDS));
+    }
+
+    @Override
+    public void commandFailed(CommandFailedEvent event) {
+        completed(event.getRequestId(), event.getCommandName(), event.getElapsedTime(TimeUnit.NANOSECONDS));
+    }
+
+    // =========================
+    // REPORTING
+    // =========================
+
+    /* Slowest shapes first, by total time spent */
+    public List<SlowQueryStats> topOffenders(int limit) {
+        return shapes.values().stream()
+                .map(ShapeStats::snapshot)
+                .sorted(Comparator.comparingLong(SlowQueryStats::getTotalMillis).reversed())
+                .limit(limit)
+                .toList();
+    }
+
+    public void reset() {
+        shapes.clear();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (explainExecutor instanceof ExecutorService executorService) {
+            executorService.shutdownNow();
+        }
+    }
+
+    private void completed(int requestId, String commandName, long elapsedNanos) {
+        InFlight started = inFlight.remove(requestId);
+        if (started == null || elapsedNanos < thresholdNanos) {
+            return;
+        }
+
+        String shape = QueryShapes.shape(started.filter())
+                + (started.sort() == null ? "" : " sort " + started.sort().toJson());
+        String key = started.collection() + " " + commandName + " " + shape;
+
+        ShapeStats stats = shapes.get(key);
+        if (stats == null) {
+            if (shapes.size() >= maxShapes) {
+                return;
+            }
+            ShapeStats created = new ShapeStats(started.collection(), commandName, shape);
+            stats = shapes.putIfAbsent(key, created);
+            if (stats == null) {
+                stats = created;
+                logger.warn("Slow Mongo query on {}: {} {} took {} ms", started.collection(), commandName, shape,
+                        TimeUnit.NANOSECONDS.toMillis(elapsedNanos));
+                scheduleExplain(created, started);
+            }
+        }
+        stats.record(elapsedNanos);
+
+        meterRegistry.counter("mongodb.slow.queries", "collection", started.collection(), "command", commandName)
+                .increment();
+    }
+
+    private void scheduleExplain(ShapeStats stats, InFlight started) {
+        explainExecutor.execute(() -> {
+            MongoTemplate template = mongoTemplate.getIfAvailable();
+            if (template == null) {
+                return;
+            }
+            try {
+                Document find = new Document("find", started.collection())
+                        .append("filter", started.filter());
+                if (started.sort() != null) {
+                    find.append("sort", started.sort());
+                }
+                Document explain = template.executeCommand(
+                        new Document("explain", find).append("verbosity", "queryPlanner"));
+                stats.setPlan(planSummary(explain));
+
+                if (stats.plan.startsWith("COLLSCAN")) {
+                    logger.warn("Slow query shape is a collection scan on {}: {}", stats.collection, stats.shape);
+                }
+            } catch (RuntimeException e) {
+                logger.debug("Could not explain {} on {}: {}", stats.shape, stats.collection, e.getMessage());
+                stats.setPlan("EXPLAIN_FAILED");
+            }
+        });
+    }
+
+    /* "COLLSCAN" if any stage scans the collection, else the index scans used, else the root stage */
+    static String planSummary(Document explain) {
+        Document queryPlanner = explain.get("queryPlanner", Document.class);
+        Document winningPlan = queryPlanner == null ? null : queryPlanner.get("winningPlan", Document.class);
+        if (winningPlan == null) {
+            return "UNKNOWN";
+        }
+        if (winningPlan.containsKey("queryPlan")) {
+            winningPlan = winningPlan.get("queryPlan", Document.class);
+        }
+
+        Set<String> indexScans = new LinkedHashSet<>();
+        boolean[] collectionScan = {false};
+        walk(winningPlan, indexScans, collectionScan);
+
+        if (collectionScan[0]) {
+            return "COLLSCAN";
+        }
+        if (!indexScans.isEmpty()) {
+            return String.join(", ", indexScans);
+        }
+        return winningPlan.getString("stage");
+    }
+
+    private static void walk(Document stage, Set<String> indexScans, boolean[] collectionScan) {
+        String name = stage.getString("stage");
+        if ("COLLSCAN".equals(name)) {
+            collectionScan[0] = true;
+        } else if (stage.containsKey("indexName")) {
+            indexScans.add(name + " " + stage.getString("indexName"));
+        }
+
+        Document input = stage.get("inputStage", Document.class);
+        if (input != null) {
+            walk(input, indexScans, collectionScan);
+        }
+        List<?> inputs = stage.get("inputStages", List.class);
+        if (inputs != null) {
+            for (Object child : inputs) {
+                if (child instanceof Document document) {
+                    walk(document, indexScans, collectionScan);
+                }
+            }
+        }
+    }
+
+    private static BsonDocument filterOf(String commandName, BsonDocument command) {
+        BsonValue filter = switch (commandName) {
+            case "find" -> command.get("filter");
+            case "count", "distinct", "findAndModify" -> command.get("query");
+            case "update" -> firstStatementField(command, "updates", "q");
+            case "delete" -> firstStatementField(command, "deletes", "q");
+            case "aggregate" -> firstMatchStage(command);
+            default -> null;
+        };
+        return filter != null && filter.isDocument() ? filter.asDocument() : new BsonDocument();
+    }
+
+    private static BsonDocument sortOf(String commandName, BsonDocument command) {
+        if (!"find".equals(commandName) && !"findAndModify".equals(commandName)) {
+            return null;
+        }
+        BsonValue sort = command.get("sort");
+        return sort != null && sort.isDocument() && !sort.asDocument().isEmpty() ? sort.asDocument() : null;
+    }
+
+    private static BsonValue firstStatementField(BsonDocument command, String arrayName, String field) {
+        BsonValue statements = command.get(arrayName);
+        if (statements == null || !statements.isArray() || statements.asArray().isEmpty()) {
+            return null;
+        }
+        BsonValue first = statements.asArray().get(0);
+        return first.isDocument() ? first.asDocument().get(field) : null;
+    }
+
+    private static BsonValue firstMatchStage(BsonDocument command) {
+        BsonValue pipeline = command.get("pipeline");
+        if (pipeline == null || !pipeline.isArray() || pipeline.asArray().isEmpty()) {
+            return null;
+        }
+        BsonValue first = pipeline.asArray().get(0);
+        return first.isDocument() ? first.asDocument().get("$match") : null;
+    }
+
+    private record InFlight(String collection, BsonDocument filter, BsonDocument sort) {
+    }
+
+    private static final class ShapeStats {
+
+        private final String collection;
+        private final String command;
+        private final String shape;
+        private long count;
+        private long totalNanos;
+        private long maxNanos;
+        private Instant lastSeen;
+        private volatile String plan;
+
+        ShapeStats(String collection, String command, String shape) {
+            this.collection = collection;
+            this.command = command;
+            this.shape = shape;
+        }
+
+        synchronized void record(long elapsedNanos) {
+            count++;
+            totalNanos += elapsedNanos;
+            maxNanos = Math.max(maxNanos, elapsedNanos);
+            lastSeen = Instant.now();
+        }
+
+        void setPlan(String plan) {
+            this.plan = plan;
+        }
+
+        synchronized SlowQueryStats snapshot() {
+            return new SlowQueryStats(collection, command, shape, count,
+                    TimeUnit.NANOSECONDS.toMillis(totalNanos), TimeUnit.NANOSECONDS.toMillis(maxNanos),
+                    lastSeen, plan, plan != null && plan.startsWith("COLLSCAN"));
+        }
+    }
+}
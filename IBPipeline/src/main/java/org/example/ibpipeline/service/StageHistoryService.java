@@ -0,0 +1,228 @@
+package org.example.ibpipeline.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.example.ibpipeline.config.AsyncConfig;
+import org.example.ibpipeline.dto.BulkDealUpdateRequest;
+import org.example.ibpipeline.dto.DealStageTimeline;
+import org.example.ibpipeline.dto.SectorVelocity;
+import org.example.ibpipeline.dto.StageVelocity;
+import org.example.ibpipeline.exception.BadRequestException;
+import org.example.ibpipeline.model.Deal;
+import org.example.ibpipeline.model.DealStage;
+import org.example.ibpipeline.model.DealStageHistory;
+import org.example.ibpipeline.model.StageStats;
+import org.example.ibpipeline.repository.StageHistoryRepository;
+import org.example.ibpipeline.util.DurationSketch;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Executor;
+
+/*
+ * Stage history of every deal, recorded from the DealChangeListener callbacks right after the
+ * stage change is saved, whichever path made it (single update, bulk, create, import). The
+ * callbacks only build the entries; the write runs on the stage history executor, and a failed
+ * write is logged and counted in stage_history.write.failures.
+ *
+ * Each transition is appended to the deal's monthly deal_stage_history bucket, and the same
+ * write bumps stage_stats counters per (sector, stage, month), including a DurationSketch of
+ * the time spent in the stage that was left. Velocity reports merge those counters, so their
+ * cost depends on sectors x stages x months, never on the number of transitions.
+ */
+@Service
+public class StageHistoryService implements DealChangeListener {
+
+    static final int MAX_MONTHS = 120;
+    static final String NO_SECTOR = "(none)";
+
+    private static final Logger logger = LoggerFactory.getLogger(StageHistoryService.class);
+
+    private final StageHistoryRepository stageHistoryRepository;
+    private final Executor writeExecutor;
+    private final Counter writeFailures;
+
+    public StageHistoryService(StageHistoryRepository stageHistoryRepository,
+                               @Qualifier(AsyncConfig.STAGE_HISTORY_EXECUTOR) Executor writeExecutor,
+                               MeterRegistry meterRegistry) {
+        this.stageHistoryRepository = stageHistoryRepository;
+        this.writeExecutor = writeExecutor;
+        this.writeFailures = Counter.builder("stage_history.write.failures")
+                .description("Stage transitions lost because their history write failed")
+                .register(meterRegistry);
+    }
+
+    // =========================
+    // DealChangeListener
+    // =========================
+    @Override
+    public void dealCreated(Deal deal) {
+        Instant at = enteredAt(deal);
+        if (at != null) {
+            append(List.of(entry(deal, null, deal.getCurrentStage(), at, null)));
+        }
+    }
+
+    @Override
+    public void dealUpdated(Deal before, Deal after) {
+        if (before == null || before.getCurrentStage() == after.getCurrentStage()) {
+            return;
+        }
+        Instant at = after.getStageEnteredAt() != null ? after.getStageEnteredAt() : after.getUpdatedAt();
+        append(List.of(
+                entry(after, before.getCurrentStage(), after.getCurrentStage(), at, millisSince(enteredAt(before), at))));
+    }
+
+    @Override
+    public void dealsBulkUpdated(Collection<Deal> before, BulkDealUpdateRequest change, Instant updatedAt) {
+        if (change.getStage() == null) {
+            return;
+        }
+        List<StageHistoryRepository.Entry> entries = new ArrayList<>(before.size());
+        for (Deal deal : before) {
+            if (deal.getCurrentStage() != change.getStage()) {
+                entries.add(entry(deal, deal.getCurrentStage(), change.getStage(), updatedAt,
+                        millisSince(enteredAt(deal), updatedAt)));
+            }
+        }
+        if (!entries.isEmpty()) {
+            append(entries);
+        }
+    }
+
+    private void append(List<StageHistoryRepository.Entry> entries) {
+        writeExecutor.execute(() -> {
+            try {
+                stageHistoryRepository.append(entries);
+            } catch (RuntimeException e) {
+                writeFailures.increment(entries.size());
+                logger.error("Failed to record {} stage transitions (first deal {}): {}",
+                        entries.size(), entries.get(0).dealId(), e.toString());
+            }
+        });
+    }
+
+    // =========================
+    // TIMELINE
+    // =========================
+
+    /*
+     * Transitions are sorted by when they happened, not by where they sit in the bucket: a write
+     * that overflowed the history executor (CALLER_RUNS or SPILL) can be pushed after a later one.
+     */
+    public DealStageTimeline timeline(Deal deal) {
+        List<DealStageHistory.Transition> transitions = new ArrayList<>();
+        for (DealStageHistory bucket : stageHistoryRepository.findHistory(deal.getId())) {
+            transitions.addAll(bucket.getTransitions());
+        }
+        transitions.sort(Comparator.comparing(DealStageHistory.Transition::getAt));
+
+        Instant enteredAt = enteredAt(deal);
+        return new DealStageTimeline(deal.getId(), deal.getCurrentStage(), enteredAt,
+                millisSince(enteredAt, Instant.now()), transitions);
+    }
+
+    // =========================
+    // VELOCITY
+    // =========================
+
+    /* One entry per sector, preceded by one combining them all when no sector is requested */
+    public List<SectorVelocity> velocity(String sector, YearMonth from, YearMonth to) {
+        if (from.isAfter(to)) {
+            throw new BadRequestException("from must not be after to");
+        }
+        if (from.plusMonths(MAX_MONTHS).isBefore(to)) {
+            throw new BadRequestException("At most " + MAX_MONTHS + " months can be requested at once");
+        }
+
+        Map<String, Map<DealStage, Counters>> bySector = new TreeMap<>();
+        Map<DealStage, Counters> all = new EnumMap<>(DealStage.class);
+        for (StageStats stats : stageHistoryRepository.findStats(sector, from, to)) {
+            bySector.computeIfAbsent(stats.getSector(), key -> new EnumMap<>(DealStage.class))
+                    .computeIfAbsent(stats.getStage(), key -> new Counters()).add(stats);
+            all.computeIfAbsent(stats.getStage(), key -> new Counters()).add(stats);
+        }
+
+        List<SectorVelocity> result = new ArrayList<>(bySector.size() + 1);
+        if (sector == null) {
+            result.add(report(null, all));
+        }
+        bySector.forEach((name, stages) -> result.add(report(name, stages)));
+        return result;
+    }
+
+    private static SectorVelocity report(String sector, Map<DealStage, Counters> stages) {
+        List<StageVelocity> velocities = new ArrayList<>(DealStage.values().length);
+        for (DealStage stage : DealStage.values()) {
+            Counters counters = stages.getOrDefault(stage, new Counters());
+            DealStage next = nextInFunnel(stage);
+            Double conversionRate = next == null || counters.exited == 0
+                    ? null
+                    : counters.exitsTo.getOrDefault(next.name(), 0L) / (double) counters.exited;
+            velocities.add(new StageVelocity(stage, counters.entered, counters.exited, counters.exitsTo,
+                    conversionRate,
+                    counters.durations.quantile(0.50),
+                    counters.durations.quantile(0.90),
+                    counters.durations.quantile(0.99)));
+        }
+
+        long closed = stages.containsKey(DealStage.Closed) ? stages.get(DealStage.Closed).entered : 0;
+        long lost = stages.containsKey(DealStage.Lost) ? stages.get(DealStage.Lost).entered : 0;
+        return new SectorVelocity(sector, velocities, closed + lost == 0 ? null : closed / (double) (closed + lost));
+    }
+
+    /* Prospect -> UnderEvaluation -> TermSheetSubmitted -> Closed; Closed and Lost end the funnel */
+    private static DealStage nextInFunnel(DealStage stage) {
+        return switch (stage) {
+            case Prospect -> DealStage.UnderEvaluation;
+            case UnderEvaluation -> DealStage.TermSheetSubmitted;
+            case TermSheetSubmitted -> DealStage.Closed;
+            case Closed, Lost -> null;
+        };
+    }
+
+    private static StageHistoryRepository.Entry entry(Deal deal, DealStage from, DealStage to, Instant at,
+                                                      Long millisInPreviousStage) {
+        String sector = deal.getSector() == null || deal.getSector().isBlank() ? NO_SECTOR : deal.getSector();
+        return new StageHistoryRepository.Entry(deal.getId(), sector,
+                new DealStageHistory.Transition(from, to, at, millisInPreviousStage));
+    }
+
+    /* Deals that last moved before stageEnteredAt was kept fall back to createdAt, overstating their time in stage */
+    private static Instant enteredAt(Deal deal) {
+        return deal.getStageEnteredAt() != null ? deal.getStageEnteredAt() : deal.getCreatedAt();
+    }
+
+    private static Long millisSince(Instant start, Instant end) {
+        return start == null || end == null ? null : Math.max(0, Duration.between(start, end).toMillis());
+    }
+
+    private static final class Counters {
+
+        private long entered;
+        private long exited;
+        private final Map<String, Long> exitsTo = new TreeMap<>();
+        private final DurationSketch durations = new DurationSketch();
+
+        void add(StageStats stats) {
+            entered += stats.getEntered();
+            exited += stats.getExited();
+            if (stats.getExitsTo() != null) {
+                stats.getExitsTo().forEach((stage, count) -> exitsTo.merge(stage, count, Long::sum));
+            }
+            durations.merge(stats.getDurations());
+        }
+    }
+}
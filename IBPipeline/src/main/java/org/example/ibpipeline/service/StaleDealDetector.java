@@ -0,0 +1,184 @@
+package org.example.ibpipeline.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.example.ibpipeline.event.DealEvent;
+import org.example.ibpipeline.event.DealEventType;
+import org.example.ibpipeline.model.Deal;
+import org.example.ibpipeline.model.DealStage;
+import org.example.ibpipeline.model.JobWatermark;
+import org.example.ibpipeline.repository.DealRepository;
+import org.example.ibpipeline.repository.JobWatermarkRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+ * Publishes DEAL_STALE for deals left in Prospect or UnderEvaluation without an update for
+ * longer than their stage's SLA.
+ *
+ * A deal turns stale when its updatedAt drops below now - SLA. Each stage keeps a persisted
+ * (updatedAt, id) watermark of the last deal alerted on, so a run only reads deals whose
+ * updatedAt lies between the watermark and the current cutoff: the ones that crossed the SLA
+ * since the previous run, straight off the stage_updatedAt index. Touching a deal moves its
+ * updatedAt past the watermark, so it is alerted on again only if it goes stale again.
+ */
+@Service
+public class StaleDealDetector {
+
+    private static final Logger logger = LoggerFactory.getLogger(StaleDealDetector.class);
+
+    static final String WATERMARK_PREFIX = "stale-deals:";
+
+    private final DealRepository dealRepository;
+    private final JobWatermarkRepository watermarkRepository;
+    private final KafkaProducerService kafkaProducerService;
+    private final MeterRegistry meterRegistry;
+    private final Timer runTimer;
+    private final Map<DealStage, AtomicLong> backlog = new EnumMap<>(DealStage.class);
+
+    @Value("${app.stale.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${app.stale.sla.prospect:P14D}")
+    private Duration prospectSla = Duration.ofDays(14);
+
+    @Value("${app.stale.sla.under-evaluation:P30D}")
+    private Duration underEvaluationSla = Duration.ofDays(30);
+
+    /* How far back the very first run looks; deals stale for longer than this are not alerted on */
+    @Value("${app.stale.initial-lookback:P1D}")
+    private Duration initialLookback = Duration.ofDays(1);
+
+    @Value("${app.stale.batch-size:500}")
+    private int batchSize = 500;
+
+    @Value("${app.stale.max-batches-per-run:20}")
+    private int maxBatchesPerRun = 20;
+
+    public StaleDealDetector(DealRepository dealRepository,
+                             JobWatermarkRepository watermarkRepository,
+                             KafkaProducerService kafkaProducerService,
+                             MeterRegistry meterRegistry) {
+        this.dealRepository = dealRepository;
+        this.watermarkRepository = watermarkRepository;
+        this.kafkaProducerService = kafkaProducerService;
+        this.meterRegistry = meterRegistry;
+        this.runTimer = Timer.builder("deals.stale.run")
+                .description("Duration of one stale deal detection run")
+                .register(meterRegistry);
+
+        for (DealStage stage : List.of(DealStage.Prospect, DealStage.UnderEvaluation)) {
+            AtomicLong remaining = new AtomicLong();
+            backlog.put(stage, remaining);
+            Gauge.builder("deals.stale.backlog", remaining, AtomicLong::get)
+                    .description("Deals past the SLA that the last run did not get to (max-batches-per-run reached)")
+                    .tag("stage", stage.name())
+                    .register(meterRegistry);
+        }
+    }
+
+    @Scheduled(initialDelayString = "${app.stale.initial-delay:PT1M}", fixedDelayString = "${app.stale.interval:PT15M}")
+    public void scheduledDetect() {
+        if (enabled) {
+            detectStaleDeals();
+        }
+    }
+
+    /* One pass over every watched stage; returns how many deals were reported stale */
+    public int detectStaleDeals() {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        Instant now = Instant.now();
+        int found = 0;
+        try {
+            found += detect(DealStage.Prospect, now.minus(prospectSla), now);
+            found += detect(DealStage.UnderEvaluation, now.minus(underEvaluationSla), now);
+        } finally {
+            sample.stop(runTimer);
+        }
+
+        if (found > 0) {
+            logger.info("Reported {} stale deals", found);
+        }
+        return found;
+    }
+
+    private int detect(DealStage stage, Instant cutoff, Instant now) {
+        String name = WATERMARK_PREFIX + stage.name();
+        JobWatermark watermark = watermarkRepository.find(name);
+        if (watermark == null) {
+            watermark = new JobWatermark(name, cutoff.minus(initialLookback), null, null);
+        }
+
+        int found = 0;
+        boolean drained = false;
+        for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+            List<Deal> stale = dealRepository.findStale(
+                    stage, watermark.getUpdatedAt(), watermark.getDealId(), cutoff, batchSize);
+            if (!stale.isEmpty()) {
+                kafkaProducerService.sendDealEvents(events(stale, stage, now));
+                found += stale.size();
+
+                // saved per batch, so a crash repeats at most one batch of alerts
+                Deal last = stale.get(stale.size() - 1);
+                watermark.setUpdatedAt(last.getUpdatedAt());
+                watermark.setDealId(last.getId());
+                watermark.setLastRunAt(now);
+                watermarkRepository.save(watermark);
+            }
+            if (stale.size() < batchSize) {
+                drained = true;
+                break;
+            }
+        }
+
+        if (drained) {
+            // everything before the cutoff is handled; the next run starts from there (never
+            // backwards, which would alert twice after the SLA is raised)
+            if (cutoff.isAfter(watermark.getUpdatedAt())) {
+                watermark.setUpdatedAt(cutoff);
+                watermark.setDealId(null);
+            }
+            watermark.setLastRunAt(now);
+            watermarkRepository.save(watermark);
+            backlog.get(stage).set(0);
+        } else {
+            backlog.get(stage).set(dealRepository.countStale(
+                    stage, watermark.getUpdatedAt(), watermark.getDealId(), cutoff));
+        }
+
+        if (found > 0) {
+            meterRegistry.counter("deals.stale.detected", "stage", stage.name()).increment(found);
+        }
+        return found;
+    }
+
+    private List<DealEvent> events(List<Deal> stale, DealStage stage, Instant now) {
+        List<DealEvent> events = new ArrayList<>(stale.size());
+        for (Deal deal : stale) {
+            events.add(new DealEvent(
+                    UUID.randomUUID().toString(),
+                    DealEventType.DEAL_STALE,
+                    deal.getId(),
+                    deal.getClientName(),
+                    null,
+                    "No update in " + stage + " since " + deal.getUpdatedAt()
+                            + " (" + Duration.between(deal.getUpdatedAt(), now).toDays() + " days)",
+                    now
+            ));
+        }
+        return events;
+    }
+}
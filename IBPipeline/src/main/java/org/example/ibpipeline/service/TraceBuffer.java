@@ -0,0 +1,114 @@
+package org.example.ibpipeline.service;
+
+import brave.handler.MutableSpan;
+import brave.handler.SpanHandler;
+import brave.propagation.TraceContext;
+import org.example.ibpipeline.dto.TraceSpan;
+import org.example.ibpipeline.dto.TraceSummary;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/*
+ * Keeps the spans of the most recent sampled traces in memory, in place of an exporter.
+ * Registered with the Brave tracer as a SpanHandler; a trace is evicted as a whole once
+ * more than maxTraces traces have been seen, and each trace keeps at most maxSpansPerTrace spans.
+ */
+@Component
+public class TraceBuffer extends SpanHandler {
+
+    private final int maxTraces;
+    private final int maxSpansPerTrace;
+    private final LinkedHashMap<String, List<TraceSpan>> traces;
+
+    public TraceBuffer(@Value("${app.tracing.buffer.max-traces:500}") int maxTraces,
+                       @Value("${app.tracing.buffer.max-spans-per-trace:200}") int maxSpansPerTrace) {
+        this.maxTraces = maxTraces;
+        this.maxSpansPerTrace = maxSpansPerTrace;
+        this.traces = new LinkedHashMap<>(16, 0.75f, false) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, List<TraceSpan>> eldest) {
+                return size() > TraceBuffer.this.maxTraces;
+            }
+        };
+    }
+
+    @Override
+    public boolean end(TraceContext context, MutableSpan span, Cause cause) {
+        if (cause != Cause.FINISHED || maxTraces <= 0) {
+            return true;
+        }
+
+        long start = span.startTimestamp();
+        long duration = span.finishTimestamp() > 0 ? span.finishTimestamp() - start : 0;
+        TraceSpan finished = new TraceSpan(
+                span.traceId(),
+                span.id(),
+                span.parentId(),
+                span.name(),
+                span.kind() == null ? null : span.kind().name(),
+                span.remoteServiceName(),
+                start,
+                duration,
+                span.error() == null ? span.tag("error") : span.error().getClass().getSimpleName(),
+                Map.copyOf(span.tags()));
+
+        synchronized (this) {
+            List<TraceSpan> spans = traces.computeIfAbsent(span.traceId(), id -> new ArrayList<>());
+            if (spans.size() < maxSpansPerTrace) {
+                spans.add(finished);
+            }
+        }
+        return true;
+    }
+
+    /* Most recently started traces first */
+    public synchronized List<TraceSummary> recent(int limit) {
+        List<TraceSummary> summaries = new ArrayList<>(traces.size());
+        traces.forEach((traceId, spans) -> summaries.add(summarize(traceId, spans)));
+        summaries.sort(Comparator.comparingLong(TraceSummary::getStartMicros).reversed());
+        return summaries.size() > limit ? summaries.subList(0, limit) : summaries;
+    }
+
+    /* Spans of one trace ordered by start time, or null if it is not (or no longer) buffered */
+    public synchronized List<TraceSpan> trace(String traceId) {
+        List<TraceSpan> spans = traces.get(traceId);
+        if (spans == null) {
+            return null;
+        }
+        List<TraceSpan> ordered = new ArrayList<>(spans);
+        ordered.sort(Comparator.comparingLong(TraceSpan::getStartMicros));
+        return ordered;
+    }
+
+    public synchronized void clear() {
+        traces.clear();
+    }
+
+    private static TraceSummary summarize(String traceId, List<TraceSpan> spans) {
+        long start = Long.MAX_VALUE;
+        long end = 0;
+        boolean error = false;
+        TraceSpan root = null;
+        TraceSpan earliest = null;
+        for (TraceSpan span : spans) {
+            if (span.getStartMicros() < start) {
+                start = span.getStartMicros();
+                earliest = span;
+            }
+            end = Math.max(end, span.getStartMicros() + span.getDurationMicros());
+            error |= span.getError() != null;
+            if (span.getParentId() == null) {
+                root = span;
+            }
+        }
+        // the root may still be open (or unsampled upstream); fall back to the earliest span
+        TraceSpan named = root != null ? root : earliest;
+        return new TraceSummary(traceId, named == null ? null : named.getName(), spans.size(), start, end - start, error);
+    }
+}
@@ -1,6 +1,8 @@
 package org.example.ibpipeline.service;
 
 import org.apache.coyote.BadRequestException;
+import org.example.ibpipeline.dto.UserDirectoryPage;
+import org.example.ibpipeline.dto.UserFilter;
 import org.example.ibpipeline.exception.ResourceNotFoundException;
 import org.example.ibpipeline.model.Role;
 import org.example.ibpipeline.model.User;
@@ -9,6 +11,7 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 @Service
 public class UserService {
@@ -16,6 +19,8 @@ public class UserService {
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
 
+    static final int MAX_DIRECTORY_PAGE_SIZE = 200;
+
     public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
@@ -58,9 +63,23 @@ public class UserService {
         return userRepository.findByUsername(username).orElseThrow(() -> new ResourceNotFoundException("User Not Found"));
     }
 
-    /* List all users (ADMIN only) */
-    public List<User> getAllUsers() {
-        return userRepository.findAll();
+    /* Directory page (ADMIN only); the cursor is the last username of the previous page */
+    public UserDirectoryPage getDirectory(UserFilter filter, String cursor, int limit) {
+        int size = Math.max(1, Math.min(limit, MAX_DIRECTORY_PAGE_SIZE));
+        String after = cursor == null || cursor.isBlank() ? null : cursor;
+
+        List<User> users = userRepository.findDirectoryPage(filter, after, size + 1);
+        String nextCursor = null;
+        if (users.size() > size) {
+            users = users.subList(0, size);
+            nextCursor = users.get(size - 1).getUsername();
+        }
+        return new UserDirectoryPage(users, nextCursor);
+    }
+
+    /* The whole filtered directory for export (ADMIN only); the caller must close the stream */
+    public Stream<User> streamDirectory(UserFilter filter) {
+        return userRepository.streamDirectory(filter);
     }
 
 
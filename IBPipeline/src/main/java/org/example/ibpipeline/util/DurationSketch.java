@@ -0,0 +1,67 @@
+package org.example.ibpipeline.util;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/*
+ * Quantile sketch for durations in milliseconds (the DDSketch layout): bucket i holds values in
+ * (gamma^(i-1), gamma^i], so any quantile is returned within RELATIVE_ACCURACY of the true value.
+ * A sketch is only a bucket -> count map, and two sketches merge by adding counts, which is what
+ * lets stage durations be stored per sector and month and combined at query time.
+ */
+public final class DurationSketch {
+
+    public static final double RELATIVE_ACCURACY = 0.01;
+
+    private static final double GAMMA = (1 + RELATIVE_ACCURACY) / (1 - RELATIVE_ACCURACY);
+    private static final double LOG_GAMMA = Math.log(GAMMA);
+
+    private final TreeMap<Integer, Long> counts = new TreeMap<>();
+    private long total;
+
+    /* Bucket for a duration; everything up to 1 ms shares bucket 0. A year lands around 1200. */
+    public static int bucketOf(long millis) {
+        return millis <= 1 ? 0 : (int) Math.ceil(Math.log(millis) / LOG_GAMMA);
+    }
+
+    public void add(long millis) {
+        add(bucketOf(millis), 1);
+    }
+
+    public void add(int bucket, long count) {
+        counts.merge(bucket, count, Long::sum);
+        total += count;
+    }
+
+    /* Adds a stored sketch, whose bucket indexes are map keys because they end up as Mongo field names */
+    public void merge(Map<String, Long> stored) {
+        if (stored != null) {
+            stored.forEach((bucket, count) -> add(Integer.parseInt(bucket), count));
+        }
+    }
+
+    public long count() {
+        return total;
+    }
+
+    /* Value at quantile q (0..1), or null for an empty sketch */
+    public Long quantile(double q) {
+        if (total == 0) {
+            return null;
+        }
+        long rank = (long) Math.floor(q * (total - 1));
+        long seen = 0;
+        for (Map.Entry<Integer, Long> entry : counts.entrySet()) {
+            seen += entry.getValue();
+            if (seen > rank) {
+                return value(entry.getKey());
+            }
+        }
+        return value(counts.lastKey());
+    }
+
+    /* Midpoint of the bucket in relative terms, which is what bounds the error */
+    private static long value(int bucket) {
+        return bucket == 0 ? 1 : Math.round(2 * Math.pow(GAMMA, bucket) / (GAMMA + 1));
+    }
+}
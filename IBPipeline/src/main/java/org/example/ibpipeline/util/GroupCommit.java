@@ -0,0 +1,92 @@
+package org.example.ibpipeline.util;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+/*
+ * Group commit per key: items submitted for the same key within a window are written by one
+ * flush call. The first submitter of a batch is its leader; it waits out the window, closes
+ * the batch and runs the flush on its own thread. Everyone else in the batch blocks until
+ * that flush returns and gets the same result or exception, so no caller returns before its
+ * item is written.
+ *
+ * A batch that reaches maxBatch items is closed early; the next item opens a new one. With a
+ * zero window every batch holds whatever arrived while the previous one was being opened,
+ * which is usually just the leader's own item.
+ */
+public final class GroupCommit<K, T, R> {
+
+    private final Map<K, Batch<T, R>> open = new ConcurrentHashMap<>();
+
+    public R submit(K key, T item, Duration window, int maxBatch, Function<List<T>, R> flush) {
+        AtomicReference<Batch<T, R>> joined = new AtomicReference<>();
+        AtomicBoolean leader = new AtomicBoolean();
+        // items are only added and read under the map's lock for the key
+        open.compute(key, (k, batch) -> {
+            if (batch == null || batch.items.size() >= maxBatch) {
+                batch = new Batch<>();
+                leader.set(true);
+            }
+            batch.items.add(item);
+            joined.set(batch);
+            return batch;
+        });
+        Batch<T, R> batch = joined.get();
+
+        if (!leader.get()) {
+            try {
+                return batch.result.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                throw e;
+            }
+        }
+
+        pause(window);
+        AtomicReference<List<T>> closed = new AtomicReference<>();
+        open.compute(key, (k, current) -> {
+            closed.set(List.copyOf(batch.items));
+            return current == batch ? null : current;
+        });
+        try {
+            R result = flush.apply(closed.get());
+            batch.result.complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            batch.result.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /* Batches currently collecting items, for tests and metrics */
+    public int openBatches() {
+        return open.size();
+    }
+
+    private static void pause(Duration window) {
+        if (window == null || window.isZero() || window.isNegative()) {
+            return;
+        }
+        try {
+            Thread.sleep(window.toMillis(), window.toNanosPart() % 1_000_000);
+        } catch (InterruptedException e) {
+            // flush what we have: the followers are waiting on it
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static final class Batch<T, R> {
+        final List<T> items = new ArrayList<>();
+        final CompletableFuture<R> result = new CompletableFuture<>();
+    }
+}
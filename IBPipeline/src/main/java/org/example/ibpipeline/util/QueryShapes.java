@@ -0,0 +1,99 @@
+package org.example.ibpipeline.util;
+
+import org.bson.BsonArray;
+import org.bson.BsonBoolean;
+import org.bson.BsonDateTime;
+import org.bson.BsonDocument;
+import org.bson.BsonDouble;
+import org.bson.BsonInt32;
+import org.bson.BsonInt64;
+import org.bson.BsonNull;
+import org.bson.BsonObjectId;
+import org.bson.BsonString;
+import org.bson.BsonValue;
+import org.bson.types.ObjectId;
+
+import java.util.Map;
+
+/*
+ * Turns Mongo filters into value-free shapes.
+ * placeholders() keeps field names, operators and value types but swaps every literal for a
+ * fixed value of the same type, so the result can still be explained. shape() renders that
+ * as JSON with "?" for every value, which is safe to log and to group slow queries by.
+ */
+public final class QueryShapes {
+
+    private static final ObjectId ZERO_OBJECT_ID = new ObjectId(new byte[12]);
+
+    private QueryShapes() {
+    }
+
+    public static BsonDocument placeholders(BsonDocument filter) {
+        BsonDocument result = new BsonDocument();
+        for (Map.Entry<String, BsonValue> entry : filter.entrySet()) {
+            result.append(entry.getKey(), placeholder(entry.getKey(), entry.getValue()));
+        }
+        return result;
+    }
+
+    public static String shape(BsonDocument placeholders) {
+        return redact(placeholders).asDocument().toJson();
+    }
+
+    private static BsonValue placeholder(String key, BsonValue value) {
+        if (value.isDocument()) {
+            return placeholders(value.asDocument());
+        }
+        if (value.isArray()) {
+            BsonArray array = value.asArray();
+            // $and/$or/$nor hold sub-filters; every other array ($in, $all, literal arrays) collapses to one element
+            if (isLogicalOperator(key)) {
+                BsonArray filters = new BsonArray();
+                for (BsonValue element : array) {
+                    filters.add(element.isDocument() ? placeholders(element.asDocument()) : scalar(element));
+                }
+                return filters;
+            }
+            BsonArray collapsed = new BsonArray();
+            if (!array.isEmpty()) {
+                collapsed.add(placeholder(key, array.get(0)));
+            }
+            return collapsed;
+        }
+        return scalar(value);
+    }
+
+    private static BsonValue scalar(BsonValue value) {
+        return switch (value.getBsonType()) {
+            case STRING -> new BsonString("");
+            case INT32 -> new BsonInt32(0);
+            case INT64 -> new BsonInt64(0);
+            case DOUBLE -> new BsonDouble(0);
+            case DATE_TIME -> new BsonDateTime(0);
+            case OBJECT_ID -> new BsonObjectId(ZERO_OBJECT_ID);
+            case BOOLEAN -> BsonBoolean.FALSE;
+            case NULL -> BsonNull.VALUE;
+            default -> new BsonString("");
+        };
+    }
+
+    private static BsonValue redact(BsonValue value) {
+        if (value.isDocument()) {
+            BsonDocument result = new BsonDocument();
+            for (Map.Entry<String, BsonValue> entry : value.asDocument().entrySet()) {
+                result.append(entry.getKey(), redact(entry.getValue()));
+            }
+            return result;
+        }
+        if (value.isArray()) {
+            BsonArray result = new BsonArray();
+            value.asArray().forEach(element -> result.add(redact(element)));
+            return result;
+        }
+        return value.isNull() ? value : new BsonString("?");
+    }
+
+    private static boolean isLogicalOperator(String key) {
+        return "$and".equals(key) || "$or".equals(key) || "$nor".equals(key);
+    }
+}
@@ -0,0 +1,101 @@
+package org.example.ibpipeline.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AsyncConfigTest {
+
+    private MeterRegistry meterRegistry;
+    private AsyncConfig config;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        config = new AsyncConfig();
+        ReflectionTestUtils.setField(config, "coreSize", 1);
+        ReflectionTestUtils.setField(config, "maxSize", 1);
+        ReflectionTestUtils.setField(config, "queueCapacity", 1);
+        ReflectionTestUtils.setField(config, "overflowPolicy", ExecutorOverflowPolicy.SPILL);
+        ReflectionTestUtils.setField(config, "spillCapacity", 10);
+    }
+
+    @Test
+    void registersOnlyTheMetersBootDoesNot() {
+        config.dealEventExecutor(meterRegistry);
+
+        assertNotNull(meterRegistry.find("executor.spilled").gauge());
+        assertNotNull(meterRegistry.find("executor.wait").timer());
+        assertNull(meterRegistry.find("executor.active").gauge());
+        assertNull(meterRegistry.find("executor.queued").gauge());
+    }
+
+    @Test
+    void spilledTasks_stillRunWhenThePoolStopsWithoutThem() throws Exception {
+        ThreadPoolTaskExecutor executor = config.dealEventExecutor(meterRegistry);
+        executor.setAwaitTerminationSeconds(0);
+        executor.initialize();
+
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        AtomicReference<Thread> spilledOn = new AtomicReference<>();
+        executor.execute(() -> {
+            started.countDown();
+            awaitQuietly(release);
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        executor.execute(() -> { });
+        executor.execute(() -> spilledOn.set(Thread.currentThread()));
+        assertEquals(1.0, meterRegistry.get("executor.spilled").gauge().value());
+
+        executor.shutdown();
+        release.countDown();
+
+        assertSame(Thread.currentThread(), spilledOn.get());
+    }
+
+    @Test
+    void eachExecutor_hasItsOwnSpillCapacity() throws Exception {
+        ReflectionTestUtils.setField(config, "stageHistoryQueueCapacity", 1);
+        ReflectionTestUtils.setField(config, "stageHistoryOverflowPolicy", ExecutorOverflowPolicy.SPILL);
+        ReflectionTestUtils.setField(config, "stageHistorySpillCapacity", 1);
+        ThreadPoolTaskExecutor executor = config.stageHistoryExecutor(meterRegistry);
+        executor.initialize();
+
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        executor.execute(() -> {
+            started.countDown();
+            awaitQuietly(release);
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        executor.execute(() -> { });
+        executor.execute(() -> { });
+        executor.execute(() -> { });
+
+        assertEquals(1.0, meterRegistry.get("executor.spilled").tag("name", AsyncConfig.STAGE_HISTORY_EXECUTOR)
+                .gauge().value());
+        assertEquals(1.0, meterRegistry.get("executor.rejected").tag("name", AsyncConfig.STAGE_HISTORY_EXECUTOR)
+                .tag("outcome", "dropped").counter().count());
+
+        release.countDown();
+        executor.shutdown();
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package org.example.ibpipeline.config;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.example.ibpipeline.event.jfr.DealOperationEvent;
+import org.example.ibpipeline.model.Deal;
+import org.example.ibpipeline.model.DealStage;
+import org.example.ibpipeline.repository.DealRepository;
+import org.example.ibpipeline.repository.UserRepository;
+import org.example.ibpipeline.service.DealBoardIndex;
+import org.example.ibpipeline.service.DealCache;
+import org.example.ibpipeline.service.DealChangePublisher;
+import org.example.ibpipeline.service.DealDictionary;
+import org.example.ibpipeline.service.DealService;
+import org.example.ibpipeline.service.DuplicateDealIndex;
+import org.example.ibpipeline.service.KafkaProducerService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class JfrConfigTest {
+
+    @TempDir
+    Path directory;
+
+    private final BeanPostProcessor postProcessor = JfrConfig.dealOperationRecorderPostProcessor();
+
+    private DealRepository dealRepository;
+    private KafkaProducerService kafkaProducerService;
+    private DealService dealService;
+
+    @BeforeEach
+    void setUp() {
+        DealRepository repositoryMock = mock(DealRepository.class);
+        KafkaProducerService producerMock = mock(KafkaProducerService.class);
+        DealDictionary dealDictionary = mock(DealDictionary.class);
+        when(dealDictionary.canonical(any(), any())).thenAnswer(i -> i.getArgument(1));
+
+        Deal deal = new Deal();
+        deal.setId("d1");
+        deal.setCurrentStage(DealStage.Prospect);
+        when(repositoryMock.findById("d1")).thenAnswer(i -> {
+            Thread.sleep(5);
+            return Optional.of(deal);
+        });
+        when(repositoryMock.save(any())).thenAnswer(i -> i.getArgument(0));
+        doAnswer(i -> {
+            Thread.sleep(3);
+            return null;
+        }).when(producerMock).sendDealEvent(any());
+
+        dealRepository = (DealRepository) postProcessor.postProcessAfterInitialization(repositoryMock, "dealRepository");
+        kafkaProducerService = (KafkaProducerService) postProcessor.postProcessAfterInitialization(producerMock,
+                "kafkaProducerService");
+        DealService target = new DealService(dealRepository, kafkaProducerService, mock(DealCache.class),
+                mock(DealChangePublisher.class), mock(DealBoardIndex.class), mock(UserRepository.class),
+                mock(DuplicateDealIndex.class), dealDictionary);
+        dealService = (DealService) postProcessor.postProcessAfterInitialization(target, "dealService");
+    }
+
+    @Test
+    void dealServiceCalls_recordTheirMongoAndPublishTime() throws Exception {
+        Path file = directory.resolve("operations.jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable(DealOperationEvent.class);
+            recording.start();
+
+            dealService.updateStage("d1", DealStage.UnderEvaluation, null, "alice");
+            dealService.findMine(null, "alice", null, 10, false);
+            // outside a DealService call: passes through untimed
+            dealRepository.findById("d1");
+
+            recording.stop();
+            recording.dump(file);
+        }
+
+        List<RecordedEvent> operations = RecordingFile.readAllEvents(file).stream()
+                .filter(recorded -> recorded.getEventType().getName().equals("org.example.ibpipeline.DealOperation"))
+                .toList();
+        assertEquals(1, operations.size());
+        RecordedEvent updateStage = operations.get(0);
+        assertEquals("updateStage", updateStage.getString("operation"));
+        assertEquals("d1", updateStage.getString("dealId"));
+        assertEquals(1, updateStage.getInt("dealCount"));
+        assertTrue(updateStage.getDuration("mongoTime").toMillis() >= 5);
+        assertTrue(updateStage.getDuration("publishTime").toMillis() >= 3);
+        assertTrue(updateStage.getDuration().compareTo(
+                updateStage.getDuration("mongoTime").plus(updateStage.getDuration("publishTime"))) >= 0);
+    }
+
+    @Test
+    void withoutARecording_callsPassStraightThrough() {
+        Deal updated = dealService.updateStage("d1", DealStage.Closed, null, "alice");
+
+        assertEquals(DealStage.Closed, updated.getCurrentStage());
+        verify(kafkaProducerService).sendDealEvent(any());
+    }
+}
@@ -0,0 +1,109 @@
+package org.example.ibpipeline.config;
+
+import com.mongodb.ConnectionString;
+import com.mongodb.MongoClientSettings;
+import com.mongodb.MongoCompressor;
+import com.mongodb.ReadConcern;
+import com.mongodb.ServerAddress;
+import com.mongodb.WriteConcern;
+import com.mongodb.connection.ClusterId;
+import com.mongodb.connection.ConnectionId;
+import com.mongodb.connection.ServerId;
+import com.mongodb.event.ConnectionCheckOutFailedEvent;
+import com.mongodb.event.ConnectionCheckedOutEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.ibpipeline.model.Deal;
+import org.example.ibpipeline.model.Notification;
+import org.example.ibpipeline.model.StageStats;
+import org.example.ibpipeline.repository.ReadConcernResolver;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoAction;
+import org.springframework.data.mongodb.core.MongoActionOperation;
+import org.springframework.data.mongodb.core.WriteConcernResolver;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MongoConfigTest {
+
+    private MeterRegistry meterRegistry;
+    private MongoConfig config;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        config = new MongoConfig();
+        ReflectionTestUtils.setField(config, "poolMinSize", 10);
+        ReflectionTestUtils.setField(config, "poolMaxSize", 50);
+        ReflectionTestUtils.setField(config, "poolMaxWait", Duration.ofSeconds(5));
+        ReflectionTestUtils.setField(config, "compressors", List.of("zstd", " snappy", ""));
+        ReflectionTestUtils.setField(config, "readConcern", "majority");
+        ReflectionTestUtils.setField(config, "backgroundReadConcern", "available");
+        ReflectionTestUtils.setField(config, "defaultWriteConcern", "majority");
+        ReflectionTestUtils.setField(config, "backgroundWriteConcern", "w1");
+    }
+
+    @Test
+    void tuningCustomizer_overridesTheConnectionString() {
+        MongoClientSettings.Builder builder = MongoClientSettings.builder()
+                .applyConnectionString(new ConnectionString("mongodb://db1/test?maxPoolSize=5&w=1"));
+        config.mongoClientTuningCustomizer(meterRegistry).customize(builder);
+        MongoClientSettings settings = builder.build();
+
+        assertEquals(10, settings.getConnectionPoolSettings().getMinSize());
+        assertEquals(50, settings.getConnectionPoolSettings().getMaxSize());
+        assertEquals(5000, settings.getConnectionPoolSettings().getMaxWaitTime(TimeUnit.MILLISECONDS));
+        assertEquals(List.of("zstd", "snappy"), settings.getCompressorList().stream().map(MongoCompressor::getName).toList());
+        assertEquals(ReadConcern.MAJORITY, settings.getReadConcern());
+        assertEquals(WriteConcern.MAJORITY, settings.getWriteConcern());
+        assertEquals(1, settings.getConnectionPoolSettings().getConnectionPoolListeners().size());
+    }
+
+    @Test
+    void unknownSettings_failAtStartup() {
+        assertThrows(IllegalArgumentException.class, () -> MongoConfig.compressors(List.of("lz4")));
+        assertThrows(IllegalArgumentException.class, () -> MongoConfig.writeConcern("most"));
+        assertThrows(IllegalArgumentException.class, () -> MongoConfig.readConcern("latest"));
+    }
+
+    @Test
+    void writeConcernResolver_appliesTheBackgroundConcernToBackgroundEntities() {
+        WriteConcernResolver resolver = config.writeConcernResolver();
+
+        assertEquals(WriteConcern.W1, resolver.resolve(action(Notification.class)));
+        assertNull(resolver.resolve(action(Deal.class)));
+    }
+
+    @Test
+    void readConcernResolver_appliesTheBackgroundConcernToBackgroundQueries() {
+        ReadConcernResolver resolver = config.readConcernResolver();
+
+        assertEquals(ReadConcern.AVAILABLE, resolver.apply(new Query(), StageStats.class).getReadConcern());
+        assertFalse(resolver.apply(new Query(), Deal.class).hasReadConcern());
+    }
+
+    @Test
+    void poolListener_timesCheckoutsByOutcome() {
+        MongoPoolMetricsListener listener = new MongoPoolMetricsListener(meterRegistry);
+        ServerId server = new ServerId(new ClusterId(), new ServerAddress("db1", 27017));
+
+        listener.connectionCheckedOut(new ConnectionCheckedOutEvent(new ConnectionId(server), 1, 2_000_000));
+        listener.connectionCheckOutFailed(new ConnectionCheckOutFailedEvent(server, 2,
+                ConnectionCheckOutFailedEvent.Reason.TIMEOUT, 5_000_000_000L));
+
+        assertEquals(1, meterRegistry.get("mongodb.pool.checkout").tag("outcome", "success").timer().count());
+        assertEquals(5, meterRegistry.get("mongodb.pool.checkout").tag("outcome", "timeout")
+                .tag("server.address", "db1:27017").timer().totalTime(TimeUnit.SECONDS), 0.001);
+    }
+
+    private static MongoAction action(Class<?> entityType) {
+        return new MongoAction(null, MongoActionOperation.INSERT, "collection", entityType, null, null);
+    }
+}
@@ -0,0 +1,70 @@
+package org.example.ibpipeline.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OverflowRejectedExecutionHandlerTest {
+
+    private MeterRegistry meterRegistry;
+    private ThreadPoolExecutor executor;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        executor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.SECONDS, new LinkedBlockingQueue<>());
+    }
+
+    @Test
+    void callerRuns_runsTaskAndCounts() {
+        OverflowRejectedExecutionHandler handler = handler(ExecutorOverflowPolicy.CALLER_RUNS, new ArrayBlockingQueue<>(1));
+        AtomicBoolean ran = new AtomicBoolean();
+
+        handler.rejectedExecution(() -> ran.set(true), executor);
+
+        assertTrue(ran.get());
+        assertEquals(1.0, rejected("caller_runs"));
+    }
+
+    @Test
+    void spill_parksTaskUntilBufferIsFull() {
+        BlockingQueue<Runnable> spill = new ArrayBlockingQueue<>(1);
+        OverflowRejectedExecutionHandler handler = handler(ExecutorOverflowPolicy.SPILL, spill);
+
+        handler.rejectedExecution(() -> { }, executor);
+        handler.rejectedExecution(() -> { }, executor);
+
+        assertEquals(1, spill.size());
+        assertEquals(1.0, rejected("spilled"));
+        assertEquals(1.0, rejected("dropped"));
+    }
+
+    @Test
+    void drop_discardsTaskAndCounts() {
+        OverflowRejectedExecutionHandler handler = handler(ExecutorOverflowPolicy.DROP, new ArrayBlockingQueue<>(1));
+        AtomicBoolean ran = new AtomicBoolean();
+
+        handler.rejectedExecution(() -> ran.set(true), executor);
+
+        assertFalse(ran.get());
+        assertEquals(1.0, rejected("dropped"));
+    }
+
+    private OverflowRejectedExecutionHandler handler(ExecutorOverflowPolicy policy, BlockingQueue<Runnable> spill) {
+        return new OverflowRejectedExecutionHandler("test", policy, spill, meterRegistry);
+    }
+
+    private double rejected(String outcome) {
+        return meterRegistry.get("executor.rejected").tag("outcome", outcome).counter().count();
+    }
+}
@@ -0,0 +1,100 @@
+package org.example.ibpipeline.service;
+
+import org.example.ibpipeline.exception.ResourceNotFoundException;
+import org.example.ibpipeline.model.Deal;
+import org.example.ibpipeline.model.DealStage;
+import org.example.ibpipeline.repository.DealRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class DealArchiveServiceTest {
+
+    @Mock
+    private DealRepository dealRepository;
+
+    @Mock
+    private DealCache dealCache;
+
+    @Mock
+    private KafkaProducerService kafkaProducerService;
+
+    @Mock
+    private DealChangePublisher dealChangePublisher;
+
+    @InjectMocks
+    private DealArchiveService dealArchiveService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(dealArchiveService, "batchSize", 2);
+    }
+
+    @Test
+    void archive_movesBatchesUntilExhausted() {
+        Deal first = deal("1");
+        Deal second = deal("2");
+        Deal third = deal("3");
+        when(dealRepository.findArchiveCandidates(eq(DealArchiveService.TERMINAL_STAGES), any(), eq(2)))
+                .thenReturn(List.of(first, second))
+                .thenReturn(List.of(third));
+        when(dealRepository.moveToArchive(eq(List.of(first, second)), any()))
+                .thenReturn(List.of("1"));
+        when(dealRepository.moveToArchive(eq(List.of(third)), any()))
+                .thenReturn(List.of("3"));
+
+        int archived = dealArchiveService.archiveEligibleDeals();
+
+        assertEquals(2, archived);
+        verify(dealRepository, times(2)).findArchiveCandidates(any(), any(), anyInt());
+        verify(dealCache).evictAll(List.of("1"));
+        verify(kafkaProducerService).sendDealEvents(argThat(events -> events.size() == 1
+                && events.get(0).getDealId().equals("1")));
+    }
+
+    @Test
+    void archive_nothingEligible_doesNothing() {
+        when(dealRepository.findArchiveCandidates(any(), any(), anyInt()))
+                .thenReturn(List.of());
+
+        assertEquals(0, dealArchiveService.archiveEligibleDeals());
+        verify(dealRepository, never()).moveToArchive(any(), any());
+    }
+
+    @Test
+    void restore_success() {
+        Deal restored = deal("1");
+        when(dealRepository.restoreFromArchive(eq("1"), any()))
+                .thenReturn(restored);
+
+        assertSame(restored, dealArchiveService.restoreDeal("1", "admin"));
+        verify(dealCache).evict("1");
+        verify(kafkaProducerService).sendDealEvent(any());
+    }
+
+    @Test
+    void restore_notArchived_throws() {
+        when(dealRepository.restoreFromArchive(eq("1"), any()))
+                .thenReturn(null);
+
+        assertThrows(ResourceNotFoundException.class, () -> dealArchiveService.restoreDeal("1", "admin"));
+    }
+
+    private static Deal deal(String id) {
+        Deal deal = new Deal();
+        deal.setId(id);
+        deal.setClientName("Client " + id);
+        deal.setCurrentStage(DealStage.Closed);
+        return deal;
+    }
+}
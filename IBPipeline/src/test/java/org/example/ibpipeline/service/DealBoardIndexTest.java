@@ -0,0 +1,183 @@
+package org.example.ibpipeline.service;
+
+import org.example.ibpipeline.dto.BulkDealUpdateRequest;
+import org.example.ibpipeline.dto.DealBoard;
+import org.example.ibpipeline.dto.DealBoardLane;
+import org.example.ibpipeline.dto.DealCard;
+import org.example.ibpipeline.dto.DealOwnership;
+import org.example.ibpipeline.exception.BadRequestException;
+import org.example.ibpipeline.model.Deal;
+import org.example.ibpipeline.model.DealStage;
+import org.example.ibpipeline.repository.DealRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class DealBoardIndexTest {
+
+    @Mock
+    private DealRepository dealRepository;
+
+    private DealBoardIndex index;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        index = new DealBoardIndex(dealRepository, List.of(new DealSuggestIndex()), 100);
+    }
+
+    @Test
+    void load_groupsDealsByStageNewestFirst() {
+        when(dealRepository.streamWithoutNotes()).thenReturn(Stream.of(
+                deal("a", DealStage.Prospect, 100, 10),
+                deal("b", DealStage.Prospect, 300, 20),
+                deal("c", DealStage.Closed, 200, 30)));
+
+        index.load();
+        DealBoard board = index.board(10, true);
+
+        assertTrue(board.isComplete());
+        DealBoardLane prospect = lane(board, DealStage.Prospect);
+        assertEquals(2, prospect.getCount());
+        assertEquals(30L, prospect.getTotalValue());
+        assertEquals(List.of("b", "a"), ids(prospect));
+        assertNull(prospect.getNextCursor());
+        assertEquals(1, lane(board, DealStage.Closed).getCount());
+        assertEquals(0, lane(board, DealStage.Lost).getCount());
+    }
+
+    @Test
+    void lanesPageWithCursor_andHideValuesFromNonAdmins() {
+        when(dealRepository.streamWithoutNotes()).thenReturn(Stream.of(
+                deal("a", DealStage.Prospect, 100, 10),
+                deal("b", DealStage.Prospect, 200, 10),
+                deal("c", DealStage.Prospect, 300, 10)));
+        index.load();
+
+        DealBoardLane first = lane(index.board(2, false), DealStage.Prospect);
+        assertEquals(List.of("c", "b"), ids(first));
+        assertNull(first.getTotalValue());
+        assertNull(first.getDeals().get(0).getDealValue());
+        assertNotNull(first.getNextCursor());
+
+        DealBoardLane second = index.lane(DealStage.Prospect, first.getNextCursor(), 2, false);
+        assertEquals(List.of("a"), ids(second));
+        assertEquals(3, second.getCount());
+        assertNull(second.getNextCursor());
+
+        assertThrows(BadRequestException.class, () -> index.lane(DealStage.Prospect, "not-a-cursor", 2, false));
+    }
+
+    @Test
+    void lanesBreakTimeTiesByIdDescending_likeTheCursorOrder() {
+        when(dealRepository.streamWithoutNotes()).thenReturn(Stream.of(
+                deal("a", DealStage.Prospect, 100, 10),
+                deal("c", DealStage.Prospect, 100, 10),
+                deal("b", DealStage.Prospect, 100, 10)));
+        index.load();
+
+        DealBoardLane first = lane(index.board(2, false), DealStage.Prospect);
+        assertEquals(List.of("c", "b"), ids(first));
+        assertEquals(List.of("a"), ids(index.lane(DealStage.Prospect, first.getNextCursor(), 2, false)));
+    }
+
+    @Test
+    void changes_moveCardsBetweenLanes_andIgnoreStaleVersions() {
+        when(dealRepository.streamWithoutNotes()).thenReturn(Stream.of(deal("a", DealStage.Prospect, 100, 10)));
+        index.load();
+
+        Deal moved = deal("a", DealStage.UnderEvaluation, 200, 10);
+        moved.setVersion(2L);
+        index.dealUpdated(null, moved);
+
+        Deal stale = deal("a", DealStage.Lost, 150, 10);
+        stale.setVersion(1L);
+        index.dealUpdated(null, stale);
+
+        DealBoard board = index.board(10, true);
+        assertEquals(0, lane(board, DealStage.Prospect).getCount());
+        assertEquals(List.of("a"), ids(lane(board, DealStage.UnderEvaluation)));
+        assertEquals(0, lane(board, DealStage.Lost).getCount());
+
+        BulkDealUpdateRequest change = new BulkDealUpdateRequest();
+        change.setStage(DealStage.Closed);
+        change.setDealValue(99L);
+        index.dealsBulkUpdated(List.of(moved), change, Instant.ofEpochMilli(500));
+
+        DealBoardLane closed = lane(index.board(10, true), DealStage.Closed);
+        assertEquals(99L, closed.getTotalValue());
+        DealCard card = closed.getDeals().get(0);
+        assertEquals("Sector", card.getSector());
+        assertEquals(3L, card.getVersion());
+
+        index.dealArchived(moved);
+        assertEquals(0, lane(index.board(10, true), DealStage.Closed).getCount());
+    }
+
+    @Test
+    void deleteDuringLoad_isNotResurrected() {
+        Deal deleted = deal("a", DealStage.Prospect, 100, 10);
+        when(dealRepository.streamWithoutNotes()).thenAnswer(invocation -> Stream.of(deleted)
+                .peek(deal -> index.dealDeleted(deal)));
+
+        index.load();
+
+        assertEquals(0, lane(index.board(10, true), DealStage.Prospect).getCount());
+    }
+
+    @Test
+    void perUserCounts_followCreationStageMovesAndReassignment() {
+        Deal mine = deal("a", DealStage.Prospect, 100, 10);
+        mine.setCreatedBy("alice");
+        mine.setAssignedTo("bob");
+        Deal other = deal("b", DealStage.Prospect, 100, 10);
+        other.setCreatedBy("alice");
+        when(dealRepository.streamWithoutNotes()).thenReturn(Stream.of(mine, other));
+        index.load();
+
+        assertEquals(2L, index.countsFor(DealOwnership.CREATOR, "alice").get(DealStage.Prospect));
+        assertEquals(1L, index.countsFor(DealOwnership.ASSIGNEE, "bob").get(DealStage.Prospect));
+
+        BulkDealUpdateRequest change = new BulkDealUpdateRequest();
+        change.setStage(DealStage.Closed);
+        change.setAssignedTo("carol");
+        index.dealsBulkUpdated(List.of(mine), change, Instant.ofEpochMilli(200));
+
+        assertEquals(1L, index.countsFor(DealOwnership.CREATOR, "alice").get(DealStage.Prospect));
+        assertEquals(1L, index.countsFor(DealOwnership.CREATOR, "alice").get(DealStage.Closed));
+        assertEquals(0L, index.countsFor(DealOwnership.ASSIGNEE, "bob").get(DealStage.Prospect));
+        assertEquals(1L, index.countsFor(DealOwnership.ASSIGNEE, "carol").get(DealStage.Closed));
+
+        index.dealDeleted(other);
+        assertEquals(0L, index.countsFor(DealOwnership.CREATOR, "alice").get(DealStage.Prospect));
+    }
+
+    private static Deal deal(String id, DealStage stage, long updatedAtMillis, long value) {
+        Deal deal = new Deal();
+        deal.setId(id);
+        deal.setVersion(0L);
+        deal.setClientName("Client " + id);
+        deal.setSector("Sector");
+        deal.setDealType("M&A");
+        deal.setCurrentStage(stage);
+        deal.setDealValue(value);
+        deal.setUpdatedAt(Instant.ofEpochMilli(updatedAtMillis));
+        return deal;
+    }
+
+    private static DealBoardLane lane(DealBoard board, DealStage stage) {
+        return board.getLanes().stream().filter(lane -> lane.getStage() == stage).findFirst().orElseThrow();
+    }
+
+    private static List<String> ids(DealBoardLane lane) {
+        return lane.getDeals().stream().map(DealCard::getId).toList();
+    }
+}
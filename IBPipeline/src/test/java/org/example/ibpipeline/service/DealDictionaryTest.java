@@ -0,0 +1,119 @@
+package org.example.ibpipeline.service;
+
+import org.bson.Document;
+import org.example.ibpipeline.config.MongoConfig;
+import org.example.ibpipeline.dto.DictionaryField;
+import org.example.ibpipeline.exception.BadRequestException;
+import org.example.ibpipeline.model.Deal;
+import org.example.ibpipeline.model.DictionaryEntry;
+import org.example.ibpipeline.repository.DictionaryRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.boot.data.mongodb.autoconfigure.DataMongoProperties;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.convert.QueryMapper;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class DealDictionaryTest {
+
+    @Mock
+    private DictionaryRepository repository;
+
+    private final List<DictionaryEntry> stored = new ArrayList<>();
+
+    private DealDictionary dictionary;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(repository.findAll()).thenAnswer(i -> new ArrayList<>(stored));
+        doAnswer(i -> stored.add(i.getArgument(0))).when(repository).insert(any());
+        dictionary = new DealDictionary(repository);
+    }
+
+    @Test
+    void seedsDefaults_andReturnsOneCanonicalInstance() {
+        String canonical = dictionary.canonical(DictionaryField.SECTOR, " tech ");
+
+        assertEquals("TECH", canonical);
+        assertSame(canonical, dictionary.decode(DictionaryField.SECTOR, 0));
+        assertSame(canonical, dictionary.decode(DictionaryField.SECTOR, new String("Tech")));
+        assertEquals(DictionaryField.SECTOR.getDefaults().size() + DictionaryField.DEAL_TYPE.getDefaults().size(),
+                stored.size());
+        assertEquals(1, dictionary.encode(DictionaryField.DEAL_TYPE, "ipo"));
+        assertThrows(BadRequestException.class, () -> dictionary.canonical(DictionaryField.SECTOR, "Shipping"));
+        assertNull(dictionary.canonical(DictionaryField.SECTOR, null));
+    }
+
+    @Test
+    void add_isIdempotent_andSkipsCodesTakenByAnotherInstance() {
+        int next = DictionaryField.SECTOR.getDefaults().size();
+        dictionary.entries(DictionaryField.SECTOR);
+        doAnswer(i -> {
+            // another instance added Shipping with the same code first
+            stored.add(new DictionaryEntry(DictionaryField.SECTOR, next, "Shipping", "other"));
+            throw new DuplicateKeyException("E11000");
+        }).doAnswer(i -> stored.add(i.getArgument(0))).when(repository).insert(any());
+
+        DictionaryEntry aviation = dictionary.add(DictionaryField.SECTOR, "Aviation", "admin");
+
+        assertEquals(next + 1, aviation.getCode());
+        assertEquals("Shipping", dictionary.canonical(DictionaryField.SECTOR, "shipping"));
+        assertSame(aviation, dictionary.add(DictionaryField.SECTOR, " AVIATION", "admin"));
+        assertThrows(BadRequestException.class, () -> dictionary.add(DictionaryField.SECTOR, " ", "admin"));
+    }
+
+    @Test
+    void unknownCode_reloadsEntriesAddedElsewhere() {
+        int next = DictionaryField.DEAL_TYPE.getDefaults().size();
+        dictionary.entries(DictionaryField.DEAL_TYPE);
+        stored.add(new DictionaryEntry(DictionaryField.DEAL_TYPE, next, "Spin-off", "other"));
+
+        assertEquals("Spin-off", dictionary.decode(DictionaryField.DEAL_TYPE, next));
+        assertEquals("Unlisted", dictionary.decode(DictionaryField.DEAL_TYPE, "Unlisted"));
+    }
+
+    @Test
+    void mongoConverter_storesCodes_readsBothForms_andMapsQueries() {
+        MongoCustomConversions conversions = new MongoConfig().mongoCustomConversions(
+                new StaticListableBeanFactory().getBeanProvider(DataMongoProperties.class), dictionary);
+        MongoMappingContext context = new MongoMappingContext();
+        context.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+        context.afterPropertiesSet();
+        MappingMongoConverter converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, context);
+        converter.setCustomConversions(conversions);
+        converter.afterPropertiesSet();
+
+        Deal deal = new Deal();
+        deal.setSector("Energy");
+        deal.setDealType("ipo");
+        Document written = new Document();
+        converter.write(deal, written);
+        assertEquals(1, written.get("sector"));
+        assertEquals(1, written.get("dealType"));
+
+        Deal read = converter.read(Deal.class, new Document("sector", 1).append("dealType", "ipo"));
+        assertSame(dictionary.canonical(DictionaryField.SECTOR, "Energy"), read.getSector());
+        assertEquals("IPO", read.getDealType());
+
+        Document query = new QueryMapper(converter).getMappedObject(
+                Query.query(Criteria.where("sector").is("energy").and("dealType").is("Unlisted")).getQueryObject(),
+                context.getPersistentEntity(Deal.class));
+        assertEquals(new Document("sector", 1).append("dealType", "Unlisted"), query);
+    }
+}
@@ -0,0 +1,198 @@
+package org.example.ibpipeline.service;
+
+import jakarta.validation.Validation;
+import org.example.ibpipeline.dto.DealImportReport;
+import org.example.ibpipeline.dto.DictionaryField;
+import org.example.ibpipeline.exception.BadRequestException;
+import org.example.ibpipeline.model.Deal;
+import org.example.ibpipeline.model.DealStage;
+import org.example.ibpipeline.repository.DealRepository;
+import org.example.ibpipeline.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class DealImportServiceTest {
+
+    @Mock
+    private DealRepository dealRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private KafkaProducerService kafkaProducerService;
+
+    @Mock
+    private DealChangePublisher dealChangePublisher;
+
+    @Mock
+    private DealDictionary dealDictionary;
+
+    private DealImportService dealImportService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+
+        dealImportService = new DealImportService(dealRepository, userRepository, kafkaProducerService, dealChangePublisher,
+                Validation.buildDefaultValidatorFactory().getValidator(), dealDictionary);
+        ReflectionTestUtils.setField(dealImportService, "batchSize", 2);
+        ReflectionTestUtils.setField(dealImportService, "maxReportedErrors", 10);
+
+        when(dealRepository.insertUnordered(anyList())).thenReturn(Map.of());
+        when(dealDictionary.lookup(any(), anyString())).thenAnswer(i -> i.getArgument(1));
+    }
+
+    @Test
+    void importCsv_insertsInBatchesAndPublishesEvents() {
+        String csv = """
+                clientName,dealType,sector,dealValue,summary
+                Acme Capital,M&A,Manufacturing,1000,"Carve-out, phase 1"
+                Globex,IPO,Tech,,
+                Initech,Debt,Finance,250,
+                """;
+
+        DealImportReport report = dealImportService.importDeals(stream(csv), DealImportService.Format.CSV, "admin");
+
+        assertEquals(3, report.getRowsRead());
+        assertEquals(3, report.getImported());
+        assertEquals(0, report.getFailed());
+        verify(dealRepository, times(2)).insertUnordered(anyList());
+        verify(kafkaProducerService, times(2)).sendDealEvents(anyList());
+    }
+
+    @Test
+    void importCsv_reportsInvalidRowsWithLineNumbers() {
+        String csv = """
+                clientName,dealType,sector,dealValue
+                ,M&A,Manufacturing,1000
+                Globex,IPO,Tech,lots
+                Initech,Debt,Finance,250
+                """;
+
+        DealImportReport report = dealImportService.importDeals(stream(csv), DealImportService.Format.CSV, "admin");
+
+        assertEquals(1, report.getImported());
+        assertEquals(2, report.getFailed());
+        assertEquals(2, report.getErrors().get(0).getLine());
+        assertTrue(report.getErrors().get(0).getMessage().startsWith("clientName"));
+        assertEquals(3, report.getErrors().get(1).getLine());
+    }
+
+    @Test
+    void importCsv_unknownDictionaryValue_failsTheRow_andUsesCanonicalSpelling() {
+        when(dealDictionary.lookup(DictionaryField.SECTOR, "Tech")).thenReturn("Technology");
+        when(dealDictionary.lookup(DictionaryField.SECTOR, "Shipping")).thenReturn(null);
+
+        List<Deal> inserted = new ArrayList<>();
+        when(dealRepository.insertUnordered(anyList())).thenAnswer(i -> {
+            inserted.addAll(i.getArgument(0));
+            return Map.of();
+        });
+
+        DealImportReport report = dealImportService.importDeals(
+                stream("clientName,dealType,sector\nA,M&A,Tech\nB,M&A,Shipping\n"), DealImportService.Format.CSV, "admin");
+
+        assertEquals(1, report.getImported());
+        assertEquals("Technology", inserted.get(0).getSector());
+        assertEquals(3, report.getErrors().get(0).getLine());
+        assertEquals("sector: unknown value Shipping", report.getErrors().get(0).getMessage());
+    }
+
+    @Test
+    void importCsv_unknownAssignee_failsTheRow_andLooksEachNameUpOnce() {
+        when(userRepository.existsByUsername("banker1")).thenReturn(true);
+
+        DealImportReport report = dealImportService.importDeals(
+                stream("clientName,dealType,sector,assignedTo\nA,M&A,Tech,banker1\nB,M&A,Tech,ghost\nC,M&A,Tech,banker1\n"),
+                DealImportService.Format.CSV, "admin");
+
+        assertEquals(2, report.getImported());
+        assertEquals(3, report.getErrors().get(0).getLine());
+        assertEquals("assignedTo: unknown user ghost", report.getErrors().get(0).getMessage());
+        verify(userRepository, times(1)).existsByUsername("banker1");
+    }
+
+    @Test
+    void importCsv_bodyFailsMidway_dropsThePendingBatch_andReportsCommittedRows() {
+        InputStream failing = new SequenceInputStream(
+                stream("clientName,dealType,sector\nA,M&A,Tech\nB,M&A,Tech\nC,M&A,Tech\n"),
+                new InputStream() {
+                    @Override
+                    public int read() throws IOException {
+                        throw new IOException("connection reset");
+                    }
+                });
+
+        BadRequestException e = assertThrows(BadRequestException.class,
+                () -> dealImportService.importDeals(failing, DealImportService.Format.CSV, "admin"));
+
+        assertTrue(e.getMessage().contains("2 rows were imported, through line 3"), e.getMessage());
+        verify(dealRepository, times(1)).insertUnordered(anyList());
+    }
+
+    @Test
+    void importCsv_missingRequiredColumn_throws() {
+        assertThrows(BadRequestException.class, () -> dealImportService.importDeals(
+                stream("clientName,sector\nAcme,Tech\n"), DealImportService.Format.CSV, "admin"));
+    }
+
+    @Test
+    void importNdjson_mapsFieldsAndStage() {
+        String ndjson = """
+                {"clientName":"Acme","dealType":"M&A","sector":"Tech","dealValue":500,"currentStage":"UnderEvaluation"}
+                not json
+                """;
+
+        List<Deal> inserted = new ArrayList<>();
+        when(dealRepository.insertUnordered(anyList())).thenAnswer(i -> {
+            inserted.addAll(i.getArgument(0));
+            return Map.of();
+        });
+
+        DealImportReport report = dealImportService.importDeals(stream(ndjson), DealImportService.Format.NDJSON, "admin");
+
+        Deal deal = inserted.get(0);
+        assertEquals(1, report.getImported());
+        assertEquals(1, report.getFailed());
+        assertEquals(DealStage.UnderEvaluation, deal.getCurrentStage());
+        assertEquals(500L, deal.getDealValue());
+        assertEquals("admin", deal.getCreatedBy());
+        assertNotNull(deal.getId());
+    }
+
+    @Test
+    void import_writeErrorsAreReportedPerRow() {
+        when(dealRepository.insertUnordered(anyList())).thenReturn(Map.of(1, "E11000 duplicate key"));
+
+        DealImportReport report = dealImportService.importDeals(
+                stream("clientName,dealType,sector\nA,M&A,Tech\nB,M&A,Tech\n"), DealImportService.Format.CSV, "admin");
+
+        assertEquals(1, report.getImported());
+        assertEquals(1, report.getFailed());
+        assertEquals(3, report.getErrors().get(0).getLine());
+        verify(kafkaProducerService).sendDealEvents(argThat(events -> events.size() == 1));
+    }
+
+    private static InputStream stream(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -1,19 +1,46 @@
 package org.example.ibpipeline.service;
 
+import org.example.ibpipeline.dto.BulkDealUpdateRequest;
+import org.example.ibpipeline.dto.BulkDealUpdateResponse;
+import org.example.ibpipeline.dto.DealBatchGetResponse;
+import org.example.ibpipeline.dto.DealCard;
+import org.example.ibpipeline.dto.DealFilter;
+import org.example.ibpipeline.dto.DealOwnership;
+import org.example.ibpipeline.dto.DictionaryField;
+import org.example.ibpipeline.dto.DuplicateCandidate;
+import org.example.ibpipeline.dto.MyDeals;
+import org.example.ibpipeline.event.DealEvent;
 import org.example.ibpipeline.exception.BadRequestException;
 import org.example.ibpipeline.exception.ResourceNotFoundException;
+import org.example.ibpipeline.exception.VersionConflictException;
 import org.example.ibpipeline.model.Deal;
 import org.example.ibpipeline.model.DealStage;
 import org.example.ibpipeline.repository.DealRepository;
+import org.example.ibpipeline.repository.UserRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.test.util.ReflectionTestUtils;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -23,6 +50,27 @@ class DealServiceTest {
     @Mock
     private DealRepository dealRepository;
 
+    @Mock
+    private KafkaProducerService kafkaProducerService;
+
+    @Mock
+    private DealCache dealCache;
+
+    @Mock
+    private DealChangePublisher dealChangePublisher;
+
+    @Mock
+    private DealBoardIndex dealBoardIndex;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private DuplicateDealIndex duplicateDealIndex;
+
+    @Mock
+    private DealDictionary dealDictionary;
+
     @InjectMocks
     private DealService dealService;
 
@@ -38,6 +86,8 @@ class DealServiceTest {
         deal.setSector("Manufacturing");
         deal.setDealType("M&A");
         deal.setNotes(new ArrayList<>());
+
+        when(dealDictionary.canonical(any(), any())).thenAnswer(i -> i.getArgument(1));
     }
 
     @Test
@@ -55,6 +105,21 @@ class DealServiceTest {
         verify(dealRepository).save(any());
     }
 
+    @Test
+    void createDeal_returnsPossibleDuplicates_andStillSaves() {
+        List<DuplicateCandidate> duplicates = List.of(new DuplicateCandidate("7", "ACME Capital Ltd", "Manufacturing", 0.9));
+        when(duplicateDealIndex.findSimilar("Acme Capital", "Manufacturing", null)).thenReturn(duplicates);
+        when(dealRepository.save(any())).thenAnswer(i -> i.getArgument(0));
+
+        Deal created = dealService.createDeal(deal, "user1");
+
+        assertEquals(duplicates, created.getPossibleDuplicates());
+        verify(dealRepository).save(any());
+
+        when(duplicateDealIndex.findSimilar(any(), any(), any())).thenThrow(new IllegalStateException("boom"));
+        assertTrue(dealService.createDeal(deal, "user1").getPossibleDuplicates().isEmpty());
+    }
+
     @Test
     void getAllDeals_returnsList() {
         when(dealRepository.findAll())
@@ -76,6 +141,70 @@ class DealServiceTest {
         assertEquals("Acme Capital", found.getClientName());
     }
 
+    @Test
+    void getDealById_cached_skipsRepository() {
+        when(dealCache.get("1"))
+                .thenReturn(deal);
+
+        Deal found = dealService.getDealById("1");
+
+        assertSame(deal, found);
+        verify(dealRepository, never()).findById(any());
+    }
+
+    @Test
+    void getDealsByIds_usesCacheThenOneQueryAndReportsMissing() {
+        deal.setDealValue(1000L);
+        Deal other = new Deal();
+        other.setId("2");
+        other.setDealValue(2000L);
+        when(dealCache.getAll(List.of("1", "2", "3")))
+                .thenReturn(Map.of("1", deal));
+        when(dealRepository.findAllById(List.of("2", "3")))
+                .thenReturn(List.of(other));
+
+        DealBatchGetResponse response = dealService.getDealsByIds(List.of("1", "2", "3", "2"), false);
+
+        assertEquals(List.of("1", "2"), response.getDeals().stream().map(Deal::getId).toList());
+        assertEquals(List.of("3"), response.getMissingIds());
+        assertNull(response.getDeals().get(0).getDealValue());
+        assertEquals(1000L, deal.getDealValue());
+        verify(dealRepository).findAllById(List.of("2", "3"));
+    }
+
+    @Test
+    void getDealsByIds_admin_keepsDealValue() {
+        deal.setDealValue(1000L);
+        when(dealCache.getAll(List.of("1")))
+                .thenReturn(Map.of("1", deal));
+
+        DealBatchGetResponse response = dealService.getDealsByIds(List.of("1"), true);
+
+        assertEquals(1000L, response.getDeals().get(0).getDealValue());
+        verify(dealRepository, never()).findAllById(any());
+    }
+
+    @Test
+    void getDealById_fallsThroughToArchive() {
+        when(dealRepository.findById("1"))
+                .thenReturn(Optional.empty());
+        when(dealRepository.findArchivedById("1"))
+                .thenReturn(deal);
+
+        assertSame(deal, dealService.getDealById("1"));
+    }
+
+    @Test
+    void updateStage_archivedDeal_throws() {
+        when(dealRepository.findById("1"))
+                .thenReturn(Optional.empty());
+        when(dealRepository.findArchivedById("1"))
+                .thenReturn(deal);
+
+        assertThrows(BadRequestException.class,
+                () -> dealService.updateStage("1", DealStage.Prospect));
+    }
+
     @Test
     void getDealById_notFound() {
         when(dealRepository.findById("1"))
@@ -100,6 +229,19 @@ class DealServiceTest {
         assertEquals("IPO", updated.getDealType());
     }
 
+    @Test
+    void updateBasicFields_storesCanonicalValues_andRejectsUnknownOnes() {
+        when(dealRepository.findById("1")).thenReturn(Optional.of(deal));
+        when(dealRepository.save(any())).thenAnswer(i -> i.getArgument(0));
+        when(dealDictionary.canonical(DictionaryField.SECTOR, "technology")).thenReturn("Technology");
+        when(dealDictionary.canonical(DictionaryField.SECTOR, "Shipping"))
+                .thenThrow(new BadRequestException("Unknown sector 'Shipping'"));
+
+        assertEquals("Technology", dealService.updateBasicFields("1", null, "technology", "IPO").getSector());
+        assertThrows(BadRequestException.class, () -> dealService.updateBasicFields("1", null, "Shipping", "IPO"));
+        verify(dealRepository, times(1)).save(any());
+    }
+
     @Test
     void updateStage_changesStage() {
         when(dealRepository.findById("1"))
@@ -112,18 +254,237 @@ class DealServiceTest {
         assertEquals(DealStage.Closed, updated.getCurrentStage());
     }
 
+    @Test
+    void edits_publishEventsByTheCaller() {
+        when(dealRepository.existsById("1")).thenReturn(true);
+        when(dealRepository.findById("1")).thenReturn(Optional.of(deal));
+        when(dealRepository.save(any())).thenAnswer(i -> i.getArgument(0));
+
+        dealService.updateBasicFields("1", "Summary", "Tech", "IPO", null, "alice");
+        dealService.updateStage("1", DealStage.Closed, null, "bob");
+        dealService.updateDealValue("1", 100L, null, "carol");
+        dealService.deleteDeal("1", null, "admin");
+
+        ArgumentCaptor<DealEvent> events = ArgumentCaptor.forClass(DealEvent.class);
+        verify(kafkaProducerService, times(4)).sendDealEvent(events.capture());
+        assertEquals(List.of("alice", "bob", "carol", "admin"),
+                events.getAllValues().stream().map(DealEvent::getUserId).toList());
+    }
+
+    @Test
+    void updateAssignee_publishesReassignmentByTheCaller() {
+        when(userRepository.existsByUsername("bob")).thenReturn(true);
+        when(dealRepository.findById("1")).thenReturn(Optional.of(deal));
+        when(dealRepository.save(any())).thenAnswer(i -> i.getArgument(0));
+
+        Deal updated = dealService.updateAssignee("1", "bob", null, "alice");
+
+        assertEquals("bob", updated.getAssignedTo());
+        ArgumentCaptor<DealEvent> event = ArgumentCaptor.forClass(DealEvent.class);
+        verify(kafkaProducerService).sendDealEvent(event.capture());
+        assertEquals("alice", event.getValue().getUserId());
+        verify(dealChangePublisher).updated(any(), eq(updated));
+    }
+
+    @Test
+    void updateAssignee_unknownUser_throws() {
+        assertThrows(BadRequestException.class, () -> dealService.updateAssignee("1", "nobody", null, "alice"));
+        verify(dealRepository, never()).save(any());
+    }
+
+    @Test
+    void findMine_pagesWithCursor_andTakesCountsFromTheIndex() {
+        List<Deal> owned = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            Deal mine = new Deal();
+            mine.setId("d" + i);
+            mine.setDealValue(100L);
+            mine.setUpdatedAt(Instant.ofEpochMilli(1_000 - i));
+            owned.add(mine);
+        }
+        when(dealRepository.findOwned(DealOwnership.ASSIGNEE, "bob", null, null, 3)).thenReturn(owned);
+        when(dealRepository.findOwned(DealOwnership.ASSIGNEE, "bob", Instant.ofEpochMilli(999), "d1", 3))
+                .thenReturn(owned.subList(2, 3));
+        when(dealBoardIndex.countsFor(DealOwnership.ASSIGNEE, "bob"))
+                .thenReturn(new EnumMap<>(Map.of(DealStage.Prospect, 2L, DealStage.Closed, 1L)));
+
+        MyDeals first = dealService.findMine(DealOwnership.ASSIGNEE, "bob", null, 2, false);
+        assertEquals(List.of("d0", "d1"), first.getDeals().stream().map(DealCard::getId).toList());
+        assertNull(first.getDeals().get(0).getDealValue());
+        assertEquals(3, first.getTotal());
+
+        MyDeals second = dealService.findMine(DealOwnership.ASSIGNEE, "bob", first.getNextCursor(), 2, false);
+        assertEquals("d2", second.getDeals().get(0).getId());
+        assertNull(second.getNextCursor());
+    }
+
     @Test
     void addNote_success() {
-        when(dealRepository.findById("1"))
-                .thenReturn(Optional.of(deal));
-        when(dealRepository.save(any()))
-                .thenAnswer(i -> i.getArgument(0));
+        when(dealRepository.pushNotes(eq("1"), anyList(), any()))
+                .thenAnswer(i -> {
+                    deal.getNotes().addAll(i.getArgument(1));
+                    return deal;
+                });
 
         Deal updated = dealService.addNote("1", "user1", "Initial call done");
 
         assertEquals(1, updated.getNotes().size());
         assertEquals("Initial call done", updated.getNotes().get(0).getNote());
         assertEquals("user1", updated.getNotes().get(0).getUserId());
+        verify(dealRepository, never()).save(any());
+    }
+
+    @Test
+    void addNote_dealMissing_throws() {
+        when(dealRepository.pushNotes(eq("1"), anyList(), any()))
+                .thenReturn(null);
+
+        assertThrows(ResourceNotFoundException.class,
+                () -> dealService.addNote("1", "user1", "Initial call done"));
+    }
+
+    @Test
+    void addNote_archivedDeal_throws() {
+        when(dealRepository.pushNotes(eq("1"), anyList(), any()))
+                .thenReturn(null);
+        when(dealRepository.findArchivedById("1"))
+                .thenReturn(deal);
+
+        BadRequestException e = assertThrows(BadRequestException.class,
+                () -> dealService.addNote("1", "user1", "Initial call done"));
+        assertEquals("Deal is archived; restore it before making changes", e.getMessage());
+        verifyNoInteractions(kafkaProducerService);
+    }
+
+    @Test
+    void addNote_burstOnOneDeal_isOneWriteAndOneEvent() throws Exception {
+        ReflectionTestUtils.setField(dealService, "noteCoalesceWindow", Duration.ofMillis(500));
+        when(dealRepository.pushNotes(eq("1"), anyList(), any()))
+                .thenAnswer(i -> {
+                    deal.getNotes().addAll(i.getArgument(1));
+                    return deal;
+                });
+
+        ExecutorService callers = Executors.newFixedThreadPool(3);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<Deal>> results = new ArrayList<>();
+            for (String user : List.of("alice", "bob", "carol")) {
+                results.add(callers.submit(() -> {
+                    start.await();
+                    return dealService.addNote("1", user, "Call notes from " + user);
+                }));
+            }
+            start.countDown();
+            for (Future<Deal> result : results) {
+                assertEquals(3, result.get(5, TimeUnit.SECONDS).getNotes().size());
+            }
+        } finally {
+            callers.shutdownNow();
+        }
+
+        verify(dealRepository, times(1)).pushNotes(eq("1"), anyList(), any());
+        ArgumentCaptor<DealEvent> event = ArgumentCaptor.forClass(DealEvent.class);
+        verify(kafkaProducerService, times(1)).sendDealEvent(event.capture());
+        assertEquals(3, event.getValue().actingUsers().size());
+        assertTrue(event.getValue().getDetails().startsWith("3 notes added by "));
+    }
+
+    @Test
+    void updateStage_staleExpectedVersion_conflicts() {
+        deal.setVersion(4L);
+        when(dealRepository.findById("1"))
+                .thenReturn(Optional.of(deal));
+
+        VersionConflictException e = assertThrows(VersionConflictException.class,
+                () -> dealService.updateStage("1", DealStage.Closed, 3L, "user1"));
+
+        assertEquals(4L, e.getCurrentVersion());
+        verify(dealRepository, never()).save(any());
+    }
+
+    @Test
+    void updateStage_conditionalSaveLosesRace_conflicts() {
+        deal.setVersion(3L);
+        when(dealRepository.findById("1"))
+                .thenReturn(Optional.of(deal));
+        when(dealRepository.save(any()))
+                .thenThrow(new OptimisticLockingFailureException("stale"));
+
+        assertThrows(VersionConflictException.class,
+                () -> dealService.updateStage("1", DealStage.Closed, 3L, "user1"));
+        verify(dealRepository, times(1)).save(any());
+    }
+
+    @Test
+    void updateStage_unconditionalSaveLosesRace_retries() {
+        when(dealRepository.findById("1"))
+                .thenReturn(Optional.of(deal));
+        when(dealRepository.save(any()))
+                .thenThrow(new OptimisticLockingFailureException("stale"))
+                .thenAnswer(i -> i.getArgument(0));
+
+        Deal updated = dealService.updateStage("1", DealStage.Closed);
+
+        assertEquals(DealStage.Closed, updated.getCurrentStage());
+        verify(dealRepository, times(2)).save(any());
+    }
+
+    @Test
+    void watchBetweenReadAndSave_isKeptByTheStaleSave() {
+        deal.setVersion(3L);
+        AtomicReference<Deal> stored = new AtomicReference<>(copy(deal));
+        AtomicInteger reads = new AtomicInteger();
+        when(dealRepository.updateWatchers("1", "bob", true)).thenAnswer(i -> {
+            Deal next = copy(stored.get());
+            next.getWatchers().add("bob");
+            next.setVersion(next.getVersion() + 1);
+            stored.set(next);
+            return copy(next);
+        });
+        when(dealRepository.findById("1")).thenAnswer(i -> {
+            Deal read = copy(stored.get());
+            if (reads.getAndIncrement() == 0) {
+                // bob watches the deal after this request read it
+                dealService.setWatching("1", "bob", true);
+            }
+            return Optional.of(read);
+        });
+        when(dealRepository.save(any())).thenAnswer(i -> {
+            Deal saving = i.getArgument(0);
+            if (!saving.getVersion().equals(stored.get().getVersion())) {
+                throw new OptimisticLockingFailureException("stale");
+            }
+            saving.setVersion(saving.getVersion() + 1);
+            stored.set(copy(saving));
+            return saving;
+        });
+
+        assertThrows(VersionConflictException.class,
+                () -> dealService.updateStage("1", DealStage.Closed, 3L, "user1"));
+        assertEquals(List.of("bob"), stored.get().getWatchers());
+
+        doAnswer(i -> {
+            Deal next = copy(stored.get());
+            next.getWatchers().add("carol");
+            next.setVersion(next.getVersion() + 1);
+            stored.set(next);
+            return copy(next);
+        }).when(dealRepository).updateWatchers("1", "carol", true);
+        doAnswer(i -> {
+            Deal read = copy(stored.get());
+            if (reads.getAndIncrement() == 0) {
+                dealService.setWatching("1", "carol", true);
+            }
+            return Optional.of(read);
+        }).when(dealRepository).findById("1");
+        reads.set(0);
+
+        Deal updated = dealService.updateStage("1", DealStage.Closed, null, "user1");
+
+        assertEquals(DealStage.Closed, updated.getCurrentStage());
+        assertEquals(List.of("bob", "carol"), stored.get().getWatchers());
+        verify(dealCache, atLeastOnce()).put(argThat(cached -> cached.getWatchers().contains("carol")));
     }
 
     @Test
@@ -157,6 +518,8 @@ class DealServiceTest {
     void deleteDeal_success() {
         when(dealRepository.existsById("1"))
                 .thenReturn(true);
+        when(dealRepository.findById("1"))
+                .thenReturn(Optional.of(deal));
 
         dealService.deleteDeal("1");
 
@@ -171,4 +534,103 @@ class DealServiceTest {
         assertThrows(ResourceNotFoundException.class,
                 () -> dealService.deleteDeal("1"));
     }
+
+    @Test
+    void bulkUpdate_byIds_updatesFoundAndReportsMissing() {
+        deal.setCurrentStage(DealStage.TermSheetSubmitted);
+        when(dealRepository.findBulkTargets(any(), isNull(), anyInt()))
+                .thenReturn(List.of(deal));
+        when(dealRepository.bulkUpdate(any(), eq(DealStage.Lost), isNull(), isNull(), any()))
+                .thenReturn(Set.of("1"));
+
+        BulkDealUpdateRequest request = new BulkDealUpdateRequest();
+        request.setIds(List.of("1", "2"));
+        request.setStage(DealStage.Lost);
+
+        BulkDealUpdateResponse response = dealService.bulkUpdate(request, "admin");
+
+        assertEquals(1, response.getUpdated());
+        assertEquals(1, response.getNotFound());
+        assertEquals(BulkDealUpdateResponse.Status.NOT_FOUND, response.getResults().get(1).getStatus());
+        verify(kafkaProducerService).sendDealEvents(argThat(events -> events.size() == 1
+                && events.get(0).getDetails().equals("Stage changed from TermSheetSubmitted to Lost")));
+    }
+
+    @Test
+    void bulkUpdate_dealChangedSinceTheRead_isAConflict_withoutEvents() {
+        Deal other = new Deal();
+        other.setId("2");
+        other.setVersion(7L);
+        deal.setVersion(3L);
+        when(dealRepository.findBulkTargets(any(), any(), anyInt()))
+                .thenReturn(List.of(deal, other));
+        // deal 1 was moved by a single-deal update after the read: its version no longer matches
+        when(dealRepository.bulkUpdate(any(), any(), any(), any(), any()))
+                .thenReturn(Set.of("2"));
+
+        DealFilter filter = new DealFilter();
+        filter.setStage(DealStage.Prospect);
+        BulkDealUpdateRequest request = new BulkDealUpdateRequest();
+        request.setFilter(filter);
+        request.setAssignedTo("banker1");
+        when(userRepository.existsByUsername("banker1")).thenReturn(true);
+
+        BulkDealUpdateResponse response = dealService.bulkUpdate(request, "admin");
+
+        assertEquals(1, response.getUpdated());
+        assertEquals(0, response.getNotFound());
+        assertEquals(1, response.getConflicts());
+        assertEquals(BulkDealUpdateResponse.Status.CONFLICT, response.getResults().get(0).getStatus());
+        verify(dealRepository).bulkUpdate(argThat(targets -> targets.stream().map(Deal::getVersion).toList()
+                .equals(List.of(3L, 7L))), isNull(), eq("banker1"), isNull(), any());
+        verify(dealChangePublisher).bulkUpdated(eq(List.of(other)), eq(request), any());
+        verify(kafkaProducerService).sendDealEvents(argThat(events -> events.size() == 1
+                && events.get(0).getDealId().equals("2")));
+    }
+
+    @Test
+    void bulkUpdate_withoutTargetsOrChanges_throws() {
+        BulkDealUpdateRequest noTargets = new BulkDealUpdateRequest();
+        noTargets.setStage(DealStage.Closed);
+
+        BulkDealUpdateRequest noChanges = new BulkDealUpdateRequest();
+        noChanges.setIds(List.of("1"));
+
+        assertThrows(BadRequestException.class, () -> dealService.bulkUpdate(noTargets, "admin"));
+        assertThrows(BadRequestException.class, () -> dealService.bulkUpdate(noChanges, "admin"));
+    }
+
+    @Test
+    void bulkUpdate_unknownAssignee_throws() {
+        BulkDealUpdateRequest request = new BulkDealUpdateRequest();
+        request.setIds(List.of("1", "2"));
+        request.setAssignedTo("ghost");
+
+        assertThrows(BadRequestException.class, () -> dealService.bulkUpdate(request, "admin"));
+        verify(userRepository, times(1)).existsByUsername("ghost");
+        verify(dealRepository, never()).findBulkTargets(any(), any(), anyInt());
+    }
+
+    @Test
+    void bulkUpdate_negativeValue_throws() {
+        BulkDealUpdateRequest request = new BulkDealUpdateRequest();
+        request.setIds(List.of("1"));
+        request.setDealValue(-1L);
+
+        assertThrows(BadRequestException.class, () -> dealService.bulkUpdate(request, "admin"));
+        verify(dealRepository, never()).bulkUpdate(any(), any(), any(), any(), any());
+    }
+
+    private static Deal copy(Deal source) {
+        Deal copy = new Deal();
+        copy.setId(source.getId());
+        copy.setVersion(source.getVersion());
+        copy.setClientName(source.getClientName());
+        copy.setSector(source.getSector());
+        copy.setDealType(source.getDealType());
+        copy.setCurrentStage(source.getCurrentStage());
+        copy.setNotes(new ArrayList<>(source.getNotes()));
+        copy.setWatchers(new ArrayList<>(source.getWatchers()));
+        return copy;
+    }
 }
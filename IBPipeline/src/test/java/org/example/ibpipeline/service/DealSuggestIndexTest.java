@@ -0,0 +1,115 @@
+package org.example.ibpipeline.service;
+
+import org.example.ibpipeline.dto.DealCard;
+import org.example.ibpipeline.dto.SuggestField;
+import org.example.ibpipeline.dto.Suggestion;
+import org.example.ibpipeline.exception.BadRequestException;
+import org.example.ibpipeline.model.Deal;
+import org.example.ibpipeline.model.DealStage;
+import org.example.ibpipeline.repository.DealRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class DealSuggestIndexTest {
+
+    private DealSuggestIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new DealSuggestIndex();
+    }
+
+    @Test
+    void prefixMatches_areCaseInsensitive_andRankedByFrequency() {
+        index.cardChanged(null, card("1", "Acme Corp", "Tech"));
+        index.cardChanged(null, card("2", "Acme Holdings", "Technology"));
+        index.cardChanged(null, card("3", "Acme Holdings", "Tech"));
+        index.cardChanged(null, card("4", "Apex Partners", "Energy"));
+
+        assertEquals(List.of("Acme Holdings:2", "Acme Corp:1"), values(SuggestField.CLIENT_NAME, "ac"));
+        assertEquals(List.of("Acme Holdings:2", "Acme Corp:1", "Apex Partners:1"), values(SuggestField.CLIENT_NAME, " A"));
+        assertEquals(List.of("Acme Corp:1"), values(SuggestField.CLIENT_NAME, "acme c"));
+        assertEquals(List.of("Tech:2", "Technology:1"), values(SuggestField.SECTOR, "TECH"));
+        assertEquals(List.of("Technology:1"), values(SuggestField.SECTOR, "techn"));
+        assertEquals(List.of(), values(SuggestField.CLIENT_NAME, "acmx"));
+        assertEquals(List.of(), values(SuggestField.CLIENT_NAME, "acme holdings ltd"));
+        assertEquals(1, index.suggest(SuggestField.CLIENT_NAME, "a", 1).size());
+    }
+
+    @Test
+    void changesMoveCounts_andUnusedValuesDisappear() {
+        DealCard acme = card("1", "Acme Corp", "Tech");
+        index.cardChanged(null, acme);
+        DealCard renamed = card("1", "Acme Corporation", "Tech");
+        index.cardChanged(acme, renamed);
+
+        assertEquals(List.of("Acme Corporation:1"), values(SuggestField.CLIENT_NAME, "acme"));
+
+        index.cardChanged(renamed, null);
+        assertEquals(List.of(), values(SuggestField.CLIENT_NAME, "acme"));
+        assertEquals(List.of(), values(SuggestField.SECTOR, ""));
+    }
+
+    @Test
+    void topListIsBoundedAtEveryNode() {
+        for (int i = 0; i < DealSuggestIndex.TOP_K + 5; i++) {
+            for (int n = 0; n <= i; n++) {
+                index.cardChanged(null, card(i + "-" + n, "Client " + (char) ('a' + i), "Tech"));
+            }
+        }
+
+        List<String> top = values(SuggestField.CLIENT_NAME, "client");
+        assertEquals(DealSuggestIndex.TOP_K, top.size());
+        assertEquals("Client o:15", top.get(0));
+        assertEquals(List.of("Client a:1"), values(SuggestField.CLIENT_NAME, "client a"));
+    }
+
+    @Test
+    void boardIndexFeedsSuggestions_andIgnoresStaleVersions() {
+        DealRepository dealRepository = mock(DealRepository.class);
+        when(dealRepository.streamWithoutNotes()).thenReturn(Stream.of(deal("1", 2L, "Acme Corp")));
+        DealBoardIndex board = new DealBoardIndex(dealRepository, List.of(index), 100);
+        board.load();
+
+        board.dealUpdated(null, deal("1", 1L, "Old Name"));
+        board.dealCreated(deal("2", 1L, "Acme Corp"));
+        assertEquals(List.of("Acme Corp:2"), values(SuggestField.CLIENT_NAME, "a"));
+        assertEquals(List.of(), values(SuggestField.CLIENT_NAME, "old"));
+
+        board.dealDeleted(deal("1", 2L, "Acme Corp"));
+        assertEquals(List.of("Acme Corp:1"), values(SuggestField.CLIENT_NAME, "a"));
+    }
+
+    @Test
+    void unknownField_isRejected() {
+        assertEquals(SuggestField.DEAL_TYPE, SuggestField.parse("dealType"));
+        assertThrows(BadRequestException.class, () -> SuggestField.parse("notes"));
+    }
+
+    private List<String> values(SuggestField field, String prefix) {
+        return index.suggest(field, prefix, 10).stream()
+                .map(suggestion -> suggestion.getValue() + ":" + suggestion.getCount())
+                .toList();
+    }
+
+    private static DealCard card(String id, String clientName, String sector) {
+        return new DealCard(id, 1L, clientName, sector, null, null, DealStage.Prospect, null, null, Instant.EPOCH);
+    }
+
+    private static Deal deal(String id, Long version, String clientName) {
+        Deal deal = new Deal();
+        deal.setId(id);
+        deal.setVersion(version);
+        deal.setClientName(clientName);
+        deal.setCurrentStage(DealStage.Prospect);
+        deal.setUpdatedAt(Instant.EPOCH);
+        return deal;
+    }
+}
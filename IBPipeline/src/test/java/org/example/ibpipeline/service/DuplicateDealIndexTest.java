@@ -0,0 +1,122 @@
+package org.example.ibpipeline.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.ibpipeline.dto.DealCard;
+import org.example.ibpipeline.dto.DuplicateCandidate;
+import org.example.ibpipeline.dto.DuplicateGroup;
+import org.example.ibpipeline.dto.DuplicateScanReport;
+import org.example.ibpipeline.model.DealStage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DuplicateDealIndexTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private DuplicateDealIndex index;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        index = new DuplicateDealIndex(meterRegistry);
+    }
+
+    @Test
+    void normalize_dropsCaseAccentsPunctuationAndLegalSuffixes() {
+        assertEquals("acme holdings", DuplicateDealIndex.normalize("  ACME Holdings, Inc. "));
+        assertEquals("nestle", DuplicateDealIndex.normalize("Nestlé S.A."));
+        assertEquals("smith and sons", DuplicateDealIndex.normalize("Smith & Sons Ltd"));
+        assertEquals("the company", DuplicateDealIndex.normalize("The Company"));
+    }
+
+    @Test
+    void findSimilar_returnsScoredMatchesOfTheSameSector() {
+        add("1", "Acme Holdings Inc", "Technology");
+        add("2", "ACME Holdings", "Technology");
+        add("3", "Acme Holding", "Technology");
+        add("4", "Acme Holdings", "Energy");
+        add("5", "Zenith Partners", "Technology");
+
+        List<DuplicateCandidate> found = index.findSimilar("Acme Holdings Ltd.", "technology", null);
+
+        assertEquals(List.of("1", "2", "3"), found.stream().map(DuplicateCandidate::getDealId).toList());
+        assertEquals(1.0, found.get(0).getScore());
+        assertEquals("Acme Holdings Inc", found.get(0).getClientName());
+        assertTrue(found.get(2).getScore() >= 0.6 && found.get(2).getScore() < 1.0);
+
+        assertEquals(List.of(), index.findSimilar("Acme Holdings", "Healthcare", null));
+        assertEquals(List.of(), index.findSimilar("Beacon Capital", "Technology", null));
+        assertEquals(List.of("2", "3"), index.findSimilar("Acme Holdings", "Technology", "1").stream()
+                .map(DuplicateCandidate::getDealId).toList());
+    }
+
+    @Test
+    void renamedAndRemovedDeals_leaveTheIndex() {
+        DealCard acme = card("1", "Acme Holdings", "Technology");
+        index.cardChanged(null, acme);
+        DealCard renamed = card("1", "Zenith Partners", "Technology");
+        index.cardChanged(acme, renamed);
+
+        assertEquals(List.of(), index.findSimilar("Acme Holdings", "Technology", null));
+        assertEquals(1, index.findSimilar("Zenith Partners", "Technology", null).size());
+
+        index.cardChanged(renamed, null);
+        assertEquals(List.of(), index.findSimilar("Zenith Partners", "Technology", null));
+
+        // the freed slot is reused by the next client
+        add("2", "Beacon Capital", "Technology");
+        assertEquals("2", index.findSimilar("Beacon Capital", "Technology", null).get(0).getDealId());
+    }
+
+    @Test
+    void sharedWords_doNotHideCloseMatches_orProduceFarOnes() {
+        for (int i = 0; i < 50; i++) {
+            add("c" + i, "Capital Partners " + Integer.toString(1000 + i * 37, 36), "Technology");
+        }
+
+        List<DuplicateCandidate> found = index.findSimilar("Capital Partner " + Integer.toString(1000, 36), "Technology", null);
+        assertEquals("c0", found.get(0).getDealId());
+
+        ReflectionTestUtils.setField(index, "threshold", 0.95);
+        assertEquals(List.of("c0"), index.findSimilar("Capital Partners " + Integer.toString(1000, 36), "Technology", null)
+                .stream().map(DuplicateCandidate::getDealId).toList());
+    }
+
+    @Test
+    void scan_groupsLinkedClients_andExactRepeats() {
+        add("1", "Acme Holdings", "Technology");
+        add("2", "Acme Holdings Inc", "Technology");
+        add("3", "Acme Holding", "Technology");
+        add("4", "Beacon Capital", "Energy");
+        add("5", "Beacon Capital", "Energy");
+        add("6", "Zenith Partners", "Technology");
+
+        DuplicateScanReport report = index.scan();
+
+        assertEquals(4, report.getClientsScanned());
+        assertEquals(2, report.getGroups().size());
+        DuplicateGroup acme = report.getGroups().get(0);
+        assertEquals("Technology", acme.getSector());
+        assertEquals(List.of("3", "1", "2"), acme.getDeals().stream().map(DuplicateCandidate::getDealId).toList());
+        assertTrue(acme.getMinScore() < 1.0);
+        DuplicateGroup beacon = report.getGroups().get(1);
+        assertEquals(1.0, beacon.getMinScore());
+        assertEquals(List.of("4", "5"), beacon.getDeals().stream().map(DuplicateCandidate::getDealId).toList());
+
+        assertSame(report, index.lastScan());
+        assertEquals(2, meterRegistry.get("deals.duplicates.groups").gauge().value());
+    }
+
+    private void add(String id, String clientName, String sector) {
+        index.cardChanged(null, card(id, clientName, sector));
+    }
+
+    private static DealCard card(String id, String clientName, String sector) {
+        return new DealCard(id, 1L, clientName, sector, "M&A", null, DealStage.Prospect, null, null, Instant.EPOCH);
+    }
+}
@@ -0,0 +1,86 @@
+package org.example.ibpipeline.service;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.example.ibpipeline.dto.JfrRecordingStatus;
+import org.example.ibpipeline.event.jfr.DealOperationEvent;
+import org.example.ibpipeline.exception.BadRequestException;
+import org.example.ibpipeline.exception.ResourceNotFoundException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FlightRecorderServiceTest {
+
+    @TempDir
+    Path directory;
+
+    private FlightRecorderService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new FlightRecorderService(directory, Duration.ofMinutes(5), DataSize.ofMegabytes(64));
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    void recordingCapturesApplicationEvents() throws Exception {
+        JfrRecordingStatus started = service.start("default", Duration.ofHours(1));
+        assertEquals("RUNNING", started.getState());
+        assertEquals(300, started.getMaxDurationSeconds());
+
+        DealOperationEvent event = DealOperationEvent.begin("updateStage", "deal-1");
+        long start = System.nanoTime();
+        sleep(5);
+        event.mongoTime = System.nanoTime() - start;
+        event.commit();
+
+        JfrRecordingStatus stopped = service.stop();
+        assertEquals("STOPPED", stopped.getState());
+
+        Path file = service.file();
+        assertTrue(Files.size(file) > 0);
+
+        List<RecordedEvent> operations = RecordingFile.readAllEvents(file).stream()
+                .filter(recorded -> recorded.getEventType().getName().equals("org.example.ibpipeline.DealOperation"))
+                .toList();
+        assertEquals(1, operations.size());
+        assertEquals("updateStage", operations.get(0).getString("operation"));
+        assertEquals("deal-1", operations.get(0).getString("dealId"));
+        assertTrue(operations.get(0).getDuration("mongoTime").toMillis() >= 5);
+    }
+
+    @Test
+    void onlyOneRecordingRunsAtATime() {
+        service.start("default", null);
+
+        assertThrows(BadRequestException.class, () -> service.start("profile", null));
+    }
+
+    @Test
+    void unknownSettingsAndMissingRecordingAreRejected() {
+        assertThrows(BadRequestException.class, () -> service.start("nope", null));
+        assertThrows(ResourceNotFoundException.class, () -> service.stop());
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package org.example.ibpipeline.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.ibpipeline.dto.NotificationPage;
+import org.example.ibpipeline.event.DealEvent;
+import org.example.ibpipeline.event.DealEventType;
+import org.example.ibpipeline.model.Deal;
+import org.example.ibpipeline.model.Notification;
+import org.example.ibpipeline.repository.DealRepository;
+import org.example.ibpipeline.repository.NotificationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class NotificationServiceTest {
+
+    private static final Instant T0 = Instant.parse("2025-03-10T09:00:00Z");
+
+    @Mock
+    private NotificationRepository notificationRepository;
+
+    @Mock
+    private DealRepository dealRepository;
+
+    private NotificationService service;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        service = new NotificationService(notificationRepository, dealRepository, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void burstOnOneDeal_becomesOneEntryPerRecipient_withoutTheActor() {
+        when(dealRepository.findAudience(anyCollection()))
+                .thenReturn(List.of(audience("d1", "alice", "bob", "carol"), audience("d2", "alice", null)));
+
+        service.accept(event(DealEventType.STAGE_UPDATED, "d1", "bob", 0));
+        service.accept(event(DealEventType.NOTE_ADDED, "d1", "bob", 1));
+        service.accept(event(DealEventType.NOTE_ADDED, "d1", "carol", 2));
+        service.accept(event(DealEventType.DEAL_UPDATED, "d2", "alice", 3));
+
+        assertEquals(3, service.flush());
+
+        List<Notification> written = inserted();
+        assertEquals(List.of("alice", "carol", "bob"), written.stream().map(Notification::getUserId).toList());
+        Notification alice = written.get(0);
+        assertEquals("d1", alice.getDealId());
+        assertEquals(3, alice.getEventCount());
+        assertEquals(List.of(DealEventType.STAGE_UPDATED, DealEventType.NOTE_ADDED), alice.getEventTypes());
+        assertEquals(List.of("bob", "carol"), alice.getActors());
+        assertEquals(T0, alice.getFirstEventAt());
+        assertEquals(T0.plusSeconds(2), alice.getLastEventAt());
+        // carol gets bob's two changes but not her own note
+        assertEquals(2, written.get(1).getEventCount());
+        assertEquals(1, written.get(2).getEventCount());
+
+        verify(dealRepository, times(1)).findAudience(anyCollection());
+        assertEquals(0, service.flush());
+    }
+
+    @Test
+    void deletedDeal_usesTheAudienceCarriedByTheEvent() {
+        service.accept(event(DealEventType.DEAL_DELETED, "d1", "admin", 0).withAudience(List.of("alice", "admin")));
+
+        assertEquals(1, service.flush());
+
+        assertEquals("alice", inserted().get(0).getUserId());
+        verifyNoInteractions(dealRepository);
+    }
+
+    @Test
+    void combinedNotes_skipEveryAuthor_andListThemAllAsActors() {
+        service.accept(event(DealEventType.NOTE_ADDED, "d1", "bob", 0)
+                .withActors(List.of("bob", "carol"))
+                .withAudience(List.of("alice", "bob", "carol")));
+
+        assertEquals(1, service.flush());
+
+        Notification alice = inserted().get(0);
+        assertEquals("alice", alice.getUserId());
+        assertEquals(List.of("bob", "carol"), alice.getActors());
+    }
+
+    @Test
+    void unreadCount_isLoadedOnce_andKeptCurrentInMemory() {
+        when(notificationRepository.countUnread("alice")).thenReturn(4L);
+        when(dealRepository.findAudience(anyCollection())).thenReturn(List.of(audience("d1", "alice", null)));
+        when(notificationRepository.markRead("alice", "n1")).thenReturn(true);
+
+        assertEquals(4, service.unreadCount("alice"));
+        service.accept(event(DealEventType.NOTE_ADDED, "d1", "bob", 0));
+        service.flush();
+        assertEquals(5, service.unreadCount("alice"));
+        service.markRead("alice", "n1");
+        assertEquals(4, service.unreadCount("alice"));
+
+        verify(notificationRepository, times(1)).countUnread("alice");
+    }
+
+    @Test
+    void shutdown_writesWhatIsStillQueued() {
+        service.accept(event(DealEventType.STAGE_UPDATED, "d1", "admin", 0).withAudience(List.of("alice")));
+
+        service.shutdown();
+        service.shutdown();
+
+        assertEquals("alice", inserted().get(0).getUserId());
+    }
+
+    @Test
+    void page_returnsCursorForTheNextPage() {
+        List<Notification> rows = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            Notification notification = new Notification();
+            notification.setId("n" + i);
+            notification.setCreatedAt(T0.minusSeconds(i));
+            rows.add(notification);
+        }
+        when(notificationRepository.findPage("alice", null, null, 3)).thenReturn(rows);
+        when(notificationRepository.findPage("alice", T0.minusSeconds(1), "n1", 3)).thenReturn(rows.subList(2, 3));
+
+        NotificationPage first = service.page("alice", null, 2);
+        assertEquals(2, first.getNotifications().size());
+        assertNotNull(first.getNextCursor());
+
+        NotificationPage second = service.page("alice", first.getNextCursor(), 2);
+        assertEquals(List.of("n2"), second.getNotifications().stream().map(Notification::getId).toList());
+        assertNull(second.getNextCursor());
+    }
+
+    @Test
+    void fullQueue_flushesWithoutWaitingForTheWindow() {
+        ReflectionTestUtils.setField(service, "maxPending", 2);
+        when(dealRepository.findAudience(anyCollection())).thenReturn(List.of(audience("d1", "alice", null)));
+
+        service.accept(event(DealEventType.NOTE_ADDED, "d1", "bob", 0));
+        verify(notificationRepository, never()).insertAll(anyList());
+        service.accept(event(DealEventType.NOTE_ADDED, "d1", "bob", 1));
+
+        assertEquals(2, inserted().get(0).getEventCount());
+    }
+
+    private List<Notification> inserted() {
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Notification>> captor = ArgumentCaptor.forClass(List.class);
+        verify(notificationRepository).insertAll(captor.capture());
+        return captor.getValue();
+    }
+
+    private static DealEvent event(DealEventType type, String dealId, String userId, int second) {
+        return new DealEvent("e-" + dealId + "-" + second, type, dealId, "Client " + dealId, userId,
+                type + " by " + userId, T0.plusSeconds(second));
+    }
+
+    private static Deal audience(String id, String createdBy, String assignedTo, String... watchers) {
+        Deal deal = new Deal();
+        deal.setId(id);
+        deal.setCreatedBy(createdBy);
+        deal.setAssignedTo(assignedTo);
+        deal.setWatchers(new ArrayList<>(List.of(watchers)));
+        return deal;
+    }
+}
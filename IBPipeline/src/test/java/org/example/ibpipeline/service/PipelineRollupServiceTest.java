@@ -0,0 +1,162 @@
+package org.example.ibpipeline.service;
+
+import org.example.ibpipeline.dto.PipelineGroup;
+import org.example.ibpipeline.event.DealEvent;
+import org.example.ibpipeline.event.DealEventType;
+import org.example.ibpipeline.event.DealFacts;
+import org.example.ibpipeline.model.DealEventRecord;
+import org.example.ibpipeline.model.DealStage;
+import org.example.ibpipeline.model.PipelineRollup;
+import org.example.ibpipeline.repository.DealRepository;
+import org.example.ibpipeline.repository.PipelineRollupRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class PipelineRollupServiceTest {
+
+    private static final LocalDate DAY = LocalDate.of(2025, 3, 10);
+
+    @Mock
+    private PipelineRollupRepository rollupRepository;
+
+    @Mock
+    private DealRepository dealRepository;
+
+    private PipelineRollupService service;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        service = new PipelineRollupService(rollupRepository, dealRepository, true);
+    }
+
+    @Test
+    void firstRollup_isSeededFromDeals_withLaterEventsBackedOut() {
+        when(dealRepository.countByStageSectorAndDealType()).thenReturn(List.of(
+                group("Prospect", "Technology", "M&A", 2, 300),
+                group("Closed", "Technology", "IPO", 1, 500)));
+        // after midnight one Technology M&A deal (100) moved from Prospect to Closed
+        when(rollupRepository.findEvents(eq(start(DAY.plusDays(1))), any())).thenReturn(List.of(
+                record(facts(DealStage.Prospect, "Technology", "M&A", 100L),
+                        facts(DealStage.Closed, "Technology", "M&A", 100L))));
+
+        assertEquals(1, service.rollUpThrough(DAY));
+
+        PipelineRollup seeded = saved().get(0);
+        assertEquals("2025-03-10", seeded.getDay());
+        assertTrue(seeded.isBaseline());
+        assertEquals(3, seeded.getTotalCount());
+        assertEquals(800, seeded.getTotalValue());
+        assertEquals(List.of(
+                new PipelineRollup.Bucket("Prospect", 3, 400),
+                new PipelineRollup.Bucket("UnderEvaluation", 0, 0),
+                new PipelineRollup.Bucket("TermSheetSubmitted", 0, 0),
+                new PipelineRollup.Bucket("Closed", 0, 400),
+                new PipelineRollup.Bucket("Lost", 0, 0)), seeded.getStages());
+        assertEquals(List.of(new PipelineRollup.Bucket("Technology", 3, 800)), seeded.getSectors());
+    }
+
+    @Test
+    void laterDays_applyOnlyThatDaysEvents() {
+        PipelineRollup previous = new PipelineRollup();
+        previous.setDay(DAY.toString());
+        previous.setStages(List.of(new PipelineRollup.Bucket("Prospect", 1, 100)));
+        previous.setSectors(List.of(new PipelineRollup.Bucket("Energy", 1, 100)));
+        previous.setDealTypes(List.of(new PipelineRollup.Bucket("M&A", 1, 100)));
+        when(rollupRepository.findLatest()).thenReturn(previous);
+
+        DealFacts energy = facts(DealStage.Prospect, "Energy", "M&A", 100L);
+        DealFacts created = facts(DealStage.Prospect, "Healthcare", "IPO", 40L);
+        when(rollupRepository.findEvents(start(DAY.plusDays(1)), start(DAY.plusDays(2))))
+                .thenReturn(List.of(record(null, created)));
+        when(rollupRepository.findEvents(start(DAY.plusDays(2)), start(DAY.plusDays(3))))
+                .thenReturn(List.of(
+                        record(energy, facts(DealStage.UnderEvaluation, "Energy", "M&A", 250L)),
+                        record(created, null)));
+
+        assertEquals(2, service.rollUpThrough(DAY.plusDays(2)));
+
+        List<PipelineRollup> rollups = saved();
+        PipelineRollup first = rollups.get(0);
+        assertEquals("2025-03-11", first.getDay());
+        assertEquals(2, first.getTotalCount());
+        assertEquals(140, first.getTotalValue());
+        assertEquals(1, first.getCreated());
+
+        PipelineRollup second = rollups.get(1);
+        assertEquals("2025-03-12", second.getDay());
+        assertEquals(1, second.getTotalCount());
+        assertEquals(250, second.getTotalValue());
+        assertEquals(2, second.getEvents());
+        assertEquals(1, second.getDeleted());
+        assertEquals(new PipelineRollup.Bucket("Prospect", 0, 0), second.getStages().get(0));
+        assertEquals(new PipelineRollup.Bucket("UnderEvaluation", 1, 250), second.getStages().get(1));
+        // Healthcare and IPO no longer hold deals
+        assertEquals(List.of(new PipelineRollup.Bucket("Energy", 1, 250)), second.getSectors());
+        assertEquals(List.of(new PipelineRollup.Bucket("M&A", 1, 250)), second.getDealTypes());
+        verifyNoInteractions(dealRepository);
+    }
+
+    @Test
+    void eventsWithoutFacts_areNotLogged() {
+        DealEvent note = new DealEvent("e1", DealEventType.NOTE_ADDED, "d1", "Acme", "u1", "Note added: hi", Instant.now());
+        service.record(note);
+        verify(rollupRepository, never()).saveEvent(any());
+
+        service.record(new DealEvent("e2", DealEventType.DEAL_CREATED, "d1", "Acme", "u1", "Deal created", Instant.now())
+                .withChange(null, facts(DealStage.Prospect, "Energy", "M&A", 10L)));
+        verify(rollupRepository).saveEvent(any(DealEventRecord.class));
+    }
+
+    @Test
+    void lateEvents_areLoggedForTheDayTheyAreConsumed() {
+        Instant producedTwoDaysAgo = Instant.now().minusSeconds(2 * 86_400);
+
+        service.record(new DealEvent("e1", DealEventType.STAGE_UPDATED, "d1", "Acme", "u1", "Stage changed",
+                producedTwoDaysAgo).withChange(facts(DealStage.Prospect, "Energy", "M&A", 10L),
+                facts(DealStage.Closed, "Energy", "M&A", 10L)));
+
+        ArgumentCaptor<DealEventRecord> captor = ArgumentCaptor.forClass(DealEventRecord.class);
+        verify(rollupRepository).saveEvent(captor.capture());
+        assertEquals(producedTwoDaysAgo, captor.getValue().getTimestamp());
+        assertTrue(captor.getValue().getConsumedAt().isAfter(producedTwoDaysAgo.plusSeconds(86_400)));
+    }
+
+    private List<PipelineRollup> saved() {
+        ArgumentCaptor<PipelineRollup> captor = ArgumentCaptor.forClass(PipelineRollup.class);
+        verify(rollupRepository, atLeastOnce()).save(captor.capture());
+        return captor.getAllValues();
+    }
+
+    private static Instant start(LocalDate day) {
+        return day.atStartOfDay(ZoneOffset.UTC).toInstant();
+    }
+
+    private static DealFacts facts(DealStage stage, String sector, String dealType, Long value) {
+        return new DealFacts(stage, sector, dealType, value);
+    }
+
+    private static DealEventRecord record(DealFacts before, DealFacts after) {
+        DealEventRecord record = new DealEventRecord();
+        record.setBefore(before);
+        record.setAfter(after);
+        return record;
+    }
+
+    private static PipelineGroup group(String stage, String sector, String dealType, long count, long value) {
+        return new PipelineGroup(Map.of("stage", stage, "sector", sector, "dealType", dealType), count, value);
+    }
+}
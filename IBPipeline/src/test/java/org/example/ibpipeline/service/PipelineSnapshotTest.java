@@ -0,0 +1,180 @@
+package org.example.ibpipeline.service;
+
+import org.example.ibpipeline.dto.BulkDealUpdateRequest;
+import org.example.ibpipeline.dto.PipelineAggregate;
+import org.example.ibpipeline.dto.PipelineDimension;
+import org.example.ibpipeline.dto.PipelineGroup;
+import org.example.ibpipeline.dto.PipelineQuery;
+import org.example.ibpipeline.model.Deal;
+import org.example.ibpipeline.model.DealStage;
+import org.example.ibpipeline.repository.DealRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class PipelineSnapshotTest {
+
+    private static final String[] SECTORS = {"Technology", "Healthcare", "Energy", "Financials"};
+    private static final String[] TYPES = {"M&A", "IPO", "Debt"};
+    private static final Instant START = Instant.parse("2024-01-01T00:00:00Z");
+
+    @Mock
+    private DealRepository dealRepository;
+
+    private PipelineSnapshot snapshot;
+    private List<Deal> deals;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        snapshot = new PipelineSnapshot(dealRepository, 4);
+
+        // enough rows for several fork/join leaves
+        deals = new ArrayList<>();
+        for (int i = 0; i < 100_000; i++) {
+            Deal deal = new Deal();
+            deal.setId("d" + i);
+            deal.setVersion(0L);
+            deal.setCurrentStage(DealStage.values()[i % 5]);
+            deal.setSector(SECTORS[i % 4]);
+            deal.setDealType(TYPES[i % 3]);
+            deal.setDealValue((long) i);
+            deal.setCreatedAt(START.plus(i % 700, ChronoUnit.DAYS));
+            deal.setUpdatedAt(deal.getCreatedAt());
+            deals.add(deal);
+        }
+        when(dealRepository.streamWithoutNotes()).thenReturn(deals.stream());
+        snapshot.load();
+    }
+
+    @AfterEach
+    void tearDown() {
+        snapshot.shutdown();
+    }
+
+    @Test
+    void groupBySectorAndStage_matchesBruteForce() {
+        PipelineAggregate result = snapshot.aggregate(query(List.of(PipelineDimension.SECTOR, PipelineDimension.STAGE),
+                null, null, null));
+
+        Map<String, long[]> expected = new HashMap<>();
+        for (Deal deal : deals) {
+            long[] sums = expected.computeIfAbsent(deal.getSector() + "/" + deal.getCurrentStage(), k -> new long[2]);
+            sums[0]++;
+            sums[1] += deal.getDealValue();
+        }
+
+        assertTrue(result.isComplete());
+        assertEquals(List.of("sector", "stage"), result.getGroupBy());
+        assertEquals(expected.size(), result.getGroups().size());
+        assertEquals(100_000, result.getMatchedDeals());
+        for (PipelineGroup group : result.getGroups()) {
+            long[] sums = expected.get(group.getKeys().get("sector") + "/" + group.getKeys().get("stage"));
+            assertEquals(sums[0], group.getCount());
+            assertEquals(sums[1], group.getTotalValue());
+        }
+    }
+
+    @Test
+    void filtersAndWeeklyBuckets() {
+        Instant from = START.plus(7, ChronoUnit.DAYS);
+        Instant to = START.plus(42, ChronoUnit.DAYS);
+        PipelineAggregate result = snapshot.aggregate(query(List.of(PipelineDimension.CREATED_WEEK),
+                EnumSet.of(DealStage.Closed), "Energy", new Instant[]{from, to}));
+
+        long expected = deals.stream()
+                .filter(deal -> deal.getCurrentStage() == DealStage.Closed && deal.getSector().equals("Energy"))
+                .filter(deal -> !deal.getCreatedAt().isBefore(from) && deal.getCreatedAt().isBefore(to))
+                .count();
+        assertEquals(expected, result.getMatchedDeals());
+        // Closed Energy deals are created on days 18 and 38 of each 20-day cycle; 2024-01-01 is a Monday
+        assertEquals(Set.of("2024-01-15", "2024-02-05"),
+                Set.copyOf(result.getGroups().stream().map(group -> group.getKeys().get("createdWeek")).toList()));
+
+        assertEquals(0, snapshot.aggregate(query(List.of(PipelineDimension.STAGE), null, "Unknown", null))
+                .getMatchedDeals());
+    }
+
+    @Test
+    void largeGroupSpace_isAggregatedThroughTheMap() {
+        // 1000 more sectors: ~1005 sectors x 4 types x 100 weeks is past the flat-array limit
+        long addedValue = 0;
+        for (int i = 0; i < 1_000; i++) {
+            Deal deal = new Deal();
+            deal.setId("s" + i);
+            deal.setSector("Sector " + i);
+            deal.setDealType("M&A");
+            deal.setDealValue(7L);
+            deal.setCreatedAt(START);
+            snapshot.dealCreated(deal);
+            addedValue += 7;
+        }
+
+        PipelineAggregate result = snapshot.aggregate(query(
+                List.of(PipelineDimension.SECTOR, PipelineDimension.DEAL_TYPE, PipelineDimension.CREATED_WEEK),
+                null, null, null));
+
+        assertEquals(101_000, result.getMatchedDeals());
+        assertEquals(deals.stream().mapToLong(Deal::getDealValue).sum() + addedValue, result.getTotalValue());
+        assertTrue(result.getGroups().stream().anyMatch(group -> "Sector 999".equals(group.getKeys().get("sector"))
+                && "2024-01-01".equals(group.getKeys().get("createdWeek")) && group.getCount() == 1));
+    }
+
+    @Test
+    void changes_areReflected() {
+        Deal moved = deals.get(0);
+        Deal updated = new Deal();
+        updated.setId(moved.getId());
+        updated.setVersion(1L);
+        updated.setCurrentStage(DealStage.Lost);
+        updated.setSector("Utilities");
+        updated.setDealType("M&A");
+        updated.setDealValue(1_000_000L);
+        updated.setCreatedAt(moved.getCreatedAt());
+        snapshot.dealUpdated(moved, updated);
+
+        PipelineAggregate utilities = snapshot.aggregate(query(List.of(PipelineDimension.STAGE), null, "Utilities", null));
+        assertEquals(1, utilities.getMatchedDeals());
+        assertEquals("Lost", utilities.getGroups().get(0).getKeys().get("stage"));
+
+        BulkDealUpdateRequest change = new BulkDealUpdateRequest();
+        change.setStage(DealStage.Closed);
+        snapshot.dealsBulkUpdated(List.of(updated), change, Instant.now());
+        assertEquals("Closed", snapshot.aggregate(query(List.of(PipelineDimension.STAGE), null, "Utilities", null))
+                .getGroups().get(0).getKeys().get("stage"));
+
+        snapshot.dealDeleted(updated);
+        assertEquals(0, snapshot.aggregate(query(List.of(PipelineDimension.STAGE), null, "Utilities", null))
+                .getMatchedDeals());
+
+        // the freed row is reused
+        int capacity = snapshot.stats().getCapacity();
+        Deal created = new Deal();
+        created.setId("new");
+        created.setSector("Utilities");
+        created.setDealType("IPO");
+        snapshot.dealCreated(created);
+        assertEquals(capacity, snapshot.stats().getCapacity());
+        assertEquals(100_000, snapshot.stats().getLiveDeals());
+    }
+
+    private static PipelineQuery query(List<PipelineDimension> groupBy, Set<DealStage> stages, String sector,
+                                       Instant[] created) {
+        return new PipelineQuery(groupBy, stages, sector, null,
+                created == null ? null : created[0], created == null ? null : created[1]);
+    }
+}
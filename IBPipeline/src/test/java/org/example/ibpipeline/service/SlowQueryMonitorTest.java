@@ -0,0 +1,117 @@
+package org.example.ibpipeline.service;
+
+import com.mongodb.ServerAddress;
+import com.mongodb.connection.ClusterId;
+import com.mongodb.connection.ConnectionDescription;
+import com.mongodb.connection.ServerId;
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.event.CommandSucceededEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.BsonDocument;
+import org.bson.Document;
+import org.example.ibpipeline.dto.SlowQueryStats;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class SlowQueryMonitorTest {
+
+    private static final ConnectionDescription CONNECTION =
+            new ConnectionDescription(new ServerId(new ClusterId(), new ServerAddress()));
+
+    @Mock
+    private ObjectProvider<MongoTemplate> mongoTemplateProvider;
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    private SlowQueryMonitor monitor;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(mongoTemplateProvider.getIfAvailable()).thenReturn(mongoTemplate);
+        monitor = new SlowQueryMonitor(true, Duration.ofMillis(100), 10, mongoTemplateProvider,
+                new SimpleMeterRegistry(), Runnable::run);
+    }
+
+    @Test
+    void slowFind_isRecordedWithRedactedShapeAndPlan() {
+        when(mongoTemplate.executeCommand(any(Document.class))).thenReturn(explain(
+                new Document("stage", "SORT").append("inputStage", new Document("stage", "COLLSCAN"))));
+
+        run(1, BsonDocument.parse("{find: 'deals', filter: {clientName: 'Acme Corp', dealValue: {$gt: 500}}, sort: {updatedAt: 1}}"), 250);
+        run(2, BsonDocument.parse("{find: 'deals', filter: {clientName: 'Globex', dealValue: {$gt: 10}}, sort: {updatedAt: 1}}"), 150);
+
+        List<SlowQueryStats> offenders = monitor.topOffenders(10);
+        assertEquals(1, offenders.size());
+
+        SlowQueryStats stats = offenders.get(0);
+        assertEquals("deals", stats.getCollection());
+        assertEquals("find", stats.getCommand());
+        assertEquals(2, stats.getCount());
+        assertEquals(400, stats.getTotalMillis());
+        assertEquals(250, stats.getMaxMillis());
+        assertEquals("COLLSCAN", stats.getPlan());
+        assertTrue(stats.isCollectionScan());
+        assertFalse(stats.getShape().contains("Acme"));
+        assertFalse(stats.getShape().contains("500"));
+        assertTrue(stats.getShape().contains("\"clientName\": \"?\""));
+
+        // explained once per shape
+        verify(mongoTemplate, times(1)).executeCommand(any(Document.class));
+    }
+
+    @Test
+    void fastCommands_areIgnored() {
+        run(1, BsonDocument.parse("{find: 'deals', filter: {currentStage: 'Closed'}}"), 5);
+
+        assertTrue(monitor.topOffenders(10).isEmpty());
+        verifyNoInteractions(mongoTemplate);
+    }
+
+    @Test
+    void updateFilter_isTakenFromFirstStatement() {
+        when(mongoTemplate.executeCommand(any(Document.class))).thenReturn(explain(
+                new Document("stage", "IXSCAN").append("indexName", "stage_updatedAt")));
+
+        run(1, BsonDocument.parse("{update: 'deals', updates: [{q: {currentStage: 'Lost', updatedAt: {$lt: {$date: 0}}}, u: {$set: {x: 1}}}]}"), 300);
+
+        SlowQueryStats stats = monitor.topOffenders(10).get(0);
+        assertEquals("update", stats.getCommand());
+        assertTrue(stats.getShape().contains("currentStage"));
+        assertEquals("IXSCAN stage_updatedAt", stats.getPlan());
+        assertFalse(stats.isCollectionScan());
+    }
+
+    @Test
+    void planSummary_unwrapsSlotBasedPlans() {
+        Document explain = new Document("queryPlanner", new Document("winningPlan",
+                new Document("queryPlan", new Document("stage", "FETCH")
+                        .append("inputStage", new Document("stage", "IXSCAN").append("indexName", "_id_")))));
+
+        assertEquals("IXSCAN _id_", SlowQueryMonitor.planSummary(explain));
+    }
+
+    private void run(int requestId, BsonDocument command, long millis) {
+        String commandName = command.getFirstKey();
+        monitor.commandStarted(new CommandStartedEvent(null, 1, requestId, CONNECTION, "ibpipeline", commandName, command));
+        monitor.commandSucceeded(new CommandSucceededEvent(null, 1, requestId, CONNECTION, "ibpipeline", commandName,
+                new BsonDocument(), TimeUnit.MILLISECONDS.toNanos(millis)));
+    }
+
+    private static Document explain(Document winningPlan) {
+        return new Document("queryPlanner", new Document("winningPlan", winningPlan));
+    }
+}
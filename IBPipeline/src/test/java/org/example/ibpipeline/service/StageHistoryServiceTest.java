@@ -0,0 +1,209 @@
+package org.example.ibpipeline.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.ibpipeline.dto.BulkDealUpdateRequest;
+import org.example.ibpipeline.dto.SectorVelocity;
+import org.example.ibpipeline.dto.StageVelocity;
+import org.example.ibpipeline.model.Deal;
+import org.example.ibpipeline.model.DealStage;
+import org.example.ibpipeline.model.DealStageHistory;
+import org.example.ibpipeline.model.StageStats;
+import org.example.ibpipeline.repository.StageHistoryRepository;
+import org.example.ibpipeline.util.DurationSketch;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.Executor;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class StageHistoryServiceTest {
+
+    private static final Instant CREATED = Instant.parse("2025-03-01T09:00:00Z");
+
+    @Mock
+    private StageHistoryRepository stageHistoryRepository;
+
+    private final List<Runnable> pendingWrites = new ArrayList<>();
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private StageHistoryService service;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        meterRegistry = new SimpleMeterRegistry();
+        Executor queued = pendingWrites::add;
+        service = new StageHistoryService(stageHistoryRepository, queued, meterRegistry);
+    }
+
+    @Test
+    void callbacks_leaveTheWriteToTheExecutor() {
+        service.dealUpdated(deal("d1", DealStage.Prospect, CREATED),
+                deal("d1", DealStage.UnderEvaluation, CREATED.plus(Duration.ofDays(1))));
+
+        verifyNoInteractions(stageHistoryRepository);
+        assertEquals(1, pendingWrites.size());
+        assertEquals("d1", appended().get(0).dealId());
+    }
+
+    @Test
+    void failedWrite_isCountedAndDoesNotReachTheCaller() {
+        doThrow(new IllegalStateException("mongo down")).when(stageHistoryRepository).append(anyList());
+        BulkDealUpdateRequest change = new BulkDealUpdateRequest();
+        change.setStage(DealStage.Lost);
+
+        service.dealsBulkUpdated(List.of(deal("d1", DealStage.Prospect, CREATED), deal("d2", DealStage.Prospect, CREATED)),
+                change, CREATED.plus(Duration.ofHours(1)));
+        pendingWrites.forEach(Runnable::run);
+
+        assertEquals(2.0, meterRegistry.get("stage_history.write.failures").counter().count());
+    }
+
+    @Test
+    void stageChange_recordsTimeSpentInPreviousStage() {
+        Deal before = deal("d1", DealStage.Prospect, CREATED);
+        Deal after = deal("d1", DealStage.UnderEvaluation, CREATED.plus(Duration.ofDays(3)));
+
+        service.dealUpdated(before, after);
+
+        StageHistoryRepository.Entry entry = appended().get(0);
+        assertEquals("d1", entry.dealId());
+        assertEquals("Technology", entry.sector());
+        assertEquals(new DealStageHistory.Transition(DealStage.Prospect, DealStage.UnderEvaluation,
+                after.getStageEnteredAt(), Duration.ofDays(3).toMillis()), entry.transition());
+    }
+
+    @Test
+    void otherUpdatesAndNotes_recordNothing() {
+        Deal deal = deal("d1", DealStage.Prospect, CREATED);
+
+        service.dealUpdated(deal, deal("d1", DealStage.Prospect, CREATED));
+        service.dealUpdated(null, deal);
+
+        assertTrue(pendingWrites.isEmpty());
+        verifyNoInteractions(stageHistoryRepository);
+    }
+
+    @Test
+    void bulkStageChange_skipsDealsAlreadyInTheStage() {
+        BulkDealUpdateRequest change = new BulkDealUpdateRequest();
+        change.setStage(DealStage.Lost);
+        Instant now = CREATED.plus(Duration.ofHours(5));
+        // a deal saved before stageEnteredAt was kept: time in stage counts from creation
+        Deal untracked = deal("d2", DealStage.Prospect, null);
+
+        service.dealsBulkUpdated(List.of(untracked, deal("d3", DealStage.Lost, CREATED)), change, now);
+
+        List<StageHistoryRepository.Entry> entries = appended();
+        assertEquals(1, entries.size());
+        assertEquals("d2", entries.get(0).dealId());
+        assertEquals(Duration.ofHours(5).toMillis(), entries.get(0).transition().getMillisInPreviousStage());
+    }
+
+    @Test
+    void timeline_ordersTransitionsByTime_notByWriteOrder() {
+        Instant first = CREATED.plus(Duration.ofDays(1));
+        Instant second = CREATED.plus(Duration.ofDays(2));
+        // the first write overflowed the executor and was pushed after the second
+        DealStageHistory bucket = new DealStageHistory();
+        bucket.setTransitions(new ArrayList<>(List.of(
+                new DealStageHistory.Transition(DealStage.UnderEvaluation, DealStage.TermSheetSubmitted, second, 0L),
+                new DealStageHistory.Transition(DealStage.Prospect, DealStage.UnderEvaluation, first, 0L))));
+        when(stageHistoryRepository.findHistory("d1")).thenReturn(List.of(bucket));
+
+        List<DealStageHistory.Transition> transitions =
+                service.timeline(deal("d1", DealStage.TermSheetSubmitted, second)).getTransitions();
+
+        assertEquals(List.of(first, second), transitions.stream().map(DealStageHistory.Transition::getAt).toList());
+    }
+
+    @Test
+    void velocity_mergesMonthlyCountersAcrossSectors() {
+        Random random = new Random(7);
+        DurationSketch unsplit = new DurationSketch();
+        long[] millis = new long[10_000];
+        List<StageStats> stats = new ArrayList<>();
+        for (String sector : List.of("Energy", "Technology")) {
+            for (String month : List.of("2025-01", "2025-02")) {
+                StageStats prospect = stats(sector, DealStage.Prospect, month, 2_500, 2_500);
+                prospect.setExitsTo(new HashMap<>(Map.of("UnderEvaluation", 2_000L, "Lost", 500L)));
+                stats.add(prospect);
+                stats.add(stats(sector, DealStage.Closed, month, sector.equals("Energy") ? 30 : 10, 0));
+                stats.add(stats(sector, DealStage.Lost, month, 10, 0));
+            }
+        }
+        // spread 10k exits of 1 minute .. ~1 day over the four Prospect documents
+        for (int i = 0; i < millis.length; i++) {
+            millis[i] = 60_000 + (long) (random.nextDouble() * 86_400_000);
+            unsplit.add(millis[i]);
+            stats.get((i % 4) * 3).getDurations().merge(String.valueOf(DurationSketch.bucketOf(millis[i])), 1L, Long::sum);
+        }
+        when(stageHistoryRepository.findStats(null, YearMonth.of(2025, 1), YearMonth.of(2025, 2))).thenReturn(stats);
+
+        List<SectorVelocity> report = service.velocity(null, YearMonth.of(2025, 1), YearMonth.of(2025, 2));
+
+        assertEquals(3, report.size());
+        assertNull(report.get(0).getSector());
+        assertEquals("Energy", report.get(1).getSector());
+        assertEquals(60 / 80.0, report.get(1).getWinRate(), 1e-9);
+        assertEquals(20 / 40.0, report.get(2).getWinRate(), 1e-9);
+
+        StageVelocity prospect = report.get(0).getStages().get(0);
+        assertEquals(DealStage.Prospect, prospect.getStage());
+        assertEquals(10_000, prospect.getEntered());
+        assertEquals(0.8, prospect.getConversionRate(), 1e-9);
+
+        Arrays.sort(millis);
+        long trueP90 = millis[(int) Math.floor(0.90 * (millis.length - 1))];
+        assertEquals(trueP90, prospect.getP90Millis(), trueP90 * DurationSketch.RELATIVE_ACCURACY);
+        // merging the four partial sketches gives exactly the sketch of all values
+        assertEquals(unsplit.quantile(0.5), prospect.getP50Millis());
+        assertNull(report.get(0).getStages().get(DealStage.Closed.ordinal()).getP50Millis());
+    }
+
+    private List<StageHistoryRepository.Entry> appended() {
+        pendingWrites.forEach(Runnable::run);
+        pendingWrites.clear();
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<StageHistoryRepository.Entry>> captor = ArgumentCaptor.forClass(List.class);
+        verify(stageHistoryRepository).append(captor.capture());
+        return captor.getValue();
+    }
+
+    private static Deal deal(String id, DealStage stage, Instant stageEnteredAt) {
+        Deal deal = new Deal();
+        deal.setId(id);
+        deal.setSector("Technology");
+        deal.setCurrentStage(stage);
+        deal.setCreatedAt(CREATED);
+        deal.setUpdatedAt(stageEnteredAt == null ? CREATED : stageEnteredAt);
+        deal.setStageEnteredAt(stageEnteredAt);
+        return deal;
+    }
+
+    private static StageStats stats(String sector, DealStage stage, String month, long entered, long exited) {
+        StageStats stats = new StageStats();
+        stats.setSector(sector);
+        stats.setStage(stage);
+        stats.setMonth(month);
+        stats.setEntered(entered);
+        stats.setExited(exited);
+        return stats;
+    }
+}
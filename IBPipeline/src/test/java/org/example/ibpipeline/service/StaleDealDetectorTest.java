@@ -0,0 +1,127 @@
+package org.example.ibpipeline.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.ibpipeline.event.DealEvent;
+import org.example.ibpipeline.event.DealEventType;
+import org.example.ibpipeline.model.Deal;
+import org.example.ibpipeline.model.DealStage;
+import org.example.ibpipeline.model.JobWatermark;
+import org.example.ibpipeline.repository.DealRepository;
+import org.example.ibpipeline.repository.JobWatermarkRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class StaleDealDetectorTest {
+
+    @Mock
+    private DealRepository dealRepository;
+
+    @Mock
+    private JobWatermarkRepository watermarkRepository;
+
+    @Mock
+    private KafkaProducerService kafkaProducerService;
+
+    private SimpleMeterRegistry meterRegistry;
+    private StaleDealDetector detector;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        meterRegistry = new SimpleMeterRegistry();
+        detector = new StaleDealDetector(dealRepository, watermarkRepository, kafkaProducerService, meterRegistry);
+        ReflectionTestUtils.setField(detector, "batchSize", 2);
+        ReflectionTestUtils.setField(detector, "maxBatchesPerRun", 2);
+        when(dealRepository.findStale(any(), any(), any(), any(), anyInt())).thenReturn(List.of());
+    }
+
+    @Test
+    void firstRun_startsFromLookback_andAdvancesWatermarkToCutoff() {
+        Instant old = Instant.now().minus(Duration.ofDays(14)).minus(Duration.ofHours(3));
+        when(dealRepository.findStale(eq(DealStage.Prospect), any(), isNull(), any(), eq(2)))
+                .thenReturn(List.of(deal("a", old)));
+
+        assertEquals(1, detector.detectStaleDeals());
+
+        ArgumentCaptor<Instant> from = ArgumentCaptor.forClass(Instant.class);
+        ArgumentCaptor<Instant> cutoff = ArgumentCaptor.forClass(Instant.class);
+        verify(dealRepository).findStale(eq(DealStage.Prospect), from.capture(), isNull(), cutoff.capture(), eq(2));
+        assertEquals(Duration.ofDays(1), Duration.between(from.getValue(), cutoff.getValue()));
+
+        List<DealEvent> events = sentEvents();
+        assertEquals(1, events.size());
+        assertEquals(DealEventType.DEAL_STALE, events.get(0).getEventType());
+        assertEquals("a", events.get(0).getDealId());
+
+        // the drained run leaves the Prospect watermark at its cutoff
+        ArgumentCaptor<JobWatermark> saved = ArgumentCaptor.forClass(JobWatermark.class);
+        verify(watermarkRepository, atLeastOnce()).save(saved.capture());
+        JobWatermark last = saved.getAllValues().stream()
+                .filter(watermark -> watermark.getName().equals("stale-deals:Prospect"))
+                .reduce((first, second) -> second).orElseThrow();
+        assertEquals(cutoff.getValue(), last.getUpdatedAt());
+        assertNull(last.getDealId());
+        assertEquals(0, meterRegistry.get("deals.stale.backlog").tag("stage", "Prospect").gauge().value());
+    }
+
+    @Test
+    void cappedRun_resumesFromKeyset_andReportsBacklog() {
+        Instant t = Instant.now().minus(Duration.ofDays(40));
+        JobWatermark watermark = new JobWatermark("stale-deals:UnderEvaluation", t.minusSeconds(60), null, null);
+        when(watermarkRepository.find("stale-deals:UnderEvaluation")).thenReturn(watermark);
+        when(dealRepository.findStale(eq(DealStage.UnderEvaluation), eq(t.minusSeconds(60)), isNull(), any(), eq(2)))
+                .thenReturn(List.of(deal("a", t), deal("b", t)));
+        when(dealRepository.findStale(eq(DealStage.UnderEvaluation), eq(t), eq("b"), any(), eq(2)))
+                .thenReturn(List.of(deal("c", t), deal("d", t.plusSeconds(1))));
+        when(dealRepository.countStale(eq(DealStage.UnderEvaluation), eq(t.plusSeconds(1)), eq("d"), any()))
+                .thenReturn(7L);
+
+        assertEquals(4, detector.detectStaleDeals());
+
+        assertEquals(t.plusSeconds(1), watermark.getUpdatedAt());
+        assertEquals("d", watermark.getDealId());
+        assertEquals(7, meterRegistry.get("deals.stale.backlog").tag("stage", "UnderEvaluation").gauge().value());
+        assertEquals(4, meterRegistry.get("deals.stale.detected").tag("stage", "UnderEvaluation").counter().count());
+        assertEquals(1, meterRegistry.get("deals.stale.run").timer().count());
+        verify(kafkaProducerService, times(2)).sendDealEvents(anyList());
+    }
+
+    @Test
+    void raisedSla_neverMovesWatermarkBackwards() {
+        Instant ahead = Instant.now().minus(Duration.ofDays(1));
+        JobWatermark watermark = new JobWatermark("stale-deals:Prospect", ahead, null, null);
+        when(watermarkRepository.find("stale-deals:Prospect")).thenReturn(watermark);
+
+        assertEquals(0, detector.detectStaleDeals());
+
+        assertEquals(ahead, watermark.getUpdatedAt());
+        verifyNoInteractions(kafkaProducerService);
+    }
+
+    private List<DealEvent> sentEvents() {
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<DealEvent>> captor = ArgumentCaptor.forClass(List.class);
+        verify(kafkaProducerService).sendDealEvents(captor.capture());
+        return captor.getValue();
+    }
+
+    private static Deal deal(String id, Instant updatedAt) {
+        Deal deal = new Deal();
+        deal.setId(id);
+        deal.setClientName("Client " + id);
+        deal.setUpdatedAt(updatedAt);
+        return deal;
+    }
+}
@@ -0,0 +1,65 @@
+package org.example.ibpipeline.service;
+
+import brave.handler.MutableSpan;
+import brave.handler.SpanHandler;
+import brave.propagation.TraceContext;
+import org.example.ibpipeline.dto.TraceSpan;
+import org.example.ibpipeline.dto.TraceSummary;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TraceBufferTest {
+
+    @Test
+    void spansAreGroupedByTraceAndSummarizedFromTheRoot() {
+        TraceBuffer buffer = new TraceBuffer(10, 10);
+
+        finish(buffer, 1, 2, 1L, "kafka receive", 300, 350, null);
+        finish(buffer, 1, 1, null, "http post /api/deals", 100, 400, null);
+        finish(buffer, 1, 3, 1L, "deals.insert", 150, 200, "MongoTimeoutException");
+
+        List<TraceSummary> recent = buffer.recent(10);
+        assertEquals(1, recent.size());
+        TraceSummary summary = recent.get(0);
+        assertEquals("http post /api/deals", summary.getRootName());
+        assertEquals(3, summary.getSpanCount());
+        assertEquals(100, summary.getStartMicros());
+        assertEquals(300, summary.getDurationMicros());
+        assertTrue(summary.isError());
+
+        List<TraceSpan> spans = buffer.trace(summary.getTraceId());
+        assertEquals(List.of("http post /api/deals", "deals.insert", "kafka receive"),
+                spans.stream().map(TraceSpan::getName).toList());
+    }
+
+    @Test
+    void oldestTraceIsEvictedAndSpansPerTraceAreCapped() {
+        TraceBuffer buffer = new TraceBuffer(2, 1);
+
+        finish(buffer, 1, 1, null, "first", 0, 10, null);
+        finish(buffer, 1, 2, 1L, "dropped", 1, 5, null);
+        finish(buffer, 2, 1, null, "second", 20, 30, null);
+        finish(buffer, 3, 1, null, "third", 40, 50, null);
+
+        assertEquals(List.of("third", "second"),
+                buffer.recent(10).stream().map(TraceSummary::getRootName).toList());
+        assertNull(buffer.trace(TraceContext.newBuilder().traceId(1).spanId(1).build().traceIdString()));
+        assertEquals(1, buffer.trace(TraceContext.newBuilder().traceId(2).spanId(1).build().traceIdString()).size());
+    }
+
+    private static void finish(TraceBuffer buffer, long traceId, long spanId, Long parentId, String name,
+                               long start, long end, String error) {
+        TraceContext context = TraceContext.newBuilder().traceId(traceId).spanId(spanId).parentId(parentId).build();
+        MutableSpan span = new MutableSpan(context, null);
+        span.name(name);
+        span.startTimestamp(start);
+        span.finishTimestamp(end);
+        if (error != null) {
+            span.tag("error", error);
+        }
+        buffer.end(context, span, SpanHandler.Cause.FINISHED);
+    }
+}
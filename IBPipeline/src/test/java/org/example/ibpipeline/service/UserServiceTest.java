@@ -1,6 +1,8 @@
 package org.example.ibpipeline.service;
 
 import org.apache.coyote.BadRequestException;
+import org.example.ibpipeline.dto.UserDirectoryPage;
+import org.example.ibpipeline.dto.UserFilter;
 import org.example.ibpipeline.exception.ResourceNotFoundException;
 import org.example.ibpipeline.model.Role;
 import org.example.ibpipeline.model.User;
@@ -11,6 +13,7 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import tools.jackson.databind.json.JsonMapper;
 
 import java.util.List;
 import java.util.Optional;
@@ -136,12 +139,32 @@ class UserServiceTest {
     }
 
     @Test
-    void getAllUsers_returnsList() {
-        when(userRepository.findAll()).thenReturn(List.of(user));
+    void getDirectory_pagesByUsername() {
+        UserFilter filter = new UserFilter(Role.USER, true, "j");
+        User jane = new User();
+        jane.setUsername("jane");
+        User joe = new User();
+        joe.setUsername("joe");
+        when(userRepository.findDirectoryPage(filter, null, 3)).thenReturn(List.of(jane, user, joe));
+        when(userRepository.findDirectoryPage(filter, "john", 3)).thenReturn(List.of(joe));
+
+        UserDirectoryPage first = userService.getDirectory(filter, null, 2);
+        assertEquals(List.of("jane", "john"), first.getUsers().stream().map(User::getUsername).toList());
+        assertEquals("john", first.getNextCursor());
+
+        UserDirectoryPage second = userService.getDirectory(filter, first.getNextCursor(), 2);
+        assertEquals(1, second.getUsers().size());
+        assertNull(second.getNextCursor());
+    }
+
+    @Test
+    void passwordHash_isNeverSerialized() {
+        user.setPassword("$2a$10$hash");
 
-        List<User> users = userService.getAllUsers();
+        String json = JsonMapper.builder().build().writeValueAsString(user);
 
-        assertEquals(1, users.size());
-        assertEquals("john", users.get(0).getUsername());
+        assertTrue(json.contains("\"username\":\"john\""));
+        assertFalse(json.contains("password"));
+        assertFalse(json.contains("$2a$10$hash"));
     }
 }
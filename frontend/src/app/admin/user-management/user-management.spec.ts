@@ -16,7 +16,7 @@ describe('UserManagement', () => {
 
   beforeEach(async () => {
     userMock = {
-      getAll: vi.fn().mockReturnValue(of(mockUsers)),
+      getPage: vi.fn().mockReturnValue(of({ users: mockUsers, nextCursor: 'bob' })),
       updateStatus: vi.fn().mockReturnValue(of({}))
     };
 
@@ -54,12 +54,33 @@ describe('UserManagement', () => {
   });
 
   it('should call updateStatus when clicking action button', () => {
-    const toggle = component.paginatedUsers[0]; // alice
+    const toggle = component.users[0]; // alice
     component.toggle(toggle);
 
     expect(userMock.updateStatus).toHaveBeenCalledWith('1', false);
   });
 
+  it('should send the filters to the server and restart from the first page', () => {
+    component.nextPage();
+    expect(userMock.getPage).toHaveBeenLastCalledWith({ role: null, active: null, q: null }, 'bob', 10);
+
+    component.searchTerm = ' al ';
+    component.selectedRole = 'ADMIN';
+    component.selectedStatus = 'ACTIVE';
+    component.filterUsers();
+
+    expect(userMock.getPage).toHaveBeenLastCalledWith({ role: 'ADMIN', active: true, q: 'al' }, null, 10);
+    expect(component.currentPage).toBe(1);
+  });
+
+  it('should go back to the cursor the previous page was loaded with', () => {
+    component.nextPage();
+    component.previousPage();
+
+    expect(userMock.getPage).toHaveBeenLastCalledWith({ role: null, active: null, q: null }, null, 10);
+    expect(component.currentPage).toBe(1);
+  });
+
   it('should have create-user dialog button', () => {
     const btn = fixture.nativeElement.querySelector('button.create-button');
 
@@ -11,7 +11,8 @@ import { MatMenuModule } from '@angular/material/menu';
 import { MatSelectModule } from '@angular/material/select';
 import { MatSlideToggleModule } from '@angular/material/slide-toggle';
 import { MatDialog, MatDialogModule } from '@angular/material/dialog';
-import { UserService } from '../../core/services/user';
+import { Subscription } from 'rxjs';
+import { UserDirectoryFilter, UserService } from '../../core/services/user';
 import { UserForm } from '../user-form/user-form';
 
 @Component({
@@ -37,17 +38,16 @@ import { UserForm } from '../user-form/user-form';
 export class UserManagement implements OnInit, AfterViewInit {
 
   users: any[] = [];
-  filteredUsers: any[] = [];
-  paginatedUsers: any[] = [];
   searchTerm = '';
   selectedRole = 'ALL';
   selectedStatus = 'ALL';
   columns = ['username', 'email', 'role', 'active', 'actions'];
-  
-  // Pagination
-  currentPage = 1;
+
+  // Keyset pagination: the cursor each visited page was loaded with, and the one for the next page
   pageSize = 10;
-  totalUsers = 0;
+  cursors: (string | null)[] = [null];
+  nextCursor: string | null = null;
+  private pageRequest?: Subscription;
 
   constructor(
     private usersApi: UserService,
@@ -65,96 +65,64 @@ export class UserManagement implements OnInit, AfterViewInit {
     this.cdr.detectChanges();
   }
 
+  /** Loads the current page; a newer load cancels one still in flight, so fast typing can't reorder pages. */
   load() {
-    this.usersApi.getAll().subscribe({
-      next: (u) => {
-        console.log('Users loaded:', u);
-        this.users = u || [];
-        this.filterUsers();
+    this.pageRequest?.unsubscribe();
+    this.pageRequest = this.usersApi.getPage(this.filter(), this.cursors[this.cursors.length - 1], this.pageSize).subscribe({
+      next: (page) => {
+        this.users = page.users || [];
+        this.nextCursor = page.nextCursor;
         this.cdr.detectChanges();
       },
       error: (err) => {
         console.error('Error loading users:', err);
         this.users = [];
-        this.filteredUsers = [];
-        this.paginatedUsers = [];
-        this.totalUsers = 0;
+        this.nextCursor = null;
         this.cdr.detectChanges();
       }
     });
   }
 
+  /** Role, status and the username prefix are applied by the server; any change starts again at page 1. */
   filterUsers() {
-    let filtered = [...this.users];
-    
-    // Search filter
-    if (this.searchTerm) {
-      const term = this.searchTerm.toLowerCase();
-      filtered = filtered.filter(user => 
-        user.username?.toLowerCase().includes(term) ||
-        user.email?.toLowerCase().includes(term) ||
-        user.role?.toLowerCase().includes(term)
-      );
-    }
-    
-    // Role filter
-    if (this.selectedRole !== 'ALL') {
-      filtered = filtered.filter(user => user.role === this.selectedRole);
-    }
-    
-    // Status filter
-    if (this.selectedStatus !== 'ALL') {
-      const isActive = this.selectedStatus === 'ACTIVE';
-      filtered = filtered.filter(user => user.active === isActive);
-    }
-    
-    this.filteredUsers = filtered;
-    this.totalUsers = filtered.length;
-    this.currentPage = 1;
-    this.updatePagination();
-    console.log('Filtered users:', filtered.length, 'Paginated:', this.paginatedUsers.length);
+    this.cursors = [null];
+    this.load();
   }
-  
-  updatePagination() {
-    const startIndex = (this.currentPage - 1) * this.pageSize;
-    const endIndex = startIndex + this.pageSize;
-    this.paginatedUsers = this.filteredUsers.slice(startIndex, endIndex);
-    this.cdr.markForCheck();
+
+  private filter(): UserDirectoryFilter {
+    return {
+      role: this.selectedRole !== 'ALL' ? this.selectedRole : null,
+      active: this.selectedStatus !== 'ALL' ? this.selectedStatus === 'ACTIVE' : null,
+      q: this.searchTerm.trim() || null
+    };
   }
-  
-  get totalPages(): number {
-    return Math.ceil(this.totalUsers / this.pageSize);
+
+  get currentPage(): number {
+    return this.cursors.length;
   }
-  
+
   get startIndex(): number {
     return (this.currentPage - 1) * this.pageSize + 1;
   }
-  
+
   get endIndex(): number {
-    return Math.min(this.currentPage * this.pageSize, this.totalUsers);
-  }
-  
-  goToPage(page: number) {
-    if (page >= 1 && page <= this.totalPages) {
-      this.currentPage = page;
-      this.updatePagination();
-    }
+    return this.startIndex + this.users.length - 1;
   }
-  
+
   nextPage() {
-    if (this.currentPage < this.totalPages) {
-      this.currentPage++;
-      this.updatePagination();
+    if (this.nextCursor) {
+      this.cursors.push(this.nextCursor);
+      this.load();
     }
   }
-  
+
   previousPage() {
-    if (this.currentPage > 1) {
-      this.currentPage--;
-      this.updatePagination();
+    if (this.cursors.length > 1) {
+      this.cursors.pop();
+      this.load();
     }
   }
-  
+
   clearFilters() {
     this.searchTerm = '';
     this.selectedRole = 'ALL';
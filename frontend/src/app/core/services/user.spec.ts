@@ -21,17 +21,29 @@ describe('UserService', () => {
     http.verify();
   });
 
-  it('should fetch all users', () => {
-    const mockUsers = [{ id: '1', username: 'admin' }];
+  it('should fetch one directory page with the filters as query params', () => {
+    const users = [{ id: '1', username: 'admin' }];
 
-    service.getAll().subscribe(res => {
-      expect(res).toEqual(mockUsers);
+    service.getPage({ role: 'ADMIN', active: false, q: 'ad' }, 'aaron', 10).subscribe(res => {
+      expect(res).toEqual({ users, nextCursor: 'admin' });
     });
 
-    const req = http.expectOne(`${environment.apiUrl}/admin/users`);
+    const req = http.expectOne(r => r.url === `${environment.apiUrl}/admin/users`);
     expect(req.request.method).toBe('GET');
+    expect(req.request.params.get('role')).toBe('ADMIN');
+    expect(req.request.params.get('active')).toBe('false');
+    expect(req.request.params.get('q')).toBe('ad');
+    expect(req.request.params.get('cursor')).toBe('aaron');
+    expect(req.request.params.get('limit')).toBe('10');
+    req.flush({ users, nextCursor: 'admin' });
+  });
+
+  it('should leave out filters that are not set', () => {
+    service.getPage().subscribe();
 
-    req.flush(mockUsers);
+    const req = http.expectOne(r => r.url === `${environment.apiUrl}/admin/users`);
+    expect(req.request.params.keys()).toEqual(['limit']);
+    req.flush({ users: [], nextCursor: null });
   });
 
   it('should create a new user', () => {
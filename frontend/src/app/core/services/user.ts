@@ -1,7 +1,19 @@
 import { HttpClient } from '@angular/common/http';
 import { Injectable } from '@angular/core';
+import { Observable } from 'rxjs';
 import { environment } from '../../../environments/environment';
 
+export interface UserDirectoryPage {
+  users: any[];
+  nextCursor: string | null;
+}
+
+export interface UserDirectoryFilter {
+  role?: string | null;
+  active?: boolean | null;
+  q?: string | null;
+}
+
 @Injectable({ providedIn: 'root' })
 export class UserService {
 
@@ -9,8 +21,25 @@ export class UserService {
 
   constructor(private http: HttpClient) {}
 
-  getAll() {
-    return this.http.get<any[]>(`${this.base}/admin/users`);
+  /**
+   * One page of the directory in username order, filtered on the server; `q` is a username prefix.
+   * Pass nextCursor back with the same filter for the next page.
+   */
+  getPage(filter: UserDirectoryFilter = {}, cursor?: string | null, limit = 50): Observable<UserDirectoryPage> {
+    const params: Record<string, string> = { limit: String(limit) };
+    if (filter.role) {
+      params['role'] = filter.role;
+    }
+    if (filter.active !== undefined && filter.active !== null) {
+      params['active'] = String(filter.active);
+    }
+    if (filter.q) {
+      params['q'] = filter.q;
+    }
+    if (cursor) {
+      params['cursor'] = cursor;
+    }
+    return this.http.get<UserDirectoryPage>(`${this.base}/admin/users`, { params });
   }
 
   create(payload: any) {